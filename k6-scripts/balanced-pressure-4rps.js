@@ -7,6 +7,9 @@ const errorRate = new Rate('errors');
 const responseTimeTrend = new Trend('response_time_trend');
 const memoryPressure = new Trend('memory_pressure');
 const latencyPressure = new Trend('latency_pressure');
+// Server-side cost per request, from the X-Request-Allocated-Bytes / X-Request-Cpu-Micros headers
+const requestAllocatedBytes = new Trend('request_allocated_bytes');
+const requestCpuMicros = new Trend('request_cpu_micros');
 
 export const options = {
     scenarios: {
@@ -154,6 +157,14 @@ export default function(data) {
     // Record metrics
     errorRate.add(!success);
     responseTimeTrend.add(response.timings.duration);
+    const allocatedBytes = response.headers['X-Request-Allocated-Bytes'];
+    const cpuMicros = response.headers['X-Request-Cpu-Micros'];
+    if (allocatedBytes !== undefined) {
+        requestAllocatedBytes.add(Number(allocatedBytes), { operation });
+    }
+    if (cpuMicros !== undefined) {
+        requestCpuMicros.add(Number(cpuMicros), { operation });
+    }
     
     // Small sleep for connection management
     sleep(0.05);
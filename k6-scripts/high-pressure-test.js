@@ -8,6 +8,9 @@ const responseTimeTrend = new Trend('response_time_trend');
 const memoryPressure = new Trend('memory_pressure');
 const latencyPressure = new Trend('latency_pressure');
 
+// DB_LATENCY_MODE=async uses the non-blocking variant that releases Tomcat threads during the delay
+const dbLatencyPath = __ENV.DB_LATENCY_MODE === 'async' ? '/api/load-test/db-latency/async' : '/api/load-test/db-latency';
+
 export const options = {
     scenarios: {
         high_pressure_test: {
@@ -109,7 +112,7 @@ export default function(data) {
         () => {
             const delayMs = Math.floor(Math.random() * 1500) + 500; // 500-2000ms (REALISTIC DB DELAYS)
             const count = Math.floor(Math.random() * 100) + 50; // 50-150 objects
-            const response = http.get(`${baseUrl}/api/load-test/db-latency?delayMs=${delayMs}&count=${count}`);
+            const response = http.get(`${baseUrl}${dbLatencyPath}?delayMs=${delayMs}&count=${count}`);
             memoryPressure.add(5); // Medium memory
             latencyPressure.add(delayMs); // High latency pressure
             return { response, operation: 'db_latency' };
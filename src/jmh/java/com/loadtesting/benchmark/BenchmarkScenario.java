@@ -0,0 +1,34 @@
+package com.loadtesting.benchmark;
+
+import java.util.Locale;
+
+/**
+ * Employee count and string size of the memory scenarios in application.properties,
+ * used as the {@code scenario} parameter of every benchmark
+ */
+enum BenchmarkScenario {
+    LIGHT(50, 512),
+    MEDIUM(200, 2048),
+    HEAVY(500, 8192),
+    EXTREME(1000, 16384);
+
+    private final int count;
+    private final int stringSize;
+
+    BenchmarkScenario(int count, int stringSize) {
+        this.count = count;
+        this.stringSize = stringSize;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    int getStringSize() {
+        return stringSize;
+    }
+
+    static BenchmarkScenario of(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,80 @@
+package com.loadtesting.benchmark;
+
+import com.loadtesting.config.EmployeeDataProperties;
+import com.loadtesting.model.Employee;
+import com.loadtesting.service.AlphanumericPool;
+import com.loadtesting.service.EmployeeDataService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating a scenario's employees, sequentially and split across cores, and of the
+ * configurable-data string on its own. Allocation per operation ({@code gc.alloc.rate.norm})
+ * comes from the GC profiler the jmh profile enables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeGenerationBenchmark {
+
+    @Param({"light", "medium", "heavy", "extreme"})
+    private String scenario;
+
+    private EmployeeDataService employeeDataService;
+    private SplittableRandom random;
+    private int count;
+    private int stringSize;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkScenario resolved = BenchmarkScenario.of(scenario);
+        count = resolved.getCount();
+        stringSize = resolved.getStringSize();
+        employeeDataService = new EmployeeDataService(new EmployeeDataProperties());
+        random = new SplittableRandom(42L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        employeeDataService.shutdown();
+    }
+
+    @Benchmark
+    public List<Employee> generateEmployees() {
+        return employeeDataService.generateEmployees(count, stringSize);
+    }
+
+    @Benchmark
+    public List<Employee> generateEmployeesSeeded() {
+        return employeeDataService.generateEmployees(count, stringSize, 42L);
+    }
+
+    @Benchmark
+    public List<Employee> generateEmployeesParallel() {
+        return employeeDataService.generateEmployees(count, stringSize, 42L,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    @Benchmark
+    public String generateConfigurableString() {
+        return AlphanumericPool.generate(random, stringSize);
+    }
+}
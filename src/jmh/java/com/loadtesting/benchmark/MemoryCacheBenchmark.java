@@ -0,0 +1,104 @@
+package com.loadtesting.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loadtesting.config.EmployeeDataProperties;
+import com.loadtesting.config.MemorySimulationProperties;
+import com.loadtesting.service.EmployeeDataService;
+import com.loadtesting.service.EmployeeStreamWriter;
+import com.loadtesting.service.ExecutionModeService;
+import com.loadtesting.service.MemorySimulationService;
+import com.loadtesting.service.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory cache hot paths: generating and caching a scenario under a rotating set of keys
+ * (so puts replace entries and the byte budget stays bounded), reading the cache info and
+ * listing entry sizes with the cache populated
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemoryCacheBenchmark {
+
+    private static final int KEYS = 8;
+
+    @Param({"light", "medium", "heavy", "extreme"})
+    private String scenario;
+
+    @Param({"objects", "columnar"})
+    private String representation;
+
+    private MemorySimulationService memorySimulationService;
+    private ExecutionModeService executionModeService;
+    private EmployeeDataService employeeDataService;
+    private MemorySimulationService.Representation cacheRepresentation;
+    private int count;
+    private int stringSize;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkScenario resolved = BenchmarkScenario.of(scenario);
+        count = resolved.getCount();
+        stringSize = resolved.getStringSize();
+        cacheRepresentation = MemorySimulationService.Representation.fromParameter(representation);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        employeeDataService = new EmployeeDataService(new EmployeeDataProperties());
+        executionModeService = new ExecutionModeService(new MockEnvironment(), meterRegistry);
+        memorySimulationService = new MemorySimulationService(employeeDataService,
+                new EmployeeStreamWriter(new ObjectMapper().findAndRegisterModules(), new PipelineMetrics(meterRegistry)),
+                new MemorySimulationProperties(), executionModeService, meterRegistry);
+        for (int i = 0; i < KEYS; i++) {
+            put();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        memorySimulationService.shutdown();
+        executionModeService.shutdown();
+        employeeDataService.shutdown();
+    }
+
+    @Benchmark
+    public String generateAndCache() {
+        return put();
+    }
+
+    @Benchmark
+    public MemorySimulationService.MemoryCacheInfo cacheInfo() {
+        return memorySimulationService.getCacheInfo();
+    }
+
+    @Benchmark
+    public Map<String, Long> entrySizes() {
+        return memorySimulationService.getEntrySizes();
+    }
+
+    private String put() {
+        String key = "benchmark-" + (next++ % KEYS);
+        return memorySimulationService.generateAndCache(key, count, stringSize, cacheRepresentation,
+                MemorySimulationService.StorageMode.HEAP);
+    }
+}
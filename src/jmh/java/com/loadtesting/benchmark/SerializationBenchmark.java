@@ -0,0 +1,97 @@
+package com.loadtesting.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.loadtesting.config.EmployeeDataProperties;
+import com.loadtesting.model.Employee;
+import com.loadtesting.service.EmployeeDataService;
+import com.loadtesting.service.EmployeeStreamWriter;
+import com.loadtesting.service.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a pre-generated scenario: the whole list into one byte array, as the
+ * list endpoints and the payload cache do, and streamed employee by employee, as the /stream
+ * endpoints do
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"light", "medium", "heavy", "extreme"})
+    private String scenario;
+
+    private ObjectMapper objectMapper;
+    private EmployeeStreamWriter streamWriter;
+    private List<Employee> employees;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkScenario resolved = BenchmarkScenario.of(scenario);
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        streamWriter = new EmployeeStreamWriter(objectMapper, new PipelineMetrics(new SimpleMeterRegistry()));
+        EmployeeDataService employeeDataService = new EmployeeDataService(new EmployeeDataProperties());
+        employees = employeeDataService.generateEmployees(resolved.getCount(), resolved.getStringSize(), 42L);
+        employeeDataService.shutdown();
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws IOException {
+        return objectMapper.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public void streamJson(Blackhole blackhole) throws IOException {
+        streamWriter.write(employees.stream(), EmployeeStreamWriter.Format.JSON, new BlackholeOutputStream(blackhole));
+    }
+
+    @Benchmark
+    public void streamNdjson(Blackhole blackhole) throws IOException {
+        streamWriter.write(employees.stream(), EmployeeStreamWriter.Format.NDJSON, new BlackholeOutputStream(blackhole));
+    }
+
+    /**
+     * Discards the bytes without letting the JIT drop the writes
+     */
+    private static final class BlackholeOutputStream extends OutputStream {
+        private final Blackhole blackhole;
+
+        BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+}
@@ -35,6 +35,26 @@ public class EmployeeDataProperties {
      */
     private int minStringSize = 10;
     
+    /**
+     * Default number of parallel splits used to generate a batch (1 = sequential)
+     */
+    private int parallelism = 1;
+    
+    /**
+     * Minimum number of employees in a batch before generation is split across threads
+     */
+    private int parallelThreshold = 256;
+    
+    /**
+     * Size of the dedicated generation ForkJoinPool (0 = use the common pool)
+     */
+    private int parallelPoolSize = 0;
+    
+    /**
+     * Serialized-payload cache used by the /cached endpoints
+     */
+    private PayloadCache payloadCache = new PayloadCache();
+    
     public int getDefaultCount() {
         return defaultCount;
     }
@@ -74,4 +94,51 @@ public class EmployeeDataProperties {
     public void setMinStringSize(int minStringSize) {
         this.minStringSize = minStringSize;
     }
+    
+    public int getParallelism() {
+        return parallelism;
+    }
+    
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+    
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+    
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+    
+    public int getParallelPoolSize() {
+        return parallelPoolSize;
+    }
+    
+    public void setParallelPoolSize(int parallelPoolSize) {
+        this.parallelPoolSize = parallelPoolSize;
+    }
+    
+    public PayloadCache getPayloadCache() {
+        return payloadCache;
+    }
+    
+    public void setPayloadCache(PayloadCache payloadCache) {
+        this.payloadCache = payloadCache;
+    }
+    
+    public static class PayloadCache {
+        /**
+         * Maximum total size of cached response bodies in bytes (0 disables caching)
+         */
+        private long maxBytes = 256L * 1024 * 1024;
+        
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+        
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+    }
 }
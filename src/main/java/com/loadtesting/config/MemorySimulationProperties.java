@@ -13,6 +13,10 @@ public class MemorySimulationProperties {
     
     private Simulation simulation = new Simulation();
     private Stress stress = new Stress();
+    private OffHeap offHeap = new OffHeap();
+    private Cache cache = new Cache();
+    private FlightRecorder flightRecorder = new FlightRecorder();
+    private Churn churn = new Churn();
     
     public Simulation getSimulation() {
         return simulation;
@@ -30,6 +34,38 @@ public class MemorySimulationProperties {
         this.stress = stress;
     }
     
+    public OffHeap getOffHeap() {
+        return offHeap;
+    }
+    
+    public void setOffHeap(OffHeap offHeap) {
+        this.offHeap = offHeap;
+    }
+    
+    public Cache getCache() {
+        return cache;
+    }
+    
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+    
+    public FlightRecorder getFlightRecorder() {
+        return flightRecorder;
+    }
+    
+    public void setFlightRecorder(FlightRecorder flightRecorder) {
+        this.flightRecorder = flightRecorder;
+    }
+    
+    public Churn getChurn() {
+        return churn;
+    }
+    
+    public void setChurn(Churn churn) {
+        this.churn = churn;
+    }
+    
     public static class Simulation {
         private boolean enabled = true;
         private Map<String, Scenario> scenarios = new HashMap<>();
@@ -54,6 +90,8 @@ public class MemorySimulationProperties {
     public static class Scenario {
         private int count;
         private int stringSize;
+        private Sizes sizes = new Sizes();
+        private int chunkSize;
         
         public int getCount() {
             return count;
@@ -70,6 +108,107 @@ public class MemorySimulationProperties {
         public void setStringSize(int stringSize) {
             this.stringSize = stringSize;
         }
+        
+        public Sizes getSizes() {
+            return sizes;
+        }
+        
+        public void setSizes(Sizes sizes) {
+            this.sizes = sizes;
+        }
+        
+        /**
+         * Split each payload into strings of at most this many characters; 0 keeps one string
+         */
+        public int getChunkSize() {
+            return chunkSize;
+        }
+        
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+    
+    /**
+     * Distribution of a scenario's payload sizes around its string size:
+     * fixed, uniform (min-size to max-size), log-normal (median string-size, spread sigma),
+     * bimodal (large-size for large-ratio of the payloads) or humongous (humongous-ratio of the
+     * payloads spanning humongous-regions G1 regions, more than 0.5). Sizes other than the humongous
+     * ones are clamped to app.employee.max-string-size.
+     */
+    public static class Sizes {
+        private String type = "fixed";
+        private int minSize;
+        private int maxSize;
+        private double sigma = 1.0;
+        private int largeSize;
+        private double largeRatio = 0.1;
+        private double humongousRatio = 0.05;
+        private double humongousRegions = 1.25;
+        
+        public String getType() {
+            return type;
+        }
+        
+        public void setType(String type) {
+            this.type = type;
+        }
+        
+        public int getMinSize() {
+            return minSize;
+        }
+        
+        public void setMinSize(int minSize) {
+            this.minSize = minSize;
+        }
+        
+        public int getMaxSize() {
+            return maxSize;
+        }
+        
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+        
+        public double getSigma() {
+            return sigma;
+        }
+        
+        public void setSigma(double sigma) {
+            this.sigma = sigma;
+        }
+        
+        public int getLargeSize() {
+            return largeSize;
+        }
+        
+        public void setLargeSize(int largeSize) {
+            this.largeSize = largeSize;
+        }
+        
+        public double getLargeRatio() {
+            return largeRatio;
+        }
+        
+        public void setLargeRatio(double largeRatio) {
+            this.largeRatio = largeRatio;
+        }
+        
+        public double getHumongousRatio() {
+            return humongousRatio;
+        }
+        
+        public void setHumongousRatio(double humongousRatio) {
+            this.humongousRatio = humongousRatio;
+        }
+        
+        public double getHumongousRegions() {
+            return humongousRegions;
+        }
+        
+        public void setHumongousRegions(double humongousRegions) {
+            this.humongousRegions = humongousRegions;
+        }
     }
     
     public static class Stress {
@@ -101,4 +240,184 @@ public class MemorySimulationProperties {
             this.gcFrequencySeconds = gcFrequencySeconds;
         }
     }
+    
+    public static class OffHeap {
+        private int segmentSizeBytes = 1024 * 1024;
+        private String mappedDirectory = System.getProperty("java.io.tmpdir");
+        
+        public int getSegmentSizeBytes() {
+            return segmentSizeBytes;
+        }
+        
+        public void setSegmentSizeBytes(int segmentSizeBytes) {
+            this.segmentSizeBytes = segmentSizeBytes;
+        }
+        
+        public String getMappedDirectory() {
+            return mappedDirectory;
+        }
+        
+        public void setMappedDirectory(String mappedDirectory) {
+            this.mappedDirectory = mappedDirectory;
+        }
+    }
+    
+    public static class Cache {
+        private long maxBytes = 512L * 1024 * 1024;
+        private int maxEntries = 10_000;
+        private long tickMillis = 1000;
+        private int wheelSize = 512;
+        
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+        
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+        
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+        
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+        
+        public long getTickMillis() {
+            return tickMillis;
+        }
+        
+        public void setTickMillis(long tickMillis) {
+            this.tickMillis = tickMillis;
+        }
+        
+        public int getWheelSize() {
+            return wheelSize;
+        }
+        
+        public void setWheelSize(int wheelSize) {
+            this.wheelSize = wheelSize;
+        }
+    }
+    
+    /**
+     * Defaults for recordings started through /api/jfr
+     */
+    public static class FlightRecorder {
+        private String directory = System.getProperty("java.io.tmpdir");
+        private int maxAgeSeconds = 900;
+        private long maxSizeBytes = 256L * 1024 * 1024;
+        
+        public String getDirectory() {
+            return directory;
+        }
+        
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+        
+        public int getMaxAgeSeconds() {
+            return maxAgeSeconds;
+        }
+        
+        public void setMaxAgeSeconds(int maxAgeSeconds) {
+            this.maxAgeSeconds = maxAgeSeconds;
+        }
+        
+        public long getMaxSizeBytes() {
+            return maxSizeBytes;
+        }
+        
+        public void setMaxSizeBytes(long maxSizeBytes) {
+            this.maxSizeBytes = maxSizeBytes;
+        }
+    }
+    
+    /**
+     * Background allocation churn started with the application; see /api/memory/churn
+     */
+    public static class Churn {
+        private boolean enabled = false;
+        private double rateMbPerSecond = 100;
+        private int threads = 2;
+        private int objectSizeBytes = 1024;
+        private double survivorRatio = 0.1;
+        private int survivorGcs = 2;
+        private double tenuredRatio = 0.01;
+        private int tenuredSeconds = 60;
+        private long maxRetainedBytes = 128L * 1024 * 1024;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public double getRateMbPerSecond() {
+            return rateMbPerSecond;
+        }
+        
+        public void setRateMbPerSecond(double rateMbPerSecond) {
+            this.rateMbPerSecond = rateMbPerSecond;
+        }
+        
+        public int getThreads() {
+            return threads;
+        }
+        
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+        
+        public int getObjectSizeBytes() {
+            return objectSizeBytes;
+        }
+        
+        public void setObjectSizeBytes(int objectSizeBytes) {
+            this.objectSizeBytes = objectSizeBytes;
+        }
+        
+        public double getSurvivorRatio() {
+            return survivorRatio;
+        }
+        
+        public void setSurvivorRatio(double survivorRatio) {
+            this.survivorRatio = survivorRatio;
+        }
+        
+        public int getSurvivorGcs() {
+            return survivorGcs;
+        }
+        
+        public void setSurvivorGcs(int survivorGcs) {
+            this.survivorGcs = survivorGcs;
+        }
+        
+        public double getTenuredRatio() {
+            return tenuredRatio;
+        }
+        
+        public void setTenuredRatio(double tenuredRatio) {
+            this.tenuredRatio = tenuredRatio;
+        }
+        
+        public int getTenuredSeconds() {
+            return tenuredSeconds;
+        }
+        
+        public void setTenuredSeconds(int tenuredSeconds) {
+            this.tenuredSeconds = tenuredSeconds;
+        }
+        
+        public long getMaxRetainedBytes() {
+            return maxRetainedBytes;
+        }
+        
+        public void setMaxRetainedBytes(long maxRetainedBytes) {
+            this.maxRetainedBytes = maxRetainedBytes;
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package com.loadtesting.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loadtesting.model.Employee;
+import com.loadtesting.service.FlightRecorderEvents;
+import com.loadtesting.service.PipelineMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Phase metrics for the list endpoints, whose JSON is written by Spring MVC after the handler
+ * returns. The handler's duration is recorded as the generate phase; the Jackson converter then
+ * splits the rest of the response into serialize and write time and emits the JFR serialization
+ * event. Streaming and cached endpoints record their phases in
+ * {@link com.loadtesting.service.EmployeeStreamWriter}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PipelineMetricsConfiguration implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                request.setAttribute(PipelineMetrics.HANDLER_START_ATTRIBUTE, System.nanoTime());
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Replaces Spring Boot's default Jackson converter with one that meters employee responses
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   PipelineMetrics pipelineMetrics) {
+        return new MeteredJacksonConverter(objectMapper, pipelineMetrics);
+    }
+
+    static class MeteredJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+        private final PipelineMetrics pipelineMetrics;
+
+        MeteredJacksonConverter(ObjectMapper objectMapper, PipelineMetrics pipelineMetrics) {
+            super(objectMapper);
+            this.pipelineMetrics = pipelineMetrics;
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            long employees = employeeCount(object);
+            if (employees < 0) {
+                super.writeInternal(object, type, outputMessage);
+                return;
+            }
+
+            long generateNanos = pipelineMetrics.handlerElapsedNanos();
+            PipelineMetrics.MeteredOutputStream body = new PipelineMetrics.MeteredOutputStream(outputMessage.getBody());
+            FlightRecorderEvents.SerializationEvent event = new FlightRecorderEvents.SerializationEvent();
+            event.begin();
+            long start = System.nanoTime();
+            super.writeInternal(object, type, new HttpOutputMessage() {
+                @Override
+                public OutputStream getBody() {
+                    return body;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return outputMessage.getHeaders();
+                }
+            });
+            long serializeNanos = System.nanoTime() - start - body.getWriteNanos();
+            String endpoint = pipelineMetrics.currentEndpoint();
+            pipelineMetrics.record(endpoint, generateNanos, serializeNanos, body.getWriteNanos(), body.getBytes(), employees);
+            event.commit(endpoint, "json", employees, body.getBytes());
+        }
+
+        /**
+         * Number of employees in the body, or -1 if it is not an employee response
+         */
+        private static long employeeCount(Object object) {
+            if (object instanceof Employee) {
+                return 1;
+            }
+            if (object instanceof Collection<?> collection && !collection.isEmpty()
+                    && collection.iterator().next() instanceof Employee) {
+                return collection.size();
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.loadtesting.config;
+
+import com.loadtesting.service.RequestCost;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request heap allocation and CPU time, sampled from the request thread's ThreadMXBean counters
+ * (plus the worker thread of streaming bodies and the pool threads of fan-out work, see {@link RequestCost}).
+ *
+ * The full cost of every request is recorded as {@code request.allocated{endpoint}} (bytes) and
+ * {@code request.cpu{endpoint}}, so per-endpoint cost can be multiplied by target RPS for sizing.
+ * The same figures are returned in the {@code X-Request-Allocated-Bytes} and
+ * {@code X-Request-Cpu-Micros} headers. Headers must be sent before the body, so they hold the cost
+ * up to the first body write: the whole request for responses that are serialized in one go, the
+ * handler plus the first serialized chunk for large or streamed ones.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RequestCostFilter extends OncePerRequestFilter {
+
+    public static final String ALLOCATED_BYTES_HEADER = "X-Request-Allocated-Bytes";
+    public static final String CPU_MICROS_HEADER = "X-Request-Cpu-Micros";
+
+    private static final String UNKNOWN_ENDPOINT = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestCostFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestCost cost = new RequestCost();
+        request.setAttribute(RequestCost.ATTRIBUTE, cost);
+        RequestCost.ThreadSample start = RequestCost.sampleThread();
+        CostHeaderResponse costResponse = new CostHeaderResponse(response, cost, start);
+
+        try {
+            filterChain.doFilter(request, costResponse);
+        } finally {
+            costResponse.writeHeaders();
+            cost.add(start);
+            if (request.isAsyncStarted()) {
+                // Streaming bodies and deferred results finish on other threads
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, cost);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, cost);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestCost cost) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern != null ? pattern.toString() : UNKNOWN_ENDPOINT;
+        if (RequestCost.isAllocationSupported()) {
+            DistributionSummary.builder("request.allocated")
+                    .description("Heap bytes allocated while handling a request")
+                    .baseUnit("bytes")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .record(cost.getAllocatedBytes());
+        }
+        if (RequestCost.isCpuTimeSupported()) {
+            Timer.builder("request.cpu")
+                    .description("CPU time consumed while handling a request")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .record(cost.getCpuNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Adds the cost headers just before the first body byte, while headers can still be set
+     */
+    private static final class CostHeaderResponse extends HttpServletResponseWrapper {
+        private final RequestCost cost;
+        private final RequestCost.ThreadSample start;
+        private boolean headersWritten;
+        private ServletOutputStream outputStream;
+
+        CostHeaderResponse(HttpServletResponse response, RequestCost cost, RequestCost.ThreadSample start) {
+            super(response);
+            this.cost = cost;
+            this.start = start;
+        }
+
+        void writeHeaders() {
+            if (headersWritten || isCommitted()) {
+                return;
+            }
+            headersWritten = true;
+            RequestCost.ThreadSample now = RequestCost.sampleThread();
+            if (RequestCost.isAllocationSupported()) {
+                setHeader(ALLOCATED_BYTES_HEADER, Long.toString(
+                        cost.getAllocatedBytes() + now.getAllocatedBytes() - start.getAllocatedBytes()));
+            }
+            if (RequestCost.isCpuTimeSupported()) {
+                setHeader(CPU_MICROS_HEADER, Long.toString(TimeUnit.NANOSECONDS.toMicros(
+                        cost.getCpuNanos() + now.getCpuNanos() - start.getCpuNanos())));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new HeaderWritingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            // Writers are only used for small text bodies here, so the headers can go out now
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        private final class HeaderWritingOutputStream extends ServletOutputStream {
+            private final ServletOutputStream delegate;
+
+            HeaderWritingOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                writeHeaders();
+                delegate.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writeHeaders();
+                delegate.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writeHeaders();
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writeHeaders();
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                delegate.setWriteListener(writeListener);
+            }
+        }
+    }
+}
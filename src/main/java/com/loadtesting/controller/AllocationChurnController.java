@@ -0,0 +1,61 @@
+package com.loadtesting.controller;
+
+import com.loadtesting.service.AllocationChurnService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static com.loadtesting.controller.BlockingCalls.blocking;
+
+/**
+ * REST controller for background allocation churn at a target rate.
+ *
+ * POST /api/memory/churn  {"rateMbPerSecond": 500, "threads": 4, "survivorRatio": 0.1, "tenuredRatio": 0.01}
+ * GET  /api/memory/churn  (achieved rate, retained bytes and GC time since the start)
+ * POST /api/memory/churn/stop
+ */
+@RestController
+@RequestMapping("/api/memory/churn")
+public class AllocationChurnController {
+
+    private final AllocationChurnService allocationChurnService;
+
+    public AllocationChurnController(AllocationChurnService allocationChurnService) {
+        this.allocationChurnService = allocationChurnService;
+    }
+
+    /**
+     * Start churning, or change the profile of the running churn
+     * POST /api/memory/churn
+     */
+    @PostMapping
+    public Mono<ResponseEntity<?>> start(@RequestBody AllocationChurnService.ChurnProfile profile) {
+        return blocking(() -> {
+            try {
+                return ResponseEntity.ok(allocationChurnService.start(profile));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Achieved allocation rate and GC impact
+     * GET /api/memory/churn
+     */
+    @GetMapping
+    public ResponseEntity<AllocationChurnService.ChurnStatus> getStatus() {
+        return ResponseEntity.ok(allocationChurnService.getStatus());
+    }
+
+    /**
+     * Stop churning; the returned status covers the whole run
+     * POST /api/memory/churn/stop
+     */
+    @PostMapping("/stop")
+    public Mono<ResponseEntity<AllocationChurnService.ChurnStatus>> stop() {
+        return blocking(() -> ResponseEntity.ok(allocationChurnService.stop()));
+    }
+}
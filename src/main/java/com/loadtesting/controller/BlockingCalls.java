@@ -0,0 +1,22 @@
+package com.loadtesting.controller;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Blocking controller work (joining threads, file I/O, diagnostic commands) wrapped in a Mono on
+ * the bounded elastic scheduler, so it never runs on a WebFlux event loop thread. Spring MVC
+ * handles the same Mono as an asynchronous result, which lets a controller built only from types
+ * shared by both stacks serve either of them.
+ */
+public final class BlockingCalls {
+
+    private BlockingCalls() {
+    }
+
+    public static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
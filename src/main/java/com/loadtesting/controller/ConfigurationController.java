@@ -1,6 +1,7 @@
 package com.loadtesting.controller;
 
 import com.loadtesting.config.EmployeeDataProperties;
+import com.loadtesting.service.ExecutionModeService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,9 +17,11 @@ import java.util.Map;
 public class ConfigurationController {
     
     private final EmployeeDataProperties properties;
+    private final ExecutionModeService executionModeService;
     
-    public ConfigurationController(EmployeeDataProperties properties) {
+    public ConfigurationController(EmployeeDataProperties properties, ExecutionModeService executionModeService) {
         this.properties = properties;
+        this.executionModeService = executionModeService;
     }
     
     /**
@@ -33,10 +36,23 @@ public class ConfigurationController {
         config.put("defaultStringSize", properties.getDefaultStringSize());
         config.put("maxStringSize", properties.getMaxStringSize());
         config.put("minStringSize", properties.getMinStringSize());
+        config.put("parallelism", properties.getParallelism());
+        config.put("parallelThreshold", properties.getParallelThreshold());
+        config.put("parallelPoolSize", properties.getParallelPoolSize());
         
         return ResponseEntity.ok(config);
     }
     
+    /**
+     * Get the request execution mode (platform or virtual threads), thread counts,
+     * reserved stack memory and virtual-thread pinning events
+     * GET /api/config/execution
+     */
+    @GetMapping("/execution")
+    public ResponseEntity<ExecutionModeService.ExecutionModeInfo> getExecutionMode() {
+        return ResponseEntity.ok(executionModeService.getInfo());
+    }
+    
     /**
      * Get memory configuration limits
      * GET /api/config/memory
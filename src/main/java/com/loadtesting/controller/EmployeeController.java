@@ -2,11 +2,13 @@ package com.loadtesting.controller;
 
 import com.loadtesting.model.Employee;
 import com.loadtesting.service.EmployeeDataService;
+import com.loadtesting.service.EmployeeStreamWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * REST controller for employee data endpoints.
@@ -14,13 +16,16 @@ import java.util.stream.Collectors;
  * for load testing and resource sizing purposes.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(value = "/api/employees", produces = "application/json")
 public class EmployeeController {
     
     private final EmployeeDataService employeeDataService;
+    private final EmployeeStreamWriter employeeStreamWriter;
     
-    public EmployeeController(EmployeeDataService employeeDataService) {
+    public EmployeeController(EmployeeDataService employeeDataService, EmployeeStreamWriter employeeStreamWriter) {
         this.employeeDataService = employeeDataService;
+        this.employeeStreamWriter = employeeStreamWriter;
     }
     
     /**
@@ -28,33 +33,66 @@ public class EmployeeController {
      * GET /api/employees
      */
     @GetMapping
-    public ResponseEntity<List<Employee>> getAllEmployees() {
-        List<Employee> employees = employeeDataService.generateEmployees();
+    public ResponseEntity<List<Employee>> getAllEmployees(@RequestParam(required = false) Long seed) {
+        List<Employee> employees = employeeDataService.generateEmployees(
+                employeeDataService.getDefaultCount(), employeeDataService.getDefaultStringSize(), seed);
         return ResponseEntity.ok(employees);
     }
     
     /**
      * Get employees with specified count
      * GET /api/employees?count=50
+     * All list endpoints accept an optional seed (e.g. &seed=42) for byte-identical payloads
      */
     @GetMapping(params = "count")
-    public ResponseEntity<List<Employee>> getEmployeesByCount(@RequestParam int count) {
-        List<Employee> employees = employeeDataService.generateEmployees(count);
+    public ResponseEntity<List<Employee>> getEmployeesByCount(
+            @RequestParam int count,
+            @RequestParam(required = false) Long seed) {
+        List<Employee> employees = employeeDataService.generateEmployees(
+                count, employeeDataService.getDefaultStringSize(), seed);
         return ResponseEntity.ok(employees);
     }
     
     /**
      * Get employees with specified count and memory size
      * GET /api/employees?count=50&memorySize=2048
+     * Large batches can be generated in parallel with &parallelism=4
      */
     @GetMapping(params = {"count", "memorySize"})
     public ResponseEntity<List<Employee>> getEmployeesWithMemorySize(
             @RequestParam int count, 
-            @RequestParam int memorySize) {
-        List<Employee> employees = employeeDataService.generateEmployees(count, memorySize);
+            @RequestParam int memorySize,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) Integer parallelism) {
+        List<Employee> employees = employeeDataService.generateEmployees(count, memorySize, seed, parallelism);
         return ResponseEntity.ok(employees);
     }
     
+    /**
+     * Stream employees as they are generated instead of building the full list first
+     * GET /api/employees/stream?count=1000&memorySize=1048576&format=ndjson
+     */
+    @GetMapping(value = "/stream", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> streamEmployees(
+            @RequestParam(required = false) Integer count,
+            @RequestParam(required = false) Integer memorySize,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        EmployeeStreamWriter.Format streamFormat;
+        try {
+            streamFormat = EmployeeStreamWriter.Format.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int resolvedCount = count != null ? count : employeeDataService.getDefaultCount();
+        int resolvedMemorySize = memorySize != null ? memorySize : employeeDataService.getDefaultStringSize();
+        
+        return ResponseEntity.ok()
+                .contentType(streamFormat.getMediaType())
+                .body(employeeStreamWriter.stream(
+                        employeeDataService.streamEmployees(resolvedCount, resolvedMemorySize, seed), streamFormat));
+    }
+    
     /**
      * Get a single employee by ID
      * GET /api/employees/1
@@ -62,28 +100,32 @@ public class EmployeeController {
     @GetMapping("/{id}")
     public ResponseEntity<Employee> getEmployeeById(
             @PathVariable Long id,
-            @RequestParam(defaultValue = "1024") int memorySize) {
-        Employee employee = employeeDataService.generateSingleEmployee(id, memorySize);
+            @RequestParam(defaultValue = "1024") int memorySize,
+            @RequestParam(required = false) Long seed) {
+        Employee employee = employeeDataService.generateSingleEmployee(id, memorySize, seed);
         return ResponseEntity.ok(employee);
     }
     
     /**
      * Get employees filtered by department
-     * GET /api/employees/department/Engineering
+     * GET /api/employees/department/Engineering?count=100&exact=true
      */
     @GetMapping("/department/{department}")
     public ResponseEntity<List<Employee>> getEmployeesByDepartment(
             @PathVariable String department,
             @RequestParam(defaultValue = "100") int count,
-            @RequestParam(defaultValue = "1024") int memorySize) {
-        List<Employee> employees = employeeDataService.generateEmployees(count, memorySize);
+            @RequestParam(defaultValue = "1024") int memorySize,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(defaultValue = "false") boolean exact) {
+        EmployeeDataService.AttributeFilter filter = EmployeeDataService.AttributeFilter.department(department);
         
-        // Filter by department (case-insensitive)
-        List<Employee> filteredEmployees = employees.stream()
-                .filter(emp -> emp.getDepartment().equalsIgnoreCase(department))
-                .collect(Collectors.toList());
+        // The department filter (case-insensitive) is applied during generation, so non-matching
+        // employees are never built. exact=true returns count matches instead of sampling count candidates.
+        List<Employee> employees = exact
+                ? employeeDataService.generateEmployeesWithAttributes(count, memorySize, seed, filter)
+                : employeeDataService.generateFilteredEmployees(count, memorySize, seed, filter);
         
-        return ResponseEntity.ok(filteredEmployees);
+        return ResponseEntity.ok(employees);
     }
     
     /**
@@ -94,15 +136,18 @@ public class EmployeeController {
     public ResponseEntity<List<Employee>> getEmployeesByPosition(
             @PathVariable String position,
             @RequestParam(defaultValue = "100") int count,
-            @RequestParam(defaultValue = "1024") int memorySize) {
-        List<Employee> employees = employeeDataService.generateEmployees(count, memorySize);
+            @RequestParam(defaultValue = "1024") int memorySize,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(defaultValue = "false") boolean exact) {
+        EmployeeDataService.AttributeFilter filter = EmployeeDataService.AttributeFilter.position(position);
         
-        // Filter by position (case-insensitive)
-        List<Employee> filteredEmployees = employees.stream()
-                .filter(emp -> emp.getPosition().equalsIgnoreCase(position))
-                .collect(Collectors.toList());
+        // The position filter (case-insensitive) is applied during generation, so non-matching
+        // employees are never built. exact=true returns count matches instead of sampling count candidates.
+        List<Employee> employees = exact
+                ? employeeDataService.generateEmployeesWithAttributes(count, memorySize, seed, filter)
+                : employeeDataService.generateFilteredEmployees(count, memorySize, seed, filter);
         
-        return ResponseEntity.ok(filteredEmployees);
+        return ResponseEntity.ok(employees);
     }
     
     /**
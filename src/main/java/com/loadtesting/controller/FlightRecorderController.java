@@ -0,0 +1,106 @@
+package com.loadtesting.controller;
+
+import com.loadtesting.service.FlightRecorderService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.loadtesting.controller.BlockingCalls.blocking;
+
+/**
+ * REST controller for Java Flight Recorder recordings of the running service.
+ *
+ * Typical run:
+ * POST /api/jfr/recordings?name=sizing-run&settings=profile
+ * ... load test ...
+ * POST /api/jfr/recordings/sizing-run/stop
+ * GET  /api/jfr/recordings/sizing-run/dump  (then open the .jfr file in JDK Mission Control)
+ */
+@RestController
+@RequestMapping("/api/jfr")
+public class FlightRecorderController {
+
+    private final FlightRecorderService flightRecorderService;
+
+    public FlightRecorderController(FlightRecorderService flightRecorderService) {
+        this.flightRecorderService = flightRecorderService;
+    }
+
+    /**
+     * List active recordings and the available settings profiles
+     * GET /api/jfr/recordings
+     */
+    @GetMapping("/recordings")
+    public ResponseEntity<Map<String, Object>> listRecordings() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("available", flightRecorderService.isAvailable());
+        response.put("settings", flightRecorderService.availableSettings());
+        response.put("recordings", flightRecorderService.list());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Start a recording (settings: default or profile); with durationSeconds it stops by itself
+     * POST /api/jfr/recordings?name=sizing-run&settings=profile&durationSeconds=120
+     */
+    @PostMapping("/recordings")
+    public Mono<ResponseEntity<?>> startRecording(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "default") String settings,
+            @RequestParam(required = false) Long durationSeconds) {
+        return blocking(() -> {
+            try {
+                Duration duration = durationSeconds != null && durationSeconds > 0 ? Duration.ofSeconds(durationSeconds) : null;
+                return ResponseEntity.ok(flightRecorderService.start(name, settings, duration));
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Stop a recording and write it to the dump directory
+     * POST /api/jfr/recordings/sizing-run/stop
+     */
+    @PostMapping("/recordings/{name}/stop")
+    public Mono<ResponseEntity<?>> stopRecording(@PathVariable String name) {
+        return blocking(() -> {
+            try {
+                return ResponseEntity.ok(flightRecorderService.stop(name));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.notFound().build();
+            }
+        });
+    }
+
+    /**
+     * Download a recording: a snapshot if it is still running, the final dump once stopped
+     * GET /api/jfr/recordings/sizing-run/dump
+     */
+    @GetMapping("/recordings/{name}/dump")
+    public Mono<ResponseEntity<Resource>> dumpRecording(@PathVariable String name) {
+        return blocking(() -> {
+            Path path;
+            try {
+                path = flightRecorderService.dump(name);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(path.getFileName().toString()).build().toString())
+                    .body(new FileSystemResource(path));
+        });
+    }
+}
@@ -0,0 +1,126 @@
+package com.loadtesting.controller;
+
+import com.loadtesting.service.CapacitySearchService;
+import com.loadtesting.service.LoadDriverService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for the built-in open-loop load driver.
+ *
+ * POST /api/load/runs  {"targets": [{"path": "/api/employees?count=100"}], "rate": 20, "durationSeconds": 60}
+ * GET  /api/load/runs/{id}  (state, and the report once the run is done)
+ * POST /api/load/capacity  {"targets": [{"path": "/api/employees?count=100"}], "p95Ms": 500, "p99Ms": 1000}
+ * GET  /api/load/capacity/{id}  (steps so far, and the sustainable rate once the search is done)
+ */
+@RestController
+@RequestMapping("/api/load")
+public class LoadDriverController {
+
+    private final LoadDriverService loadDriverService;
+    private final CapacitySearchService capacitySearchService;
+
+    public LoadDriverController(LoadDriverService loadDriverService, CapacitySearchService capacitySearchService) {
+        this.loadDriverService = loadDriverService;
+        this.capacitySearchService = capacitySearchService;
+    }
+
+    /**
+     * Start a load run in the background; 409 while another run or a capacity search holds the driver
+     * POST /api/load/runs
+     */
+    @PostMapping("/runs")
+    public ResponseEntity<?> startRun(@RequestBody LoadDriverService.LoadPlan plan) {
+        try {
+            return ResponseEntity.accepted().body(loadDriverService.start(plan));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            // The driver is busy: the same request can be retried once it is free
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Recent runs, oldest first
+     * GET /api/load/runs
+     */
+    @GetMapping("/runs")
+    public ResponseEntity<List<LoadDriverService.LoadRun>> getRuns() {
+        return ResponseEntity.ok(loadDriverService.getRuns());
+    }
+
+    /**
+     * A run's state and report
+     * GET /api/load/runs/{id}
+     */
+    @GetMapping("/runs/{id}")
+    public ResponseEntity<LoadDriverService.LoadRun> getRun(@PathVariable String id) {
+        LoadDriverService.LoadRun run = loadDriverService.getRun(id);
+        return run != null ? ResponseEntity.ok(run) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Stop a run early; the report covers the requests sent until then
+     * POST /api/load/runs/{id}/cancel
+     */
+    @PostMapping("/runs/{id}/cancel")
+    public ResponseEntity<LoadDriverService.LoadRun> cancelRun(@PathVariable String id) {
+        if (!loadDriverService.cancel(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(loadDriverService.getRun(id));
+    }
+
+    /**
+     * Search for the highest arrival rate that stays within the SLO thresholds; 409 while the driver is busy
+     * POST /api/load/capacity
+     */
+    @PostMapping("/capacity")
+    public ResponseEntity<?> startCapacitySearch(@RequestBody CapacitySearchService.CapacitySearchRequest request) {
+        try {
+            return ResponseEntity.accepted().body(capacitySearchService.start(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            // The driver is busy: the same request can be retried once it is free
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Recent capacity searches, oldest first
+     * GET /api/load/capacity
+     */
+    @GetMapping("/capacity")
+    public ResponseEntity<List<CapacitySearchService.CapacitySearch>> getCapacitySearches() {
+        return ResponseEntity.ok(capacitySearchService.getSearches());
+    }
+
+    /**
+     * A capacity search's steps and result
+     * GET /api/load/capacity/{id}
+     */
+    @GetMapping("/capacity/{id}")
+    public ResponseEntity<CapacitySearchService.CapacitySearch> getCapacitySearch(@PathVariable String id) {
+        CapacitySearchService.CapacitySearch search = capacitySearchService.getSearch(id);
+        return search != null ? ResponseEntity.ok(search) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Stop a capacity search; the running step is cut short and not scored, so the result covers the
+     * steps that completed
+     * POST /api/load/capacity/{id}/cancel
+     */
+    @PostMapping("/capacity/{id}/cancel")
+    public ResponseEntity<CapacitySearchService.CapacitySearch> cancelCapacitySearch(@PathVariable String id) {
+        if (!capacitySearchService.cancel(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(capacitySearchService.getSearch(id));
+    }
+}
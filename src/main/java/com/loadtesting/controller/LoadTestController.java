@@ -1,37 +1,60 @@
 package com.loadtesting.controller;
 
 import com.loadtesting.model.Employee;
+import com.loadtesting.service.CpuWorkloadService;
 import com.loadtesting.service.EmployeeDataService;
+import com.loadtesting.service.EmployeeStreamWriter;
+import com.loadtesting.service.LatencySimulator;
+import com.loadtesting.service.PayloadCacheService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller specifically designed for load testing scenarios.
  * Provides endpoints with different memory consumption patterns and response sizes.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/load-test")
 public class LoadTestController {
     
     private final EmployeeDataService employeeDataService;
+    private final EmployeeStreamWriter employeeStreamWriter;
+    private final PayloadCacheService payloadCacheService;
+    private final LatencySimulator latencySimulator;
+    private final CpuWorkloadService cpuWorkloadService;
     
-    public LoadTestController(EmployeeDataService employeeDataService) {
+    public LoadTestController(EmployeeDataService employeeDataService,
+                              EmployeeStreamWriter employeeStreamWriter,
+                              PayloadCacheService payloadCacheService,
+                              LatencySimulator latencySimulator,
+                              CpuWorkloadService cpuWorkloadService) {
         this.employeeDataService = employeeDataService;
+        this.employeeStreamWriter = employeeStreamWriter;
+        this.payloadCacheService = payloadCacheService;
+        this.latencySimulator = latencySimulator;
+        this.cpuWorkloadService = cpuWorkloadService;
     }
     
     /**
      * Light load endpoint - small response
      * GET /api/load-test/light?count=10
+     * Every employee endpoint accepts an optional seed (e.g. &seed=42) for reproducible payloads
      */
     @GetMapping("/light")
-    public ResponseEntity<List<Employee>> lightLoad(@RequestParam(defaultValue = "10") int count) {
+    public ResponseEntity<List<Employee>> lightLoad(
+            @RequestParam(defaultValue = "10") int count,
+            @RequestParam(required = false) Long seed) {
         // Small memory footprint - 100 bytes per employee
         List<Employee> employees = employeeDataService.generateEmployees(
-            Math.min(count, 50), 100);
+            Math.min(count, 50), 100, seed);
         return ResponseEntity.ok(employees);
     }
     
@@ -40,66 +63,177 @@ public class LoadTestController {
      * GET /api/load-test/medium?count=50
      */
     @GetMapping("/medium")
-    public ResponseEntity<List<Employee>> mediumLoad(@RequestParam(defaultValue = "50") int count) {
+    public ResponseEntity<List<Employee>> mediumLoad(
+            @RequestParam(defaultValue = "50") int count,
+            @RequestParam(required = false) Long seed) {
         // Medium memory footprint - 1KB per employee
         List<Employee> employees = employeeDataService.generateEmployees(
-            Math.min(count, 200), 1024);
+            Math.min(count, 200), 1024, seed);
         return ResponseEntity.ok(employees);
     }
     
     /**
      * Heavy load endpoint - large response
-     * GET /api/load-test/heavy?count=100
+     * GET /api/load-test/heavy?count=100&parallelism=4
      */
     @GetMapping("/heavy")
-    public ResponseEntity<List<Employee>> heavyLoad(@RequestParam(defaultValue = "100") int count) {
+    public ResponseEntity<List<Employee>> heavyLoad(
+            @RequestParam(defaultValue = "100") int count,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) Integer parallelism) {
         // Large memory footprint - 10KB per employee
         List<Employee> employees = employeeDataService.generateEmployees(
-            Math.min(count, 500), 10240);
+            Math.min(count, 500), 10240, seed, parallelism);
         return ResponseEntity.ok(employees);
     }
     
     /**
      * Memory stress endpoint - very large response
-     * GET /api/load-test/memory-stress?count=50&memoryPerEmployee=50000
+     * GET /api/load-test/memory-stress?count=50&memoryPerEmployee=50000&parallelism=4
      */
     @GetMapping("/memory-stress")
     public ResponseEntity<List<Employee>> memoryStress(
             @RequestParam(defaultValue = "50") int count,
-            @RequestParam(defaultValue = "50000") int memoryPerEmployee) {
+            @RequestParam(defaultValue = "50000") int memoryPerEmployee,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) Integer parallelism) {
         // Configurable memory stress test
         List<Employee> employees = employeeDataService.generateEmployees(
             Math.min(count, 1000), 
-            Math.min(memoryPerEmployee, 1048576)); // Max 1MB per employee
+            Math.min(memoryPerEmployee, 1048576), // Max 1MB per employee
+            seed,
+            parallelism);
         return ResponseEntity.ok(employees);
     }
     
     /**
-     * CPU intensive endpoint - simulates processing delay
-     * GET /api/load-test/cpu-intensive?iterations=1000
+     * Streaming variants of the fixed-size endpoints above. Employees are generated and written
+     * one at a time, so peak heap per request is O(one employee) instead of O(count).
+     * GET /api/load-test/heavy/stream?count=100&format=ndjson
      */
-    @GetMapping("/cpu-intensive")
-    public ResponseEntity<Map<String, Object>> cpuIntensive(
-            @RequestParam(defaultValue = "1000") int iterations) {
-        
-        long startTime = System.currentTimeMillis();
-        
-        // Simulate CPU-intensive work
-        double result = 0;
-        for (int i = 0; i < iterations; i++) {
-            result += Math.sqrt(i) * Math.sin(i) * Math.cos(i);
+    @GetMapping(value = "/light/stream", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> lightLoadStream(
+            @RequestParam(defaultValue = "10") int count,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        return streamEmployees(Math.min(count, 50), 100, format, seed);
+    }
+    
+    @GetMapping(value = "/medium/stream", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> mediumLoadStream(
+            @RequestParam(defaultValue = "50") int count,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        return streamEmployees(Math.min(count, 200), 1024, format, seed);
+    }
+    
+    @GetMapping(value = "/heavy/stream", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> heavyLoadStream(
+            @RequestParam(defaultValue = "100") int count,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        return streamEmployees(Math.min(count, 500), 10240, format, seed);
+    }
+    
+    /**
+     * Streaming memory stress endpoint
+     * GET /api/load-test/memory-stress/stream?count=1000&memoryPerEmployee=1048576&format=ndjson
+     */
+    @GetMapping(value = "/memory-stress/stream", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> memoryStressStream(
+            @RequestParam(defaultValue = "50") int count,
+            @RequestParam(defaultValue = "50000") int memoryPerEmployee,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        return streamEmployees(Math.min(count, 1000), Math.min(memoryPerEmployee, 1048576), format, seed);
+    }
+    
+    private ResponseEntity<StreamingResponseBody> streamEmployees(int count, int stringSize, String format, Long seed) {
+        EmployeeStreamWriter.Format streamFormat;
+        try {
+            streamFormat = EmployeeStreamWriter.Format.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
         
-        long endTime = System.currentTimeMillis();
-        long processingTime = endTime - startTime;
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("iterations", iterations);
-        response.put("processingTimeMs", processingTime);
-        response.put("result", result);
-        response.put("timestamp", startTime);
+        return ResponseEntity.ok()
+                .contentType(streamFormat.getMediaType())
+                .body(employeeStreamWriter.stream(
+                        employeeDataService.streamEmployees(count, stringSize, seed), streamFormat));
+    }
+    
+    /**
+     * Cached variants of the fixed-size endpoints. The serialized body is cached per
+     * (endpoint, count, size, seed, format) and written back without regeneration or copying,
+     * which gives the "cached service" resource profile to compare against the endpoints above.
+     * GET /api/load-test/heavy/cached?count=100&seed=42
+     */
+    @GetMapping(value = "/light/cached", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> lightLoadCached(
+            @RequestParam(defaultValue = "10") int count,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        return cachedEmployees("light", Math.min(count, 50), 100, format, seed);
+    }
+    
+    @GetMapping(value = "/medium/cached", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> mediumLoadCached(
+            @RequestParam(defaultValue = "50") int count,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        return cachedEmployees("medium", Math.min(count, 200), 1024, format, seed);
+    }
+    
+    @GetMapping(value = "/heavy/cached", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> heavyLoadCached(
+            @RequestParam(defaultValue = "100") int count,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        return cachedEmployees("heavy", Math.min(count, 500), 10240, format, seed);
+    }
+    
+    @GetMapping(value = "/memory-stress/cached", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> memoryStressCached(
+            @RequestParam(defaultValue = "50") int count,
+            @RequestParam(defaultValue = "50000") int memoryPerEmployee,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        return cachedEmployees("memory-stress", Math.min(count, 1000), Math.min(memoryPerEmployee, 1048576), format, seed);
+    }
+    
+    private ResponseEntity<StreamingResponseBody> cachedEmployees(String endpoint, int count, int stringSize, String format, Long seed) {
+        EmployeeStreamWriter.Format payloadFormat;
+        try {
+            payloadFormat = EmployeeStreamWriter.Format.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
         
-        return ResponseEntity.ok(response);
+        PayloadCacheService.CachedPayload payload =
+                payloadCacheService.getEmployees(endpoint, count, stringSize, seed, payloadFormat);
+        return ResponseEntity.ok()
+                .contentType(payloadFormat.getMediaType())
+                .header("X-Payload-Cache", payload.getCacheStatus())
+                .body(employeeStreamWriter.cached(payload, count));
+    }
+    
+    /**
+     * CPU intensive endpoint - runs a workload kernel split over up to {@code parallelism} cores
+     * (kernel: trig, hash, matrix, sort, compress, regex or json)
+     * GET /api/load-test/cpu-intensive?iterations=1000&kernel=matrix&parallelism=4
+     */
+    @GetMapping("/cpu-intensive")
+    public ResponseEntity<Map<String, Object>> cpuIntensive(
+            @RequestParam(defaultValue = "1000") int iterations,
+            @RequestParam(defaultValue = "trig") String kernel,
+            @RequestParam(defaultValue = "1") int parallelism,
+            @RequestParam(required = false) Long seed) {
+        try {
+            CpuWorkloadService.Kernel workloadKernel = CpuWorkloadService.Kernel.fromParameter(kernel);
+            return ResponseEntity.ok(cpuWorkloadService.run(workloadKernel, iterations, parallelism, seed).toResponse());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
     
     /**
@@ -109,7 +243,8 @@ public class LoadTestController {
     @GetMapping("/db-latency")
     public ResponseEntity<List<Employee>> databaseLatencySimulation(
             @RequestParam(defaultValue = "100") int delayMs,
-            @RequestParam(defaultValue = "20") int count) {
+            @RequestParam(defaultValue = "20") int count,
+            @RequestParam(required = false) Long seed) {
         
         try {
             // Simulate database latency
@@ -119,10 +254,34 @@ public class LoadTestController {
         }
         
         List<Employee> employees = employeeDataService.generateEmployees(
-            Math.min(count, 100), 1024);
+            Math.min(count, 100), 1024, seed);
         return ResponseEntity.ok(employees);
     }
     
+    /**
+     * Non-blocking database latency simulation: the request thread is released during the delay
+     * and the response is completed by a shared timer
+     * GET /api/load-test/db-latency/async?delayMs=100
+     */
+    @GetMapping("/db-latency/async")
+    public CompletableFuture<ResponseEntity<List<Employee>>> asyncDatabaseLatencySimulation(
+            @RequestParam(defaultValue = "100") int delayMs,
+            @RequestParam(defaultValue = "20") int count,
+            @RequestParam(required = false) Long seed) {
+        
+        return latencySimulator.delay(Math.max(0, Math.min(delayMs, 5000)), () -> // Max 5 second delay
+                ResponseEntity.ok(employeeDataService.generateEmployees(Math.min(count, 100), 1024, seed)));
+    }
+    
+    /**
+     * In-flight count and timer lag of the non-blocking latency simulation
+     * GET /api/load-test/db-latency/stats
+     */
+    @GetMapping("/db-latency/stats")
+    public ResponseEntity<LatencySimulator.LatencyStats> latencySimulationStats() {
+        return ResponseEntity.ok(latencySimulator.getStats());
+    }
+    
     /**
      * Simple ping endpoint for basic connectivity testing
      * GET /api/load-test/ping
@@ -1,9 +1,14 @@
 package com.loadtesting.controller;
 
 import com.loadtesting.model.Employee;
+import com.loadtesting.service.EmployeeStreamWriter;
+import com.loadtesting.service.JvmMemoryMonitor;
 import com.loadtesting.service.MemorySimulationService;
+import com.loadtesting.service.PayloadCacheService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -12,40 +17,128 @@ import java.util.Map;
  * REST controller for memory simulation and testing endpoints
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/memory")
 public class MemorySimulationController {
     
     private final MemorySimulationService memorySimulationService;
+    private final EmployeeStreamWriter employeeStreamWriter;
+    private final PayloadCacheService payloadCacheService;
+    private final JvmMemoryMonitor jvmMemoryMonitor;
     
-    public MemorySimulationController(MemorySimulationService memorySimulationService) {
+    public MemorySimulationController(MemorySimulationService memorySimulationService,
+                                      EmployeeStreamWriter employeeStreamWriter,
+                                      PayloadCacheService payloadCacheService,
+                                      JvmMemoryMonitor jvmMemoryMonitor) {
         this.memorySimulationService = memorySimulationService;
+        this.employeeStreamWriter = employeeStreamWriter;
+        this.payloadCacheService = payloadCacheService;
+        this.jvmMemoryMonitor = jvmMemoryMonitor;
     }
     
     /**
      * Generate employee data using predefined memory scenarios
-     * Available scenarios: light, medium, heavy, extreme
+     * Available scenarios: light, medium, heavy, extreme, long-tail, humongous, humongous-chunked
      */
     @GetMapping("/scenario/{scenarioName}")
-    public ResponseEntity<List<Employee>> generateByScenario(@PathVariable String scenarioName) {
+    public ResponseEntity<List<Employee>> generateByScenario(
+            @PathVariable String scenarioName,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) Integer parallelism) {
         try {
-            List<Employee> employees = memorySimulationService.generateByScenario(scenarioName);
+            List<Employee> employees = memorySimulationService.generateByScenario(scenarioName, seed, parallelism);
             return ResponseEntity.ok(employees);
         } catch (IllegalArgumentException | IllegalStateException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
+    /**
+     * Stream scenario data as it is generated (format: json or ndjson)
+     */
+    @GetMapping(value = "/scenario/{scenarioName}/stream", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> streamByScenario(
+            @PathVariable String scenarioName,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        try {
+            EmployeeStreamWriter.Format streamFormat = EmployeeStreamWriter.Format.fromParameter(format);
+            return ResponseEntity.ok()
+                    .contentType(streamFormat.getMediaType())
+                    .body(employeeStreamWriter.stream(
+                            memorySimulationService.streamByScenario(scenarioName, seed), streamFormat));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Serve scenario data from the serialized-payload cache, generating it on a miss
+     */
+    @GetMapping(value = "/scenario/{scenarioName}/cached", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> cachedByScenario(
+            @PathVariable String scenarioName,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        try {
+            EmployeeStreamWriter.Format payloadFormat = EmployeeStreamWriter.Format.fromParameter(format);
+            var scenario = memorySimulationService.resolveScenario(scenarioName);
+            PayloadCacheService.CachedPayload payload = payloadCacheService.getEmployees("scenario/" + scenarioName,
+                    scenario.getCount(), memorySimulationService.payloadProfile(scenario), seed, payloadFormat);
+            return ResponseEntity.ok()
+                    .contentType(payloadFormat.getMediaType())
+                    .header("X-Payload-Cache", payload.getCacheStatus())
+                    .body(employeeStreamWriter.cached(payload, scenario.getCount()));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     /**
      * Generate and cache employee data for memory retention testing
+     * (representation: objects or columnar; storage: heap, direct or mapped; columnar needs heap storage)
      */
     @PostMapping("/cache")
     public ResponseEntity<Map<String, String>> generateAndCache(
             @RequestParam String cacheKey,
             @RequestParam(defaultValue = "100") int count,
-            @RequestParam(defaultValue = "1024") int stringSize) {
+            @RequestParam(defaultValue = "1024") int stringSize,
+            @RequestParam(defaultValue = "objects") String representation,
+            @RequestParam(defaultValue = "heap") String storage) {
         
-        String result = memorySimulationService.generateAndCache(cacheKey, count, stringSize);
-        return ResponseEntity.ok(Map.of("message", result));
+        MemorySimulationService.Representation cacheRepresentation;
+        MemorySimulationService.StorageMode storageMode;
+        try {
+            cacheRepresentation = MemorySimulationService.Representation.fromParameter(representation);
+            storageMode = MemorySimulationService.StorageMode.fromParameter(storage);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+        
+        try {
+            String result = memorySimulationService.generateAndCache(
+                    cacheKey, count, stringSize, cacheRepresentation, storageMode);
+            return ResponseEntity.ok(Map.of("message", result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Measure the heap retained by a scenario and compare it with the estimator
+     * POST /api/memory/calibrate/heavy?samples=3&representation=objects
+     */
+    @PostMapping("/calibrate/{scenarioName}")
+    public ResponseEntity<MemorySimulationService.CalibrationResult> calibrate(
+            @PathVariable String scenarioName,
+            @RequestParam(defaultValue = "3") int samples,
+            @RequestParam(defaultValue = "objects") String representation) {
+        try {
+            return ResponseEntity.ok(memorySimulationService.calibrate(scenarioName, samples,
+                    MemorySimulationService.Representation.fromParameter(representation)));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     /**
@@ -56,6 +149,14 @@ public class MemorySimulationController {
         return ResponseEntity.ok(memorySimulationService.getCacheInfo());
     }
     
+    /**
+     * Get the estimated size in bytes of each cache entry
+     */
+    @GetMapping("/cache/entries")
+    public ResponseEntity<Map<String, Long>> getCacheEntrySizes() {
+        return ResponseEntity.ok(memorySimulationService.getEntrySizes());
+    }
+    
     /**
      * Clear all cached data
      */
@@ -108,4 +209,13 @@ public class MemorySimulationController {
         
         return ResponseEntity.ok(stats);
     }
+    
+    /**
+     * Get per-pool usage, GC pause statistics, allocation/promotion rates and native memory
+     * GET /api/memory/jvm
+     */
+    @GetMapping("/jvm")
+    public ResponseEntity<JvmMemoryMonitor.JvmMemoryStats> getJvmMemoryStats() {
+        return ResponseEntity.ok(jvmMemoryMonitor.getStats());
+    }
 }
@@ -0,0 +1,54 @@
+package com.loadtesting.controller;
+
+import com.loadtesting.service.EmployeeDataService;
+import com.loadtesting.service.JvmMemoryMonitor;
+import com.loadtesting.service.PayloadSizeStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * REST controller reporting the sizes of generated payloads against the G1 region size, to tune
+ * G1HeapRegionSize and the heap for a scenario's size distribution.
+ *
+ * GET  /api/memory/objects  (payload size histogram, humongous arrays and regions, heap regions by role)
+ * POST /api/memory/objects/reset
+ */
+@RestController
+@RequestMapping("/api/memory/objects")
+public class ObjectSizeController {
+
+    private final EmployeeDataService employeeDataService;
+    private final JvmMemoryMonitor jvmMemoryMonitor;
+
+    public ObjectSizeController(EmployeeDataService employeeDataService, JvmMemoryMonitor jvmMemoryMonitor) {
+        this.employeeDataService = employeeDataService;
+        this.jvmMemoryMonitor = jvmMemoryMonitor;
+    }
+
+    /**
+     * Payload sizes since startup or the last reset, with the current heap regions
+     * GET /api/memory/objects
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getObjectSizes() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("payloads", employeeDataService.getPayloadSizes().snapshot());
+        response.put("regions", jvmMemoryMonitor.getHeapRegions());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Clear the payload size counts, e.g. between scenarios
+     * POST /api/memory/objects/reset
+     */
+    @PostMapping("/reset")
+    public ResponseEntity<PayloadSizeStats.Snapshot> reset() {
+        PayloadSizeStats payloadSizes = employeeDataService.getPayloadSizes();
+        PayloadSizeStats.Snapshot before = payloadSizes.snapshot();
+        payloadSizes.reset();
+        return ResponseEntity.ok(before);
+    }
+}
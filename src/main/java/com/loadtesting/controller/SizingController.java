@@ -0,0 +1,52 @@
+package com.loadtesting.controller;
+
+import com.loadtesting.service.ResourceSizingService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST controller for pod sizing recommendations from the service's own telemetry.
+ *
+ * Run the target mix first (k6 or POST /api/load/runs), then:
+ * POST /api/sizing/recommendation  {"traffic": [{"endpoint": "/api/employees", "rps": 200}], "podRpsCapacity": 80}
+ * POST /api/sizing/recommendation/vpa  (only the VerticalPodAutoscaler-shaped part)
+ */
+@RestController
+@RequestMapping("/api/sizing")
+public class SizingController {
+
+    private final ResourceSizingService resourceSizingService;
+
+    public SizingController(ResourceSizingService resourceSizingService) {
+        this.resourceSizingService = resourceSizingService;
+    }
+
+    /**
+     * Replicas, CPU and memory requests/limits and heap size, with explained headroom
+     * POST /api/sizing/recommendation
+     */
+    @PostMapping("/recommendation")
+    public ResponseEntity<?> recommend(@RequestBody ResourceSizingService.SizingRequest request) {
+        try {
+            return ResponseEntity.ok(resourceSizingService.recommend(request));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * The recommendation as a VerticalPodAutoscaler status, to diff against
+     * kubectl get vpa resource-sizing-service-vpa -n load-testing -o json
+     * POST /api/sizing/recommendation/vpa
+     */
+    @PostMapping("/recommendation/vpa")
+    public ResponseEntity<?> recommendVpa(@RequestBody ResourceSizingService.SizingRequest request) {
+        try {
+            return ResponseEntity.ok(resourceSizingService.recommend(request).getVpa());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * REST controllers. Controllers without a web application condition use only types shared by
+ * Spring MVC and WebFlux, so they serve both stacks; those that block go through
+ * {@link com.loadtesting.controller.BlockingCalls}. The reactive counterparts of the servlet-only
+ * controllers are in {@code com.loadtesting.controller.reactive}.
+ */
+package com.loadtesting.controller;
@@ -0,0 +1,165 @@
+package com.loadtesting.controller.reactive;
+
+import com.loadtesting.model.Employee;
+import com.loadtesting.service.EmployeeDataService;
+import com.loadtesting.service.EmployeeStreamWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Reactive counterpart of {@link com.loadtesting.controller.EmployeeController}, active when the
+ * application runs on WebFlux/Netty (the "reactive" profile). Same paths, parameters and JSON;
+ * list responses are written element by element as Netty requests more data, so a slow client
+ * holds back generation instead of buffering the whole array.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(value = "/api/employees", produces = "application/json")
+public class ReactiveEmployeeController {
+
+    private final EmployeeDataService employeeDataService;
+
+    public ReactiveEmployeeController(EmployeeDataService employeeDataService) {
+        this.employeeDataService = employeeDataService;
+    }
+
+    /**
+     * Get all employees with default configuration
+     * GET /api/employees
+     */
+    @GetMapping
+    public Flux<Employee> getAllEmployees(@RequestParam(required = false) Long seed) {
+        return employees(employeeDataService.getDefaultCount(), employeeDataService.getDefaultStringSize(), seed, null);
+    }
+
+    /**
+     * Get employees with specified count
+     * GET /api/employees?count=50
+     */
+    @GetMapping(params = "count")
+    public Flux<Employee> getEmployeesByCount(
+            @RequestParam int count,
+            @RequestParam(required = false) Long seed) {
+        return employees(count, employeeDataService.getDefaultStringSize(), seed, null);
+    }
+
+    /**
+     * Get employees with specified count and memory size
+     * GET /api/employees?count=50&memorySize=2048
+     */
+    @GetMapping(params = {"count", "memorySize"})
+    public Flux<Employee> getEmployeesWithMemorySize(
+            @RequestParam int count,
+            @RequestParam int memorySize,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) Integer parallelism) {
+        return employees(count, memorySize, seed, parallelism);
+    }
+
+    /**
+     * Stream employees as they are generated (format: json or ndjson)
+     * GET /api/employees/stream?count=1000&memorySize=1048576&format=ndjson
+     */
+    @GetMapping(value = "/stream", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<Flux<Employee>> streamEmployees(
+            @RequestParam(required = false) Integer count,
+            @RequestParam(required = false) Integer memorySize,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        EmployeeStreamWriter.Format streamFormat;
+        try {
+            streamFormat = EmployeeStreamWriter.Format.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int resolvedCount = count != null ? count : employeeDataService.getDefaultCount();
+        int resolvedMemorySize = memorySize != null ? memorySize : employeeDataService.getDefaultStringSize();
+
+        return ResponseEntity.ok()
+                .contentType(streamFormat.getMediaType())
+                .body(employees(resolvedCount, resolvedMemorySize, seed, null));
+    }
+
+    /**
+     * Get a single employee by ID
+     * GET /api/employees/1
+     */
+    @GetMapping("/{id}")
+    public Mono<Employee> getEmployeeById(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "1024") int memorySize,
+            @RequestParam(required = false) Long seed) {
+        return Mono.fromSupplier(() -> employeeDataService.generateSingleEmployee(id, memorySize, seed))
+                .subscribeOn(Schedulers.parallel());
+    }
+
+    /**
+     * Get employees filtered by department
+     * GET /api/employees/department/Engineering?count=100&exact=true
+     */
+    @GetMapping("/department/{department}")
+    public Flux<Employee> getEmployeesByDepartment(
+            @PathVariable String department,
+            @RequestParam(defaultValue = "100") int count,
+            @RequestParam(defaultValue = "1024") int memorySize,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(defaultValue = "false") boolean exact) {
+        return filtered(EmployeeDataService.AttributeFilter.department(department), count, memorySize, seed, exact);
+    }
+
+    /**
+     * Get employees filtered by position
+     * GET /api/employees/position/Manager
+     */
+    @GetMapping("/position/{position}")
+    public Flux<Employee> getEmployeesByPosition(
+            @PathVariable String position,
+            @RequestParam(defaultValue = "100") int count,
+            @RequestParam(defaultValue = "1024") int memorySize,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(defaultValue = "false") boolean exact) {
+        return filtered(EmployeeDataService.AttributeFilter.position(position), count, memorySize, seed, exact);
+    }
+
+    /**
+     * Health check endpoint for the employee service
+     * GET /api/employees/health
+     */
+    @GetMapping("/health")
+    public Mono<Map<String, String>> healthCheck() {
+        return Mono.just(Map.of("status", "Employee service is running"));
+    }
+
+    /**
+     * Employees generated one at a time on demand; an explicit parallelism generates the batch
+     * up front on the fork-join pool instead, as the servlet endpoint does
+     */
+    private Flux<Employee> employees(int count, int stringSize, Long seed, Integer parallelism) {
+        if (parallelism != null) {
+            return fromList(() -> employeeDataService.generateEmployees(count, stringSize, seed, parallelism));
+        }
+        return Flux.fromStream(() -> employeeDataService.streamEmployees(count, stringSize, seed))
+                .subscribeOn(Schedulers.parallel());
+    }
+
+    private Flux<Employee> filtered(EmployeeDataService.AttributeFilter filter, int count, int memorySize,
+                                    Long seed, boolean exact) {
+        return fromList(() -> exact
+                ? employeeDataService.generateEmployeesWithAttributes(count, memorySize, seed, filter)
+                : employeeDataService.generateFilteredEmployees(count, memorySize, seed, filter));
+    }
+
+    private static Flux<Employee> fromList(Supplier<List<Employee>> generator) {
+        return Mono.fromSupplier(generator)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(Flux::fromIterable);
+    }
+}
@@ -0,0 +1,287 @@
+package com.loadtesting.controller.reactive;
+
+import com.loadtesting.model.Employee;
+import com.loadtesting.service.CpuWorkloadService;
+import com.loadtesting.service.EmployeeDataService;
+import com.loadtesting.service.EmployeeStreamWriter;
+import com.loadtesting.service.LatencySimulator;
+import com.loadtesting.service.PayloadCacheService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reactive counterpart of {@link com.loadtesting.controller.LoadTestController} for the WebFlux/Netty
+ * variant. Same paths, parameters and JSON; employees are generated on demand as the response is
+ * written, and latency simulation uses timers instead of sleeping threads.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/load-test")
+public class ReactiveLoadTestController {
+
+    private final EmployeeDataService employeeDataService;
+    private final PayloadCacheService payloadCacheService;
+    private final LatencySimulator latencySimulator;
+    private final CpuWorkloadService cpuWorkloadService;
+
+    public ReactiveLoadTestController(EmployeeDataService employeeDataService,
+                                      PayloadCacheService payloadCacheService,
+                                      LatencySimulator latencySimulator,
+                                      CpuWorkloadService cpuWorkloadService) {
+        this.employeeDataService = employeeDataService;
+        this.payloadCacheService = payloadCacheService;
+        this.latencySimulator = latencySimulator;
+        this.cpuWorkloadService = cpuWorkloadService;
+    }
+
+    /**
+     * Light load endpoint - small response
+     * GET /api/load-test/light?count=10
+     */
+    @GetMapping("/light")
+    public Flux<Employee> lightLoad(
+            @RequestParam(defaultValue = "10") int count,
+            @RequestParam(required = false) Long seed) {
+        return employees(Math.min(count, 50), 100, seed, null);
+    }
+
+    /**
+     * Medium load endpoint - medium response
+     * GET /api/load-test/medium?count=50
+     */
+    @GetMapping("/medium")
+    public Flux<Employee> mediumLoad(
+            @RequestParam(defaultValue = "50") int count,
+            @RequestParam(required = false) Long seed) {
+        return employees(Math.min(count, 200), 1024, seed, null);
+    }
+
+    /**
+     * Heavy load endpoint - large response
+     * GET /api/load-test/heavy?count=100&parallelism=4
+     */
+    @GetMapping("/heavy")
+    public Flux<Employee> heavyLoad(
+            @RequestParam(defaultValue = "100") int count,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) Integer parallelism) {
+        return employees(Math.min(count, 500), 10240, seed, parallelism);
+    }
+
+    /**
+     * Memory stress endpoint - very large response
+     * GET /api/load-test/memory-stress?count=50&memoryPerEmployee=50000
+     */
+    @GetMapping("/memory-stress")
+    public Flux<Employee> memoryStress(
+            @RequestParam(defaultValue = "50") int count,
+            @RequestParam(defaultValue = "50000") int memoryPerEmployee,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) Integer parallelism) {
+        return employees(Math.min(count, 1000), Math.min(memoryPerEmployee, 1048576), seed, parallelism);
+    }
+
+    /**
+     * Streaming variants (format: json or ndjson)
+     * GET /api/load-test/heavy/stream?count=100&format=ndjson
+     */
+    @GetMapping(value = "/light/stream", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<Flux<Employee>> lightLoadStream(
+            @RequestParam(defaultValue = "10") int count,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        return streamEmployees(Math.min(count, 50), 100, format, seed);
+    }
+
+    @GetMapping(value = "/medium/stream", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<Flux<Employee>> mediumLoadStream(
+            @RequestParam(defaultValue = "50") int count,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        return streamEmployees(Math.min(count, 200), 1024, format, seed);
+    }
+
+    @GetMapping(value = "/heavy/stream", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<Flux<Employee>> heavyLoadStream(
+            @RequestParam(defaultValue = "100") int count,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        return streamEmployees(Math.min(count, 500), 10240, format, seed);
+    }
+
+    @GetMapping(value = "/memory-stress/stream", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<Flux<Employee>> memoryStressStream(
+            @RequestParam(defaultValue = "50") int count,
+            @RequestParam(defaultValue = "50000") int memoryPerEmployee,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        return streamEmployees(Math.min(count, 1000), Math.min(memoryPerEmployee, 1048576), format, seed);
+    }
+
+    /**
+     * Cached variants, served from the same serialized-payload cache as the servlet endpoints
+     * GET /api/load-test/heavy/cached?count=100&seed=42
+     */
+    @GetMapping(value = "/light/cached", produces = {"application/json", "application/x-ndjson"})
+    public Mono<ResponseEntity<Object>> lightLoadCached(
+            @RequestParam(defaultValue = "10") int count,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        return cachedEmployees("light", Math.min(count, 50), 100, format, seed);
+    }
+
+    @GetMapping(value = "/medium/cached", produces = {"application/json", "application/x-ndjson"})
+    public Mono<ResponseEntity<Object>> mediumLoadCached(
+            @RequestParam(defaultValue = "50") int count,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        return cachedEmployees("medium", Math.min(count, 200), 1024, format, seed);
+    }
+
+    @GetMapping(value = "/heavy/cached", produces = {"application/json", "application/x-ndjson"})
+    public Mono<ResponseEntity<Object>> heavyLoadCached(
+            @RequestParam(defaultValue = "100") int count,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        return cachedEmployees("heavy", Math.min(count, 500), 10240, format, seed);
+    }
+
+    @GetMapping(value = "/memory-stress/cached", produces = {"application/json", "application/x-ndjson"})
+    public Mono<ResponseEntity<Object>> memoryStressCached(
+            @RequestParam(defaultValue = "50") int count,
+            @RequestParam(defaultValue = "50000") int memoryPerEmployee,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        return cachedEmployees("memory-stress", Math.min(count, 1000), Math.min(memoryPerEmployee, 1048576), format, seed);
+    }
+
+    /**
+     * CPU intensive endpoint - runs a workload kernel split over up to {@code parallelism} cores
+     * GET /api/load-test/cpu-intensive?iterations=1000&kernel=matrix&parallelism=4
+     */
+    @GetMapping("/cpu-intensive")
+    public Mono<ResponseEntity<Map<String, Object>>> cpuIntensive(
+            @RequestParam(defaultValue = "1000") int iterations,
+            @RequestParam(defaultValue = "trig") String kernel,
+            @RequestParam(defaultValue = "1") int parallelism,
+            @RequestParam(required = false) Long seed) {
+        CpuWorkloadService.Kernel workloadKernel;
+        try {
+            workloadKernel = CpuWorkloadService.Kernel.fromParameter(kernel);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("message", e.getMessage())));
+        }
+        // Waiting on the fork-join slices blocks, so keep it off the event loop
+        return Mono.fromSupplier(() -> ResponseEntity.ok(
+                        cpuWorkloadService.run(workloadKernel, iterations, parallelism, seed).toResponse()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body(Map.of("message", e.getMessage()))));
+    }
+
+    /**
+     * Database latency simulation endpoint; the delay is a timer, no thread waits for it
+     * GET /api/load-test/db-latency?delayMs=100
+     */
+    @GetMapping("/db-latency")
+    public Flux<Employee> databaseLatencySimulation(
+            @RequestParam(defaultValue = "100") int delayMs,
+            @RequestParam(defaultValue = "20") int count,
+            @RequestParam(required = false) Long seed) {
+        return Mono.delay(Duration.ofMillis(Math.max(0, Math.min(delayMs, 5000)))) // Max 5 second delay
+                .thenMany(employees(Math.min(count, 100), 1024, seed, null));
+    }
+
+    /**
+     * Database latency simulation on the shared latency timer, reported in /db-latency/stats
+     * GET /api/load-test/db-latency/async?delayMs=100
+     */
+    @GetMapping("/db-latency/async")
+    public Flux<Employee> asyncDatabaseLatencySimulation(
+            @RequestParam(defaultValue = "100") int delayMs,
+            @RequestParam(defaultValue = "20") int count,
+            @RequestParam(required = false) Long seed) {
+        return Mono.fromFuture(() -> latencySimulator.delay(Math.max(0, Math.min(delayMs, 5000)),
+                        () -> employeeDataService.generateEmployees(Math.min(count, 100), 1024, seed)))
+                .flatMapMany(Flux::fromIterable);
+    }
+
+    /**
+     * In-flight count and timer lag of the latency simulation
+     * GET /api/load-test/db-latency/stats
+     */
+    @GetMapping("/db-latency/stats")
+    public Mono<LatencySimulator.LatencyStats> latencySimulationStats() {
+        return Mono.fromSupplier(latencySimulator::getStats);
+    }
+
+    /**
+     * Simple ping endpoint for basic connectivity testing
+     * GET /api/load-test/ping
+     */
+    @GetMapping("/ping")
+    public Mono<Map<String, Object>> ping() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "ok");
+        response.put("timestamp", System.currentTimeMillis());
+        response.put("service", "resource-sizing-service");
+        return Mono.just(response);
+    }
+
+    private Flux<Employee> employees(int count, int stringSize, Long seed, Integer parallelism) {
+        if (parallelism != null) {
+            return Mono.fromSupplier(() -> employeeDataService.generateEmployees(count, stringSize, seed, parallelism))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMapMany(Flux::fromIterable);
+        }
+        return Flux.fromStream(() -> employeeDataService.streamEmployees(count, stringSize, seed))
+                .subscribeOn(Schedulers.parallel());
+    }
+
+    private ResponseEntity<Flux<Employee>> streamEmployees(int count, int stringSize, String format, Long seed) {
+        EmployeeStreamWriter.Format streamFormat;
+        try {
+            streamFormat = EmployeeStreamWriter.Format.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(streamFormat.getMediaType())
+                .body(employees(count, stringSize, seed, null));
+    }
+
+    private Mono<ResponseEntity<Object>> cachedEmployees(String endpoint, int count, int stringSize,
+                                                         String format, Long seed) {
+        EmployeeStreamWriter.Format payloadFormat;
+        try {
+            payloadFormat = EmployeeStreamWriter.Format.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        // A miss generates and serializes the payload, so keep it off the event loop
+        return Mono.fromSupplier(() -> payloadCacheService.getEmployees(endpoint, count, stringSize, seed, payloadFormat))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(payload -> ResponseEntity.ok()
+                        .contentType(payloadFormat.getMediaType())
+                        .header("X-Payload-Cache", payload.getCacheStatus())
+                        .body(cachedBody(payload)));
+    }
+
+    /**
+     * The cached array as-is, or the employees of a body too large for the cache as they are generated
+     */
+    static Object cachedBody(PayloadCacheService.CachedPayload payload) {
+        if (payload.isOversized()) {
+            return Flux.fromStream(payload::streamEmployees).subscribeOn(Schedulers.parallel());
+        }
+        return payload.getBody();
+    }
+}
@@ -0,0 +1,234 @@
+package com.loadtesting.controller.reactive;
+
+import com.loadtesting.model.Employee;
+import com.loadtesting.service.EmployeeStreamWriter;
+import com.loadtesting.service.JvmMemoryMonitor;
+import com.loadtesting.service.MemorySimulationService;
+import com.loadtesting.service.PayloadCacheService;
+import com.loadtesting.service.PayloadProfile;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.loadtesting.controller.BlockingCalls.blocking;
+
+/**
+ * Reactive counterpart of {@link com.loadtesting.controller.MemorySimulationController} for the
+ * WebFlux/Netty variant. Scenario data is generated on demand as the response is written; cache,
+ * GC and calibration calls block, so they run on the bounded elastic scheduler rather than on
+ * the event loop.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/memory")
+public class ReactiveMemorySimulationController {
+
+    private final MemorySimulationService memorySimulationService;
+    private final PayloadCacheService payloadCacheService;
+    private final JvmMemoryMonitor jvmMemoryMonitor;
+
+    public ReactiveMemorySimulationController(MemorySimulationService memorySimulationService,
+                                              PayloadCacheService payloadCacheService,
+                                              JvmMemoryMonitor jvmMemoryMonitor) {
+        this.memorySimulationService = memorySimulationService;
+        this.payloadCacheService = payloadCacheService;
+        this.jvmMemoryMonitor = jvmMemoryMonitor;
+    }
+
+    /**
+     * Generate employee data using predefined memory scenarios
+     * Available scenarios: light, medium, heavy, extreme, long-tail, humongous, humongous-chunked
+     */
+    @GetMapping("/scenario/{scenarioName}")
+    public ResponseEntity<Flux<Employee>> generateByScenario(
+            @PathVariable String scenarioName,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) Integer parallelism) {
+        try {
+            memorySimulationService.resolveScenario(scenarioName);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (parallelism != null) {
+            return ResponseEntity.ok(Mono.fromSupplier(
+                            () -> memorySimulationService.generateByScenario(scenarioName, seed, parallelism))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMapMany(Flux::fromIterable));
+        }
+        return ResponseEntity.ok(scenario(scenarioName, seed));
+    }
+
+    /**
+     * Stream scenario data as it is generated (format: json or ndjson)
+     */
+    @GetMapping(value = "/scenario/{scenarioName}/stream", produces = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<Flux<Employee>> streamByScenario(
+            @PathVariable String scenarioName,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        try {
+            EmployeeStreamWriter.Format streamFormat = EmployeeStreamWriter.Format.fromParameter(format);
+            memorySimulationService.resolveScenario(scenarioName);
+            return ResponseEntity.ok()
+                    .contentType(streamFormat.getMediaType())
+                    .body(scenario(scenarioName, seed));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Serve scenario data from the serialized-payload cache, generating it on a miss
+     */
+    @GetMapping(value = "/scenario/{scenarioName}/cached", produces = {"application/json", "application/x-ndjson"})
+    public Mono<ResponseEntity<Object>> cachedByScenario(
+            @PathVariable String scenarioName,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) Long seed) {
+        EmployeeStreamWriter.Format payloadFormat;
+        int count;
+        PayloadProfile profile;
+        try {
+            payloadFormat = EmployeeStreamWriter.Format.fromParameter(format);
+            var scenario = memorySimulationService.resolveScenario(scenarioName);
+            count = scenario.getCount();
+            profile = memorySimulationService.payloadProfile(scenario);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return blocking(() -> payloadCacheService.getEmployees(
+                        "scenario/" + scenarioName, count, profile, seed, payloadFormat))
+                .map(payload -> ResponseEntity.ok()
+                        .contentType(payloadFormat.getMediaType())
+                        .header("X-Payload-Cache", payload.getCacheStatus())
+                        .body(ReactiveLoadTestController.cachedBody(payload)));
+    }
+
+    /**
+     * Generate and cache employee data for memory retention testing
+     * (representation: objects or columnar; storage: heap, direct or mapped; columnar needs heap storage)
+     */
+    @PostMapping("/cache")
+    public Mono<ResponseEntity<Map<String, String>>> generateAndCache(
+            @RequestParam String cacheKey,
+            @RequestParam(defaultValue = "100") int count,
+            @RequestParam(defaultValue = "1024") int stringSize,
+            @RequestParam(defaultValue = "objects") String representation,
+            @RequestParam(defaultValue = "heap") String storage) {
+        MemorySimulationService.Representation cacheRepresentation;
+        MemorySimulationService.StorageMode storageMode;
+        try {
+            cacheRepresentation = MemorySimulationService.Representation.fromParameter(representation);
+            storageMode = MemorySimulationService.StorageMode.fromParameter(storage);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("message", e.getMessage())));
+        }
+        return blocking(() -> ResponseEntity.ok(Map.of("message", memorySimulationService.generateAndCache(
+                        cacheKey, count, stringSize, cacheRepresentation, storageMode))))
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body(Map.of("message", e.getMessage()))));
+    }
+
+    /**
+     * Measure the heap retained by a scenario and compare it with the estimator
+     * POST /api/memory/calibrate/heavy?samples=3&representation=objects
+     */
+    @PostMapping("/calibrate/{scenarioName}")
+    public Mono<ResponseEntity<MemorySimulationService.CalibrationResult>> calibrate(
+            @PathVariable String scenarioName,
+            @RequestParam(defaultValue = "3") int samples,
+            @RequestParam(defaultValue = "objects") String representation) {
+        return blocking(() -> ResponseEntity.ok(memorySimulationService.calibrate(scenarioName, samples,
+                        MemorySimulationService.Representation.fromParameter(representation))))
+                .onErrorResume(e -> e instanceof IllegalArgumentException || e instanceof IllegalStateException,
+                        e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    /**
+     * Get current memory cache information
+     */
+    @GetMapping("/cache/info")
+    public Mono<MemorySimulationService.MemoryCacheInfo> getCacheInfo() {
+        return Mono.fromSupplier(memorySimulationService::getCacheInfo);
+    }
+
+    /**
+     * Get the estimated size in bytes of each cache entry
+     */
+    @GetMapping("/cache/entries")
+    public Mono<Map<String, Long>> getCacheEntrySizes() {
+        return Mono.fromSupplier(memorySimulationService::getEntrySizes);
+    }
+
+    /**
+     * Clear all cached data
+     */
+    @DeleteMapping("/cache")
+    public Mono<Map<String, String>> clearCache() {
+        return Mono.fromSupplier(() -> Map.of("message", memorySimulationService.clearCache()));
+    }
+
+    /**
+     * Get available memory scenarios
+     */
+    @GetMapping("/scenarios")
+    public Mono<List<String>> getAvailableScenarios() {
+        return Mono.fromSupplier(memorySimulationService::getAvailableScenarios);
+    }
+
+    /**
+     * Force garbage collection (for testing purposes)
+     */
+    @PostMapping("/gc")
+    public Mono<Map<String, String>> forceGarbageCollection() {
+        return blocking(() -> Map.of("message", memorySimulationService.forceGarbageCollection()));
+    }
+
+    /**
+     * Get current JVM memory statistics
+     */
+    @GetMapping("/stats")
+    public Mono<Map<String, Object>> getMemoryStats() {
+        return Mono.fromSupplier(() -> {
+            Runtime runtime = Runtime.getRuntime();
+
+            long maxMemory = runtime.maxMemory();
+            long totalMemory = runtime.totalMemory();
+            long freeMemory = runtime.freeMemory();
+            long usedMemory = totalMemory - freeMemory;
+
+            return Map.<String, Object>of(
+                "maxMemoryBytes", maxMemory,
+                "totalMemoryBytes", totalMemory,
+                "freeMemoryBytes", freeMemory,
+                "usedMemoryBytes", usedMemory,
+                "maxMemoryMB", String.format("%.2f MB", maxMemory / (1024.0 * 1024.0)),
+                "totalMemoryMB", String.format("%.2f MB", totalMemory / (1024.0 * 1024.0)),
+                "freeMemoryMB", String.format("%.2f MB", freeMemory / (1024.0 * 1024.0)),
+                "usedMemoryMB", String.format("%.2f MB", usedMemory / (1024.0 * 1024.0)),
+                "memoryUsagePercentage", String.format("%.2f%%", (usedMemory * 100.0) / totalMemory)
+            );
+        });
+    }
+
+    /**
+     * Get per-pool usage, GC pause statistics, allocation/promotion rates and native memory
+     * GET /api/memory/jvm
+     */
+    @GetMapping("/jvm")
+    public Mono<JvmMemoryMonitor.JvmMemoryStats> getJvmMemoryStats() {
+        // The native memory summary is a diagnostic command invocation, keep it off the event loop
+        return blocking(jvmMemoryMonitor::getStats);
+    }
+
+    private Flux<Employee> scenario(String scenarioName, Long seed) {
+        return Flux.fromStream(() -> memorySimulationService.streamByScenario(scenarioName, seed))
+                .subscribeOn(Schedulers.parallel());
+    }
+}
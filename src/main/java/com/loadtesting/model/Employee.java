@@ -1,6 +1,10 @@
 package com.loadtesting.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -19,6 +23,9 @@ public class Employee {
     private Double salary;
     private LocalDate hireDate;
     private String configurableData; // This field size can be configured for memory testing
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> configurableChunks; // Same payload split into several strings, instead of configurableData
+    private boolean latin1Payload; // Payload known to hold Latin-1 characters only, see setLatin1Payload
     
     // Default constructor
     public Employee() {}
@@ -109,24 +116,116 @@ public class Employee {
     
     public void setConfigurableData(String configurableData) {
         this.configurableData = configurableData;
+        this.latin1Payload = false;
+    }
+    
+    public List<String> getConfigurableChunks() {
+        return configurableChunks;
+    }
+    
+    public void setConfigurableChunks(List<String> configurableChunks) {
+        this.configurableChunks = configurableChunks;
+        this.latin1Payload = false;
+    }
+    
+    /**
+     * Declare that the configurable payload holds Latin-1 characters only, as the generator's
+     * alphanumeric strings do, so size estimates need not scan it character by character.
+     * Replacing the payload clears the flag.
+     */
+    @JsonIgnore
+    public void setLatin1Payload(boolean latin1Payload) {
+        this.latin1Payload = latin1Payload;
     }
     
     /**
      * Get the approximate memory size of this employee object in bytes.
      * This is useful for memory consumption analysis during load testing.
+     * Counts the employee and every object it references (boxed id and salary, hire date,
+     * strings and their byte arrays) using the heap layout of the running JVM, see {@link ObjectLayout}.
      */
     public long getApproximateMemorySize() {
-        long baseSize = 8 + 8 + 8 + 8 + 8 + 8 + 8 + 8; // Object references (8 bytes each)
-        baseSize += (firstName != null ? firstName.length() * 2 : 0);
-        baseSize += (lastName != null ? lastName.length() * 2 : 0);
-        baseSize += (email != null ? email.length() * 2 : 0);
-        baseSize += (position != null ? position.length() * 2 : 0);
-        baseSize += (department != null ? department.length() * 2 : 0);
-        baseSize += (configurableData != null ? configurableData.length() * 2 : 0);
-        baseSize += 8; // Long id
-        baseSize += 8; // Double salary
-        baseSize += 12; // LocalDate (approximate)
-        return baseSize;
+        ObjectLayout layout = ObjectLayout.current();
+        long size = approximateMemorySize(firstName, lastName, email, position, department, payloadSize(layout));
+        size -= id == null ? layout.boxedLongSize() : 0;
+        size -= salary == null ? layout.boxedLongSize() : 0;
+        size -= hireDate == null ? layout.localDateSize() : 0;
+        return size;
+    }
+    
+    /**
+     * Retained size of the configurable payload, held as one string or as chunks
+     */
+    public long payloadSize(ObjectLayout layout) {
+        if (!latin1Payload) {
+            return layout.stringSize(configurableData) + chunksSize(layout, configurableChunks);
+        }
+        boolean latin1 = layout.isCompactStrings();
+        long size = configurableData != null ? layout.stringSize(configurableData.length(), latin1) : 0;
+        if (configurableChunks != null) {
+            size += immutableListSize(layout, configurableChunks.size());
+            for (String chunk : configurableChunks) {
+                size += layout.stringSize(chunk.length(), latin1);
+            }
+        }
+        return size;
+    }
+    
+    /**
+     * Retained size of a chunked payload: the immutable list, its element array and the strings
+     */
+    public static long chunksSize(ObjectLayout layout, List<String> chunks) {
+        if (chunks == null) {
+            return 0;
+        }
+        long size = immutableListSize(layout, chunks.size());
+        for (String chunk : chunks) {
+            size += layout.stringSize(chunk);
+        }
+        return size;
+    }
+    
+    /**
+     * Size of the list {@code List.of} returns for {@code size} elements: the shared empty list,
+     * a List12 holding one or two elements in fields, or a ListN over an element array
+     */
+    static long immutableListSize(ObjectLayout layout, int size) {
+        if (size == 0) {
+            return 0;
+        }
+        if (size <= 2) {
+            return layout.objectSize(2, 0);
+        }
+        return layout.objectSize(1, 1) + layout.referenceArraySize(size);
+    }
+    
+    /**
+     * Size of the employee object alone: ten reference fields (id through configurableChunks) and
+     * the latin1Payload flag, without anything they reference
+     */
+    public static long shallowSize(ObjectLayout layout) {
+        return layout.objectSize(10, 1);
+    }
+    
+    /**
+     * Shared formula behind {@link #getApproximateMemorySize()}, also used by {@link EmployeeBatch}
+     * so both representations report the same value for the same employee.
+     * Assumes id, salary and hire date are present.
+     */
+    static long approximateMemorySize(String firstName, String lastName, String email,
+                                      String position, String department, long configurableDataSize) {
+        ObjectLayout layout = ObjectLayout.current();
+        long size = shallowSize(layout);
+        size += layout.boxedLongSize();      // Long id
+        size += layout.boxedLongSize();      // Double salary
+        size += layout.localDateSize();      // LocalDate hireDate
+        size += layout.stringSize(firstName);
+        size += layout.stringSize(lastName);
+        size += layout.stringSize(email);
+        size += layout.stringSize(position);
+        size += layout.stringSize(department);
+        size += configurableDataSize;
+        return size;
     }
     
     @Override
@@ -142,13 +241,14 @@ public class Employee {
                Objects.equals(department, employee.department) &&
                Objects.equals(salary, employee.salary) &&
                Objects.equals(hireDate, employee.hireDate) &&
-               Objects.equals(configurableData, employee.configurableData);
+               Objects.equals(configurableData, employee.configurableData) &&
+               Objects.equals(configurableChunks, employee.configurableChunks);
     }
     
     @Override
     public int hashCode() {
         return Objects.hash(id, firstName, lastName, email, position, 
-                          department, salary, hireDate, configurableData);
+                          department, salary, hireDate, configurableData, configurableChunks);
     }
     
     @Override
@@ -163,6 +263,7 @@ public class Employee {
                 ", salary=" + salary +
                 ", hireDate=" + hireDate +
                 ", configurableDataSize=" + (configurableData != null ? configurableData.length() : 0) + " chars" +
+                (configurableChunks != null ? ", configurableChunks=" + configurableChunks.size() : "") +
                 '}';
     }
 }
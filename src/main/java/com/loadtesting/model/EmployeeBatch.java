@@ -0,0 +1,189 @@
+package com.loadtesting.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Columnar (struct-of-arrays) representation of a batch of employees.
+ * Instead of one object graph per employee (Employee, boxed Long/Double, LocalDate, email and
+ * data Strings), a batch keeps one primitive array per attribute: ids, salaries and hire dates
+ * as primitives, names/positions/departments as byte codes into {@link EmployeeDictionary},
+ * and all configurable data in a single contiguous Latin-1 buffer. Emails are derived from the
+ * name codes and are not stored.
+ *
+ * Serializes to exactly the same JSON array as the equivalent {@code List<Employee>}.
+ */
+@JsonSerialize(using = EmployeeBatchSerializer.class)
+public class EmployeeBatch {
+
+    private static final int ARRAY_FIELD_COUNT = 9;
+
+    private final long[] ids;
+    private final double[] salaries;
+    private final int[] hireEpochDays;
+    private final byte[] firstNameCodes;
+    private final byte[] lastNameCodes;
+    private final byte[] positionCodes;
+    private final byte[] departmentCodes;
+    private final int[] dataOffsets;
+    private final byte[] data;
+    private int size;
+
+    /**
+     * Create an empty batch with room for {@code capacity} employees and {@code dataCapacity}
+     * bytes of configurable data in total
+     */
+    public EmployeeBatch(int capacity, int dataCapacity) {
+        this.ids = new long[capacity];
+        this.salaries = new double[capacity];
+        this.hireEpochDays = new int[capacity];
+        this.firstNameCodes = new byte[capacity];
+        this.lastNameCodes = new byte[capacity];
+        this.positionCodes = new byte[capacity];
+        this.departmentCodes = new byte[capacity];
+        this.dataOffsets = new int[capacity + 1];
+        this.data = new byte[dataCapacity];
+    }
+
+    /**
+     * Append an employee and reserve {@code dataLength} bytes for its configurable data.
+     * The caller fills the reserved range of {@link #getDataBuffer()} starting at the returned offset.
+     *
+     * @return offset of the reserved configurable data range
+     */
+    public int append(long id, int firstNameCode, int lastNameCode, int positionCode, int departmentCode,
+                      double salary, int hireEpochDay, int dataLength) {
+        int index = size++;
+        ids[index] = id;
+        firstNameCodes[index] = (byte) firstNameCode;
+        lastNameCodes[index] = (byte) lastNameCode;
+        positionCodes[index] = (byte) positionCode;
+        departmentCodes[index] = (byte) departmentCode;
+        salaries[index] = salary;
+        hireEpochDays[index] = hireEpochDay;
+        int offset = dataOffsets[index];
+        dataOffsets[index + 1] = offset + dataLength;
+        return offset;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getId(int index) {
+        return ids[index];
+    }
+
+    public String getFirstName(int index) {
+        return EmployeeDictionary.FIRST_NAMES.get(firstNameCodes[index]);
+    }
+
+    public String getLastName(int index) {
+        return EmployeeDictionary.LAST_NAMES.get(lastNameCodes[index]);
+    }
+
+    public String getEmail(int index) {
+        return EmployeeDictionary.email(firstNameCodes[index], lastNameCodes[index]);
+    }
+
+    public String getPosition(int index) {
+        return EmployeeDictionary.POSITIONS.get(positionCodes[index]);
+    }
+
+    public String getDepartment(int index) {
+        return EmployeeDictionary.DEPARTMENTS.get(departmentCodes[index]);
+    }
+
+    public double getSalary(int index) {
+        return salaries[index];
+    }
+
+    public int getHireEpochDay(int index) {
+        return hireEpochDays[index];
+    }
+
+    public LocalDate getHireDate(int index) {
+        return LocalDate.ofEpochDay(hireEpochDays[index]);
+    }
+
+    public int getDataOffset(int index) {
+        return dataOffsets[index];
+    }
+
+    public int getDataLength(int index) {
+        return dataOffsets[index + 1] - dataOffsets[index];
+    }
+
+    /**
+     * Backing buffer holding the configurable data of every employee back to back
+     */
+    public byte[] getDataBuffer() {
+        return data;
+    }
+
+    /**
+     * Materialize the configurable data of one employee as a String
+     */
+    public String getConfigurableData(int index) {
+        return new String(data, dataOffsets[index], getDataLength(index), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Same value as {@link Employee#getApproximateMemorySize()} for the equivalent employee
+     */
+    public long getApproximateMemorySize(int index) {
+        return Employee.approximateMemorySize(getFirstName(index), getLastName(index), getEmail(index),
+                getPosition(index), getDepartment(index), ObjectLayout.current().stringSize(getDataLength(index), true));
+    }
+
+    /**
+     * Build the object representation of one employee
+     */
+    public Employee toEmployee(int index) {
+        return new Employee(getId(index), getFirstName(index), getLastName(index), getEmail(index),
+                getPosition(index), getDepartment(index), getSalary(index), getHireDate(index),
+                getConfigurableData(index));
+    }
+
+    /**
+     * Build the object representation of the whole batch
+     */
+    public List<Employee> toEmployees() {
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employees.add(toEmployee(i));
+        }
+        return employees;
+    }
+
+    /**
+     * Heap footprint of this batch: the batch object plus its primitive arrays.
+     * Dictionary strings are shared by all batches and are not counted.
+     */
+    public long getFootprintBytes() {
+        ObjectLayout layout = ObjectLayout.current();
+        long capacity = ids.length;
+        long bytes = layout.objectSize(ARRAY_FIELD_COUNT, Integer.BYTES);
+        bytes += layout.arraySize(capacity, Long.BYTES);         // ids
+        bytes += layout.arraySize(capacity, Double.BYTES);       // salaries
+        bytes += layout.arraySize(capacity, Integer.BYTES);      // hire dates
+        bytes += 4 * layout.arraySize(capacity, 1);              // dictionary codes
+        bytes += layout.arraySize(capacity + 1, Integer.BYTES);  // data offsets
+        bytes += layout.arraySize(data.length, 1);               // configurable data
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeBatch{" +
+                "size=" + size +
+                ", dataBytes=" + dataOffsets[size] +
+                ", ids=" + Arrays.toString(Arrays.copyOf(ids, Math.min(size, 5))) + (size > 5 ? "..." : "") +
+                '}';
+    }
+}
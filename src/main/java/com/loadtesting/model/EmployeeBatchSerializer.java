@@ -0,0 +1,50 @@
+package com.loadtesting.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes an {@link EmployeeBatch} as the same JSON array Jackson produces for a {@code List<Employee>}:
+ * same property order, same number formats, and hire dates rendered by the configured LocalDate
+ * serializer. Configurable data is alphanumeric, so on UTF-8 output it is copied straight from the
+ * batch buffer without building a String per employee.
+ */
+public class EmployeeBatchSerializer extends StdSerializer<EmployeeBatch> {
+
+    public EmployeeBatchSerializer() {
+        super(EmployeeBatch.class);
+    }
+
+    @Override
+    public void serialize(EmployeeBatch batch, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        // Raw UTF-8 passthrough is only supported by byte-oriented generators
+        boolean rawUtf8 = gen instanceof UTF8JsonGenerator;
+
+        gen.writeStartArray(batch, batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            gen.writeStartObject();
+            gen.writeNumberField("id", batch.getId(i));
+            gen.writeStringField("firstName", batch.getFirstName(i));
+            gen.writeStringField("lastName", batch.getLastName(i));
+            gen.writeStringField("email", batch.getEmail(i));
+            gen.writeStringField("position", batch.getPosition(i));
+            gen.writeStringField("department", batch.getDepartment(i));
+            gen.writeNumberField("salary", batch.getSalary(i));
+            gen.writeFieldName("hireDate");
+            provider.defaultSerializeValue(batch.getHireDate(i), gen);
+            gen.writeFieldName("configurableData");
+            if (rawUtf8) {
+                gen.writeRawUTF8String(batch.getDataBuffer(), batch.getDataOffset(i), batch.getDataLength(i));
+            } else {
+                gen.writeString(batch.getConfigurableData(i));
+            }
+            gen.writeNumberField("approximateMemorySize", batch.getApproximateMemorySize(i));
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,97 @@
+package com.loadtesting.model;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fixed sample values used to generate employee attributes.
+ * Generated employees only ever use these values, so columnar representations
+ * can store a small code (the list index) instead of a reference per attribute.
+ */
+public final class EmployeeDictionary {
+
+    public static final List<String> FIRST_NAMES = List.of(
+        "John", "Jane", "Michael", "Sarah", "David", "Lisa", "Robert", "Emily",
+        "James", "Jessica", "William", "Ashley", "Richard", "Amanda", "Charles", "Melissa"
+    );
+
+    public static final List<String> LAST_NAMES = List.of(
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis",
+        "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas"
+    );
+
+    public static final List<String> DEPARTMENTS = List.of(
+        "Engineering", "Marketing", "Sales", "Human Resources", "Finance",
+        "Operations", "Customer Service", "IT", "Legal", "Research"
+    );
+
+    public static final List<String> POSITIONS = List.of(
+        "Software Engineer", "Senior Developer", "Manager", "Director", "Analyst",
+        "Specialist", "Coordinator", "Associate", "Lead", "Principal", "Vice President"
+    );
+
+    // Emails are fully determined by the name pair, so they are derived once per pair
+    private static final String[] EMAILS = createEmails();
+
+    // Instances owned by the dictionary; an employee referencing one of them does not retain it
+    private static final Set<String> SHARED = createShared();
+
+    private EmployeeDictionary() {
+    }
+
+    /**
+     * Email address for a first/last name pair, e.g. "john.smith@company.com"
+     */
+    public static String email(String firstName, String lastName) {
+        return (firstName + "." + lastName + "@company.com").toLowerCase();
+    }
+
+    /**
+     * Shared email address for a first/last name code pair
+     */
+    public static String email(int firstNameCode, int lastNameCode) {
+        return EMAILS[firstNameCode * LAST_NAMES.size() + lastNameCode];
+    }
+
+    /**
+     * Find a value ignoring case and return the spelling used in the dictionary, or null if absent
+     */
+    public static String findIgnoreCase(List<String> values, String value) {
+        for (String candidate : values) {
+            if (candidate.equalsIgnoreCase(value)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether {@code value} is one of the dictionary's own String instances (identity, not equality),
+     * i.e. shared by every employee that references it rather than retained by any one of them
+     */
+    public static boolean isShared(String value) {
+        return value != null && SHARED.contains(value);
+    }
+
+    private static Set<String> createShared() {
+        Set<String> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+        shared.addAll(FIRST_NAMES);
+        shared.addAll(LAST_NAMES);
+        shared.addAll(DEPARTMENTS);
+        shared.addAll(POSITIONS);
+        Collections.addAll(shared, EMAILS);
+        return shared;
+    }
+
+    private static String[] createEmails() {
+        String[] emails = new String[FIRST_NAMES.size() * LAST_NAMES.size()];
+        for (int first = 0; first < FIRST_NAMES.size(); first++) {
+            for (int last = 0; last < LAST_NAMES.size(); last++) {
+                emails[first * LAST_NAMES.size() + last] = email(FIRST_NAMES.get(first), LAST_NAMES.get(last));
+            }
+        }
+        return emails;
+    }
+}
@@ -0,0 +1,189 @@
+package com.loadtesting.model;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Heap layout of the running JVM, used to size objects the way HotSpot actually lays them out:
+ * object and array headers, reference width (compressed oops), field padding, object alignment
+ * and compact (Latin-1) strings. Values are read once from the HotSpot diagnostic flags and fall
+ * back to the 64-bit defaults (compressed oops and class pointers, 8-byte alignment, compact strings)
+ * when the flags are not available.
+ */
+public final class ObjectLayout {
+
+    private static final ObjectLayout CURRENT = detect();
+
+    private final boolean compressedOops;
+    private final boolean compressedClassPointers;
+    private final boolean compactStrings;
+    private final int objectAlignment;
+    private final long g1RegionSize;
+
+    ObjectLayout(boolean compressedOops, boolean compressedClassPointers, boolean compactStrings, int objectAlignment,
+                 long g1RegionSize) {
+        this.compressedOops = compressedOops;
+        this.compressedClassPointers = compressedClassPointers;
+        this.compactStrings = compactStrings;
+        this.objectAlignment = objectAlignment;
+        this.g1RegionSize = g1RegionSize;
+    }
+
+    /**
+     * Layout of the running JVM
+     */
+    public static ObjectLayout current() {
+        return CURRENT;
+    }
+
+    public boolean isCompressedOops() {
+        return compressedOops;
+    }
+
+    public boolean isCompressedClassPointers() {
+        return compressedClassPointers;
+    }
+
+    public boolean isCompactStrings() {
+        return compactStrings;
+    }
+
+    public int getObjectAlignment() {
+        return objectAlignment;
+    }
+
+    /**
+     * G1 heap region size in bytes, or 0 when G1 is not the collector
+     */
+    public long getG1RegionSize() {
+        return g1RegionSize;
+    }
+
+    /**
+     * Whether G1 allocates an object of this size as humongous: directly in the old generation, in
+     * contiguous regions of its own, once it is larger than half a region
+     */
+    public boolean isHumongous(long objectBytes) {
+        return g1RegionSize > 0 && objectBytes > g1RegionSize / 2;
+    }
+
+    /**
+     * Regions a humongous object occupies; the rest of its last region stays unused
+     */
+    public long humongousRegions(long objectBytes) {
+        return isHumongous(objectBytes) ? (objectBytes + g1RegionSize - 1) / g1RegionSize : 0;
+    }
+
+    /**
+     * Size of a reference field or array slot
+     */
+    public int getReferenceSize() {
+        return compressedOops ? 4 : 8;
+    }
+
+    /**
+     * Mark word plus class pointer
+     */
+    public int getObjectHeaderSize() {
+        return compressedClassPointers ? 12 : 16;
+    }
+
+    /**
+     * Object header plus the int length field, padded so 8-byte elements stay aligned
+     */
+    public int getArrayHeaderSize() {
+        return compressedClassPointers ? 16 : 24;
+    }
+
+    /**
+     * Round a size up to the object alignment
+     */
+    public long align(long bytes) {
+        return (bytes + objectAlignment - 1) / objectAlignment * objectAlignment;
+    }
+
+    /**
+     * Size of an object with the given number of reference fields and primitive field bytes
+     */
+    public long objectSize(int referenceFields, int primitiveBytes) {
+        return align(getObjectHeaderSize() + (long) referenceFields * getReferenceSize() + primitiveBytes);
+    }
+
+    /**
+     * Size of an array of {@code length} elements of {@code elementSize} bytes
+     */
+    public long arraySize(long length, int elementSize) {
+        return align(getArrayHeaderSize() + length * elementSize);
+    }
+
+    /**
+     * Size of an array of {@code length} references
+     */
+    public long referenceArraySize(long length) {
+        return arraySize(length, getReferenceSize());
+    }
+
+    /**
+     * Size of a String and its backing byte array (value, hash, coder and hashIsZero fields)
+     */
+    public long stringSize(String value) {
+        if (value == null) {
+            return 0;
+        }
+        boolean latin1 = compactStrings && isLatin1(value);
+        return stringSize(value.length(), latin1);
+    }
+
+    /**
+     * Size of a String of {@code length} characters, stored as Latin-1 or UTF-16
+     */
+    public long stringSize(int length, boolean latin1) {
+        long shell = objectSize(1, Integer.BYTES + 2);
+        return shell + arraySize((long) length * (latin1 ? 1 : 2), 1);
+    }
+
+    /**
+     * Size of a Long or Double box
+     */
+    public long boxedLongSize() {
+        return objectSize(0, Long.BYTES);
+    }
+
+    /**
+     * Size of a LocalDate (int year, short month, short day)
+     */
+    public long localDateSize() {
+        return objectSize(0, Integer.BYTES + 2 * Short.BYTES);
+    }
+
+    private static boolean isLatin1(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ObjectLayout detect() {
+        boolean compressedOops = true;
+        boolean compressedClassPointers = true;
+        boolean compactStrings = true;
+        int objectAlignment = 8;
+        long g1RegionSize = 0;
+        try {
+            HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            compressedOops = Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedOops").getValue());
+            compressedClassPointers = Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedClassPointers").getValue());
+            compactStrings = Boolean.parseBoolean(hotSpot.getVMOption("CompactStrings").getValue());
+            objectAlignment = Integer.parseInt(hotSpot.getVMOption("ObjectAlignmentInBytes").getValue());
+            if (Boolean.parseBoolean(hotSpot.getVMOption("UseG1GC").getValue())) {
+                g1RegionSize = Long.parseLong(hotSpot.getVMOption("G1HeapRegionSize").getValue());
+            }
+        } catch (RuntimeException e) {
+            // Not a HotSpot JVM or the flag is unknown: keep the 64-bit defaults
+        }
+        return new ObjectLayout(compressedOops, compressedClassPointers, compactStrings, objectAlignment, g1RegionSize);
+    }
+}
@@ -0,0 +1,511 @@
+package com.loadtesting.service;
+
+import com.loadtesting.config.MemorySimulationProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Holds a configurable heap allocation rate in the background, to reproduce the GC pressure of a
+ * real service while HTTP load runs. Worker threads allocate byte arrays and pace themselves on
+ * their own measured allocation (the ThreadMXBean counters used for request cost), sleeping when
+ * ahead of the target rate, so the rate holds regardless of JIT state or object overhead.
+ *
+ * Each object gets a lifetime: most die young, a share survives a number of collections (aging in
+ * the survivor spaces) and a share is held long enough to be promoted, which makes the old
+ * generation churn too. Retained objects are capped by {@code maxRetainedBytes}, oldest dropped
+ * first whichever lifetime they have. A new profile recomputes the deadlines of retained objects
+ * from their birth. When a worker cannot keep up, the achieved rate falls below the target instead
+ * of bursting to catch up.
+ */
+@Service
+public class AllocationChurnService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AllocationChurnService.class);
+
+    private static final long MB = 1024 * 1024;
+    private static final long MAX_BATCH_BYTES = 256 * 1024;
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final JvmMemoryMonitor jvmMemoryMonitor;
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile ChurnProfile profile;
+    private volatile Run run;
+
+    public AllocationChurnService(MemorySimulationProperties memoryProperties, JvmMemoryMonitor jvmMemoryMonitor,
+                                  MeterRegistry meterRegistry) {
+        this.jvmMemoryMonitor = jvmMemoryMonitor;
+
+        FunctionCounter.builder("memory.churn.allocated", allocatedBytes, LongAdder::sum)
+                .description("Heap bytes allocated by the allocation churn workers")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("memory.churn.retained", retainedBytes, AtomicLong::get)
+                .description("Bytes the allocation churn workers keep reachable")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("memory.churn.target", this, service -> {
+                    ChurnProfile current = service.profile;
+                    return current != null ? current.getRateMbPerSecond() * MB : 0;
+                })
+                .description("Target allocation rate of the churn workers")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        MemorySimulationProperties.Churn churn = memoryProperties.getChurn();
+        if (churn.isEnabled()) {
+            start(ChurnProfile.from(churn));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stop();
+    }
+
+    /**
+     * Start churning, or switch a running churn to a new profile. The rate and lifetimes change in
+     * place; a different thread count restarts the workers.
+     *
+     * @throws IllegalArgumentException if the profile is invalid
+     */
+    public synchronized ChurnStatus start(ChurnProfile newProfile) {
+        newProfile.validate();
+        if (run != null && profile.getThreads() == newProfile.getThreads()) {
+            profile = newProfile;
+            logger.info("Allocation churn changed to {} MB/s", newProfile.getRateMbPerSecond());
+            return getStatus();
+        }
+        stopWorkers();
+        profile = newProfile;
+        run = new Run(allocatedBytes.sum());
+        for (int i = 0; i < newProfile.getThreads(); i++) {
+            Thread thread = new Thread(new Worker(run, i), "allocation-churn-" + (i + 1));
+            thread.setDaemon(true);
+            workers.add(thread);
+            thread.start();
+        }
+        logger.info("Allocation churn started at {} MB/s on {} threads",
+                newProfile.getRateMbPerSecond(), newProfile.getThreads());
+        return getStatus();
+    }
+
+    /**
+     * Stop the workers and release everything they retained
+     */
+    public synchronized ChurnStatus stop() {
+        ChurnStatus status = getStatus();
+        if (run != null) {
+            stopWorkers();
+            profile = null;
+            logger.info("Allocation churn stopped after {} MB", status.getAllocatedBytes() / MB);
+        }
+        return status;
+    }
+
+    private void stopWorkers() {
+        if (run != null) {
+            run.stopped = true;
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+        run = null;
+    }
+
+    /**
+     * Achieved rate and GC activity since the churn started
+     */
+    public ChurnStatus getStatus() {
+        Run current = run;
+        JvmMemoryMonitor.JvmMemoryStats stats = jvmMemoryMonitor.getStats();
+        if (current == null) {
+            return new ChurnStatus(false, null, null, 0, 0, 0, retainedBytes.get(), 0, 0, 0,
+                    stats.getAllocationRateBytesPerSecond(), stats.getPromotionRateBytesPerSecond());
+        }
+        double seconds = Math.max(1e-3, (System.nanoTime() - current.startNanos) / 1e9);
+        long allocated = allocatedBytes.sum() - current.allocatedAtStart;
+        long[] gc = gcTotals();
+        long gcTimeMs = gc[1] - current.gcTimeAtStart;
+        return new ChurnStatus(true, profile, current.startedAt, seconds, allocated, allocated / seconds,
+                retainedBytes.get(), gc[0] - current.gcCountAtStart, gcTimeMs, gcTimeMs / (seconds * 1000),
+                stats.getAllocationRateBytesPerSecond(), stats.getPromotionRateBytesPerSecond());
+    }
+
+    /**
+     * Collection count and accumulated collection time in milliseconds, over all collectors
+     */
+    private static long[] gcTotals() {
+        long count = 0;
+        long timeMs = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+            timeMs += Math.max(0, collector.getCollectionTime());
+        }
+        return new long[] {count, timeMs};
+    }
+
+    private static long footprint(int objectSize) {
+        return (ARRAY_HEADER_BYTES + objectSize + 7) & ~7L;
+    }
+
+    /**
+     * One start of the workers, with the counters at that moment
+     */
+    private static final class Run {
+        private final Instant startedAt = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private final long allocatedAtStart;
+        private final long gcCountAtStart;
+        private final long gcTimeAtStart;
+        private volatile boolean stopped;
+
+        Run(long allocatedAtStart) {
+            this.allocatedAtStart = allocatedAtStart;
+            long[] gc = gcTotals();
+            this.gcCountAtStart = gc[0];
+            this.gcTimeAtStart = gc[1];
+        }
+    }
+
+    /**
+     * An object kept reachable until its lifetime ends: a collection count for survivors, a
+     * {@link System#nanoTime()} for tenured objects
+     */
+    private static final class Retained {
+        private final byte[] data;
+        private final long bornNanos;
+        private final long bornGc;
+        private final long until;
+
+        Retained(byte[] data, long bornNanos, long bornGc, long until) {
+            this.data = data;
+            this.bornNanos = bornNanos;
+            this.bornGc = bornGc;
+            this.until = until;
+        }
+    }
+
+    /**
+     * One worker's retained objects. Both deques are in birth order and every object of a kind has
+     * the same lifetime, so each deque is also in deadline order and releasing only looks at heads.
+     */
+    static final class Retention {
+        // Released by collection count and by time respectively
+        private final ArrayDeque<Retained> survivors = new ArrayDeque<>();
+        private final ArrayDeque<Retained> tenured = new ArrayDeque<>();
+        private long bytes;
+
+        /**
+         * Keep the object until {@code survivorGcs} more collections have run; returns its footprint
+         */
+        long survive(byte[] data, long nowNanos, long gcCount, ChurnProfile profile) {
+            survivors.addLast(new Retained(data, nowNanos, gcCount, gcCount + profile.getSurvivorGcs()));
+            return add(data);
+        }
+
+        /**
+         * Keep the object for {@code tenuredSeconds}; returns its footprint
+         */
+        long tenure(byte[] data, long nowNanos, long gcCount, ChurnProfile profile) {
+            tenured.addLast(new Retained(data, nowNanos, gcCount, nowNanos + TimeUnit.SECONDS.toNanos(profile.getTenuredSeconds())));
+            return add(data);
+        }
+
+        /**
+         * Release the objects whose lifetime ended, then the oldest of either kind while over
+         * {@code capBytes}; returns the bytes released
+         */
+        long release(long gcCount, long nowNanos, long capBytes) {
+            long released = 0;
+            while (!survivors.isEmpty() && survivors.peekFirst().until <= gcCount) {
+                released += footprint(survivors.removeFirst().data.length);
+            }
+            while (!tenured.isEmpty() && tenured.peekFirst().until <= nowNanos) {
+                released += footprint(tenured.removeFirst().data.length);
+            }
+            while (bytes - released > capBytes && !(tenured.isEmpty() && survivors.isEmpty())) {
+                ArrayDeque<Retained> oldest = tenured.isEmpty() ? survivors
+                        : survivors.isEmpty() ? tenured
+                        : survivors.peekFirst().bornNanos <= tenured.peekFirst().bornNanos ? survivors : tenured;
+                released += footprint(oldest.removeFirst().data.length);
+            }
+            bytes -= released;
+            return released;
+        }
+
+        /**
+         * Recompute every deadline from the object's birth under a new profile, keeping the deques
+         * in deadline order when the lifetimes change
+         */
+        void rebuild(ChurnProfile profile) {
+            List<Retained> previous = new ArrayList<>(survivors);
+            survivors.clear();
+            for (Retained retained : previous) {
+                survivors.addLast(new Retained(retained.data, retained.bornNanos, retained.bornGc,
+                        retained.bornGc + profile.getSurvivorGcs()));
+            }
+            previous = new ArrayList<>(tenured);
+            tenured.clear();
+            for (Retained retained : previous) {
+                tenured.addLast(new Retained(retained.data, retained.bornNanos, retained.bornGc,
+                        retained.bornNanos + TimeUnit.SECONDS.toNanos(profile.getTenuredSeconds())));
+            }
+        }
+
+        /**
+         * Release everything; returns the bytes released
+         */
+        long clear() {
+            survivors.clear();
+            tenured.clear();
+            long released = bytes;
+            bytes = 0;
+            return released;
+        }
+
+        long getBytes() {
+            return bytes;
+        }
+
+        private long add(byte[] data) {
+            long footprint = footprint(data.length);
+            bytes += footprint;
+            return footprint;
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final Run run;
+        private final SplittableRandom random;
+        // Short-lived objects pass through here so the JIT cannot eliminate the allocation
+        private final byte[][] sink = new byte[16][];
+        private final Retention retention = new Retention();
+        private long lastAllocated = -1;
+
+        Worker(Run run, int index) {
+            this.run = run;
+            this.random = new SplittableRandom(index);
+        }
+
+        @Override
+        public void run() {
+            try {
+                churn();
+            } finally {
+                retainedBytes.addAndGet(-retention.clear());
+            }
+        }
+
+        private void churn() {
+            ChurnProfile current = profile;
+            long startNanos = System.nanoTime();
+            long startAllocated = allocated(0);
+            long counted = 0;
+            while (!run.stopped && !Thread.currentThread().isInterrupted()) {
+                ChurnProfile latest = profile;
+                if (latest != current && latest != null) {
+                    // New rate: pace from here on; new lifetimes apply to what is already retained
+                    if (latest.getSurvivorGcs() != current.getSurvivorGcs()
+                            || latest.getTenuredSeconds() != current.getTenuredSeconds()) {
+                        retention.rebuild(latest);
+                    }
+                    current = latest;
+                    startNanos = System.nanoTime();
+                    startAllocated = allocated(counted);
+                }
+                double bytesPerSecond = current.getRateMbPerSecond() * MB / current.getThreads();
+                long footprint = footprint(current.getObjectSizeBytes());
+                int objects = (int) Math.max(1, Math.min(MAX_BATCH_BYTES, bytesPerSecond / 100) / footprint);
+
+                long gcCount = gcTotals()[0];
+                long now = System.nanoTime();
+                for (int i = 0; i < objects; i++) {
+                    byte[] data = new byte[current.getObjectSizeBytes()];
+                    double lifetime = random.nextDouble();
+                    if (lifetime < current.getTenuredRatio()) {
+                        retainedBytes.addAndGet(retention.tenure(data, now, gcCount, current));
+                    } else if (lifetime < current.getTenuredRatio() + current.getSurvivorRatio()) {
+                        retainedBytes.addAndGet(retention.survive(data, now, gcCount, current));
+                    } else {
+                        sink[i & (sink.length - 1)] = data;
+                    }
+                }
+                counted += objects * footprint;
+                retainedBytes.addAndGet(-retention.release(gcCount, now, current.getMaxRetainedBytes() / current.getThreads()));
+
+                // Feedback on what this thread actually allocated, including the bookkeeping
+                long measured = allocated(counted) - startAllocated;
+                long elapsed = System.nanoTime() - startNanos;
+                double target = bytesPerSecond * elapsed / 1e9;
+                if (measured > target) {
+                    LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, (long) ((measured - target) / bytesPerSecond * 1e9)));
+                } else if (target - measured > bytesPerSecond) {
+                    // More than a second behind: the rate is out of reach, don't burst to catch up
+                    startNanos = System.nanoTime();
+                    startAllocated = allocated(counted);
+                }
+            }
+        }
+
+        /**
+         * Bytes this thread allocated so far, measured when the JVM supports it
+         */
+        private long allocated(long counted) {
+            long measured = RequestCost.isAllocationSupported() ? RequestCost.sampleThread().getAllocatedBytes() : counted;
+            long previous = lastAllocated;
+            lastAllocated = measured;
+            if (previous >= 0) {
+                allocatedBytes.add(measured - previous);
+            }
+            return measured;
+        }
+    }
+
+    /**
+     * Target rate, worker threads and the lifetime mix of the allocated objects
+     */
+    public static class ChurnProfile {
+        private double rateMbPerSecond = 100;
+        private int threads = 2;
+        private int objectSizeBytes = 1024;
+        private double survivorRatio = 0.1;
+        private int survivorGcs = 2;
+        private double tenuredRatio = 0.01;
+        private int tenuredSeconds = 60;
+        private long maxRetainedBytes = 128 * MB;
+
+        static ChurnProfile from(MemorySimulationProperties.Churn churn) {
+            ChurnProfile profile = new ChurnProfile();
+            profile.setRateMbPerSecond(churn.getRateMbPerSecond());
+            profile.setThreads(churn.getThreads());
+            profile.setObjectSizeBytes(churn.getObjectSizeBytes());
+            profile.setSurvivorRatio(churn.getSurvivorRatio());
+            profile.setSurvivorGcs(churn.getSurvivorGcs());
+            profile.setTenuredRatio(churn.getTenuredRatio());
+            profile.setTenuredSeconds(churn.getTenuredSeconds());
+            profile.setMaxRetainedBytes(churn.getMaxRetainedBytes());
+            return profile;
+        }
+
+        void validate() {
+            if (!(rateMbPerSecond > 0) || rateMbPerSecond > 20_000) {
+                throw new IllegalArgumentException("rateMbPerSecond must be between 0 and 20000");
+            }
+            if (threads < 1 || threads > 64) {
+                throw new IllegalArgumentException("threads must be between 1 and 64");
+            }
+            if (objectSizeBytes < 0 || objectSizeBytes > 16 * MB) {
+                throw new IllegalArgumentException("objectSizeBytes must be between 0 and 16MB");
+            }
+            if (survivorRatio < 0 || tenuredRatio < 0 || survivorRatio + tenuredRatio > 1) {
+                throw new IllegalArgumentException("survivorRatio and tenuredRatio must be non-negative and add up to at most 1");
+            }
+            if (survivorGcs < 1 || tenuredSeconds < 1 || maxRetainedBytes < 0) {
+                throw new IllegalArgumentException("survivorGcs and tenuredSeconds must be positive, maxRetainedBytes non-negative");
+            }
+        }
+
+        public double getRateMbPerSecond() { return rateMbPerSecond; }
+        public void setRateMbPerSecond(double rateMbPerSecond) { this.rateMbPerSecond = rateMbPerSecond; }
+        public int getThreads() { return threads; }
+        public void setThreads(int threads) { this.threads = threads; }
+        public int getObjectSizeBytes() { return objectSizeBytes; }
+        public void setObjectSizeBytes(int objectSizeBytes) { this.objectSizeBytes = objectSizeBytes; }
+        /** Share of objects kept until {@code survivorGcs} collections have run */
+        public double getSurvivorRatio() { return survivorRatio; }
+        public void setSurvivorRatio(double survivorRatio) { this.survivorRatio = survivorRatio; }
+        public int getSurvivorGcs() { return survivorGcs; }
+        public void setSurvivorGcs(int survivorGcs) { this.survivorGcs = survivorGcs; }
+        /** Share of objects kept for {@code tenuredSeconds}, long enough to be promoted */
+        public double getTenuredRatio() { return tenuredRatio; }
+        public void setTenuredRatio(double tenuredRatio) { this.tenuredRatio = tenuredRatio; }
+        public int getTenuredSeconds() { return tenuredSeconds; }
+        public void setTenuredSeconds(int tenuredSeconds) { this.tenuredSeconds = tenuredSeconds; }
+        /** Cap on the bytes kept reachable by all workers together */
+        public long getMaxRetainedBytes() { return maxRetainedBytes; }
+        public void setMaxRetainedBytes(long maxRetainedBytes) { this.maxRetainedBytes = maxRetainedBytes; }
+    }
+
+    /**
+     * What the churn achieved and what it cost the collector
+     */
+    public static class ChurnStatus {
+        private final boolean running;
+        private final ChurnProfile profile;
+        private final Instant startedAt;
+        private final double runningSeconds;
+        private final long allocatedBytes;
+        private final double achievedBytesPerSecond;
+        private final long retainedBytes;
+        private final long gcCount;
+        private final long gcTimeMs;
+        private final double gcTimeRatio;
+        private final double jvmAllocationRateBytesPerSecond;
+        private final double jvmPromotionRateBytesPerSecond;
+
+        public ChurnStatus(boolean running, ChurnProfile profile, Instant startedAt, double runningSeconds,
+                           long allocatedBytes, double achievedBytesPerSecond, long retainedBytes, long gcCount,
+                           long gcTimeMs, double gcTimeRatio, double jvmAllocationRateBytesPerSecond,
+                           double jvmPromotionRateBytesPerSecond) {
+            this.running = running;
+            this.profile = profile;
+            this.startedAt = startedAt;
+            this.runningSeconds = runningSeconds;
+            this.allocatedBytes = allocatedBytes;
+            this.achievedBytesPerSecond = achievedBytesPerSecond;
+            this.retainedBytes = retainedBytes;
+            this.gcCount = gcCount;
+            this.gcTimeMs = gcTimeMs;
+            this.gcTimeRatio = gcTimeRatio;
+            this.jvmAllocationRateBytesPerSecond = jvmAllocationRateBytesPerSecond;
+            this.jvmPromotionRateBytesPerSecond = jvmPromotionRateBytesPerSecond;
+        }
+
+        public boolean isRunning() { return running; }
+        public ChurnProfile getProfile() { return profile; }
+        public Instant getStartedAt() { return startedAt; }
+        public double getRunningSeconds() { return runningSeconds; }
+        /** Allocated by the churn workers since the start */
+        public long getAllocatedBytes() { return allocatedBytes; }
+        public double getAchievedBytesPerSecond() { return achievedBytesPerSecond; }
+        public double getAchievedMbPerSecond() { return achievedBytesPerSecond / MB; }
+        public long getRetainedBytes() { return retainedBytes; }
+        /** Collections of all causes since the start, including those triggered by HTTP load */
+        public long getGcCount() { return gcCount; }
+        public long getGcTimeMs() { return gcTimeMs; }
+        /** Share of wall-clock time spent in collections since the start */
+        public double getGcTimeRatio() { return gcTimeRatio; }
+        /** Whole-JVM rates over the last minute, churn and request handling together */
+        public double getJvmAllocationRateBytesPerSecond() { return jvmAllocationRateBytesPerSecond; }
+        public double getJvmPromotionRateBytesPerSecond() { return jvmPromotionRateBytesPerSecond; }
+    }
+}
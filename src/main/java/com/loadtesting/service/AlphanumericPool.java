@@ -0,0 +1,64 @@
+package com.loadtesting.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * High-throughput source of random alphanumeric text for the configurable data field.
+ * A 1MB pool of random alphanumeric bytes is filled once at class initialization; strings
+ * are then assembled from fixed-size slices copied from random offsets in the pool.
+ * A 1MB field costs about 16K random draws and bulk array copies instead of a million
+ * per-character draws, and the bytes go straight into a Latin-1 compact String without
+ * passing through a UTF-16 StringBuilder.
+ *
+ * The pool is filled from a fixed seed, so seeded callers still get reproducible output.
+ */
+public final class AlphanumericPool {
+
+    private static final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    // Power of two so that picking an offset is a single bounded draw
+    private static final int POOL_SIZE = 1 << 20;
+
+    // Bytes copied per random draw; small enough that repeats are rare within a compression window
+    private static final int SLICE_SIZE = 64;
+
+    private static final long POOL_SEED = 0x5DEECE66DL;
+
+    // Padded by one slice so that every offset in [0, POOL_SIZE) can be copied without wrapping
+    private static final byte[] POOL = createPool();
+
+    private AlphanumericPool() {
+    }
+
+    /**
+     * Generate an alphanumeric string of exactly {@code size} characters
+     */
+    public static String generate(RandomGenerator random, int size) {
+        byte[] bytes = new byte[size];
+        fill(random, bytes, 0, size);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Fill {@code target[offset, offset + length)} with random alphanumeric bytes
+     */
+    public static void fill(RandomGenerator random, byte[] target, int offset, int length) {
+        int end = offset + length;
+        while (offset < end) {
+            int slice = Math.min(SLICE_SIZE, end - offset);
+            System.arraycopy(POOL, random.nextInt(POOL_SIZE), target, offset, slice);
+            offset += slice;
+        }
+    }
+
+    private static byte[] createPool() {
+        SplittableRandom random = new SplittableRandom(POOL_SEED);
+        byte[] pool = new byte[POOL_SIZE + SLICE_SIZE];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = (byte) ALPHANUMERIC.charAt(random.nextInt(ALPHANUMERIC.length()));
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,450 @@
+package com.loadtesting.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Finds the highest constant arrival rate an endpoint (or weighted mix of endpoints) sustains
+ * within an SLO, replacing manual stepwise k6 runs. Each step is a constant-rate run of the
+ * {@link LoadDriverService}; a step passes when the corrected p95 and p99 latency, the share of
+ * failed or dropped requests and old generation occupancy after GC are all within the thresholds.
+ * Falling behind the offered rate shows up in the corrected latency, since requests are timed from
+ * their scheduled start.
+ *
+ * The rate doubles from {@code minRate} until a step fails (or {@code maxRate} is reached), then a
+ * binary search between the last passing and the first failing rate narrows the ceiling down to the
+ * requested precision. The result carries the resource use measured at the sustainable rate, which
+ * is the per-pod throughput ceiling for the release.
+ */
+@Service
+public class CapacitySearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CapacitySearchService.class);
+
+    private static final int MAX_KEPT_SEARCHES = 10;
+
+    private final LoadDriverService loadDriverService;
+    private final ExecutorService searchExecutor;
+    private final Map<String, CapacitySearch> searches = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public CapacitySearchService(LoadDriverService loadDriverService) {
+        this.loadDriverService = loadDriverService;
+        this.searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "capacity-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        searches.values().forEach(CapacitySearch::cancel);
+        searchExecutor.shutdownNow();
+    }
+
+    /**
+     * Start a search in the background; it holds the load driver until it finishes
+     *
+     * @throws IllegalArgumentException if the request is invalid
+     * @throws IllegalStateException if a load run or another search is in progress
+     */
+    public CapacitySearch start(CapacitySearchRequest request) {
+        request.validate();
+        loadDriverService.acquire();
+        CapacitySearch search = new CapacitySearch(UUID.randomUUID().toString(), request);
+        synchronized (searches) {
+            searches.put(search.getId(), search);
+            while (searches.size() > MAX_KEPT_SEARCHES) {
+                searches.remove(searches.keySet().iterator().next());
+            }
+        }
+        try {
+            searchExecutor.execute(() -> {
+                try {
+                    search.running();
+                    search.complete(search(request, search, search::isCancelled));
+                } catch (RuntimeException e) {
+                    logger.warn("Capacity search {} failed", search.getId(), e);
+                    search.fail(e);
+                } finally {
+                    loadDriverService.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            loadDriverService.release();
+            throw e;
+        }
+        return search;
+    }
+
+    public CapacitySearch getSearch(String id) {
+        return searches.get(id);
+    }
+
+    public List<CapacitySearch> getSearches() {
+        synchronized (searches) {
+            return new ArrayList<>(searches.values());
+        }
+    }
+
+    public boolean cancel(String id) {
+        CapacitySearch search = searches.get(id);
+        if (search == null) {
+            return false;
+        }
+        search.cancel();
+        return true;
+    }
+
+    /**
+     * Run the search on the calling thread, adding each step to {@code progress}
+     */
+    CapacityResult search(CapacitySearchRequest request, CapacitySearch progress, BooleanSupplier cancelled) {
+        double passing = 0;
+        double failing = Double.NaN;
+        Step best = null;
+        Step firstFailure = null;
+
+        // Unscored warm-up at the lowest rate: connections, JIT compilation and caches
+        if (request.getWarmupSeconds() > 0) {
+            LoadDriverService.LoadPlan warmup = plan(request, request.getMinRate());
+            warmup.setDurationSeconds(request.getWarmupSeconds());
+            loadDriverService.execute(warmup, cancelled);
+            cooldown(request);
+        }
+
+        // Exponential phase: double until a step fails, the configured maximum passes or the steps run out
+        double rate = request.getMinRate();
+        while (!cancelled.getAsBoolean() && progress.getSteps().size() < request.getMaxSteps()) {
+            Step step = runStep(request, rate, cancelled);
+            if (cancelled.getAsBoolean()) {
+                // A step cut short by cancellation is not scored
+                break;
+            }
+            progress.add(step);
+            if (step.isPassed()) {
+                passing = rate;
+                best = step;
+                if (rate >= request.getMaxRate()) {
+                    break;
+                }
+                rate = Math.min(request.getMaxRate(), rate * 2);
+            } else {
+                failing = rate;
+                firstFailure = step;
+                break;
+            }
+            cooldown(request);
+        }
+
+        // Binary search between the last passing and the first failing rate
+        while (!Double.isNaN(failing) && passing > 0 && !cancelled.getAsBoolean()
+                && failing - passing > precision(request, passing)
+                && progress.getSteps().size() < request.getMaxSteps()) {
+            cooldown(request);
+            rate = roundRate((passing + failing) / 2);
+            if (rate <= passing || rate >= failing) {
+                break;
+            }
+            Step step = runStep(request, rate, cancelled);
+            if (cancelled.getAsBoolean()) {
+                // A step cut short by cancellation is not scored
+                break;
+            }
+            progress.add(step);
+            if (step.isPassed()) {
+                passing = rate;
+                best = step;
+            } else {
+                failing = rate;
+                firstFailure = step;
+            }
+        }
+
+        return new CapacityResult(passing, best != null ? best.getReport() : null,
+                firstFailure != null ? firstFailure.getViolations() : List.of(),
+                Double.isNaN(failing) && passing >= request.getMaxRate(), cancelled.getAsBoolean());
+    }
+
+    private Step runStep(CapacitySearchRequest request, double rate, BooleanSupplier cancelled) {
+        LoadDriverService.LoadReport report = loadDriverService.execute(plan(request, rate), cancelled);
+        List<String> violations = violations(request, report);
+        logger.info("Capacity step at {} rps: {}", rate, violations.isEmpty() ? "passed" : violations);
+        return new Step(rate, violations.isEmpty(), violations, report);
+    }
+
+    private static LoadDriverService.LoadPlan plan(CapacitySearchRequest request, double rate) {
+        LoadDriverService.LoadPlan plan = new LoadDriverService.LoadPlan();
+        plan.setTargets(request.getTargets());
+        plan.setRate(rate);
+        plan.setDurationSeconds(request.getStepDurationSeconds());
+        plan.setMaxInFlight(request.getMaxInFlight());
+        plan.setTimeoutMillis(request.getTimeoutMillis());
+        return plan;
+    }
+
+    /**
+     * Thresholds the step broke; empty if it passed
+     */
+    static List<String> violations(CapacitySearchRequest request, LoadDriverService.LoadReport report) {
+        List<String> violations = new ArrayList<>();
+        if (report.getResponseTime().getP95Ms() > request.getP95Ms()) {
+            violations.add(String.format("p95 %.1f ms > %.1f ms", report.getResponseTime().getP95Ms(), request.getP95Ms()));
+        }
+        if (report.getResponseTime().getP99Ms() > request.getP99Ms()) {
+            violations.add(String.format("p99 %.1f ms > %.1f ms", report.getResponseTime().getP99Ms(), request.getP99Ms()));
+        }
+        double failedShare = report.getScheduled() > 0
+                ? (double) (report.getErrors() + report.getDropped()) / report.getScheduled() : 0;
+        if (failedShare > request.getMaxErrorRate()) {
+            violations.add(String.format("failed or dropped %.2f%% > %.2f%%",
+                    failedShare * 100, request.getMaxErrorRate() * 100));
+        }
+        LoadDriverService.ResourceUsage resources = report.getResources();
+        // The old gen after GC is from the JVM's last collection; it only describes this step if a
+        // collection finished during it
+        if (resources.getGcCount() > 0 && resources.getOldGenAfterGcBytes() >= 0 && resources.getHeapMaxBytes() > 0) {
+            double heapAfterGc = (double) resources.getOldGenAfterGcBytes() / resources.getHeapMaxBytes();
+            if (heapAfterGc > request.getMaxHeapAfterGcRatio()) {
+                violations.add(String.format("old gen after GC %.0f%% of max heap > %.0f%%",
+                        heapAfterGc * 100, request.getMaxHeapAfterGcRatio() * 100));
+            }
+        }
+        return violations;
+    }
+
+    private static double precision(CapacitySearchRequest request, double rate) {
+        return Math.max(request.getMinRate(), rate * request.getPrecision());
+    }
+
+    private static double roundRate(double rate) {
+        return rate >= 10 ? Math.floor(rate) : Math.floor(rate * 10) / 10;
+    }
+
+    private static void cooldown(CapacitySearchRequest request) {
+        // Let in-flight work, queues and the young generation drain between steps
+        try {
+            TimeUnit.SECONDS.sleep(request.getCooldownSeconds());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Targets and SLO thresholds for a search.
+     * <pre>
+     * {"targets": [{"path": "/api/employees?count=100"}], "p95Ms": 500, "p99Ms": 1000, "maxRate": 400}
+     * </pre>
+     */
+    public static class CapacitySearchRequest {
+        private List<LoadDriverService.LoadPlan.Target> targets = new ArrayList<>();
+        private double p95Ms = 500;
+        private double p99Ms = 1000;
+        private double maxErrorRate = 0.01;
+        private double maxHeapAfterGcRatio = 0.7;
+        private double minRate = 1;
+        private double maxRate = 1000;
+        private double precision = 0.05;
+        private int stepDurationSeconds = 30;
+        private int warmupSeconds = 10;
+        private int cooldownSeconds = 5;
+        private int maxSteps = 15;
+        private int maxInFlight = 500;
+        private int timeoutMillis = 10_000;
+
+        void validate() {
+            if (!(p95Ms > 0) || !(p99Ms > 0)) {
+                throw new IllegalArgumentException("p95Ms and p99Ms must be positive");
+            }
+            if (maxErrorRate < 0 || maxErrorRate >= 1 || !(maxHeapAfterGcRatio > 0) || maxHeapAfterGcRatio > 1) {
+                throw new IllegalArgumentException("maxErrorRate and maxHeapAfterGcRatio must be ratios");
+            }
+            if (!(minRate > 0) || maxRate < minRate) {
+                throw new IllegalArgumentException("Rates must satisfy 0 < minRate <= maxRate");
+            }
+            if (!(precision > 0) || precision >= 1) {
+                throw new IllegalArgumentException("precision must be between 0 and 1");
+            }
+            if (stepDurationSeconds < 1 || cooldownSeconds < 0 || maxSteps < 1 || maxSteps > 50) {
+                throw new IllegalArgumentException("Invalid step duration, cooldown or step limit");
+            }
+            if ((long) maxSteps * (stepDurationSeconds + cooldownSeconds) > 4 * 3600) {
+                throw new IllegalArgumentException("A capacity search can last at most four hours");
+            }
+            if (warmupSeconds < 0 || warmupSeconds > 600) {
+                throw new IllegalArgumentException("warmupSeconds must be between 0 and 600");
+            }
+            // Targets, limits and the rate range are checked by the load driver
+            plan(this, maxRate).validate();
+        }
+
+        public List<LoadDriverService.LoadPlan.Target> getTargets() { return targets; }
+        public void setTargets(List<LoadDriverService.LoadPlan.Target> targets) { this.targets = targets; }
+        public double getP95Ms() { return p95Ms; }
+        public void setP95Ms(double p95Ms) { this.p95Ms = p95Ms; }
+        public double getP99Ms() { return p99Ms; }
+        public void setP99Ms(double p99Ms) { this.p99Ms = p99Ms; }
+        /** Largest share of failed or dropped requests a passing step may have */
+        public double getMaxErrorRate() { return maxErrorRate; }
+        public void setMaxErrorRate(double maxErrorRate) { this.maxErrorRate = maxErrorRate; }
+        /** Largest old generation occupancy after GC, as a fraction of the max heap */
+        public double getMaxHeapAfterGcRatio() { return maxHeapAfterGcRatio; }
+        public void setMaxHeapAfterGcRatio(double maxHeapAfterGcRatio) { this.maxHeapAfterGcRatio = maxHeapAfterGcRatio; }
+        public double getMinRate() { return minRate; }
+        public void setMinRate(double minRate) { this.minRate = minRate; }
+        public double getMaxRate() { return maxRate; }
+        public void setMaxRate(double maxRate) { this.maxRate = maxRate; }
+        /** Stop when the gap between passing and failing rates is within this fraction */
+        public double getPrecision() { return precision; }
+        public void setPrecision(double precision) { this.precision = precision; }
+        public int getStepDurationSeconds() { return stepDurationSeconds; }
+        public void setStepDurationSeconds(int stepDurationSeconds) { this.stepDurationSeconds = stepDurationSeconds; }
+        /** Unscored run at minRate before the first step */
+        public int getWarmupSeconds() { return warmupSeconds; }
+        public void setWarmupSeconds(int warmupSeconds) { this.warmupSeconds = warmupSeconds; }
+        public int getCooldownSeconds() { return cooldownSeconds; }
+        public void setCooldownSeconds(int cooldownSeconds) { this.cooldownSeconds = cooldownSeconds; }
+        public int getMaxSteps() { return maxSteps; }
+        public void setMaxSteps(int maxSteps) { this.maxSteps = maxSteps; }
+        public int getMaxInFlight() { return maxInFlight; }
+        public void setMaxInFlight(int maxInFlight) { this.maxInFlight = maxInFlight; }
+        public int getTimeoutMillis() { return timeoutMillis; }
+        public void setTimeoutMillis(int timeoutMillis) { this.timeoutMillis = timeoutMillis; }
+    }
+
+    /**
+     * One constant-rate run of the search
+     */
+    public static class Step {
+        private final double rate;
+        private final boolean passed;
+        private final List<String> violations;
+        private final LoadDriverService.LoadReport report;
+
+        public Step(double rate, boolean passed, List<String> violations, LoadDriverService.LoadReport report) {
+            this.rate = rate;
+            this.passed = passed;
+            this.violations = violations;
+            this.report = report;
+        }
+
+        public double getRate() { return rate; }
+        public boolean isPassed() { return passed; }
+        public List<String> getViolations() { return violations; }
+        public LoadDriverService.LoadReport getReport() { return report; }
+    }
+
+    /**
+     * The highest passing rate, the resources used at that rate and what stopped the next step
+     */
+    public static class CapacityResult {
+        private final double sustainableRate;
+        private final LoadDriverService.LoadReport reportAtSustainableRate;
+        private final List<String> limitedBy;
+        private final boolean maxRateReached;
+        private final boolean cancelled;
+
+        public CapacityResult(double sustainableRate, LoadDriverService.LoadReport reportAtSustainableRate,
+                              List<String> limitedBy, boolean maxRateReached, boolean cancelled) {
+            this.sustainableRate = sustainableRate;
+            this.reportAtSustainableRate = reportAtSustainableRate;
+            this.limitedBy = limitedBy;
+            this.maxRateReached = maxRateReached;
+            this.cancelled = cancelled;
+        }
+
+        /** Requests per second; 0 if even minRate broke the SLO */
+        public double getSustainableRate() { return sustainableRate; }
+        public LoadDriverService.LoadReport getReportAtSustainableRate() { return reportAtSustainableRate; }
+        /** Process CPU cores used at the sustainable rate */
+        public double getCpuCores() {
+            return reportAtSustainableRate != null ? reportAtSustainableRate.getResources().getCpuCores() : 0;
+        }
+        /** Peak heap used at the sustainable rate */
+        public long getHeapUsedPeakBytes() {
+            return reportAtSustainableRate != null ? reportAtSustainableRate.getResources().getHeapUsedPeakBytes() : 0;
+        }
+        /** Old generation occupancy after GC at the sustainable rate, or -1 if no GC ran */
+        public long getOldGenAfterGcBytes() {
+            return reportAtSustainableRate != null ? reportAtSustainableRate.getResources().getOldGenAfterGcBytes() : -1;
+        }
+        /** Thresholds broken by the lowest failing rate */
+        public List<String> getLimitedBy() { return limitedBy; }
+        /** True if maxRate passed, so the real ceiling is higher */
+        public boolean isMaxRateReached() { return maxRateReached; }
+        public boolean isCancelled() { return cancelled; }
+    }
+
+    /**
+     * A background search started through {@link #start(CapacitySearchRequest)}
+     */
+    public static class CapacitySearch {
+        public enum State { PENDING, RUNNING, COMPLETED, CANCELLED, FAILED }
+
+        private final String id;
+        private final CapacitySearchRequest request;
+        private final Instant createdAt = Instant.now();
+        private final List<Step> steps = Collections.synchronizedList(new ArrayList<>());
+        private volatile State state = State.PENDING;
+        private volatile boolean cancelled;
+        private volatile CapacityResult result;
+        private volatile String error;
+
+        CapacitySearch(String id, CapacitySearchRequest request) {
+            this.id = id;
+            this.request = request;
+        }
+
+        void running() {
+            state = State.RUNNING;
+        }
+
+        void add(Step step) {
+            steps.add(step);
+        }
+
+        void complete(CapacityResult result) {
+            this.result = result;
+            state = cancelled ? State.CANCELLED : State.COMPLETED;
+        }
+
+        void fail(Exception e) {
+            error = e.getMessage();
+            state = State.FAILED;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        public String getId() { return id; }
+        public CapacitySearchRequest getRequest() { return request; }
+        public Instant getCreatedAt() { return createdAt; }
+        public State getState() { return state; }
+        public List<Step> getSteps() {
+            synchronized (steps) {
+                return new ArrayList<>(steps);
+            }
+        }
+        public CapacityResult getResult() { return result; }
+        public String getError() { return error; }
+    }
+}
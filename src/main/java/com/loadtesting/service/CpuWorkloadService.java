@@ -0,0 +1,508 @@
+package com.loadtesting.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+
+/**
+ * CPU-bound workloads for calibrating CPU requests and limits. Each {@link Kernel} is a different
+ * kind of work (floating point, hashing, cache-friendly arithmetic, branchy sorting, compression,
+ * text parsing); a request splits its iterations into {@code parallelism} slices that run on a
+ * dedicated fork-join pool sized to the available processors, so it can use more than one core.
+ *
+ * Every slice returns a value derived from all of its work and the values are added into the
+ * reported result, so the JIT cannot discard the computation. Wall time is measured around the
+ * whole run and CPU time per slice with {@link ThreadMXBean}; CPU time well below
+ * {@code wall x parallelism} means the slices were waiting for a core, e.g. under a CFS quota.
+ */
+@Service
+public class CpuWorkloadService {
+
+    private static final Pattern EMAIL = Pattern.compile("([a-z]+)\\.([a-z]+)\\d*@([a-z]+)\\.(com|org|net)");
+    private static final int MATRIX_SIZE = 48;
+    private static final int SORT_SIZE = 4096;
+    private static final int BLOCK_SIZE = 4096;
+
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool workloadPool;
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final boolean cpuTimeSupported;
+    private final Map<Kernel, Timer> wallTimers = new EnumMap<>(Kernel.class);
+    private final Map<Kernel, Timer> cpuTimers = new EnumMap<>(Kernel.class);
+
+    public CpuWorkloadService(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.workloadPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        this.cpuTimeSupported = threadBean.isCurrentThreadCpuTimeSupported();
+        if (cpuTimeSupported && !threadBean.isThreadCpuTimeEnabled()) {
+            threadBean.setThreadCpuTimeEnabled(true);
+        }
+        for (Kernel kernel : Kernel.values()) {
+            String name = kernel.name().toLowerCase(Locale.ROOT);
+            wallTimers.put(kernel, Timer.builder("cpu.workload.wall")
+                    .description("Wall-clock time of CPU workload requests")
+                    .tag("kernel", name)
+                    .register(meterRegistry));
+            cpuTimers.put(kernel, Timer.builder("cpu.workload.cpu")
+                    .description("CPU time consumed by CPU workload requests, summed over all slices")
+                    .tag("kernel", name)
+                    .register(meterRegistry));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workloadPool.shutdownNow();
+    }
+
+    /**
+     * Largest parallelism a single request can use
+     */
+    public int getMaxParallelism() {
+        return workloadPool.getParallelism();
+    }
+
+    /**
+     * Run {@code iterations} units of the kernel, split into {@code parallelism} slices
+     * (capped at {@link #getMaxParallelism()}); the same seed always yields the same result
+     */
+    public CpuWorkloadResult run(Kernel kernel, int iterations, int parallelism, Long seed) {
+        if (iterations < 0) {
+            throw new IllegalArgumentException("iterations must not be negative");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        int slices = Math.max(1, Math.min(Math.min(parallelism, getMaxParallelism()), iterations));
+        long baseSeed = seed != null ? seed : System.nanoTime();
+
+        long startTime = System.currentTimeMillis();
+        long wallStart = System.nanoTime();
+        List<SliceResult> sliceResults;
+        if (slices == 1) {
+            // A single slice runs on the calling thread, as the original endpoint did
+            sliceResults = List.of(runSlice(kernel, 0, iterations, baseSeed));
+        } else {
+            List<Callable<SliceResult>> tasks = new ArrayList<>(slices);
+            // Count the pool threads' CPU and allocation towards the request, not just the waiting caller
+            RequestCost.Fork fork = RequestCost.fork();
+            int start = 0;
+            for (int i = 0; i < slices; i++) {
+                int end = (int) ((long) iterations * (i + 1) / slices);
+                int from = start;
+                long sliceSeed = baseSeed + i;
+                tasks.add(() -> fork.call(() -> runSlice(kernel, from, end, sliceSeed)));
+                start = end;
+            }
+            sliceResults = invokeAll(tasks);
+        }
+        long wallNanos = System.nanoTime() - wallStart;
+
+        double result = 0;
+        long cpuNanos = 0;
+        long userNanos = 0;
+        for (SliceResult slice : sliceResults) {
+            result += slice.result;
+            cpuNanos += slice.cpuNanos;
+            userNanos += slice.userNanos;
+        }
+
+        wallTimers.get(kernel).record(wallNanos, TimeUnit.NANOSECONDS);
+        if (cpuTimeSupported) {
+            cpuTimers.get(kernel).record(cpuNanos, TimeUnit.NANOSECONDS);
+        }
+        return new CpuWorkloadResult(kernel, iterations, slices, result, startTime, wallNanos,
+                cpuTimeSupported ? cpuNanos : -1, cpuTimeSupported ? userNanos : -1);
+    }
+
+    private List<SliceResult> invokeAll(List<Callable<SliceResult>> tasks) {
+        List<SliceResult> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<SliceResult> future : workloadPool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("CPU workload interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("CPU workload failed", e.getCause());
+        }
+        return results;
+    }
+
+    private SliceResult runSlice(Kernel kernel, int from, int to, long seed) {
+        long cpuStart = cpuTimeSupported ? threadBean.getCurrentThreadCpuTime() : 0;
+        long userStart = cpuTimeSupported ? threadBean.getCurrentThreadUserTime() : 0;
+        double result = kernel.run(this, from, to, new SplittableRandom(seed));
+        long cpuNanos = cpuTimeSupported ? threadBean.getCurrentThreadCpuTime() - cpuStart : 0;
+        long userNanos = cpuTimeSupported ? threadBean.getCurrentThreadUserTime() - userStart : 0;
+        return new SliceResult(result, cpuNanos, userNanos);
+    }
+
+    /**
+     * The original sqrt/sin/cos loop; one iteration is one term
+     */
+    static double trig(int from, int to) {
+        double result = 0;
+        for (int i = from; i < to; i++) {
+            result += Math.sqrt(i) * Math.sin(i) * Math.cos(i);
+        }
+        return result;
+    }
+
+    /**
+     * Chained SHA-256 over a random block; one iteration is one 4KB digest
+     */
+    static double hash(int iterations, SplittableRandom random) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] block = randomBytes(random, BLOCK_SIZE);
+        byte[] hash = new byte[0];
+        for (int i = 0; i < iterations; i++) {
+            digest.update(hash);
+            hash = digest.digest(block);
+        }
+        return hash.length == 0 ? 0 : ((hash[0] & 0xff) << 8 | (hash[1] & 0xff));
+    }
+
+    /**
+     * Dense matrix multiply; one iteration is one 48x48 product fed back into the next
+     */
+    static double matrix(int iterations, SplittableRandom random) {
+        double[][] a = randomMatrix(random);
+        double[][] b = randomMatrix(random);
+        double[][] c = new double[MATRIX_SIZE][MATRIX_SIZE];
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (int i = 0; i < MATRIX_SIZE; i++) {
+                Arrays.fill(c[i], 0);
+                for (int k = 0; k < MATRIX_SIZE; k++) {
+                    double aik = a[i][k];
+                    for (int j = 0; j < MATRIX_SIZE; j++) {
+                        c[i][j] += aik * b[k][j];
+                    }
+                }
+            }
+            // Normalize and swap so values stay bounded and every product depends on the previous one
+            double trace = 0;
+            for (int i = 0; i < MATRIX_SIZE; i++) {
+                trace += Math.abs(c[i][i]);
+            }
+            double scale = trace == 0 ? 1 : MATRIX_SIZE / trace;
+            for (double[] row : c) {
+                for (int j = 0; j < MATRIX_SIZE; j++) {
+                    row[j] *= scale;
+                }
+            }
+            double[][] swap = a;
+            a = c;
+            c = swap;
+        }
+        return a[0][0];
+    }
+
+    /**
+     * Sort of random ints; one iteration is one 4096-element sort
+     */
+    static double sort(int iterations, SplittableRandom random) {
+        int[] values = new int[SORT_SIZE];
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (int j = 0; j < SORT_SIZE; j++) {
+                values[j] = random.nextInt();
+            }
+            Arrays.sort(values);
+            checksum += values[SORT_SIZE / 2] & 0xffff;
+        }
+        return checksum;
+    }
+
+    /**
+     * Deflate of semi-repetitive text; one iteration is one 4KB block
+     */
+    static double compress(int iterations, SplittableRandom random) {
+        byte[] input = randomText(random, BLOCK_SIZE).getBytes(StandardCharsets.US_ASCII);
+        byte[] output = new byte[BLOCK_SIZE * 2];
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        long compressedBytes = 0;
+        try {
+            for (int i = 0; i < iterations; i++) {
+                input[i % input.length] = (byte) ('a' + random.nextInt(26));
+                deflater.reset();
+                deflater.setInput(input);
+                deflater.finish();
+                while (!deflater.finished()) {
+                    compressedBytes += deflater.deflate(output);
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+        return compressedBytes;
+    }
+
+    /**
+     * Regex scan for e-mail addresses; one iteration is one scan of a 4KB text
+     */
+    static double regex(int iterations, SplittableRandom random) {
+        String text = randomText(random, BLOCK_SIZE);
+        long matches = 0;
+        for (int i = 0; i < iterations; i++) {
+            Matcher matcher = EMAIL.matcher(text);
+            while (matcher.find()) {
+                matches += matcher.group(3).length();
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Jackson tree parsing; one iteration is one parse of a document of 32 employee-like records
+     */
+    double json(int iterations, SplittableRandom random) {
+        String document = randomJson(random, 32);
+        long checksum = 0;
+        try {
+            for (int i = 0; i < iterations; i++) {
+                JsonNode root = objectMapper.readTree(document);
+                for (JsonNode record : root) {
+                    checksum += record.get("salary").asLong() + record.get("email").asText().length();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        return checksum;
+    }
+
+    private static byte[] randomBytes(SplittableRandom random, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) random.nextInt(256);
+        }
+        return bytes;
+    }
+
+    private static double[][] randomMatrix(SplittableRandom random) {
+        double[][] matrix = new double[MATRIX_SIZE][MATRIX_SIZE];
+        for (double[] row : matrix) {
+            for (int j = 0; j < MATRIX_SIZE; j++) {
+                row[j] = random.nextDouble();
+            }
+        }
+        return matrix;
+    }
+
+    private static String randomWord(SplittableRandom random) {
+        char[] word = new char[3 + random.nextInt(6)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(word);
+    }
+
+    /**
+     * Words separated by spaces with an e-mail address roughly every eighth word
+     */
+    private static String randomText(SplittableRandom random, int length) {
+        StringBuilder text = new StringBuilder(length + 64);
+        while (text.length() < length) {
+            if (random.nextInt(8) == 0) {
+                text.append(randomWord(random)).append('.').append(randomWord(random)).append(random.nextInt(100))
+                        .append('@').append(randomWord(random)).append(".com");
+            } else {
+                text.append(randomWord(random));
+            }
+            text.append(' ');
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+
+    private static String randomJson(SplittableRandom random, int records) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < records; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"firstName\":\"").append(randomWord(random))
+                    .append("\",\"lastName\":\"").append(randomWord(random))
+                    .append("\",\"email\":\"").append(randomWord(random)).append("@company.com")
+                    .append("\",\"salary\":").append(30000 + random.nextInt(120000))
+                    .append(",\"data\":\"").append(randomText(random, 256).replace('@', '-'))
+                    .append("\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Available workload kernels, selected with {@code kernel=<name>}
+     */
+    public enum Kernel {
+        TRIG {
+            @Override
+            double run(CpuWorkloadService service, int from, int to, SplittableRandom random) {
+                return trig(from, to);
+            }
+        },
+        HASH {
+            @Override
+            double run(CpuWorkloadService service, int from, int to, SplittableRandom random) {
+                return hash(to - from, random);
+            }
+        },
+        MATRIX {
+            @Override
+            double run(CpuWorkloadService service, int from, int to, SplittableRandom random) {
+                return matrix(to - from, random);
+            }
+        },
+        SORT {
+            @Override
+            double run(CpuWorkloadService service, int from, int to, SplittableRandom random) {
+                return sort(to - from, random);
+            }
+        },
+        COMPRESS {
+            @Override
+            double run(CpuWorkloadService service, int from, int to, SplittableRandom random) {
+                return compress(to - from, random);
+            }
+        },
+        REGEX {
+            @Override
+            double run(CpuWorkloadService service, int from, int to, SplittableRandom random) {
+                return regex(to - from, random);
+            }
+        },
+        JSON {
+            @Override
+            double run(CpuWorkloadService service, int from, int to, SplittableRandom random) {
+                return service.json(to - from, random);
+            }
+        };
+
+        abstract double run(CpuWorkloadService service, int from, int to, SplittableRandom random);
+
+        public static Kernel fromParameter(String value) {
+            for (Kernel kernel : values()) {
+                if (kernel.name().equalsIgnoreCase(value)) {
+                    return kernel;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported kernel: " + value
+                    + " (expected one of " + Arrays.toString(values()).toLowerCase(Locale.ROOT) + ")");
+        }
+    }
+
+    private static class SliceResult {
+        private final double result;
+        private final long cpuNanos;
+        private final long userNanos;
+
+        SliceResult(double result, long cpuNanos, long userNanos) {
+            this.result = result;
+            this.cpuNanos = cpuNanos;
+            this.userNanos = userNanos;
+        }
+    }
+
+    /**
+     * Outcome and timing of one workload request
+     */
+    public static class CpuWorkloadResult {
+        private final Kernel kernel;
+        private final int iterations;
+        private final int parallelism;
+        private final double result;
+        private final long timestamp;
+        private final long wallNanos;
+        private final long cpuNanos;
+        private final long userNanos;
+
+        public CpuWorkloadResult(Kernel kernel, int iterations, int parallelism, double result, long timestamp,
+                                 long wallNanos, long cpuNanos, long userNanos) {
+            this.kernel = kernel;
+            this.iterations = iterations;
+            this.parallelism = parallelism;
+            this.result = result;
+            this.timestamp = timestamp;
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.userNanos = userNanos;
+        }
+
+        public Kernel getKernel() { return kernel; }
+        public int getIterations() { return iterations; }
+        public int getParallelism() { return parallelism; }
+        public double getResult() { return result; }
+        public long getTimestamp() { return timestamp; }
+        public long getWallNanos() { return wallNanos; }
+        /** CPU time summed over all slices, or -1 if the JVM cannot measure thread CPU time */
+        public long getCpuNanos() { return cpuNanos; }
+        public long getUserNanos() { return userNanos; }
+
+        /**
+         * Cores kept busy on average (CPU time / wall time)
+         */
+        public double getEffectiveCores() {
+            return cpuNanos < 0 || wallNanos == 0 ? 0 : (double) cpuNanos / wallNanos;
+        }
+
+        /**
+         * Share of the requested cores actually running; well below 1 means slices waited for a core
+         */
+        public double getCpuUtilization() {
+            return getEffectiveCores() / parallelism;
+        }
+
+        /**
+         * Response body of the /cpu-intensive endpoint; keeps the original keys
+         */
+        public Map<String, Object> toResponse() {
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("kernel", kernel.name().toLowerCase(Locale.ROOT));
+            response.put("iterations", iterations);
+            response.put("parallelism", parallelism);
+            response.put("processingTimeMs", TimeUnit.NANOSECONDS.toMillis(wallNanos));
+            response.put("wallTimeMs", wallNanos / 1_000_000.0);
+            response.put("cpuTimeMs", cpuNanos < 0 ? -1 : cpuNanos / 1_000_000.0);
+            response.put("userTimeMs", userNanos < 0 ? -1 : userNanos / 1_000_000.0);
+            response.put("effectiveCores", getEffectiveCores());
+            response.put("cpuUtilization", getCpuUtilization());
+            response.put("result", result);
+            response.put("timestamp", timestamp);
+            return response;
+        }
+    }
+}
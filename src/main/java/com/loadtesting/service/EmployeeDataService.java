@@ -2,12 +2,28 @@ package com.loadtesting.service;
 
 import com.loadtesting.config.EmployeeDataProperties;
 import com.loadtesting.model.Employee;
+import com.loadtesting.model.EmployeeBatch;
+import com.loadtesting.model.EmployeeDictionary;
+import com.loadtesting.model.ObjectLayout;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static com.loadtesting.model.EmployeeDictionary.DEPARTMENTS;
+import static com.loadtesting.model.EmployeeDictionary.FIRST_NAMES;
+import static com.loadtesting.model.EmployeeDictionary.LAST_NAMES;
+import static com.loadtesting.model.EmployeeDictionary.POSITIONS;
 
 /**
  * Service class responsible for generating employee data with configurable attributes.
@@ -18,31 +34,27 @@ import java.util.Random;
 public class EmployeeDataService {
     
     private final EmployeeDataProperties properties;
-    private final Random random;
-    
-    // Sample data arrays for generating realistic employee information
-    private static final String[] FIRST_NAMES = {
-        "John", "Jane", "Michael", "Sarah", "David", "Lisa", "Robert", "Emily",
-        "James", "Jessica", "William", "Ashley", "Richard", "Amanda", "Charles", "Melissa"
-    };
-    
-    private static final String[] LAST_NAMES = {
-        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis",
-        "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas"
-    };
-    
-    private static final String[] DEPARTMENTS = {
-        "Engineering", "Marketing", "Sales", "Human Resources", "Finance", 
-        "Operations", "Customer Service", "IT", "Legal", "Research"
-    };
-    
-    private static final String[] POSITIONS = {
-        "Software Engineer", "Senior Developer", "Manager", "Director", "Analyst",
-        "Specialist", "Coordinator", "Associate", "Lead", "Principal", "Vice President"
-    };
-      public EmployeeDataService(EmployeeDataProperties properties) {
+    private final ForkJoinPool generationPool;
+    private final PayloadSizeStats payloadSizes = new PayloadSizeStats(ObjectLayout.current());
+    
+    // Fixed reference date for seeded generation so that hire dates do not drift from day to day
+    private static final LocalDate SEEDED_REFERENCE_DATE = LocalDate.of(2025, 1, 1);
+    
+    public EmployeeDataService(EmployeeDataProperties properties) {
         this.properties = properties;
-        this.random = new Random();
+        this.generationPool = properties.getParallelPoolSize() > 0
+                ? new ForkJoinPool(properties.getParallelPoolSize())
+                : ForkJoinPool.commonPool();
+    }
+    
+    /**
+     * Shut down the dedicated generation pool, if one was created
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (generationPool != ForkJoinPool.commonPool()) {
+            generationPool.shutdown();
+        }
     }
     
     /**
@@ -63,76 +75,390 @@ public class EmployeeDataService {
      * Generate a list of employees with specified count and string size
      */
     public List<Employee> generateEmployees(int count, int stringSize) {
-        // Validate input parameters
-        count = Math.min(count, properties.getMaxCount());
-        count = Math.max(count, 1);
-        stringSize = Math.min(stringSize, properties.getMaxStringSize());
-        stringSize = Math.max(stringSize, properties.getMinStringSize());
+        return generateEmployees(count, stringSize, null);
+    }
+    
+    /**
+     * Generate a list of employees with specified count, string size and optional seed.
+     * With a seed the result is byte-identical across calls and pods; without one every
+     * thread draws from its own {@link ThreadLocalRandom} so request threads never contend.
+     */
+    public List<Employee> generateEmployees(int count, int stringSize, Long seed) {
+        return generateEmployees(count, stringSize, seed, null);
+    }
+    
+    /**
+     * Generate a list of employees, splitting the id range across the generation pool when the
+     * batch is at least {@code parallelThreshold} employees and the effective parallelism is above 1.
+     * Ids stay in order and seeded output is identical whatever the parallelism.
+     *
+     * @param parallelism number of splits, or null to use the configured default
+     */
+    public List<Employee> generateEmployees(int count, int stringSize, Long seed, Integer parallelism) {
+        return generateEmployees(count, PayloadProfile.fixed(normalizeStringSize(stringSize)), seed, parallelism);
+    }
+    
+    /**
+     * Generate a list of employees whose payload sizes follow {@code payload}. Sampled sizes are
+     * clamped to the configured string size limits; a seed reproduces the same sizes and data.
+     */
+    public List<Employee> generateEmployees(int count, PayloadProfile payload, Long seed, Integer parallelism) {
+        count = normalizeCount(count);
+        int splits = normalizeParallelism(parallelism);
+        boolean parallel = splits > 1 && count >= properties.getParallelThreshold();
         
-        List<Employee> employees = new ArrayList<>(count);
+        FlightRecorderEvents.GenerationEvent event = new FlightRecorderEvents.GenerationEvent();
+        event.begin();
         
-        for (int i = 1; i <= count; i++) {
-            Employee employee = generateSingleEmployee((long) i, stringSize);
-            employees.add(employee);
+        List<Employee> employees;
+        if (parallel) {
+            Employee[] generated = new Employee[count];
+            int splitSize = (count + splits - 1) / splits;
+            generationPool.invoke(new GenerationTask(generated, 0, count, splitSize, payload, seed, RequestCost.fork()));
+            // Same mutable list type as the sequential path, whichever way the batch was generated
+            employees = new ArrayList<>(Arrays.asList(generated));
+        } else {
+            employees = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) {
+                Employee employee = generateEmployee(i, payload, seed, AttributeFilter.NONE, false);
+                employees.add(employee);
+            }
         }
         
+        commit(event, count, payload.getSize(), parallel ? splits : 1, "objects", seed);
         return employees;
     }
     
+    /**
+     * Lazily generate employees one at a time with the same limits as {@link #generateEmployees(int, int)}.
+     * Each employee is only created when the stream is consumed, so a consumer that writes and
+     * discards them keeps at most one employee reachable at a time.
+     */
+    public Stream<Employee> streamEmployees(int count, int stringSize) {
+        return streamEmployees(count, stringSize, null);
+    }
+    
+    /**
+     * Lazily generate employees with an optional seed, producing the same employees
+     * as {@link #generateEmployees(int, int, Long)} for the same arguments
+     */
+    public Stream<Employee> streamEmployees(int count, int stringSize, Long seed) {
+        return streamEmployees(count, PayloadProfile.fixed(normalizeStringSize(stringSize)), seed);
+    }
+    
+    /**
+     * Lazily generate employees with payload sizes following {@code payload}, producing the same
+     * employees as {@link #generateEmployees(int, PayloadProfile, Long, Integer)}
+     */
+    public Stream<Employee> streamEmployees(int count, PayloadProfile payload, Long seed) {
+        return LongStream.rangeClosed(1, normalizeCount(count))
+                .mapToObj(id -> generateEmployee(id, payload, seed, AttributeFilter.NONE, false));
+    }
+    
+    /**
+     * Sizes of the payload arrays generated so far, including humongous ones
+     */
+    public PayloadSizeStats getPayloadSizes() {
+        return payloadSizes;
+    }
+    
+    /**
+     * Default number of employees used when a request does not specify a count
+     */
+    public int getDefaultCount() {
+        return properties.getDefaultCount();
+    }
+    
+    /**
+     * Default configurable string size used when a request does not specify one
+     */
+    public int getDefaultStringSize() {
+        return properties.getDefaultStringSize();
+    }
+    
+    /**
+     * Clamp the requested employee count to the configured limits
+     */
+    public int normalizeCount(int count) {
+        return Math.max(Math.min(count, properties.getMaxCount()), 1);
+    }
+    
+    /**
+     * Resolve the requested parallelism, falling back to the configured default and
+     * never exceeding the parallelism of the generation pool
+     */
+    public int normalizeParallelism(Integer parallelism) {
+        int requested = parallelism != null ? parallelism : properties.getParallelism();
+        return Math.max(Math.min(requested, generationPool.getParallelism()), 1);
+    }
+    
+    /**
+     * Clamp the requested string size to the configured limits
+     */
+    public int normalizeStringSize(int stringSize) {
+        return Math.max(Math.min(stringSize, properties.getMaxStringSize()), properties.getMinStringSize());
+    }
+    
     /**
      * Generate a single employee with specified ID and string size
      */
     public Employee generateSingleEmployee(Long id, int stringSize) {
+        return generateSingleEmployee(id, stringSize, null);
+    }
+    
+    /**
+     * Generate a single employee with specified ID, string size and optional seed.
+     * Seeded employees depend only on (seed, id), so any subset or ordering of ids
+     * reproduces exactly the same data.
+     */
+    public Employee generateSingleEmployee(Long id, int stringSize, Long seed) {
+        return generateEmployee(id, PayloadProfile.fixed(stringSize), seed, AttributeFilter.NONE, false);
+    }
+    
+    /**
+     * Generate the {@code count} candidate employees of {@link #generateEmployees(int, int, Long)} but only
+     * build the ones matching the filter. Cheap attributes are drawn first and candidates that do not
+     * match are dropped before the email, salary, hire date and configurable data are created, so the
+     * cost is proportional to the number of matches rather than the number of candidates.
+     * For a seed the result equals generating all candidates and filtering afterwards.
+     */
+    public List<Employee> generateFilteredEmployees(int count, int stringSize, Long seed, AttributeFilter filter) {
+        count = normalizeCount(count);
+        stringSize = normalizeStringSize(stringSize);
+        
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Employee employee = generateEmployee(i, PayloadProfile.fixed(stringSize), seed, filter, false);
+            if (employee != null) {
+                employees.add(employee);
+            }
+        }
+        return employees;
+    }
+    
+    /**
+     * Generate exactly {@code count} employees that all match the filter by fixing the filtered
+     * attributes instead of sampling them. Returns an empty list if a filtered value does not
+     * exist in the sample data, since no employee could ever match it.
+     */
+    public List<Employee> generateEmployeesWithAttributes(int count, int stringSize, Long seed, AttributeFilter filter) {
+        AttributeFilter canonical = filter.canonicalize();
+        if (canonical == null) {
+            return new ArrayList<>();
+        }
+        count = normalizeCount(count);
+        PayloadProfile payload = PayloadProfile.fixed(normalizeStringSize(stringSize));
+        
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            employees.add(generateEmployee(i, payload, seed, canonical, true));
+        }
+        return employees;
+    }
+    
+    /**
+     * Generate a columnar batch of employees. The batch holds the same data as
+     * {@link #generateEmployees(int, int, Long)} for the same arguments (identical for a seed)
+     * but stores it as primitive arrays, dictionary codes and one contiguous data buffer.
+     */
+    public EmployeeBatch generateBatch(int count, int stringSize, Long seed) {
+        count = normalizeCount(count);
+        stringSize = normalizeStringSize(stringSize);
+        LocalDate referenceDate = seed != null ? SEEDED_REFERENCE_DATE : LocalDate.now();
+        
+        long dataBytes = (long) count * stringSize;
+        if (dataBytes > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Batch data of " + dataBytes + " bytes exceeds the 2GB array limit");
+        }
+        
+        FlightRecorderEvents.GenerationEvent event = new FlightRecorderEvents.GenerationEvent();
+        event.begin();
+        EmployeeBatch batch = new EmployeeBatch(count, (int) dataBytes);
+        payloadSizes.record(ObjectLayout.current().arraySize(dataBytes, 1));
+        for (int i = 1; i <= count; i++) {
+            // Same draw order as generateEmployee, so seeded batches match seeded lists
+            RandomGenerator random = randomFor(i, seed);
+            int firstName = random.nextInt(FIRST_NAMES.size());
+            int lastName = random.nextInt(LAST_NAMES.size());
+            int position = random.nextInt(POSITIONS.size());
+            int department = random.nextInt(DEPARTMENTS.size());
+            double salary = generateSalary(random);
+            int hireEpochDay = (int) generateHireDate(random, referenceDate).toEpochDay();
+            
+            int offset = batch.append(i, firstName, lastName, position, department, salary, hireEpochDay, stringSize);
+            AlphanumericPool.fill(random, batch.getDataBuffer(), offset, stringSize);
+        }
+        commit(event, count, stringSize, 1, "columnar", seed);
+        return batch;
+    }
+    
+    private static void commit(FlightRecorderEvents.GenerationEvent event, int count, int stringSize,
+                               int parallelism, String representation, Long seed) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.count = count;
+            event.stringSize = stringSize;
+            event.parallelism = parallelism;
+            event.representation = representation;
+            event.seeded = seed != null;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Generate one employee, or return null when {@code fixAttributes} is false and the drawn
+     * position/department do not match the filter. With {@code fixAttributes} the filtered
+     * attributes replace the drawn values. The draw order is the same in every mode, so a seeded
+     * employee that matches is identical to its unfiltered counterpart.
+     */
+    private Employee generateEmployee(long id, PayloadProfile payload, Long seed, AttributeFilter filter, boolean fixAttributes) {
+        RandomGenerator random = randomFor(id, seed);
+        String firstName = FIRST_NAMES.get(random.nextInt(FIRST_NAMES.size()));
+        String lastName = LAST_NAMES.get(random.nextInt(LAST_NAMES.size()));
+        String position = POSITIONS.get(random.nextInt(POSITIONS.size()));
+        String department = DEPARTMENTS.get(random.nextInt(DEPARTMENTS.size()));
+        
+        if (fixAttributes) {
+            position = filter.getPosition() != null ? filter.getPosition() : position;
+            department = filter.getDepartment() != null ? filter.getDepartment() : department;
+        } else if (!filter.matches(department, position)) {
+            return null;
+        }
+        
+        LocalDate referenceDate = seed != null ? SEEDED_REFERENCE_DATE : LocalDate.now();
         Employee employee = new Employee();
         
         employee.setId(id);
-        employee.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
-        employee.setLastName(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
-        employee.setEmail(generateEmail(employee.getFirstName(), employee.getLastName()));
-        employee.setPosition(POSITIONS[random.nextInt(POSITIONS.length)]);
-        employee.setDepartment(DEPARTMENTS[random.nextInt(DEPARTMENTS.length)]);
-        employee.setSalary(generateSalary());
-        employee.setHireDate(generateHireDate());
-        employee.setConfigurableData(generateConfigurableString(stringSize));
+        employee.setFirstName(firstName);
+        employee.setLastName(lastName);
+        employee.setEmail(generateEmail(firstName, lastName));
+        employee.setPosition(position);
+        employee.setDepartment(department);
+        employee.setSalary(generateSalary(random));
+        employee.setHireDate(generateHireDate(random, referenceDate));
+        setPayload(employee, random, payload);
         
         return employee;
     }
     
+    /**
+     * Draw the payload size and fill the configurable data, as one string or as chunks of at most
+     * the profile's chunk size. Fixed sizes are used as given and draw nothing extra; region-sized
+     * humongous payloads skip the max string size, which would keep them below half a region.
+     */
+    private void setPayload(Employee employee, RandomGenerator random, PayloadProfile payload) {
+        int size = payload.getSize();
+        if (!payload.isFixed()) {
+            int drawn = payload.sample(random);
+            size = payload.isRegionSized(drawn) ? drawn : normalizeStringSize(drawn);
+        }
+        int chunkSize = payload.getChunkSize();
+        if (chunkSize > 0 && size > chunkSize) {
+            String[] chunks = new String[(size + chunkSize - 1) / chunkSize];
+            for (int i = 0; i < chunks.length; i++) {
+                int length = Math.min(chunkSize, size - i * chunkSize);
+                chunks[i] = generateConfigurableString(random, length);
+                payloadSizes.recordString(length);
+            }
+            employee.setConfigurableChunks(List.of(chunks));
+        } else {
+            employee.setConfigurableData(generateConfigurableString(random, size));
+            payloadSizes.recordString(size);
+        }
+        // Alphanumeric, so size estimates on the response path can skip the Latin-1 scan
+        employee.setLatin1Payload(true);
+    }
+    
+    /**
+     * Fork-join task that generates employees for a contiguous slice of the id range.
+     * Each slice draws from its own random stream: unseeded slices use the worker thread's
+     * ThreadLocalRandom, seeded slices derive one generator per id.
+     */
+    private class GenerationTask extends RecursiveAction {
+        private final Employee[] target;
+        private final int from;
+        private final int to;
+        private final int splitSize;
+        private final PayloadProfile payload;
+        private final Long seed;
+        private final RequestCost.Fork fork;
+        
+        GenerationTask(Employee[] target, int from, int to, int splitSize, PayloadProfile payload, Long seed,
+                       RequestCost.Fork fork) {
+            this.target = target;
+            this.from = from;
+            this.to = to;
+            this.splitSize = splitSize;
+            this.payload = payload;
+            this.seed = seed;
+            this.fork = fork;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= splitSize) {
+                // Only leaves are counted, so a thread running a leaf inside a split is not counted twice
+                fork.run(() -> {
+                    for (int i = from; i < to; i++) {
+                        target[i] = generateEmployee((long) i + 1, payload, seed, AttributeFilter.NONE, false);
+                    }
+                });
+                return;
+            }
+            int middle = from + (to - from) / 2;
+            invokeAll(new GenerationTask(target, from, middle, splitSize, payload, seed, fork),
+                      new GenerationTask(target, middle, to, splitSize, payload, seed, fork));
+        }
+    }
+    
+    /**
+     * Pick the random source for one employee. Unseeded generation uses the calling thread's
+     * {@link ThreadLocalRandom}; seeded generation derives an independent {@link SplittableRandom}
+     * from the seed and the employee id, so no generator is ever shared between threads.
+     */
+    private static RandomGenerator randomFor(long id, Long seed) {
+        if (seed == null) {
+            return ThreadLocalRandom.current();
+        }
+        return new SplittableRandom(mix64(seed + mix64(id)));
+    }
+    
+    /**
+     * 64-bit finalizer from MurmurHash3, used to decorrelate (seed, id) pairs
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+    
     /**
      * Generate email address based on first and last name
      */
     private String generateEmail(String firstName, String lastName) {
-        return (firstName + "." + lastName + "@company.com").toLowerCase();
+        return EmployeeDictionary.email(firstName, lastName);
     }
     
     /**
      * Generate a random salary between 40,000 and 150,000
      */
-    private Double generateSalary() {
+    private Double generateSalary(RandomGenerator random) {
         return 40000.0 + (random.nextDouble() * 110000.0);
     }
     
     /**
-     * Generate a random hire date within the last 10 years
+     * Generate a random hire date within the 10 years before the reference date
      */
-    private LocalDate generateHireDate() {
-        LocalDate now = LocalDate.now();
+    private LocalDate generateHireDate(RandomGenerator random, LocalDate referenceDate) {
         int daysBack = random.nextInt(3650); // Up to 10 years back
-        return now.minusDays(daysBack);
+        return referenceDate.minusDays(daysBack);
     }
     
     /**
      * Generate a configurable string of specified size for memory testing
      */
-    private String generateConfigurableString(int size) {
-        StringBuilder sb = new StringBuilder(size);
-        String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-        
-        for (int i = 0; i < size; i++) {
-            sb.append(chars.charAt(random.nextInt(chars.length())));
-        }
-        
-        return sb.toString();
+    private String generateConfigurableString(RandomGenerator random, int size) {
+        return AlphanumericPool.generate(random, size);
     }
     
     /**
@@ -155,13 +481,70 @@ public class EmployeeDataService {
         long totalMemory = calculateTotalMemoryConsumption(employees);
         long avgMemoryPerEmployee = totalMemory / employees.size();
         int avgStringSize = (int) employees.stream()
-                .mapToInt(emp -> emp.getConfigurableData() != null ? emp.getConfigurableData().length() : 0)
+                .mapToInt(EmployeeDataService::payloadLength)
                 .average()
                 .orElse(0);
         
         return new EmployeeDataStats(employees.size(), totalMemory, avgMemoryPerEmployee, avgStringSize);
     }
     
+    private static int payloadLength(Employee employee) {
+        if (employee.getConfigurableChunks() != null) {
+            return employee.getConfigurableChunks().stream().mapToInt(String::length).sum();
+        }
+        return employee.getConfigurableData() != null ? employee.getConfigurableData().length() : 0;
+    }
+    
+    /**
+     * Attribute constraints pushed down into generation. Values are compared case-insensitively;
+     * a null value leaves that attribute unconstrained.
+     */
+    public static class AttributeFilter {
+        public static final AttributeFilter NONE = new AttributeFilter(null, null);
+        
+        private final String department;
+        private final String position;
+        
+        public AttributeFilter(String department, String position) {
+            this.department = department;
+            this.position = position;
+        }
+        
+        public static AttributeFilter department(String department) {
+            return new AttributeFilter(department, null);
+        }
+        
+        public static AttributeFilter position(String position) {
+            return new AttributeFilter(null, position);
+        }
+        
+        public String getDepartment() {
+            return department;
+        }
+        
+        public String getPosition() {
+            return position;
+        }
+        
+        boolean matches(String candidateDepartment, String candidatePosition) {
+            return (department == null || department.equalsIgnoreCase(candidateDepartment))
+                    && (position == null || position.equalsIgnoreCase(candidatePosition));
+        }
+        
+        /**
+         * Map the filter values onto the spelling used in the sample data, or return null
+         * if any value is not part of the sample data
+         */
+        AttributeFilter canonicalize() {
+            String canonicalDepartment = department != null ? EmployeeDictionary.findIgnoreCase(DEPARTMENTS, department) : null;
+            String canonicalPosition = position != null ? EmployeeDictionary.findIgnoreCase(POSITIONS, position) : null;
+            if ((department != null && canonicalDepartment == null) || (position != null && canonicalPosition == null)) {
+                return null;
+            }
+            return new AttributeFilter(canonicalDepartment, canonicalPosition);
+        }
+    }
+    
     /**
      * Statistics class for employee data
      */
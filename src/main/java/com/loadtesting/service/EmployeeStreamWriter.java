@@ -0,0 +1,212 @@
+package com.loadtesting.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loadtesting.model.Employee;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes generated employees straight to the response stream instead of materializing
+ * the whole list first. Employees are pulled from a lazy stream, serialized and flushed
+ * one at a time, so peak heap per request is bounded by a single employee plus the
+ * generator and container buffers.
+ */
+@Component
+public class EmployeeStreamWriter {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ObjectMapper objectMapper;
+    private final PipelineMetrics pipelineMetrics;
+
+    public EmployeeStreamWriter(ObjectMapper objectMapper, PipelineMetrics pipelineMetrics) {
+        this.objectMapper = objectMapper;
+        this.pipelineMetrics = pipelineMetrics;
+    }
+
+    /**
+     * Create a response body that serializes the given employees while they are generated,
+     * recording generate/serialize/write time against the current endpoint and this thread's
+     * allocation and CPU time against the current request
+     */
+    public StreamingResponseBody stream(Stream<Employee> employees, Format format) {
+        // The body is written after the handler returns, possibly on another thread
+        String endpoint = pipelineMetrics.currentEndpoint();
+        RequestCost requestCost = RequestCost.current();
+        return outputStream -> {
+            RequestCost.ThreadSample costStart = RequestCost.sampleThread();
+            PipelineMetrics.MeteredOutputStream meteredStream = new PipelineMetrics.MeteredOutputStream(outputStream);
+            FlightRecorderEvents.SerializationEvent event = new FlightRecorderEvents.SerializationEvent();
+            event.begin();
+            long start = System.nanoTime();
+            try (employees) {
+                TimedIterator iterator = new TimedIterator(employees.iterator());
+                write(iterator, format, meteredStream);
+                long serializeNanos = System.nanoTime() - start - iterator.nanos - meteredStream.getWriteNanos();
+                pipelineMetrics.record(endpoint, iterator.nanos, serializeNanos, meteredStream.getWriteNanos(),
+                        meteredStream.getBytes(), iterator.count);
+                commit(event, endpoint, format, iterator.count, meteredStream.getBytes());
+            } finally {
+                if (requestCost != null) {
+                    requestCost.add(costStart);
+                }
+            }
+        };
+    }
+
+    /**
+     * Create a response body for a payload from {@link PayloadCacheService}: the cached bytes are
+     * written as-is, a payload too large for the cache is streamed as it is generated. The handler's
+     * duration (cache lookup, plus generation and serialization on a miss) is recorded as the generate
+     * phase and the copy to the response as the write phase; a hit generates no employees.
+     */
+    public StreamingResponseBody cached(PayloadCacheService.CachedPayload payload, long count) {
+        if (payload.isOversized()) {
+            return stream(payload.streamEmployees(), payload.getFormat());
+        }
+        String endpoint = pipelineMetrics.currentEndpoint();
+        long generateNanos = pipelineMetrics.handlerElapsedNanos();
+        long employees = payload.isHit() ? 0 : count;
+        byte[] body = payload.getBody();
+        RequestCost requestCost = RequestCost.current();
+        return outputStream -> {
+            RequestCost.ThreadSample costStart = RequestCost.sampleThread();
+            PipelineMetrics.MeteredOutputStream meteredStream = new PipelineMetrics.MeteredOutputStream(outputStream);
+            try {
+                meteredStream.write(body);
+                pipelineMetrics.record(endpoint, generateNanos, 0, meteredStream.getWriteNanos(),
+                        meteredStream.getBytes(), employees);
+            } finally {
+                if (requestCost != null) {
+                    requestCost.add(costStart);
+                }
+            }
+        };
+    }
+
+    /**
+     * Serialize the employees to the output stream, flushing after every employee
+     */
+    public void write(Stream<Employee> employees, Format format, OutputStream outputStream) throws IOException {
+        FlightRecorderEvents.SerializationEvent event = new FlightRecorderEvents.SerializationEvent();
+        if (!event.isEnabled()) {
+            try (employees) {
+                write(employees.iterator(), format, outputStream);
+            }
+            return;
+        }
+        // Only count bytes while a recording wants them
+        PipelineMetrics.MeteredOutputStream countingStream = new PipelineMetrics.MeteredOutputStream(outputStream);
+        event.begin();
+        try (employees) {
+            long count = write(employees.iterator(), format, countingStream);
+            commit(event, pipelineMetrics.currentEndpoint(), format, count, countingStream.getBytes());
+        }
+    }
+
+    private static void commit(FlightRecorderEvents.SerializationEvent event, String endpoint, Format format,
+                               long employees, long bytes) {
+        event.commit(endpoint, format.name().toLowerCase(Locale.ROOT), employees, bytes);
+    }
+
+    /**
+     * Serialize the employees and return how many were written
+     */
+    private long write(Iterator<Employee> iterator, Format format, OutputStream outputStream) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            // Let the caller own the output stream; only the generator buffer is closed here
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // NDJSON terminates each record with a newline instead of separating root values with spaces
+            generator.setRootValueSeparator(null);
+            if (format == Format.JSON) {
+                generator.writeStartArray();
+            }
+
+            while (iterator.hasNext()) {
+                objectMapper.writeValue(generator, iterator.next());
+                if (format == Format.NDJSON) {
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+                count++;
+            }
+
+            if (format == Format.JSON) {
+                generator.writeEndArray();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Measures the time spent pulling employees out of the lazy generator
+     */
+    private static final class TimedIterator implements Iterator<Employee> {
+        private final Iterator<Employee> delegate;
+        private long nanos;
+        private long count;
+
+        TimedIterator(Iterator<Employee> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            long start = System.nanoTime();
+            boolean hasNext = delegate.hasNext();
+            nanos += System.nanoTime() - start;
+            return hasNext;
+        }
+
+        @Override
+        public Employee next() {
+            long start = System.nanoTime();
+            Employee employee = delegate.next();
+            nanos += System.nanoTime() - start;
+            count++;
+            return employee;
+        }
+    }
+
+    /**
+     * Supported streaming wire formats
+     */
+    public enum Format {
+        /** A single JSON array, identical to the non-streaming response */
+        JSON(MediaType.APPLICATION_JSON),
+        /** Newline-delimited JSON, one employee object per line */
+        NDJSON(APPLICATION_NDJSON);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        /**
+         * Resolve a request parameter value such as "json" or "ndjson" (case-insensitive)
+         */
+        public static Format fromParameter(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown format: " + value);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.loadtesting.service;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-per-request versus virtual-thread execution. Virtual threads are requested with
+ * {@code spring.threads.virtual.enabled=true} (the {@code virtual-threads} profile); Spring Boot then
+ * runs Tomcat request handling on virtual threads and this service hands virtual-thread factories
+ * to the application's own background executors.
+ *
+ * Virtual threads need a Java 21 runtime ({@code Dockerfile.virtual-threads}). Requesting them on an
+ * older runtime fails startup rather than silently measuring platform threads instead.
+ *
+ * While virtual threads are active, a JFR stream records {@code jdk.VirtualThreadPinned} events
+ * (a virtual thread blocking while pinned to its carrier, e.g. sleeping inside {@code synchronized}).
+ */
+@Service
+public class ExecutionModeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionModeService.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final Duration PINNED_THRESHOLD = Duration.ofMillis(20);
+    private static final int RECENT_PINNED_FRAMES = 20;
+
+    private final boolean virtualRequested;
+    private final boolean virtualActive;
+    private final Timer pinned;
+    private final Deque<String> recentPinnedFrames = new ArrayDeque<>();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final long threadStackSizeBytes;
+    private RecordingStream pinnedStream;
+
+    public ExecutionModeService(Environment environment, MeterRegistry meterRegistry) {
+        this.virtualRequested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        this.virtualActive = Threading.VIRTUAL.isActive(environment);
+        if (virtualRequested && !virtualActive) {
+            throw new IllegalStateException("Virtual threads were requested but need Java 21, running on Java "
+                    + Runtime.version().feature() + "; use Dockerfile.virtual-threads or drop the virtual-threads profile");
+        }
+        this.threadStackSizeBytes = readThreadStackSize();
+
+        this.pinned = Timer.builder("execution.virtual.pinned")
+                .description("Virtual threads blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+        Gauge.builder("execution.platform.stack.reserved", this, ExecutionModeService::getReservedStackBytes)
+                .baseUnit("bytes")
+                .description("Stack address space reserved by live platform threads")
+                .register(meterRegistry);
+
+        if (virtualActive) {
+            startPinnedStream();
+        }
+    }
+
+    /**
+     * Thread factory for application background work: virtual threads when active, otherwise
+     * daemon platform threads named {@code <name>-<n>}
+     */
+    public ThreadFactory threadFactory(String name) {
+        if (virtualActive) {
+            ThreadFactory virtualFactory = virtualThreadFactory(name);
+            if (virtualFactory != null) {
+                return virtualFactory;
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+        return runnable -> {
+            Thread thread = defaultFactory.newThread(runnable);
+            thread.setName(name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public boolean isVirtualRequested() {
+        return virtualRequested;
+    }
+
+    public boolean isVirtualActive() {
+        return virtualActive;
+    }
+
+    /**
+     * Stack address space reserved by live platform threads (virtual thread stacks live on the heap)
+     */
+    public long getReservedStackBytes() {
+        return threadBean.getThreadCount() * threadStackSizeBytes;
+    }
+
+    /**
+     * Mode, thread counts, stack reservation and pinning figures
+     */
+    public ExecutionModeInfo getInfo() {
+        List<String> frames;
+        synchronized (recentPinnedFrames) {
+            frames = new ArrayList<>(recentPinnedFrames);
+        }
+        return new ExecutionModeInfo(virtualActive ? "virtual" : "platform", virtualRequested, virtualActive,
+                Runtime.version().feature(), threadBean.getThreadCount(), threadBean.getPeakThreadCount(),
+                threadBean.getDaemonThreadCount(), threadStackSizeBytes, getReservedStackBytes(),
+                pinned.count(), pinned.totalTime(TimeUnit.MILLISECONDS), pinned.max(TimeUnit.MILLISECONDS), frames);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pinnedStream != null) {
+            pinnedStream.close();
+        }
+    }
+
+    private void startPinnedStream() {
+        try {
+            pinnedStream = new RecordingStream();
+            pinnedStream.enable(PINNED_EVENT).withThreshold(PINNED_THRESHOLD).withStackTrace();
+            pinnedStream.onEvent(PINNED_EVENT, this::recordPinned);
+            pinnedStream.startAsync();
+        } catch (RuntimeException e) {
+            logger.warn("Could not start JFR stream for {}: {}", PINNED_EVENT, e.getMessage());
+            pinnedStream = null;
+        }
+    }
+
+    private void recordPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        if (event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()) {
+            return;
+        }
+        // First application frame, which is usually where the monitor is held
+        String frame = null;
+        for (RecordedFrame candidate : event.getStackTrace().getFrames()) {
+            String type = candidate.getMethod().getType().getName();
+            if (type.startsWith("com.loadtesting.")) {
+                frame = type + "." + candidate.getMethod().getName() + ":" + candidate.getLineNumber();
+                break;
+            }
+        }
+        if (frame == null) {
+            RecordedFrame top = event.getStackTrace().getFrames().get(0);
+            frame = top.getMethod().getType().getName() + "." + top.getMethod().getName();
+        }
+        synchronized (recentPinnedFrames) {
+            if (recentPinnedFrames.size() == RECENT_PINNED_FRAMES) {
+                recentPinnedFrames.removeFirst();
+            }
+            recentPinnedFrames.addLast(frame);
+        }
+    }
+
+    /**
+     * {@code Thread.ofVirtual().name(name + "-", 1).factory()}, looked up reflectively so the
+     * application still compiles and runs on Java 17
+     */
+    private static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Could not create a virtual thread factory: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static long readThreadStackSize() {
+        try {
+            HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return Long.parseLong(hotSpot.getVMOption("ThreadStackSize").getValue()) * 1024;
+        } catch (RuntimeException e) {
+            return 1024 * 1024; // HotSpot default on 64-bit Linux
+        }
+    }
+
+    /**
+     * Snapshot of the execution mode and thread resources
+     */
+    public static class ExecutionModeInfo {
+        private final String mode;
+        private final boolean virtualRequested;
+        private final boolean virtualActive;
+        private final int javaVersion;
+        private final int platformThreads;
+        private final int peakPlatformThreads;
+        private final int daemonThreads;
+        private final long threadStackSizeBytes;
+        private final long reservedStackBytes;
+        private final long pinnedEvents;
+        private final double pinnedTotalMs;
+        private final double pinnedMaxMs;
+        private final List<String> recentPinnedFrames;
+
+        public ExecutionModeInfo(String mode, boolean virtualRequested, boolean virtualActive, int javaVersion,
+                                 int platformThreads, int peakPlatformThreads, int daemonThreads,
+                                 long threadStackSizeBytes, long reservedStackBytes, long pinnedEvents,
+                                 double pinnedTotalMs, double pinnedMaxMs, List<String> recentPinnedFrames) {
+            this.mode = mode;
+            this.virtualRequested = virtualRequested;
+            this.virtualActive = virtualActive;
+            this.javaVersion = javaVersion;
+            this.platformThreads = platformThreads;
+            this.peakPlatformThreads = peakPlatformThreads;
+            this.daemonThreads = daemonThreads;
+            this.threadStackSizeBytes = threadStackSizeBytes;
+            this.reservedStackBytes = reservedStackBytes;
+            this.pinnedEvents = pinnedEvents;
+            this.pinnedTotalMs = pinnedTotalMs;
+            this.pinnedMaxMs = pinnedMaxMs;
+            this.recentPinnedFrames = recentPinnedFrames;
+        }
+
+        public String getMode() { return mode; }
+        public boolean isVirtualRequested() { return virtualRequested; }
+        public boolean isVirtualActive() { return virtualActive; }
+        public int getJavaVersion() { return javaVersion; }
+        public int getPlatformThreads() { return platformThreads; }
+        public int getPeakPlatformThreads() { return peakPlatformThreads; }
+        public int getDaemonThreads() { return daemonThreads; }
+        public long getThreadStackSizeBytes() { return threadStackSizeBytes; }
+        public long getReservedStackBytes() { return reservedStackBytes; }
+        public long getPinnedEvents() { return pinnedEvents; }
+        public double getPinnedTotalMs() { return pinnedTotalMs; }
+        public double getPinnedMaxMs() { return pinnedMaxMs; }
+        public List<String> getRecentPinnedFrames() { return recentPinnedFrames; }
+    }
+}
@@ -0,0 +1,116 @@
+package com.loadtesting.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Custom Java Flight Recorder events emitted around the application's own work, so a recording
+ * shows which generation, serialization and cache operations line up with allocation samples and
+ * GC pauses. Events cost a single {@link Event#shouldCommit()} check while no recording is running.
+ */
+public final class FlightRecorderEvents {
+
+    static final String CATEGORY = "Load Testing";
+
+    private FlightRecorderEvents() {
+    }
+
+    /**
+     * One call to {@link EmployeeDataService#generateEmployees(int, int, Long, Integer)} or
+     * {@link EmployeeDataService#generateBatch(int, int, Long)}
+     */
+    @Name("com.loadtesting.EmployeeGeneration")
+    @Label("Employee Generation")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class GenerationEvent extends Event {
+        @Label("Employees")
+        int count;
+
+        @Label("String Size")
+        @Description("Characters in each employee's configurable string field")
+        int stringSize;
+
+        @Label("Parallelism")
+        int parallelism;
+
+        @Label("Representation")
+        String representation;
+
+        @Label("Seeded")
+        boolean seeded;
+    }
+
+    /**
+     * Serialization of employees to JSON or NDJSON. When the employees come from a lazy stream,
+     * the duration also covers generating them, which is interleaved with writing.
+     */
+    @Name("com.loadtesting.EmployeeSerialization")
+    @Label("Employee Serialization")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class SerializationEvent extends Event {
+        @Label("Endpoint")
+        String endpoint;
+
+        @Label("Format")
+        String format;
+
+        @Label("Employees")
+        long employees;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        /**
+         * End the event and commit it if a recording wants it
+         */
+        public void commit(String endpoint, String format, long employees, long bytes) {
+            end();
+            if (shouldCommit()) {
+                this.endpoint = endpoint;
+                this.format = format;
+                this.employees = employees;
+                this.bytes = bytes;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * An operation on the payload cache or the memory simulation cache
+     */
+    @Name("com.loadtesting.CacheOperation")
+    @Label("Cache Operation")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class CacheEvent extends Event {
+        @Label("Cache")
+        @Description("payload or memory")
+        String cache;
+
+        @Label("Operation")
+        @Description("get, put, evict, expire, replace or clear")
+        String operation;
+
+        @Label("Key")
+        String key;
+
+        @Label("Hit")
+        boolean hit;
+
+        @Label("Employees")
+        long employees;
+
+        @Label("Bytes")
+        @Description("Body bytes for the payload cache, estimated footprint for the memory cache")
+        @DataAmount
+        long bytes;
+    }
+}
@@ -0,0 +1,217 @@
+package com.loadtesting.service;
+
+import com.loadtesting.config.MemorySimulationProperties;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Starts, stops and dumps Java Flight Recorder recordings inside the running service, so a sizing
+ * run can be profiled without shelling into the pod. Recordings use one of the JDK's settings
+ * profiles ("default", about 1% overhead, or "profile", more detail at about 2%) and also carry the
+ * application events from {@link FlightRecorderEvents}. Dumps are written to the configured
+ * directory and can be downloaded through the API.
+ */
+@Service
+public class FlightRecorderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    // Recording names become file names
+    private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final MemorySimulationProperties.FlightRecorder properties;
+    private final Map<String, Recording> recordings = new ConcurrentHashMap<>();
+    private final Map<String, Path> dumps = new ConcurrentHashMap<>();
+
+    public FlightRecorderService(MemorySimulationProperties memoryProperties) {
+        this.properties = memoryProperties.getFlightRecorder();
+    }
+
+    /**
+     * Stop and discard recordings that were not stopped through the API
+     */
+    @PreDestroy
+    public void shutdown() {
+        recordings.values().forEach(Recording::close);
+        recordings.clear();
+    }
+
+    public boolean isAvailable() {
+        return FlightRecorder.isAvailable();
+    }
+
+    /**
+     * Start a recording with a JDK settings profile
+     *
+     * @param duration stop automatically after this long, or null to run until stopped
+     * @throws IllegalArgumentException for an invalid name or unknown settings profile
+     * @throws IllegalStateException if a recording with that name exists or JFR is unavailable
+     */
+    public RecordingInfo start(String name, String settings, Duration duration) {
+        validateName(name);
+        if (!isAvailable()) {
+            throw new IllegalStateException("Java Flight Recorder is not available in this JVM");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + settings
+                    + " (available: " + availableSettings() + ")");
+        }
+
+        Recording recording = new Recording(configuration);
+        recording.setName(name);
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofSeconds(properties.getMaxAgeSeconds()));
+        recording.setMaxSize(properties.getMaxSizeBytes());
+        if (duration != null) {
+            recording.setDuration(duration);
+            // Written out when the duration elapses, like -XX:StartFlightRecording=duration=...,filename=...
+            try {
+                recording.setDestination(dumpPath(name));
+            } catch (IOException e) {
+                recording.close();
+                throw new UncheckedIOException("Cannot write recordings to " + properties.getDirectory(), e);
+            }
+        }
+        if (recordings.putIfAbsent(name, recording) != null) {
+            recording.close();
+            throw new IllegalStateException("Recording already exists: " + name);
+        }
+        if (duration != null) {
+            dumps.put(name, dumpPath(name));
+        }
+        recording.start();
+        logger.info("Started JFR recording '{}' with settings '{}'", name, settings);
+        return RecordingInfo.of(recording, dumps.get(name));
+    }
+
+    /**
+     * Stop a recording, write it to the dump directory and release it
+     */
+    public RecordingInfo stop(String name) {
+        Recording recording = recordings.remove(name);
+        if (recording == null) {
+            throw new IllegalArgumentException("No such recording: " + name);
+        }
+        try {
+            Path path = dumpPath(name);
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            if (recording.getState() != RecordingState.CLOSED) {
+                recording.dump(path);
+            }
+            dumps.put(name, path);
+            logger.info("Stopped JFR recording '{}', written to {}", name, path);
+            return RecordingInfo.of(recording, path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write recording " + name, e);
+        } finally {
+            recording.close();
+        }
+    }
+
+    /**
+     * Write the data recorded so far to the dump directory without stopping the recording
+     */
+    public Path dump(String name) {
+        Recording recording = recordings.get(name);
+        if (recording == null) {
+            Path path = dumps.get(name);
+            if (path != null && Files.exists(path)) {
+                return path; // stopped earlier, serve the final dump
+            }
+            throw new IllegalArgumentException("No such recording: " + name);
+        }
+        Path path = dumpPath(name);
+        try {
+            recording.dump(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write recording " + name, e);
+        }
+        dumps.put(name, path);
+        return path;
+    }
+
+    /**
+     * Recordings started through this service that have not been stopped
+     */
+    public List<RecordingInfo> list() {
+        List<RecordingInfo> infos = new ArrayList<>();
+        recordings.forEach((name, recording) -> infos.add(RecordingInfo.of(recording, dumps.get(name))));
+        return infos;
+    }
+
+    /**
+     * Names of the JDK's settings profiles
+     */
+    public List<String> availableSettings() {
+        return Configuration.getConfigurations().stream().map(Configuration::getName).toList();
+    }
+
+    private Path dumpPath(String name) {
+        return Path.of(properties.getDirectory(), name + ".jfr");
+    }
+
+    private static void validateName(String name) {
+        if (name == null || !VALID_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Recording name must be 1-64 letters, digits, '.', '_' or '-'");
+        }
+    }
+
+    /**
+     * A recording's state and where its dump is written
+     */
+    public static class RecordingInfo {
+        private final String name;
+        private final String state;
+        private final Instant startTime;
+        private final Duration duration;
+        private final long sizeBytes;
+        private final String file;
+
+        public RecordingInfo(String name, String state, Instant startTime, Duration duration, long sizeBytes, String file) {
+            this.name = name;
+            this.state = state;
+            this.startTime = startTime;
+            this.duration = duration;
+            this.sizeBytes = sizeBytes;
+            this.file = file;
+        }
+
+        static RecordingInfo of(Recording recording, Path dump) {
+            return new RecordingInfo(recording.getName(), recording.getState().name().toLowerCase(Locale.ROOT),
+                    recording.getStartTime(), recording.getDuration(), recording.getSize(),
+                    dump != null ? dump.toString() : null);
+        }
+
+        public String getName() { return name; }
+        public String getState() { return state; }
+        public Instant getStartTime() { return startTime; }
+        public Duration getDuration() { return duration; }
+        public long getSizeBytes() { return sizeBytes; }
+        public String getFile() { return file; }
+    }
+}
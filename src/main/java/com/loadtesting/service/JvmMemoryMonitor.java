@@ -0,0 +1,646 @@
+package com.loadtesting.service;
+
+import com.loadtesting.model.ObjectLayout;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.management.JMException;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Detailed JVM memory and GC statistics for tuning heap ratios and the collector against pod limits.
+ *
+ * Memory pools are read from their MXBeans (usage, peak and usage after the last collection).
+ * Collections are followed through {@link GarbageCollectorMXBean} notifications, which carry the
+ * pause duration and every pool's usage before and after the collection. From those:
+ * <ul>
+ *   <li>allocation = eden occupancy before a collection minus eden occupancy after the previous one</li>
+ *   <li>promotion = old generation growth across a young collection</li>
+ *   <li>live set = old generation occupancy after the last full collection</li>
+ * </ul>
+ * Native memory comes from the {@code VM.native_memory summary} diagnostic command and is only
+ * available when the JVM runs with {@code -XX:NativeMemoryTracking=summary}.
+ */
+@Service
+public class JvmMemoryMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(JvmMemoryMonitor.class);
+
+    /** Upper bounds of the pause histogram buckets in milliseconds; the last bucket is open-ended */
+    static final long[] PAUSE_BUCKETS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000};
+
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(60);
+    static final String HUMONGOUS_ALLOCATION_CAUSE = "G1 Humongous Allocation";
+    private static final Pattern NMT_TOTAL = Pattern.compile("Total: reserved=(\\d+)KB, committed=(\\d+)KB");
+    private static final Pattern NMT_CATEGORY = Pattern.compile("^-\\s+(.+?) \\(reserved=(\\d+)KB, committed=(\\d+)KB\\)");
+
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private final Map<String, CollectorState> collectors = new ConcurrentHashMap<>();
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final NotificationListener listener = this::handleNotification;
+    private final String edenPool;
+    private final String oldPool;
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final AtomicLong promotedBytes = new AtomicLong();
+    private final AtomicLong edenAfterLastGc = new AtomicLong();
+    private final AtomicLong oldAfterLastGc = new AtomicLong(-1);
+    private final AtomicLong liveSetAfterMajorGc = new AtomicLong(-1);
+    private final Deque<RateSample> rateSamples = new ArrayDeque<>();
+
+    public JvmMemoryMonitor() {
+        String eden = null;
+        String old = null;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            PoolCategory category = PoolCategory.of(pool.getName());
+            if (category == PoolCategory.EDEN) {
+                eden = pool.getName();
+            } else if (category == PoolCategory.OLD) {
+                old = pool.getName();
+            }
+        }
+        this.edenPool = eden;
+        this.oldPool = old;
+
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collectors.put(collector.getName(), new CollectorState());
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(listener, null, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException e) {
+                // already removed
+            }
+        }
+    }
+
+    /**
+     * Pools, collectors, allocation/promotion rates and native memory, as of now
+     */
+    public JvmMemoryStats getStats() {
+        List<PoolStats> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getUsage();
+            MemoryUsage peak = pool.getPeakUsage();
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            pools.add(new PoolStats(pool.getName(), PoolCategory.of(pool.getName()).name().toLowerCase(Locale.ROOT),
+                    pool.getType() == MemoryType.HEAP ? "heap" : "non-heap",
+                    usage.getUsed(), usage.getCommitted(), usage.getMax(), peak.getUsed(),
+                    afterGc != null ? afterGc.getUsed() : -1));
+        }
+
+        List<CollectorStats> collectorStats = new ArrayList<>();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            CollectorState state = collectors.computeIfAbsent(collector.getName(), name -> new CollectorState());
+            collectorStats.add(state.snapshot(collector));
+        }
+
+        long now = System.nanoTime();
+        long allocatedNow = allocatedSoFar();
+        long promotedNow = promotedBytes.get();
+        double allocationRate;
+        double promotionRate;
+        synchronized (rateSamples) {
+            rateSamples.addLast(new RateSample(now, allocatedNow, promotedNow));
+            while (rateSamples.size() > 1 && now - rateSamples.peekFirst().nanos > RATE_WINDOW_NANOS) {
+                rateSamples.removeFirst();
+            }
+            RateSample oldest = rateSamples.peekFirst();
+            // Fall back to the average since start until the window has some history
+            if (oldest.nanos == now) {
+                oldest = new RateSample(startNanos, 0, 0);
+            }
+            double seconds = Math.max(1e-3, (now - oldest.nanos) / 1e9);
+            allocationRate = (allocatedNow - oldest.allocated) / seconds;
+            promotionRate = (promotedNow - oldest.promoted) / seconds;
+        }
+
+        MemoryUsage heap = memoryBean.getHeapMemoryUsage();
+        MemoryUsage nonHeap = memoryBean.getNonHeapMemoryUsage();
+        return new JvmMemoryStats(heap.getUsed(), heap.getCommitted(), heap.getMax(),
+                nonHeap.getUsed(), nonHeap.getCommitted(), pools, collectorStats,
+                allocatedNow, promotedNow, allocationRate, promotionRate,
+                oldAfterLastGc.get(), liveSetAfterMajorGc.get(), nativeMemory());
+    }
+
+    /**
+     * G1 heap regions by role, and the collections G1 started because of humongous allocations.
+     * Region counts are derived from pool usage; humongous regions are part of the old pool.
+     * All figures are 0 under other collectors.
+     */
+    public HeapRegionStats getHeapRegions() {
+        long regionSize = ObjectLayout.current().getG1RegionSize();
+        if (regionSize <= 0) {
+            return new HeapRegionStats(0, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        long eden = 0;
+        long survivor = 0;
+        long old = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long regions = (pool.getUsage().getUsed() + regionSize - 1) / regionSize;
+            PoolCategory category = PoolCategory.of(pool.getName());
+            if (category == PoolCategory.EDEN) {
+                eden += regions;
+            } else if (category == PoolCategory.SURVIVOR) {
+                survivor += regions;
+            } else if (category == PoolCategory.OLD) {
+                old += regions;
+            }
+        }
+        long humongousGcs = 0;
+        for (CollectorState state : collectors.values()) {
+            LongAdder count = state.causes.get(HUMONGOUS_ALLOCATION_CAUSE);
+            humongousGcs += count != null ? count.sum() : 0;
+        }
+        MemoryUsage heap = memoryBean.getHeapMemoryUsage();
+        long committed = heap.getCommitted() / regionSize;
+        return new HeapRegionStats(regionSize, regionSize / 2, committed,
+                heap.getMax() > 0 ? heap.getMax() / regionSize : -1, eden, survivor, old,
+                Math.max(0, committed - eden - survivor - old), humongousGcs);
+    }
+
+    /**
+     * Run a full collection and measure heap before and after it. The "after" figure is the heap
+     * pools' usage right after the collection, reported by the pools once the collection count has
+     * moved, so allocation by other threads after the GC does not hide what was freed.
+     */
+    public static CollectionResult collect() {
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        long countBefore = totalCollectionCount();
+        long before = memoryBean.getHeapMemoryUsage().getUsed();
+        long start = System.nanoTime();
+        System.gc();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (totalCollectionCount() == countBefore && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        long durationNanos = System.nanoTime() - start;
+        boolean collected = totalCollectionCount() != countBefore;
+
+        long after = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage afterGc = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            if (afterGc != null) {
+                after += afterGc.getUsed();
+            }
+        }
+        if (!collected || after == 0) {
+            after = memoryBean.getHeapMemoryUsage().getUsed();
+        }
+        return new CollectionResult(collected, before, after, TimeUnit.NANOSECONDS.toMillis(durationNanos));
+    }
+
+    private static long totalCollectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    /**
+     * Allocation counted at collections plus what eden has filled up with since the last one
+     */
+    private long allocatedSoFar() {
+        long inProgress = 0;
+        if (edenPool != null) {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getName().equals(edenPool)) {
+                    inProgress = Math.max(0, pool.getUsage().getUsed() - edenAfterLastGc.get());
+                }
+            }
+        }
+        return allocatedBytes.get() + inProgress;
+    }
+
+    private void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        String action = info.getGcAction();
+        boolean concurrent = isConcurrent(info.getGcName(), action);
+        collectors.computeIfAbsent(info.getGcName(), name -> new CollectorState())
+                .record(info.getGcInfo().getDuration(), info.getGcCause(), action, concurrent);
+
+        Map<String, MemoryUsage> before = info.getGcInfo().getMemoryUsageBeforeGc();
+        Map<String, MemoryUsage> after = info.getGcInfo().getMemoryUsageAfterGc();
+        if (edenPool != null && before.containsKey(edenPool)) {
+            long edenBefore = before.get(edenPool).getUsed();
+            allocatedBytes.addAndGet(Math.max(0, edenBefore - edenAfterLastGc.get()));
+            edenAfterLastGc.set(after.get(edenPool).getUsed());
+        }
+        if (oldPool != null && before.containsKey(oldPool)) {
+            long oldBefore = before.get(oldPool).getUsed();
+            long oldAfter = after.get(oldPool).getUsed();
+            if (action.contains("minor")) {
+                promotedBytes.addAndGet(Math.max(0, oldAfter - oldBefore));
+            } else if (action.contains("major")) {
+                liveSetAfterMajorGc.set(oldAfter);
+            }
+            oldAfterLastGc.set(oldAfter);
+        }
+    }
+
+    /**
+     * Whether a collection ran concurrently with the application rather than as a pause. Shenandoah
+     * and ZGC report their concurrent work on "Cycles" beans with an "end of GC cycle" action, so
+     * the bean name counts as well as the action (G1's "end of concurrent cycle").
+     */
+    static boolean isConcurrent(String gcName, String action) {
+        return gcName.endsWith(" Cycles")
+                || gcName.toLowerCase(Locale.ROOT).contains("concurrent")
+                || action.toLowerCase(Locale.ROOT).contains("concurrent");
+    }
+
+    /**
+     * {@code VM.native_memory summary}, or a disabled summary when native memory tracking is off
+     */
+    NativeMemorySummary nativeMemory() {
+        try {
+            Object output = ManagementFactory.getPlatformMBeanServer().invoke(
+                    new ObjectName("com.sun.management:type=DiagnosticCommand"), "vmNativeMemory",
+                    new Object[]{new String[]{"summary"}}, new String[]{String[].class.getName()});
+            return parseNativeMemory(String.valueOf(output));
+        } catch (JMException | RuntimeException e) {
+            logger.debug("Native memory summary unavailable: {}", e.getMessage());
+            return new NativeMemorySummary(false, -1, -1, Map.of());
+        }
+    }
+
+    static NativeMemorySummary parseNativeMemory(String output) {
+        Matcher total = NMT_TOTAL.matcher(output);
+        if (!total.find()) {
+            return new NativeMemorySummary(false, -1, -1, Map.of());
+        }
+        Map<String, Long> committedByCategory = new LinkedHashMap<>();
+        for (String line : output.split("\\R")) {
+            Matcher category = NMT_CATEGORY.matcher(line.trim());
+            if (category.find()) {
+                committedByCategory.put(category.group(1).trim(), Long.parseLong(category.group(3)) * 1024);
+            }
+        }
+        return new NativeMemorySummary(true, Long.parseLong(total.group(1)) * 1024,
+                Long.parseLong(total.group(2)) * 1024, committedByCategory);
+    }
+
+    private record RateSample(long nanos, long allocated, long promoted) {
+    }
+
+    /**
+     * Role of a memory pool, derived from the names used by HotSpot's collectors
+     */
+    enum PoolCategory {
+        EDEN, SURVIVOR, OLD, METASPACE, COMPRESSED_CLASS_SPACE, CODE_CACHE, OTHER;
+
+        static PoolCategory of(String poolName) {
+            String name = poolName.toLowerCase(Locale.ROOT);
+            if (name.contains("eden")) {
+                return EDEN;
+            }
+            if (name.contains("survivor")) {
+                return SURVIVOR;
+            }
+            if (name.contains("old") || name.contains("tenured")) {
+                return OLD;
+            }
+            if (name.contains("compressed class")) {
+                return COMPRESSED_CLASS_SPACE;
+            }
+            if (name.contains("metaspace")) {
+                return METASPACE;
+            }
+            if (name.contains("code")) {
+                return CODE_CACHE;
+            }
+            return OTHER;
+        }
+    }
+
+    /**
+     * Notification-derived figures for one collector
+     */
+    private static final class CollectorState {
+        private final LongAdder pauses = new LongAdder();
+        private final LongAdder pauseMillis = new LongAdder();
+        private final LongAdder concurrentCycles = new LongAdder();
+        private final AtomicLong maxPauseMillis = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(PAUSE_BUCKETS_MS.length + 1);
+        private final Map<String, LongAdder> causes = new ConcurrentHashMap<>();
+        private volatile String lastCause;
+        private volatile String lastAction;
+
+        void record(long durationMillis, String cause, String action, boolean concurrent) {
+            lastCause = cause;
+            lastAction = action;
+            if (cause != null) {
+                causes.computeIfAbsent(cause, key -> new LongAdder()).increment();
+            }
+            if (concurrent) {
+                concurrentCycles.increment();
+                return;
+            }
+            pauses.increment();
+            pauseMillis.add(durationMillis);
+            maxPauseMillis.accumulateAndGet(durationMillis, Math::max);
+            int bucket = 0;
+            while (bucket < PAUSE_BUCKETS_MS.length && durationMillis > PAUSE_BUCKETS_MS[bucket]) {
+                bucket++;
+            }
+            histogram.incrementAndGet(bucket);
+        }
+
+        CollectorStats snapshot(GarbageCollectorMXBean collector) {
+            Map<String, Long> buckets = new LinkedHashMap<>();
+            for (int i = 0; i < PAUSE_BUCKETS_MS.length; i++) {
+                buckets.put("le" + PAUSE_BUCKETS_MS[i] + "ms", histogram.get(i));
+            }
+            buckets.put("gt" + PAUSE_BUCKETS_MS[PAUSE_BUCKETS_MS.length - 1] + "ms", histogram.get(PAUSE_BUCKETS_MS.length));
+            Map<String, Long> causeCounts = new TreeMap<>();
+            causes.forEach((cause, count) -> causeCounts.put(cause, count.sum()));
+            return new CollectorStats(collector.getName(), List.of(collector.getMemoryPoolNames()),
+                    collector.getCollectionCount(), collector.getCollectionTime(),
+                    pauses.sum(), pauseMillis.sum(), maxPauseMillis.get(), concurrentCycles.sum(),
+                    buckets, causeCounts, lastCause, lastAction);
+        }
+    }
+
+    /**
+     * G1 regions in use by role; {@code maxRegions} is -1 when the heap has no maximum
+     */
+    public static class HeapRegionStats {
+        private final long regionSizeBytes;
+        private final long humongousThresholdBytes;
+        private final long committedRegions;
+        private final long maxRegions;
+        private final long edenRegions;
+        private final long survivorRegions;
+        private final long oldRegions;
+        private final long freeRegions;
+        private final long humongousAllocationGcs;
+
+        public HeapRegionStats(long regionSizeBytes, long humongousThresholdBytes, long committedRegions,
+                               long maxRegions, long edenRegions, long survivorRegions, long oldRegions,
+                               long freeRegions, long humongousAllocationGcs) {
+            this.regionSizeBytes = regionSizeBytes;
+            this.humongousThresholdBytes = humongousThresholdBytes;
+            this.committedRegions = committedRegions;
+            this.maxRegions = maxRegions;
+            this.edenRegions = edenRegions;
+            this.survivorRegions = survivorRegions;
+            this.oldRegions = oldRegions;
+            this.freeRegions = freeRegions;
+            this.humongousAllocationGcs = humongousAllocationGcs;
+        }
+
+        public long getRegionSizeBytes() { return regionSizeBytes; }
+        public long getHumongousThresholdBytes() { return humongousThresholdBytes; }
+        public long getCommittedRegions() { return committedRegions; }
+        public long getMaxRegions() { return maxRegions; }
+        public long getEdenRegions() { return edenRegions; }
+        public long getSurvivorRegions() { return survivorRegions; }
+        /** Old regions, humongous ones included */
+        public long getOldRegions() { return oldRegions; }
+        public long getFreeRegions() { return freeRegions; }
+        /** Collections started with the "G1 Humongous Allocation" cause */
+        public long getHumongousAllocationGcs() { return humongousAllocationGcs; }
+    }
+
+    /**
+     * One memory pool; {@code afterGcBytes} is -1 for pools that are not collected
+     */
+    public static class PoolStats {
+        private final String name;
+        private final String category;
+        private final String type;
+        private final long usedBytes;
+        private final long committedBytes;
+        private final long maxBytes;
+        private final long peakBytes;
+        private final long afterGcBytes;
+
+        public PoolStats(String name, String category, String type, long usedBytes, long committedBytes,
+                         long maxBytes, long peakBytes, long afterGcBytes) {
+            this.name = name;
+            this.category = category;
+            this.type = type;
+            this.usedBytes = usedBytes;
+            this.committedBytes = committedBytes;
+            this.maxBytes = maxBytes;
+            this.peakBytes = peakBytes;
+            this.afterGcBytes = afterGcBytes;
+        }
+
+        public String getName() { return name; }
+        public String getCategory() { return category; }
+        public String getType() { return type; }
+        public long getUsedBytes() { return usedBytes; }
+        public long getCommittedBytes() { return committedBytes; }
+        public long getMaxBytes() { return maxBytes; }
+        public long getPeakBytes() { return peakBytes; }
+        public long getAfterGcBytes() { return afterGcBytes; }
+    }
+
+    /**
+     * One collector: MXBean totals plus pause figures from its notifications since startup
+     */
+    public static class CollectorStats {
+        private final String name;
+        private final List<String> pools;
+        private final long collectionCount;
+        private final long collectionTimeMs;
+        private final long pauses;
+        private final long pauseTotalMs;
+        private final long pauseMaxMs;
+        private final long concurrentCycles;
+        private final Map<String, Long> pauseHistogram;
+        private final Map<String, Long> causes;
+        private final String lastCause;
+        private final String lastAction;
+
+        public CollectorStats(String name, List<String> pools, long collectionCount, long collectionTimeMs,
+                              long pauses, long pauseTotalMs, long pauseMaxMs, long concurrentCycles,
+                              Map<String, Long> pauseHistogram, Map<String, Long> causes,
+                              String lastCause, String lastAction) {
+            this.name = name;
+            this.pools = pools;
+            this.collectionCount = collectionCount;
+            this.collectionTimeMs = collectionTimeMs;
+            this.pauses = pauses;
+            this.pauseTotalMs = pauseTotalMs;
+            this.pauseMaxMs = pauseMaxMs;
+            this.concurrentCycles = concurrentCycles;
+            this.pauseHistogram = pauseHistogram;
+            this.causes = causes;
+            this.lastCause = lastCause;
+            this.lastAction = lastAction;
+        }
+
+        public String getName() { return name; }
+        public List<String> getPools() { return pools; }
+        public long getCollectionCount() { return collectionCount; }
+        public long getCollectionTimeMs() { return collectionTimeMs; }
+        public long getPauses() { return pauses; }
+        public long getPauseTotalMs() { return pauseTotalMs; }
+        public long getPauseMaxMs() { return pauseMaxMs; }
+        public long getConcurrentCycles() { return concurrentCycles; }
+        public Map<String, Long> getPauseHistogram() { return pauseHistogram; }
+        /** Collections by GC cause, e.g. "G1 Humongous Allocation" */
+        public Map<String, Long> getCauses() { return causes; }
+        public String getLastCause() { return lastCause; }
+        public String getLastAction() { return lastAction; }
+    }
+
+    /**
+     * Native memory tracking summary; committed bytes per NMT category when enabled
+     */
+    public static class NativeMemorySummary {
+        private final boolean enabled;
+        private final long reservedBytes;
+        private final long committedBytes;
+        private final Map<String, Long> committedByCategory;
+
+        public NativeMemorySummary(boolean enabled, long reservedBytes, long committedBytes,
+                                   Map<String, Long> committedByCategory) {
+            this.enabled = enabled;
+            this.reservedBytes = reservedBytes;
+            this.committedBytes = committedBytes;
+            this.committedByCategory = committedByCategory;
+        }
+
+        public boolean isEnabled() { return enabled; }
+        public long getReservedBytes() { return reservedBytes; }
+        public long getCommittedBytes() { return committedBytes; }
+        public Map<String, Long> getCommittedByCategory() { return committedByCategory; }
+    }
+
+    /**
+     * Outcome of {@link #collect()}
+     */
+    public static class CollectionResult {
+        private final boolean collected;
+        private final long beforeBytes;
+        private final long afterBytes;
+        private final long durationMs;
+
+        public CollectionResult(boolean collected, long beforeBytes, long afterBytes, long durationMs) {
+            this.collected = collected;
+            this.beforeBytes = beforeBytes;
+            this.afterBytes = afterBytes;
+            this.durationMs = durationMs;
+        }
+
+        public boolean isCollected() { return collected; }
+        public long getBeforeBytes() { return beforeBytes; }
+        public long getAfterBytes() { return afterBytes; }
+        public long getFreedBytes() { return Math.max(0, beforeBytes - afterBytes); }
+        public long getDurationMs() { return durationMs; }
+    }
+
+    /**
+     * Snapshot returned by GET /api/memory/jvm
+     */
+    public static class JvmMemoryStats {
+        private final long heapUsedBytes;
+        private final long heapCommittedBytes;
+        private final long heapMaxBytes;
+        private final long nonHeapUsedBytes;
+        private final long nonHeapCommittedBytes;
+        private final List<PoolStats> pools;
+        private final List<CollectorStats> collectors;
+        private final long allocatedBytes;
+        private final long promotedBytes;
+        private final double allocationRateBytesPerSecond;
+        private final double promotionRateBytesPerSecond;
+        private final long oldGenAfterLastGcBytes;
+        private final long liveSetAfterFullGcBytes;
+        private final NativeMemorySummary nativeMemory;
+
+        public JvmMemoryStats(long heapUsedBytes, long heapCommittedBytes, long heapMaxBytes,
+                              long nonHeapUsedBytes, long nonHeapCommittedBytes,
+                              List<PoolStats> pools, List<CollectorStats> collectors,
+                              long allocatedBytes, long promotedBytes,
+                              double allocationRateBytesPerSecond, double promotionRateBytesPerSecond,
+                              long oldGenAfterLastGcBytes, long liveSetAfterFullGcBytes,
+                              NativeMemorySummary nativeMemory) {
+            this.heapUsedBytes = heapUsedBytes;
+            this.heapCommittedBytes = heapCommittedBytes;
+            this.heapMaxBytes = heapMaxBytes;
+            this.nonHeapUsedBytes = nonHeapUsedBytes;
+            this.nonHeapCommittedBytes = nonHeapCommittedBytes;
+            this.pools = pools;
+            this.collectors = collectors;
+            this.allocatedBytes = allocatedBytes;
+            this.promotedBytes = promotedBytes;
+            this.allocationRateBytesPerSecond = allocationRateBytesPerSecond;
+            this.promotionRateBytesPerSecond = promotionRateBytesPerSecond;
+            this.oldGenAfterLastGcBytes = oldGenAfterLastGcBytes;
+            this.liveSetAfterFullGcBytes = liveSetAfterFullGcBytes;
+            this.nativeMemory = nativeMemory;
+        }
+
+        public long getHeapUsedBytes() { return heapUsedBytes; }
+        public long getHeapCommittedBytes() { return heapCommittedBytes; }
+        public long getHeapMaxBytes() { return heapMaxBytes; }
+        public long getNonHeapUsedBytes() { return nonHeapUsedBytes; }
+        public long getNonHeapCommittedBytes() { return nonHeapCommittedBytes; }
+        public List<PoolStats> getPools() { return pools; }
+        public List<CollectorStats> getCollectors() { return collectors; }
+        /** Bytes allocated in eden since startup */
+        public long getAllocatedBytes() { return allocatedBytes; }
+        /** Bytes promoted to the old generation by young collections since startup */
+        public long getPromotedBytes() { return promotedBytes; }
+        /** Allocation rate over the last minute (or since startup, if shorter) */
+        public double getAllocationRateBytesPerSecond() { return allocationRateBytesPerSecond; }
+        public double getPromotionRateBytesPerSecond() { return promotionRateBytesPerSecond; }
+        /** Old generation occupancy after the most recent collection, or -1 before the first */
+        public long getOldGenAfterLastGcBytes() { return oldGenAfterLastGcBytes; }
+        /** Old generation occupancy after the most recent full collection, or -1 before the first */
+        public long getLiveSetAfterFullGcBytes() { return liveSetAfterFullGcBytes; }
+        public NativeMemorySummary getNativeMemory() { return nativeMemory; }
+    }
+}
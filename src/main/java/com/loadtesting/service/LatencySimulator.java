@@ -0,0 +1,118 @@
+package com.loadtesting.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Simulates downstream latency (e.g. a slow database) without parking a thread per request.
+ * All delays share one timer thread; when a delay elapses the follow-up work runs on the common
+ * fork-join pool and completes the returned future, so the servlet thread that started the request
+ * is free for the whole delay.
+ *
+ * Timer lag (how late a delay fires compared to when it was due) shows when the timer or the
+ * worker pool is saturated; in-flight count shows how many requests are waiting at once.
+ */
+@Service
+public class LatencySimulator {
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final Executor workExecutor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final Timer lag;
+
+    public LatencySimulator(MeterRegistry meterRegistry) {
+        this.workExecutor = ForkJoinPool.commonPool();
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "latency-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+
+        this.lag = Timer.builder("latency.simulation.timer.lag")
+                .description("How late simulated delays fire compared to when they were due")
+                .register(meterRegistry);
+        Gauge.builder("latency.simulation.inflight", inFlight, AtomicInteger::get)
+                .description("Requests currently waiting on a simulated delay")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run {@code work} once {@code delayMs} has elapsed, without blocking the calling thread
+     */
+    public <T> CompletableFuture<T> delay(long delayMs, Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        int current = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(current, Math::max);
+
+        CompletableFuture<T> tracked = result.whenComplete((value, error) -> {
+            inFlight.decrementAndGet();
+            completed.increment();
+        });
+
+        long dueNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+        try {
+            timer.schedule(() -> {
+                lag.record(Math.max(0, System.nanoTime() - dueNanos), TimeUnit.NANOSECONDS);
+                result.completeAsync(work, workExecutor);
+            }, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: fail the request instead of leaving it pending and counted as in flight
+            result.completeExceptionally(e);
+        }
+        return tracked;
+    }
+
+    /**
+     * Current in-flight count, peak, completions and timer lag
+     */
+    public LatencyStats getStats() {
+        return new LatencyStats(inFlight.get(), peakInFlight.get(), completed.sum(),
+                lag.mean(TimeUnit.MILLISECONDS), lag.max(TimeUnit.MILLISECONDS));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Snapshot of the simulator's concurrency and timer lag
+     */
+    public static class LatencyStats {
+        private final int inFlight;
+        private final int peakInFlight;
+        private final long completed;
+        private final double meanTimerLagMs;
+        private final double maxTimerLagMs;
+
+        public LatencyStats(int inFlight, int peakInFlight, long completed, double meanTimerLagMs, double maxTimerLagMs) {
+            this.inFlight = inFlight;
+            this.peakInFlight = peakInFlight;
+            this.completed = completed;
+            this.meanTimerLagMs = meanTimerLagMs;
+            this.maxTimerLagMs = maxTimerLagMs;
+        }
+
+        public int getInFlight() { return inFlight; }
+        public int getPeakInFlight() { return peakInFlight; }
+        public long getCompleted() { return completed; }
+        public double getMeanTimerLagMs() { return meanTimerLagMs; }
+        public double getMaxTimerLagMs() { return maxTimerLagMs; }
+    }
+}
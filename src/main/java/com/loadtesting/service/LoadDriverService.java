@@ -0,0 +1,756 @@
+package com.loadtesting.service;
+
+import jakarta.annotation.PreDestroy;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Built-in open-loop load driver that sends requests to this service's own endpoints over a local
+ * HTTP client, so a sizing run can be reproduced from a single container without k6.
+ *
+ * Requests are issued on a fixed schedule (constant arrival rate, or a rate ramped linearly between
+ * stages like k6's ramping-arrival-rate executor) whether or not earlier requests have completed.
+ * Latency is measured from each request's scheduled start rather than from when it was actually
+ * sent, which corrects for coordinated omission: when the service or the driver falls behind, the
+ * waiting time is counted instead of silently thinning out the load. The uncorrected service time
+ * (from actual send) is reported alongside for comparison. Requests that would exceed the in-flight
+ * limit are dropped and counted, like k6's dropped_iterations.
+ *
+ * The driver shares CPU and heap with the service under test, so its cost is part of the reported
+ * resource usage; keep rates within what a single pod is expected to serve.
+ */
+@Service
+public class LoadDriverService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadDriverService.class);
+
+    private static final int MAX_KEPT_RUNS = 20;
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final long RESOURCE_SAMPLE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final Set<String> METHODS = Set.of("GET", "POST", "PUT", "DELETE");
+
+    private final Environment environment;
+    private final JvmMemoryMonitor jvmMemoryMonitor;
+    private final HttpClient httpClient;
+    private final ExecutorService runExecutor;
+    private final AtomicBoolean busy = new AtomicBoolean();
+    private final Map<String, LoadRun> runs = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public LoadDriverService(Environment environment, JvmMemoryMonitor jvmMemoryMonitor) {
+        this.environment = environment;
+        this.jvmMemoryMonitor = jvmMemoryMonitor;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.runExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-driver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runs.values().forEach(LoadRun::cancel);
+        runExecutor.shutdownNow();
+    }
+
+    /**
+     * Validate the plan and run it in the background; only one run can be active at a time
+     *
+     * @throws IllegalArgumentException if the plan is invalid
+     * @throws IllegalStateException if another run is in progress
+     */
+    public LoadRun start(LoadPlan plan) {
+        plan.validate();
+        acquire();
+        LoadRun run = new LoadRun(UUID.randomUUID().toString(), plan);
+        remember(run);
+        try {
+            runExecutor.execute(() -> {
+                try {
+                    run.running();
+                    run.complete(execute(plan, run::isCancelled));
+                } catch (RuntimeException e) {
+                    logger.warn("Load run {} failed", run.getId(), e);
+                    run.fail(e);
+                } finally {
+                    release();
+                }
+            });
+        } catch (RuntimeException e) {
+            release();
+            throw e;
+        }
+        return run;
+    }
+
+    public LoadRun getRun(String id) {
+        return runs.get(id);
+    }
+
+    public List<LoadRun> getRuns() {
+        synchronized (runs) {
+            return new ArrayList<>(runs.values());
+        }
+    }
+
+    /**
+     * Ask a run to stop issuing requests; its report covers the requests sent so far
+     */
+    public boolean cancel(String id) {
+        LoadRun run = runs.get(id);
+        if (run == null) {
+            return false;
+        }
+        run.cancel();
+        return true;
+    }
+
+    /**
+     * Reserve the driver for a run, failing if one is already in progress
+     */
+    void acquire() {
+        if (!busy.compareAndSet(false, true)) {
+            throw new IllegalStateException("A load run is already in progress");
+        }
+    }
+
+    void release() {
+        busy.set(false);
+    }
+
+    private void remember(LoadRun run) {
+        synchronized (runs) {
+            runs.put(run.getId(), run);
+            while (runs.size() > MAX_KEPT_RUNS) {
+                runs.remove(runs.keySet().iterator().next());
+            }
+        }
+    }
+
+    /**
+     * Run the plan on the calling thread and return its report
+     */
+    public LoadReport execute(LoadPlan plan, BooleanSupplier cancelled) {
+        plan.validate();
+        URI base = baseUri();
+        List<HttpRequest> requests = new ArrayList<>();
+        double[] cumulativeWeights = new double[plan.getTargets().size()];
+        double totalWeight = 0;
+        for (int i = 0; i < plan.getTargets().size(); i++) {
+            LoadPlan.Target target = plan.getTargets().get(i);
+            requests.add(HttpRequest.newBuilder(base.resolve(target.getPath()))
+                    .method(target.getMethod().toUpperCase(Locale.ROOT), HttpRequest.BodyPublishers.noBody())
+                    .timeout(Duration.ofMillis(plan.getTimeoutMillis()))
+                    .build());
+            totalWeight += target.getWeight();
+            cumulativeWeights[i] = totalWeight;
+        }
+        // Fixed seed so the same plan sends the same request mix
+        SplittableRandom random = new SplittableRandom(42);
+
+        Histogram responseTimes = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        Histogram serviceTimes = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(plan.getMaxInFlight());
+        long scheduled = 0;
+        long dropped = 0;
+
+        ResourceSampler resources = new ResourceSampler(jvmMemoryMonitor);
+        double plannedSeconds = plan.getTotalDurationSeconds();
+        long start = System.nanoTime();
+        while (!cancelled.getAsBoolean()) {
+            double offsetSeconds = plan.offsetOf(scheduled);
+            if (!(offsetSeconds < plannedSeconds)) {
+                break;
+            }
+            long intendedStart = start + (long) (offsetSeconds * 1e9);
+            if (!awaitNanoTime(intendedStart, resources, cancelled)) {
+                break;
+            }
+            scheduled++;
+
+            if (!inFlight.tryAcquire()) {
+                dropped++;
+                continue;
+            }
+            double pick = random.nextDouble() * totalWeight;
+            int index = 0;
+            while (cumulativeWeights[index] <= pick && index < cumulativeWeights.length - 1) {
+                index++;
+            }
+            long sendStart = System.nanoTime();
+            CompletableFuture<HttpResponse<Void>> sent;
+            try {
+                sent = httpClient.sendAsync(requests.get(index), HttpResponse.BodyHandlers.discarding());
+            } catch (RuntimeException e) {
+                // Count it like an asynchronous failure so the permit is released
+                sent = CompletableFuture.failedFuture(e);
+            }
+            sent.whenComplete((response, failure) -> {
+                        long end = System.nanoTime();
+                        responseTimes.recordValue(toMicros(end - intendedStart));
+                        serviceTimes.recordValue(toMicros(end - sendStart));
+                        String outcome;
+                        if (failure != null) {
+                            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                                    ? failure.getCause() : failure;
+                            outcome = cause.getClass().getSimpleName();
+                            errors.increment();
+                        } else {
+                            outcome = Integer.toString(response.statusCode());
+                            if (response.statusCode() >= 400) {
+                                errors.increment();
+                            }
+                        }
+                        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+                        completed.increment();
+                        inFlight.release();
+                    });
+        }
+
+        // Let outstanding requests finish or time out
+        long drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(plan.getTimeoutMillis() + 1000);
+        while (inFlight.availablePermits() < plan.getMaxInFlight() && System.nanoTime() < drainDeadline) {
+            resources.sample();
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        Map<String, Long> outcomeCounts = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> outcomeCounts.put(outcome, count.sum()));
+        double elapsedSeconds = elapsedNanos / 1e9;
+        long completedCount = completed.sum();
+        long errorCount = errors.sum();
+        return new LoadReport(plan.getExecutor(), Math.round(plannedSeconds * 1000),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), cancelled.getAsBoolean(),
+                scheduled, scheduled - dropped, completedCount, errorCount, dropped,
+                completedCount / elapsedSeconds, completedCount > 0 ? (double) errorCount / completedCount : 0,
+                outcomeCounts, LatencySummary.of(responseTimes), LatencySummary.of(serviceTimes),
+                resources.finish(elapsedNanos));
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    /**
+     * Wait until the deadline, sampling resources; false if the run was cancelled while waiting
+     */
+    private static boolean awaitNanoTime(long deadline, ResourceSampler resources, BooleanSupplier cancelled) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (cancelled.getAsBoolean()) {
+                return false;
+            }
+            resources.sample();
+            LockSupport.parkNanos(Math.min(remaining, RESOURCE_SAMPLE_NANOS));
+        }
+        resources.sample();
+        return true;
+    }
+
+    /**
+     * This service's own base URI; the port is the one the embedded server actually bound
+     */
+    URI baseUri() {
+        String port = environment.getProperty("local.server.port", environment.getProperty("server.port", "8080"));
+        return URI.create("http://localhost:" + port);
+    }
+
+    /**
+     * Heap, GC, allocation and CPU figures for the duration of a run
+     */
+    private static final class ResourceSampler {
+        private final JvmMemoryMonitor jvmMemoryMonitor;
+        private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        private final com.sun.management.OperatingSystemMXBean osBean =
+                ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean bean ? bean : null;
+        private final long heapStart;
+        private final long gcCountStart;
+        private final long gcTimeStart;
+        private final long allocatedStart;
+        private final long cpuStart;
+        private long heapPeak;
+        private long lastSample;
+
+        ResourceSampler(JvmMemoryMonitor jvmMemoryMonitor) {
+            this.jvmMemoryMonitor = jvmMemoryMonitor;
+            this.heapStart = memoryBean.getHeapMemoryUsage().getUsed();
+            this.heapPeak = heapStart;
+            this.gcCountStart = gcCount();
+            this.gcTimeStart = gcTime();
+            this.allocatedStart = jvmMemoryMonitor.getStats().getAllocatedBytes();
+            this.cpuStart = processCpuNanos();
+            this.lastSample = System.nanoTime();
+        }
+
+        void sample() {
+            long now = System.nanoTime();
+            if (now - lastSample >= RESOURCE_SAMPLE_NANOS) {
+                lastSample = now;
+                heapPeak = Math.max(heapPeak, memoryBean.getHeapMemoryUsage().getUsed());
+            }
+        }
+
+        ResourceUsage finish(long elapsedNanos) {
+            long heapEnd = memoryBean.getHeapMemoryUsage().getUsed();
+            JvmMemoryMonitor.JvmMemoryStats stats = jvmMemoryMonitor.getStats();
+            long allocated = Math.max(0, stats.getAllocatedBytes() - allocatedStart);
+            long cpuNanos = cpuStart >= 0 ? processCpuNanos() - cpuStart : -1;
+            double seconds = elapsedNanos / 1e9;
+            return new ResourceUsage(heapStart, heapEnd, Math.max(heapPeak, heapEnd),
+                    stats.getOldGenAfterLastGcBytes(), memoryBean.getHeapMemoryUsage().getMax(),
+                    allocated, allocated / seconds, gcCount() - gcCountStart, gcTime() - gcTimeStart,
+                    cpuNanos >= 0 ? cpuNanos / 1e9 / seconds : -1);
+        }
+
+        private long processCpuNanos() {
+            return osBean != null ? osBean.getProcessCpuTime() : -1;
+        }
+
+        private static long gcCount() {
+            long count = 0;
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, collector.getCollectionCount());
+            }
+            return count;
+        }
+
+        private static long gcTime() {
+            long time = 0;
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                time += Math.max(0, collector.getCollectionTime());
+            }
+            return time;
+        }
+    }
+
+    /**
+     * What to send: a weighted mix of endpoints and an arrival-rate schedule.
+     * <pre>
+     * {"targets": [{"path": "/api/employees?count=100"}, {"path": "/api/memory/scenario/heavy", "weight": 0.2}],
+     *  "executor": "ramping", "startRate": 0, "stages": [{"target": 20, "durationSeconds": 30},
+     *  {"target": 20, "durationSeconds": 120}, {"target": 0, "durationSeconds": 10}]}
+     * </pre>
+     */
+    public static class LoadPlan {
+        private List<Target> targets = new ArrayList<>();
+        private String executor = "constant";
+        private double rate;
+        private int durationSeconds;
+        private double startRate;
+        private List<Stage> stages = new ArrayList<>();
+        private int maxInFlight = 500;
+        private int timeoutMillis = 10_000;
+
+        /**
+         * Constant arrival rate against a single GET endpoint
+         */
+        public static LoadPlan constant(String path, double rate, int durationSeconds) {
+            LoadPlan plan = new LoadPlan();
+            plan.getTargets().add(new Target("GET", path, 1));
+            plan.setRate(rate);
+            plan.setDurationSeconds(durationSeconds);
+            return plan;
+        }
+
+        void validate() {
+            if (targets == null || targets.isEmpty()) {
+                throw new IllegalArgumentException("At least one target is required");
+            }
+            for (Target target : targets) {
+                String path = target.getPath();
+                if (path == null || !path.startsWith("/") || path.startsWith("//")) {
+                    throw new IllegalArgumentException("Target paths must be absolute paths on this service: " + path);
+                }
+                if (path.startsWith("/api/load")) {
+                    throw new IllegalArgumentException("The load driver cannot target itself: " + path);
+                }
+                if (target.getMethod() == null || !METHODS.contains(target.getMethod().toUpperCase(Locale.ROOT))) {
+                    throw new IllegalArgumentException("Unsupported method: " + target.getMethod());
+                }
+                if (!(target.getWeight() > 0)) {
+                    throw new IllegalArgumentException("Target weights must be positive");
+                }
+            }
+            if (maxInFlight < 1 || maxInFlight > 10_000) {
+                throw new IllegalArgumentException("maxInFlight must be between 1 and 10000");
+            }
+            if (timeoutMillis < 1 || timeoutMillis > 600_000) {
+                throw new IllegalArgumentException("timeoutMillis must be between 1 and 600000");
+            }
+            if ("constant".equals(executor)) {
+                if (!(rate > 0) || rate > 100_000) {
+                    throw new IllegalArgumentException("rate must be between 0 and 100000 requests/second");
+                }
+                if (durationSeconds < 1) {
+                    throw new IllegalArgumentException("durationSeconds must be at least 1");
+                }
+            } else if ("ramping".equals(executor)) {
+                if (stages == null || stages.isEmpty()) {
+                    throw new IllegalArgumentException("A ramping plan needs at least one stage");
+                }
+                if (startRate < 0 || stages.stream().anyMatch(stage -> stage.getTarget() < 0
+                        || stage.getTarget() > 100_000 || stage.getDurationSeconds() < 1)) {
+                    throw new IllegalArgumentException("Stage targets must be 0-100000 and durations at least 1 second");
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown executor: " + executor + " (constant or ramping)");
+            }
+            if (getTotalDurationSeconds() > 3600) {
+                throw new IllegalArgumentException("A load run can last at most one hour");
+            }
+        }
+
+        double getTotalDurationSeconds() {
+            if ("ramping".equals(executor)) {
+                return stages.stream().mapToDouble(Stage::getDurationSeconds).sum();
+            }
+            return durationSeconds;
+        }
+
+        /**
+         * Offset in seconds at which the integral of the arrival rate reaches {@code arrivals}, or
+         * {@link Double#POSITIVE_INFINITY} if the plan ends first. Ramping stages interpolate the rate
+         * linearly from the previous target, so within a stage the integral is quadratic and is solved
+         * directly; a stage held at rate 0 contributes no arrivals instead of ending the run.
+         */
+        double offsetOf(double arrivals) {
+            if (!"ramping".equals(executor)) {
+                return arrivals / rate;
+            }
+            double remaining = arrivals;
+            double from = startRate;
+            double stageStart = 0;
+            for (Stage stage : stages) {
+                double duration = stage.getDurationSeconds();
+                double stageArrivals = (from + stage.getTarget()) / 2 * duration;
+                if (remaining <= stageArrivals && stageArrivals > 0) {
+                    if (remaining <= 0) {
+                        return stageStart;
+                    }
+                    // from * t + slope * t^2 / 2 = remaining, in a form that is stable for slope 0
+                    double slope = (stage.getTarget() - from) / duration;
+                    double root = Math.sqrt(Math.max(0, from * from + 2 * slope * remaining));
+                    return stageStart + 2 * remaining / (from + root);
+                }
+                remaining -= stageArrivals;
+                from = stage.getTarget();
+                stageStart += duration;
+            }
+            return Double.POSITIVE_INFINITY;
+        }
+
+        public List<Target> getTargets() { return targets; }
+        public void setTargets(List<Target> targets) { this.targets = targets; }
+        /** constant or ramping */
+        public String getExecutor() { return executor; }
+        public void setExecutor(String executor) { this.executor = executor; }
+        /** Requests per second for the constant executor */
+        public double getRate() { return rate; }
+        public void setRate(double rate) { this.rate = rate; }
+        public int getDurationSeconds() { return durationSeconds; }
+        public void setDurationSeconds(int durationSeconds) { this.durationSeconds = durationSeconds; }
+        /** Requests per second at the beginning of the first ramping stage */
+        public double getStartRate() { return startRate; }
+        public void setStartRate(double startRate) { this.startRate = startRate; }
+        public List<Stage> getStages() { return stages; }
+        public void setStages(List<Stage> stages) { this.stages = stages; }
+        /** Requests allowed in flight at once; requests beyond it are dropped */
+        public int getMaxInFlight() { return maxInFlight; }
+        public void setMaxInFlight(int maxInFlight) { this.maxInFlight = maxInFlight; }
+        public int getTimeoutMillis() { return timeoutMillis; }
+        public void setTimeoutMillis(int timeoutMillis) { this.timeoutMillis = timeoutMillis; }
+
+        /**
+         * An endpoint of this service and its share of the requests
+         */
+        public static class Target {
+            private String method = "GET";
+            private String path;
+            private double weight = 1;
+
+            public Target() {
+            }
+
+            public Target(String method, String path, double weight) {
+                this.method = method;
+                this.path = path;
+                this.weight = weight;
+            }
+
+            public String getMethod() { return method; }
+            public void setMethod(String method) { this.method = method; }
+            public String getPath() { return path; }
+            public void setPath(String path) { this.path = path; }
+            public double getWeight() { return weight; }
+            public void setWeight(double weight) { this.weight = weight; }
+        }
+
+        /**
+         * Ramp linearly to {@code target} requests/second over {@code durationSeconds}
+         */
+        public static class Stage {
+            private double target;
+            private int durationSeconds;
+
+            public Stage() {
+            }
+
+            public Stage(double target, int durationSeconds) {
+                this.target = target;
+                this.durationSeconds = durationSeconds;
+            }
+
+            public double getTarget() { return target; }
+            public void setTarget(double target) { this.target = target; }
+            public int getDurationSeconds() { return durationSeconds; }
+            public void setDurationSeconds(int durationSeconds) { this.durationSeconds = durationSeconds; }
+        }
+    }
+
+    /**
+     * A background run started through {@link #start(LoadPlan)}
+     */
+    public static class LoadRun {
+        public enum State { PENDING, RUNNING, COMPLETED, CANCELLED, FAILED }
+
+        private final String id;
+        private final LoadPlan plan;
+        private final Instant createdAt = Instant.now();
+        private volatile State state = State.PENDING;
+        private volatile boolean cancelled;
+        private volatile LoadReport report;
+        private volatile String error;
+
+        LoadRun(String id, LoadPlan plan) {
+            this.id = id;
+            this.plan = plan;
+        }
+
+        void running() {
+            state = State.RUNNING;
+        }
+
+        void complete(LoadReport report) {
+            this.report = report;
+            state = cancelled ? State.CANCELLED : State.COMPLETED;
+        }
+
+        void fail(Exception e) {
+            error = e.getMessage();
+            state = State.FAILED;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        public String getId() { return id; }
+        public LoadPlan getPlan() { return plan; }
+        public Instant getCreatedAt() { return createdAt; }
+        public State getState() { return state; }
+        public LoadReport getReport() { return report; }
+        public String getError() { return error; }
+    }
+
+    /**
+     * Latency distribution in milliseconds
+     */
+    public static class LatencySummary {
+        private final long count;
+        private final double meanMs;
+        private final double p50Ms;
+        private final double p75Ms;
+        private final double p90Ms;
+        private final double p95Ms;
+        private final double p99Ms;
+        private final double p999Ms;
+        private final double p9999Ms;
+        private final double maxMs;
+
+        public LatencySummary(long count, double meanMs, double p50Ms, double p75Ms, double p90Ms, double p95Ms,
+                              double p99Ms, double p999Ms, double p9999Ms, double maxMs) {
+            this.count = count;
+            this.meanMs = meanMs;
+            this.p50Ms = p50Ms;
+            this.p75Ms = p75Ms;
+            this.p90Ms = p90Ms;
+            this.p95Ms = p95Ms;
+            this.p99Ms = p99Ms;
+            this.p999Ms = p999Ms;
+            this.p9999Ms = p9999Ms;
+            this.maxMs = maxMs;
+        }
+
+        static LatencySummary of(Histogram micros) {
+            return new LatencySummary(micros.getTotalCount(), micros.getMean() / 1000.0,
+                    percentile(micros, 50), percentile(micros, 75), percentile(micros, 90), percentile(micros, 95),
+                    percentile(micros, 99), percentile(micros, 99.9), percentile(micros, 99.99),
+                    micros.getMaxValue() / 1000.0);
+        }
+
+        private static double percentile(Histogram micros, double percentile) {
+            return micros.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        public long getCount() { return count; }
+        public double getMeanMs() { return meanMs; }
+        public double getP50Ms() { return p50Ms; }
+        public double getP75Ms() { return p75Ms; }
+        public double getP90Ms() { return p90Ms; }
+        public double getP95Ms() { return p95Ms; }
+        public double getP99Ms() { return p99Ms; }
+        public double getP999Ms() { return p999Ms; }
+        public double getP9999Ms() { return p9999Ms; }
+        public double getMaxMs() { return maxMs; }
+    }
+
+    /**
+     * JVM resource use over a run; {@code cpuCores} is process CPU time divided by wall time
+     */
+    public static class ResourceUsage {
+        private final long heapUsedStartBytes;
+        private final long heapUsedEndBytes;
+        private final long heapUsedPeakBytes;
+        private final long oldGenAfterGcBytes;
+        private final long heapMaxBytes;
+        private final long allocatedBytes;
+        private final double allocationRateBytesPerSecond;
+        private final long gcCount;
+        private final long gcTimeMs;
+        private final double cpuCores;
+
+        public ResourceUsage(long heapUsedStartBytes, long heapUsedEndBytes, long heapUsedPeakBytes,
+                             long oldGenAfterGcBytes, long heapMaxBytes, long allocatedBytes,
+                             double allocationRateBytesPerSecond, long gcCount, long gcTimeMs, double cpuCores) {
+            this.heapUsedStartBytes = heapUsedStartBytes;
+            this.heapUsedEndBytes = heapUsedEndBytes;
+            this.heapUsedPeakBytes = heapUsedPeakBytes;
+            this.oldGenAfterGcBytes = oldGenAfterGcBytes;
+            this.heapMaxBytes = heapMaxBytes;
+            this.allocatedBytes = allocatedBytes;
+            this.allocationRateBytesPerSecond = allocationRateBytesPerSecond;
+            this.gcCount = gcCount;
+            this.gcTimeMs = gcTimeMs;
+            this.cpuCores = cpuCores;
+        }
+
+        public long getHeapUsedStartBytes() { return heapUsedStartBytes; }
+        public long getHeapUsedEndBytes() { return heapUsedEndBytes; }
+        public long getHeapUsedPeakBytes() { return heapUsedPeakBytes; }
+        /** Old generation occupancy after the last GC, or -1 if none ran yet */
+        public long getOldGenAfterGcBytes() { return oldGenAfterGcBytes; }
+        public long getHeapMaxBytes() { return heapMaxBytes; }
+        public long getAllocatedBytes() { return allocatedBytes; }
+        public double getAllocationRateBytesPerSecond() { return allocationRateBytesPerSecond; }
+        public long getGcCount() { return gcCount; }
+        public long getGcTimeMs() { return gcTimeMs; }
+        public double getCpuCores() { return cpuCores; }
+    }
+
+    /**
+     * Outcome of one run. {@code responseTime} is measured from each request's scheduled start
+     * (corrected for coordinated omission), {@code serviceTime} from when it was actually sent.
+     */
+    public static class LoadReport {
+        private final String executor;
+        private final long plannedDurationMs;
+        private final long actualDurationMs;
+        private final boolean cancelled;
+        private final long scheduled;
+        private final long sent;
+        private final long completed;
+        private final long errors;
+        private final long dropped;
+        private final double throughputPerSecond;
+        private final double errorRate;
+        private final Map<String, Long> outcomes;
+        private final LatencySummary responseTime;
+        private final LatencySummary serviceTime;
+        private final ResourceUsage resources;
+
+        public LoadReport(String executor, long plannedDurationMs, long actualDurationMs, boolean cancelled,
+                          long scheduled, long sent, long completed, long errors, long dropped,
+                          double throughputPerSecond, double errorRate, Map<String, Long> outcomes,
+                          LatencySummary responseTime, LatencySummary serviceTime, ResourceUsage resources) {
+            this.executor = executor;
+            this.plannedDurationMs = plannedDurationMs;
+            this.actualDurationMs = actualDurationMs;
+            this.cancelled = cancelled;
+            this.scheduled = scheduled;
+            this.sent = sent;
+            this.completed = completed;
+            this.errors = errors;
+            this.dropped = dropped;
+            this.throughputPerSecond = throughputPerSecond;
+            this.errorRate = errorRate;
+            this.outcomes = outcomes;
+            this.responseTime = responseTime;
+            this.serviceTime = serviceTime;
+            this.resources = resources;
+        }
+
+        public String getExecutor() { return executor; }
+        public long getPlannedDurationMs() { return plannedDurationMs; }
+        public long getActualDurationMs() { return actualDurationMs; }
+        public boolean isCancelled() { return cancelled; }
+        public long getScheduled() { return scheduled; }
+        public long getSent() { return sent; }
+        public long getCompleted() { return completed; }
+        /** Failed requests: HTTP status 400 and above, timeouts and connection errors */
+        public long getErrors() { return errors; }
+        public long getDropped() { return dropped; }
+        public double getThroughputPerSecond() { return throughputPerSecond; }
+        public double getErrorRate() { return errorRate; }
+        /** Requests per HTTP status code or exception type */
+        public Map<String, Long> getOutcomes() { return outcomes; }
+        public LatencySummary getResponseTime() { return responseTime; }
+        public LatencySummary getServiceTime() { return serviceTime; }
+        public ResourceUsage getResources() { return resources; }
+    }
+}
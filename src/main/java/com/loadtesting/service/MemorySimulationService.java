@@ -2,14 +2,33 @@ package com.loadtesting.service;
 
 import com.loadtesting.config.MemorySimulationProperties;
 import com.loadtesting.model.Employee;
+import com.loadtesting.model.EmployeeBatch;
+import com.loadtesting.model.EmployeeDictionary;
+import com.loadtesting.model.ObjectLayout;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
 
 /**
  * Service for simulating memory consumption through configurable data generation
@@ -17,15 +36,62 @@ import java.util.concurrent.TimeUnit;
 @Service
 public class MemorySimulationService {
     
+    private static final int MAX_CALIBRATION_SAMPLES = 10;
+    private static final long HEAP_SETTLE_TOLERANCE_BYTES = 64 * 1024;
+    
     private final EmployeeDataService employeeDataService;
+    private final EmployeeStreamWriter employeeStreamWriter;
     private final MemorySimulationProperties memoryProperties;
-    private final ConcurrentHashMap<String, List<Employee>> memoryCache = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+    private final RetentionCache<CacheEntry> memoryCache;
+    private final CacheStatistics statistics = new CacheStatistics();
+    private final Map<RetentionCache.RemovalCause, Counter> evictions;
+    private final ScheduledExecutorService scheduler;
     
     public MemorySimulationService(EmployeeDataService employeeDataService, 
-                                 MemorySimulationProperties memoryProperties) {
+                                 EmployeeStreamWriter employeeStreamWriter,
+                                 MemorySimulationProperties memoryProperties,
+                                 ExecutionModeService executionModeService,
+                                 MeterRegistry meterRegistry) {
         this.employeeDataService = employeeDataService;
+        this.employeeStreamWriter = employeeStreamWriter;
         this.memoryProperties = memoryProperties;
+        // Sweeper and stress test run on virtual threads when that execution mode is active
+        this.scheduler = Executors.newScheduledThreadPool(2, executionModeService.threadFactory("memory-simulation"));
+        
+        MemorySimulationProperties.Cache cacheProperties = memoryProperties.getCache();
+        this.memoryCache = new RetentionCache<>(
+                TimeUnit.SECONDS.toMillis(memoryProperties.getStress().getRetentionTimeSeconds()),
+                cacheProperties.getTickMillis(), TimeUnit.MILLISECONDS,
+                cacheProperties.getWheelSize(), cacheProperties.getMaxBytes(), cacheProperties.getMaxEntries(),
+                CacheEntry::getFootprintBytes, this::onRemoval);
+        this.evictions = new EnumMap<>(RetentionCache.RemovalCause.class);
+        for (RetentionCache.RemovalCause cause : List.of(RetentionCache.RemovalCause.EXPIRED, RetentionCache.RemovalCause.SIZE)) {
+            evictions.put(cause, Counter.builder("memory.cache.evictions")
+                    .tag("cause", cause.name().toLowerCase())
+                    .description("Entries removed from the memory retention cache by expiry or the size budget")
+                    .register(meterRegistry));
+        }
+        
+        // A single sweeper advances the expiry wheel for all keys
+        scheduler.scheduleAtFixedRate(memoryCache::sweep, cacheProperties.getTickMillis(),
+                                      cacheProperties.getTickMillis(), TimeUnit.MILLISECONDS);
+        
+        Gauge.builder("memory.cache.entries", statistics.entries, LongAdder::sum)
+                .description("Entries in the memory retention cache")
+                .register(meterRegistry);
+        Gauge.builder("memory.cache.employees", statistics.employees, LongAdder::sum)
+                .description("Employees held by the memory retention cache")
+                .register(meterRegistry);
+        Gauge.builder("memory.cache.pending.expiries", memoryCache, RetentionCache::getPendingExpiries)
+                .description("Expiry slots on the timing wheel, including ones for overwritten entries")
+                .register(meterRegistry);
+        for (Footprint footprint : Footprint.values()) {
+            Gauge.builder("memory.cache.size", statistics.bytes.get(footprint), LongAdder::sum)
+                    .description("Estimated bytes held by the memory retention cache")
+                    .baseUnit("bytes")
+                    .tag("footprint", footprint.name().toLowerCase())
+                    .register(meterRegistry);
+        }
         
         // Start memory stress testing if enabled
         if (memoryProperties.getStress().isEnabled()) {
@@ -33,10 +99,57 @@ public class MemorySimulationService {
         }
     }
     
+    /**
+     * Stop the cache sweeper and the stress test
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+    
     /**
      * Generate employee data using predefined memory scenarios
      */
     public List<Employee> generateByScenario(String scenarioName) {
+        return generateByScenario(scenarioName, null, null);
+    }
+    
+    /**
+     * Generate employee data for a predefined scenario with an optional seed for reproducible
+     * payloads and an optional generation parallelism
+     */
+    public List<Employee> generateByScenario(String scenarioName, Long seed, Integer parallelism) {
+        var scenario = resolveScenario(scenarioName);
+        return employeeDataService.generateEmployees(scenario.getCount(), payloadProfile(scenario), seed, parallelism);
+    }
+    
+    /**
+     * Lazily generate employee data for a predefined scenario, one employee at a time
+     */
+    public Stream<Employee> streamByScenario(String scenarioName, Long seed) {
+        var scenario = resolveScenario(scenarioName);
+        return employeeDataService.streamEmployees(scenario.getCount(), payloadProfile(scenario), seed);
+    }
+    
+    /**
+     * Payload size distribution and chunking of a scenario; a plain string size is a fixed profile
+     *
+     * @throws IllegalArgumentException if the scenario's distribution is invalid
+     */
+    public PayloadProfile payloadProfile(MemorySimulationProperties.Scenario scenario) {
+        PayloadProfile profile = PayloadProfile.of(scenario, ObjectLayout.current());
+        return profile.isFixed()
+                ? PayloadProfile.fixed(employeeDataService.normalizeStringSize(profile.getSize()), profile.getChunkSize())
+                : profile;
+    }
+    
+    /**
+     * Look up a predefined scenario
+     *
+     * @throws IllegalStateException if memory simulation is disabled
+     * @throws IllegalArgumentException if the scenario does not exist
+     */
+    public MemorySimulationProperties.Scenario resolveScenario(String scenarioName) {
         if (!memoryProperties.getSimulation().isEnabled()) {
             throw new IllegalStateException("Memory simulation is not enabled");
         }
@@ -45,50 +158,148 @@ public class MemorySimulationService {
         if (scenario == null) {
             throw new IllegalArgumentException("Unknown scenario: " + scenarioName);
         }
-        
-        return employeeDataService.generateEmployees(scenario.getCount(), scenario.getStringSize());
+        return scenario;
     }
     
     /**
      * Generate and cache employee data for memory retention testing
      */
     public String generateAndCache(String cacheKey, int count, int stringSize) {
-        List<Employee> employees = employeeDataService.generateEmployees(count, stringSize);
-        memoryCache.put(cacheKey, employees);
-        
-        // Schedule cache cleanup
-        scheduler.schedule(() -> {
-            memoryCache.remove(cacheKey);
-        }, memoryProperties.getStress().getRetentionTimeSeconds(), TimeUnit.SECONDS);
+        return generateAndCache(cacheKey, count, stringSize, Representation.OBJECTS, StorageMode.HEAP);
+    }
+    
+    /**
+     * Generate and cache employee data. Heap storage keeps the data in the given representation:
+     * an object graph ({@code List<Employee>}) or a columnar {@link EmployeeBatch}. Direct and mapped
+     * storage serialize the employees as NDJSON into off-heap segments while they are generated,
+     * so the heap only ever holds one employee at a time; they have no columnar form.
+     *
+     * @throws IllegalArgumentException if a columnar representation is requested with off-heap storage,
+     *         or if the data cannot fit in the cache budget
+     */
+    public String generateAndCache(String cacheKey, int count, int stringSize,
+                                   Representation representation, StorageMode storage) {
+        if (storage != StorageMode.HEAP && representation == Representation.COLUMNAR) {
+            throw new IllegalArgumentException("The columnar representation is only available with heap storage; "
+                    + storage.name().toLowerCase(Locale.ROOT) + " storage holds serialized NDJSON");
+        }
+        // Every representation takes at least a byte per payload character, so this much is known to be
+        // rejected by the cache before anything is generated or written off-heap
+        int employees = employeeDataService.normalizeCount(count);
+        int characters = employeeDataService.normalizeStringSize(stringSize);
+        long minimumBytes = (long) employees * characters;
+        if (minimumBytes > memoryCache.getMaxWeight()) {
+            throw new IllegalArgumentException(String.format(
+                    "%d employees of %d characters take at least %d bytes, more than the cache budget of %d bytes",
+                    employees, characters, minimumBytes, memoryCache.getMaxWeight()));
+        }
+        FlightRecorderEvents.CacheEvent event = new FlightRecorderEvents.CacheEvent();
+        event.begin();
+        CacheEntry entry;
+        if (storage != StorageMode.HEAP) {
+            entry = new CacheEntry(writeOffHeap(count, stringSize, storage), employeeDataService.normalizeCount(count));
+        } else if (representation == Representation.COLUMNAR) {
+            entry = new CacheEntry(employeeDataService.generateBatch(count, stringSize, null));
+        } else {
+            entry = new CacheEntry(employeeDataService.generateEmployees(count, stringSize));
+        }
+        statistics.add(entry);
+        try {
+            memoryCache.put(cacheKey, entry);
+        } catch (IllegalArgumentException e) {
+            statistics.remove(entry);
+            throw e;
+        }
+        commit(event, "put", cacheKey, entry);
         
+        String expiry = memoryCache.expires()
+                ? String.format("Will be cleaned up in %d seconds.", memoryProperties.getStress().getRetentionTimeSeconds())
+                : "Kept until evicted or cleared.";
         return String.format("Generated and cached %d employees with string size %d bytes. " +
-                           "Cache key: %s. Will be cleaned up in %d seconds.", 
-                           count, stringSize, cacheKey, memoryProperties.getStress().getRetentionTimeSeconds());
+                           "Cache key: %s. Representation: %s. Storage: %s. %s", 
+                           count, stringSize, cacheKey, representation.name().toLowerCase(),
+                           storage.name().toLowerCase(), expiry);
     }
     
     /**
-     * Get cached data information
+     * Get cached data information. Reads the incrementally maintained statistics, so the cost
+     * does not depend on how much data is cached.
      */
     public MemoryCacheInfo getCacheInfo() {
-        int totalEntries = memoryCache.size();
-        int totalEmployees = memoryCache.values().stream()
-                .mapToInt(List::size)
-                .sum();
-        
-        long estimatedMemoryBytes = memoryCache.values().stream()
-                .flatMap(List::stream)
-                .mapToLong(this::estimateEmployeeMemorySize)
-                .sum();
+        long objectGraphBytes = statistics.bytes(Footprint.OBJECTS);
+        long columnarBytes = statistics.bytes(Footprint.COLUMNAR);
         
-        return new MemoryCacheInfo(totalEntries, totalEmployees, estimatedMemoryBytes);
+        return new MemoryCacheInfo((int) statistics.entries.sum(), (int) statistics.employees.sum(),
+                                   objectGraphBytes + columnarBytes, objectGraphBytes, columnarBytes,
+                                   statistics.bytes(Footprint.DIRECT), statistics.bytes(Footprint.MAPPED),
+                                   getBufferPools());
+    }
+    
+    /**
+     * Estimated bytes held by each cache key
+     */
+    public Map<String, Long> getEntrySizes() {
+        return memoryCache.weights();
+    }
+    
+    private void onRemoval(String key, CacheEntry entry, RetentionCache.RemovalCause cause) {
+        statistics.remove(entry);
+        Counter counter = evictions.get(cause);
+        if (counter != null) {
+            counter.increment();
+        }
+        FlightRecorderEvents.CacheEvent event = new FlightRecorderEvents.CacheEvent();
+        event.begin();
+        commit(event, switch (cause) {
+            case EXPIRED -> "expire";
+            case SIZE -> "evict";
+            case REPLACED -> "replace";
+            case EXPLICIT -> "clear";
+        }, key, entry);
+    }
+    
+    private static void commit(FlightRecorderEvents.CacheEvent event, String operation, String key, CacheEntry entry) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.cache = "memory";
+            event.operation = operation;
+            event.key = key;
+            event.employees = entry.getEmployeeCount();
+            event.bytes = entry.getFootprintBytes();
+            event.commit();
+        }
+    }
+    
+    /**
+     * JVM buffer pool figures (direct and mapped) as reported by the BufferPoolMXBeans
+     */
+    public List<BufferPoolInfo> getBufferPools() {
+        List<BufferPoolInfo> pools = new ArrayList<>();
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            pools.add(new BufferPoolInfo(pool.getName(), pool.getCount(), pool.getMemoryUsed(), pool.getTotalCapacity()));
+        }
+        return pools;
+    }
+    
+    private OffHeapSegments writeOffHeap(int count, int stringSize, StorageMode storage) {
+        int segmentSize = memoryProperties.getOffHeap().getSegmentSizeBytes();
+        OffHeapSegments.SegmentOutputStream out = storage == StorageMode.MAPPED
+                ? OffHeapSegments.mapped(segmentSize, Path.of(memoryProperties.getOffHeap().getMappedDirectory()))
+                : OffHeapSegments.direct(segmentSize);
+        try (out) {
+            employeeStreamWriter.write(employeeDataService.streamEmployees(count, stringSize),
+                                       EmployeeStreamWriter.Format.NDJSON, out);
+            return out.toSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write employees off-heap", e);
+        }
     }
     
     /**
      * Clear all cached data
      */
     public String clearCache() {
-        int clearedEntries = memoryCache.size();
-        memoryCache.clear();
+        int clearedEntries = memoryCache.clear();
         return String.format("Cleared %d cache entries", clearedEntries);
     }
     
@@ -100,16 +311,16 @@ public class MemorySimulationService {
     }
     
     /**
-     * Force garbage collection (for testing purposes)
+     * Force a garbage collection (for testing purposes) and report the heap right after it
      */
     public String forceGarbageCollection() {
-        long beforeMemory = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        System.gc();
-        Thread.yield(); // Give GC a chance to run
-        long afterMemory = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        
-        return String.format("Garbage collection requested. Memory before: %d bytes, after: %d bytes, freed: %d bytes",
-                           beforeMemory, afterMemory, beforeMemory - afterMemory);
+        JvmMemoryMonitor.CollectionResult result = JvmMemoryMonitor.collect();
+        if (!result.isCollected()) {
+            return String.format("Garbage collection requested but did not run (explicit GC may be disabled). "
+                    + "Heap used: %d bytes", result.getAfterBytes());
+        }
+        return String.format("Garbage collection completed in %d ms. Memory before: %d bytes, after: %d bytes, freed: %d bytes",
+                           result.getDurationMs(), result.getBeforeBytes(), result.getAfterBytes(), result.getFreedBytes());
     }
     
     private void startMemoryStressTesting() {
@@ -125,14 +336,297 @@ public class MemorySimulationService {
         generateAndCache(tempKey, 100, 4096);
     }
     
-    private long estimateEmployeeMemorySize(Employee employee) {
-        // Rough estimation of memory usage per employee
-        return 200 + // Base object overhead
-               (employee.getFirstName() != null ? employee.getFirstName().length() * 2 : 0) +
-               (employee.getLastName() != null ? employee.getLastName().length() * 2 : 0) +
-               (employee.getEmail() != null ? employee.getEmail().length() * 2 : 0) +
-               (employee.getDepartment() != null ? employee.getDepartment().length() * 2 : 0) +
-               (employee.getPosition() != null ? employee.getPosition().length() * 2 : 0);
+    /**
+     * Measure the heap actually retained by a scenario's data and compare it with the estimate
+     * reported by {@link #getCacheInfo()}. Each sample settles the heap with repeated GCs,
+     * generates the data, settles the heap again while the data is still reachable and
+     * takes the difference in used heap.
+     *
+     * @throws IllegalArgumentException if a columnar calibration is requested for a scenario with
+     *         a size distribution or chunks, which the columnar batch does not represent
+     */
+    public CalibrationResult calibrate(String scenarioName, int samples, Representation representation) {
+        var scenario = resolveScenario(scenarioName);
+        if (samples < 1 || samples > MAX_CALIBRATION_SAMPLES) {
+            throw new IllegalArgumentException("Samples must be between 1 and " + MAX_CALIBRATION_SAMPLES);
+        }
+        PayloadProfile payload = payloadProfile(scenario);
+        if (representation == Representation.COLUMNAR && (!payload.isFixed() || payload.getChunkSize() > 0)) {
+            throw new IllegalArgumentException("The columnar representation only holds fixed-size payloads in one string; "
+                    + "scenario " + scenarioName + " uses " + payload);
+        }
+        
+        List<Long> measured = new ArrayList<>(samples);
+        long estimated = 0;
+        for (int i = 0; i < samples; i++) {
+            long before = settledHeapUsed();
+            Object data;
+            if (representation == Representation.COLUMNAR) {
+                EmployeeBatch batch = employeeDataService.generateBatch(scenario.getCount(), scenario.getStringSize(), null);
+                estimated = batch.getFootprintBytes();
+                data = batch;
+            } else {
+                List<Employee> employees = employeeDataService.generateEmployees(scenario.getCount(), payload, null, null);
+                estimated = estimateObjectGraphSize(employees);
+                data = employees;
+            }
+            long after = settledHeapUsed();
+            Reference.reachabilityFence(data);
+            measured.add(after - before);
+        }
+        
+        List<Long> sorted = new ArrayList<>(measured);
+        Collections.sort(sorted);
+        long median = sorted.get(sorted.size() / 2);
+        return new CalibrationResult(scenarioName, representation.name().toLowerCase(), scenario.getCount(),
+                                     scenario.getStringSize(), measured, median, estimated, ObjectLayout.current());
+    }
+    
+    /**
+     * Used heap after repeated GCs, once two consecutive readings agree within a small tolerance
+     */
+    private long settledHeapUsed() {
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        long previous = Long.MAX_VALUE;
+        long used = 0;
+        for (int round = 0; round < 10; round++) {
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            used = memoryBean.getHeapMemoryUsage().getUsed();
+            if (Math.abs(previous - used) < HEAP_SETTLE_TOLERANCE_BYTES) {
+                break;
+            }
+            previous = used;
+        }
+        return used;
+    }
+    
+    /**
+     * Retained heap of a cached employee list: the list and its backing array plus what each
+     * employee retains
+     */
+    private static long estimateObjectGraphSize(List<Employee> employees) {
+        ObjectLayout layout = ObjectLayout.current();
+        long size = layout.objectSize(2, Integer.BYTES) + layout.referenceArraySize(employees.size());
+        for (Employee employee : employees) {
+            size += estimateEmployeeMemorySize(employee);
+        }
+        return size;
+    }
+    
+    /**
+     * Retained heap of one employee. Unlike {@link Employee#getApproximateMemorySize()} this leaves out
+     * objects the employee shares with others: dictionary strings and boxed ids from the Long cache.
+     */
+    private static long estimateEmployeeMemorySize(Employee employee) {
+        ObjectLayout layout = ObjectLayout.current();
+        long size = Employee.shallowSize(layout);
+        Long id = employee.getId();
+        size += id != null && (id < -128 || id > 127) ? layout.boxedLongSize() : 0;
+        size += employee.getSalary() != null ? layout.boxedLongSize() : 0;
+        size += employee.getHireDate() != null ? layout.localDateSize() : 0;
+        size += retainedStringSize(layout, employee.getFirstName());
+        size += retainedStringSize(layout, employee.getLastName());
+        size += retainedStringSize(layout, employee.getEmail());
+        size += retainedStringSize(layout, employee.getPosition());
+        size += retainedStringSize(layout, employee.getDepartment());
+        size += employee.payloadSize(layout);
+        return size;
+    }
+    
+    private static long retainedStringSize(ObjectLayout layout, String value) {
+        return EmployeeDictionary.isShared(value) ? 0 : layout.stringSize(value);
+    }
+    
+    /**
+     * In-memory representation used for cached employee data
+     */
+    public enum Representation {
+        /** One Employee object graph per employee */
+        OBJECTS,
+        /** A single struct-of-arrays EmployeeBatch */
+        COLUMNAR;
+        
+        public static Representation fromParameter(String value) {
+            for (Representation representation : values()) {
+                if (representation.name().equalsIgnoreCase(value)) {
+                    return representation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown representation: " + value);
+        }
+    }
+    
+    /**
+     * Where cached employee data lives
+     */
+    public enum StorageMode {
+        /** On the Java heap, as objects or a columnar batch */
+        HEAP,
+        /** Serialized into direct ByteBuffers */
+        DIRECT,
+        /** Serialized into memory-mapped file regions */
+        MAPPED;
+        
+        public static StorageMode fromParameter(String value) {
+            for (StorageMode mode : values()) {
+                if (mode.name().equalsIgnoreCase(value)) {
+                    return mode;
+                }
+            }
+            throw new IllegalArgumentException("Unknown storage mode: " + value);
+        }
+    }
+    
+    /**
+     * Where the bytes of a cache entry are accounted
+     */
+    public enum Footprint {
+        OBJECTS, COLUMNAR, DIRECT, MAPPED
+    }
+    
+    /**
+     * Cached employee data held as an object graph, a columnar batch or serialized off-heap segments.
+     * The footprint is estimated once, when the entry is created; cached data is never modified.
+     */
+    public static class CacheEntry {
+        private final List<Employee> employees;
+        private final EmployeeBatch batch;
+        private final OffHeapSegments offHeap;
+        private final int employeeCount;
+        private final Footprint footprint;
+        private final long footprintBytes;
+        
+        public CacheEntry(List<Employee> employees) {
+            this(employees, null, null, employees.size(), Footprint.OBJECTS, estimateObjectGraphSize(employees));
+        }
+        
+        public CacheEntry(EmployeeBatch batch) {
+            this(null, batch, null, batch.size(), Footprint.COLUMNAR, batch.getFootprintBytes());
+        }
+        
+        public CacheEntry(OffHeapSegments offHeap, int employeeCount) {
+            this(null, null, offHeap, employeeCount,
+                 offHeap.isMapped() ? Footprint.MAPPED : Footprint.DIRECT, offHeap.getCapacityBytes());
+        }
+        
+        private CacheEntry(List<Employee> employees, EmployeeBatch batch, OffHeapSegments offHeap,
+                           int employeeCount, Footprint footprint, long footprintBytes) {
+            this.employees = employees;
+            this.batch = batch;
+            this.offHeap = offHeap;
+            this.employeeCount = employeeCount;
+            this.footprint = footprint;
+            this.footprintBytes = footprintBytes;
+        }
+        
+        public List<Employee> getEmployees() { return employees; }
+        public EmployeeBatch getBatch() { return batch; }
+        public OffHeapSegments getOffHeap() { return offHeap; }
+        public int getEmployeeCount() { return employeeCount; }
+        public Footprint getFootprint() { return footprint; }
+        public long getFootprintBytes() { return footprintBytes; }
+    }
+    
+    /**
+     * Running totals over the cached entries, updated on put, overwrite, expiry and clear
+     */
+    private static class CacheStatistics {
+        private final LongAdder entries = new LongAdder();
+        private final LongAdder employees = new LongAdder();
+        private final Map<Footprint, LongAdder> bytes = new EnumMap<>(Footprint.class);
+        
+        CacheStatistics() {
+            for (Footprint footprint : Footprint.values()) {
+                bytes.put(footprint, new LongAdder());
+            }
+        }
+        
+        void add(CacheEntry entry) {
+            entries.increment();
+            employees.add(entry.getEmployeeCount());
+            bytes.get(entry.getFootprint()).add(entry.getFootprintBytes());
+        }
+        
+        void remove(CacheEntry entry) {
+            entries.decrement();
+            employees.add(-entry.getEmployeeCount());
+            bytes.get(entry.getFootprint()).add(-entry.getFootprintBytes());
+        }
+        
+        long bytes(Footprint footprint) {
+            return bytes.get(footprint).sum();
+        }
+    }
+    
+    /**
+     * Measured versus estimated retained heap for one scenario
+     */
+    public static class CalibrationResult {
+        private final String scenario;
+        private final String representation;
+        private final int count;
+        private final int stringSize;
+        private final List<Long> measuredBytes;
+        private final long medianMeasuredBytes;
+        private final long estimatedBytes;
+        private final ObjectLayout layout;
+        
+        public CalibrationResult(String scenario, String representation, int count, int stringSize,
+                                 List<Long> measuredBytes, long medianMeasuredBytes, long estimatedBytes,
+                                 ObjectLayout layout) {
+            this.scenario = scenario;
+            this.representation = representation;
+            this.count = count;
+            this.stringSize = stringSize;
+            this.measuredBytes = measuredBytes;
+            this.medianMeasuredBytes = medianMeasuredBytes;
+            this.estimatedBytes = estimatedBytes;
+            this.layout = layout;
+        }
+        
+        public String getScenario() { return scenario; }
+        public String getRepresentation() { return representation; }
+        public int getCount() { return count; }
+        public int getStringSize() { return stringSize; }
+        public List<Long> getMeasuredBytes() { return measuredBytes; }
+        public long getMedianMeasuredBytes() { return medianMeasuredBytes; }
+        public long getEstimatedBytes() { return estimatedBytes; }
+        public ObjectLayout getLayout() { return layout; }
+        
+        /**
+         * Estimator error relative to the median measurement, in percent (positive means over-estimate)
+         */
+        public double getErrorPercentage() {
+            return medianMeasuredBytes == 0 ? 0 : (estimatedBytes - medianMeasuredBytes) * 100.0 / medianMeasuredBytes;
+        }
+    }
+    
+    /**
+     * Snapshot of one JVM buffer pool
+     */
+    public static class BufferPoolInfo {
+        private final String name;
+        private final long count;
+        private final long memoryUsedBytes;
+        private final long totalCapacityBytes;
+        
+        public BufferPoolInfo(String name, long count, long memoryUsedBytes, long totalCapacityBytes) {
+            this.name = name;
+            this.count = count;
+            this.memoryUsedBytes = memoryUsedBytes;
+            this.totalCapacityBytes = totalCapacityBytes;
+        }
+        
+        public String getName() { return name; }
+        public long getCount() { return count; }
+        public long getMemoryUsedBytes() { return memoryUsedBytes; }
+        public long getTotalCapacityBytes() { return totalCapacityBytes; }
     }
     
     /**
@@ -142,16 +636,37 @@ public class MemorySimulationService {
         private final int cacheEntries;
         private final int totalEmployees;
         private final long estimatedMemoryBytes;
+        private final long objectGraphBytes;
+        private final long columnarBytes;
+        private final long directBytes;
+        private final long mappedBytes;
+        private final List<BufferPoolInfo> bufferPools;
         
-        public MemoryCacheInfo(int cacheEntries, int totalEmployees, long estimatedMemoryBytes) {
+        public MemoryCacheInfo(int cacheEntries, int totalEmployees, long estimatedMemoryBytes,
+                               long objectGraphBytes, long columnarBytes, long directBytes, long mappedBytes,
+                               List<BufferPoolInfo> bufferPools) {
             this.cacheEntries = cacheEntries;
             this.totalEmployees = totalEmployees;
             this.estimatedMemoryBytes = estimatedMemoryBytes;
+            this.objectGraphBytes = objectGraphBytes;
+            this.columnarBytes = columnarBytes;
+            this.directBytes = directBytes;
+            this.mappedBytes = mappedBytes;
+            this.bufferPools = bufferPools;
         }
         
         public int getCacheEntries() { return cacheEntries; }
         public int getTotalEmployees() { return totalEmployees; }
         public long getEstimatedMemoryBytes() { return estimatedMemoryBytes; }
+        public long getObjectGraphBytes() { return objectGraphBytes; }
+        public long getColumnarBytes() { return columnarBytes; }
+        /** Estimated heap bytes held by the cache (same as estimatedMemoryBytes) */
+        public long getHeapBytes() { return estimatedMemoryBytes; }
+        /** Off-heap bytes reserved by the cache, direct plus mapped */
+        public long getOffHeapBytes() { return directBytes + mappedBytes; }
+        public long getDirectBytes() { return directBytes; }
+        public long getMappedBytes() { return mappedBytes; }
+        public List<BufferPoolInfo> getBufferPools() { return bufferPools; }
         public String getEstimatedMemoryMB() { 
             return String.format("%.2f MB", estimatedMemoryBytes / (1024.0 * 1024.0)); 
         }
@@ -0,0 +1,163 @@
+package com.loadtesting.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Serialized employee data held outside the Java heap, in fixed-size segments that are either
+ * direct ByteBuffers or memory-mapped regions of a temporary file. Only the segment list and the
+ * ByteBuffer objects live on the heap; the payload bytes count against
+ * {@code -XX:MaxDirectMemorySize} (direct) or the page cache (mapped), which is exactly what
+ * a container memory limit sees but heap graphs do not.
+ *
+ * Segments are released when the instance becomes unreachable and the buffers are collected.
+ */
+public class OffHeapSegments {
+
+    private final boolean mapped;
+    private final List<ByteBuffer> segments;
+    private final long usedBytes;
+
+    private OffHeapSegments(boolean mapped, List<ByteBuffer> segments, long usedBytes) {
+        this.mapped = mapped;
+        this.segments = Collections.unmodifiableList(segments);
+        this.usedBytes = usedBytes;
+    }
+
+    /**
+     * Open a stream that writes into newly allocated direct buffer segments
+     */
+    public static SegmentOutputStream direct(int segmentSize) {
+        return new SegmentOutputStream(segmentSize, null, null);
+    }
+
+    /**
+     * Open a stream that writes into segments mapped from a new temporary file in {@code directory}
+     */
+    public static SegmentOutputStream mapped(int segmentSize, Path directory) {
+        try {
+            Files.createDirectories(directory);
+            Path file = Files.createTempFile(directory, "memory-cache-", ".bin");
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new SegmentOutputStream(segmentSize, file, channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create memory-mapped cache file", e);
+        }
+    }
+
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Bytes of serialized data actually written
+     */
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Off-heap bytes reserved, including the unused tail of the last segment
+     */
+    public long getCapacityBytes() {
+        long capacity = 0;
+        for (ByteBuffer segment : segments) {
+            capacity += segment.capacity();
+        }
+        return capacity;
+    }
+
+    /**
+     * Read-only views of the segments, each limited to the bytes written into it
+     */
+    public List<ByteBuffer> getSegments() {
+        List<ByteBuffer> views = new ArrayList<>(segments.size());
+        for (ByteBuffer segment : segments) {
+            views.add(segment.asReadOnlyBuffer().flip());
+        }
+        return views;
+    }
+
+    /**
+     * Output stream that fills fixed-size off-heap segments, allocating a new one when the current is full
+     */
+    public static class SegmentOutputStream extends OutputStream {
+        private final boolean mapped;
+        private final int segmentSize;
+        private final Path file;
+        private final FileChannel channel;
+        private final List<ByteBuffer> segments = new ArrayList<>();
+        private ByteBuffer current;
+        private long usedBytes;
+
+        private SegmentOutputStream(int segmentSize, Path file, FileChannel channel) {
+            this.mapped = channel != null;
+            this.segmentSize = segmentSize;
+            this.file = file;
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureCapacity().put((byte) b);
+            usedBytes++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                ByteBuffer segment = ensureCapacity();
+                int chunk = Math.min(length, segment.remaining());
+                segment.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+                usedBytes += chunk;
+            }
+        }
+
+        /**
+         * Finish writing and return the filled segments. For mapped storage the backing file is
+         * closed and deleted; the mappings stay valid until the buffers are collected.
+         */
+        public OffHeapSegments toSegments() throws IOException {
+            close();
+            return new OffHeapSegments(mapped, segments, usedBytes);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null && channel.isOpen()) {
+                channel.close();
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    // Some platforms refuse to delete a file that is still mapped
+                    file.toFile().deleteOnExit();
+                }
+            }
+        }
+
+        private ByteBuffer ensureCapacity() throws IOException {
+            if (current == null || !current.hasRemaining()) {
+                current = mapped
+                        ? channel.map(FileChannel.MapMode.READ_WRITE, (long) segments.size() * segmentSize, segmentSize)
+                        : ByteBuffer.allocateDirect(segmentSize);
+                segments.add(current);
+            }
+            return current;
+        }
+    }
+}
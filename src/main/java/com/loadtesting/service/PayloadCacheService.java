@@ -0,0 +1,282 @@
+package com.loadtesting.service;
+
+import com.loadtesting.config.EmployeeDataProperties;
+import com.loadtesting.model.Employee;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Byte-level cache of serialized employee responses, keyed by endpoint, count, payload profile,
+ * seed and wire format. Entries are kept in LRU order and the cache is bounded by the total
+ * number of body bytes. A hit skips both generation and serialization: the cached array is
+ * handed to the response as-is, without being copied or re-encoded.
+ *
+ * This makes it possible to compare a "cached service" resource profile with the
+ * compute-per-request profile of the regular endpoints on the same pod.
+ */
+@Service
+public class PayloadCacheService {
+
+    private final EmployeeDataService employeeDataService;
+    private final EmployeeStreamWriter employeeStreamWriter;
+    private final long maxBytes;
+
+    // Access-ordered map; all access goes through the lock since reads reorder entries
+    private final LinkedHashMap<PayloadKey, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public PayloadCacheService(EmployeeDataService employeeDataService,
+                               EmployeeStreamWriter employeeStreamWriter,
+                               EmployeeDataProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.employeeDataService = employeeDataService;
+        this.employeeStreamWriter = employeeStreamWriter;
+        this.maxBytes = properties.getPayloadCache().getMaxBytes();
+
+        this.hits = Counter.builder("payload.cache.requests").tag("result", "hit")
+                .description("Serialized-payload cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("payload.cache.requests").tag("result", "miss")
+                .description("Serialized-payload cache lookups").register(meterRegistry);
+        this.evictions = Counter.builder("payload.cache.evictions")
+                .description("Entries evicted to stay within the byte budget").register(meterRegistry);
+        Gauge.builder("payload.cache.size", this, PayloadCacheService::getCurrentBytes)
+                .baseUnit("bytes").description("Total size of cached response bodies").register(meterRegistry);
+        Gauge.builder("payload.cache.entries", this, PayloadCacheService::getEntryCount)
+                .description("Number of cached response bodies").register(meterRegistry);
+    }
+
+    /**
+     * Return the serialized employees for the given request, generating and caching them on a miss.
+     * Count and string size are normalized first so equivalent requests share one entry.
+     * A body that outgrows the cache budget is abandoned as soon as it does, and the returned payload
+     * is {@linkplain CachedPayload#isOversized() oversized}: the caller streams the response instead.
+     */
+    public CachedPayload getEmployees(String endpoint, int count, int stringSize, Long seed,
+                                      EmployeeStreamWriter.Format format) {
+        PayloadProfile payload = PayloadProfile.fixed(employeeDataService.normalizeStringSize(stringSize));
+        return getEmployees(endpoint, count, payload, seed, format);
+    }
+
+    /**
+     * Same for payloads drawn from a size distribution, such as a scenario's; the profile is part of
+     * the key and is used as given
+     */
+    public CachedPayload getEmployees(String endpoint, int count, PayloadProfile payload, Long seed,
+                                      EmployeeStreamWriter.Format format) {
+        int normalizedCount = employeeDataService.normalizeCount(count);
+        PayloadKey key = new PayloadKey(endpoint, normalizedCount, payload, seed, format);
+
+        FlightRecorderEvents.CacheEvent event = new FlightRecorderEvents.CacheEvent();
+        event.begin();
+        byte[] body = get(key);
+        if (body != null) {
+            hits.increment();
+            commit(event, "get", key, true, body.length);
+            return new CachedPayload(body, format, true, null);
+        }
+
+        misses.increment();
+        // Serialize outside the lock; concurrent misses for the same key may both compute
+        body = serialize(normalizedCount, payload, seed, format);
+        if (body == null) {
+            commit(event, "bypass", key, false, maxBytes);
+            return new CachedPayload(null, format, false,
+                    () -> employeeDataService.streamEmployees(normalizedCount, payload, seed));
+        }
+        put(key, body);
+        commit(event, "get", key, false, body.length);
+        return new CachedPayload(body, format, false, null);
+    }
+
+    /**
+     * Drop every cached body
+     */
+    public void clear() {
+        FlightRecorderEvents.CacheEvent event = new FlightRecorderEvents.CacheEvent();
+        event.begin();
+        long clearedBytes;
+        lock.lock();
+        try {
+            clearedBytes = currentBytes;
+            entries.clear();
+            currentBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+        commit(event, "clear", null, false, clearedBytes);
+    }
+
+    public long getCurrentBytes() {
+        lock.lock();
+        try {
+            return currentBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getEntryCount() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    private byte[] get(PayloadKey key) {
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(PayloadKey key, byte[] body) {
+        lock.lock();
+        try {
+            byte[] previous = entries.put(key, body);
+            currentBytes += body.length - (previous != null ? previous.length : 0);
+
+            Iterator<Map.Entry<PayloadKey, byte[]>> eldest = entries.entrySet().iterator();
+            while (currentBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<PayloadKey, byte[]> entry = eldest.next();
+                if (entry.getKey().equals(key)) {
+                    continue;
+                }
+                currentBytes -= entry.getValue().length;
+                eldest.remove();
+                evictions.increment();
+                FlightRecorderEvents.CacheEvent event = new FlightRecorderEvents.CacheEvent();
+                event.begin();
+                commit(event, "evict", entry.getKey(), false, entry.getValue().length);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void commit(FlightRecorderEvents.CacheEvent event, String operation, PayloadKey key,
+                               boolean hit, long bytes) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.cache = "payload";
+            event.operation = operation;
+            event.key = key != null ? key.toString() : null;
+            event.hit = hit;
+            event.employees = key != null ? key.count() : 0;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * Serialize into a buffer bounded by the cache budget, or return null once the body outgrows it
+     */
+    private byte[] serialize(int count, PayloadProfile payload, Long seed, EmployeeStreamWriter.Format format) {
+        BoundedOutputStream buffer = new BoundedOutputStream(maxBytes);
+        try {
+            employeeStreamWriter.write(employeeDataService.streamEmployees(count, payload, seed), format, buffer);
+        } catch (IOException | UncheckedIOException e) {
+            // Jackson may wrap the overflow, so go by the buffer rather than the exception
+            if (buffer.isOverflowed()) {
+                return null;
+            }
+            throw e instanceof IOException ioe ? new UncheckedIOException(ioe) : (UncheckedIOException) e;
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Byte buffer that fails the write which would take it past {@code limit}, so a body that can
+     * never be cached stops being serialized (and buffered) at the limit
+     */
+    static final class BoundedOutputStream extends ByteArrayOutputStream {
+        private final long limit;
+        private boolean overflowed;
+
+        BoundedOutputStream(long limit) {
+            super((int) Math.min(limit, 8192));
+            this.limit = limit;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            ensureRoom(1);
+            super.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            ensureRoom(len);
+            super.write(b, off, len);
+        }
+
+        private void ensureRoom(int len) {
+            if (overflowed || count + (long) len > limit) {
+                overflowed = true;
+                throw new UncheckedIOException(new IOException("Payload exceeds the cache budget of " + limit + " bytes"));
+            }
+        }
+
+        boolean isOverflowed() {
+            return overflowed;
+        }
+    }
+
+    /**
+     * Cache key: one entry per endpoint and generation parameters
+     */
+    record PayloadKey(String endpoint, int count, PayloadProfile payload, Long seed, EmployeeStreamWriter.Format format) {
+    }
+
+    /**
+     * A serialized response body and whether it was served from the cache. The body is null when it
+     * was larger than the whole cache budget and has to be streamed instead.
+     */
+    public static class CachedPayload {
+        private final byte[] body;
+        private final EmployeeStreamWriter.Format format;
+        private final boolean hit;
+        private final Supplier<Stream<Employee>> employees;
+
+        public CachedPayload(byte[] body, EmployeeStreamWriter.Format format, boolean hit,
+                             Supplier<Stream<Employee>> employees) {
+            this.body = body;
+            this.format = format;
+            this.hit = hit;
+            this.employees = employees;
+        }
+
+        public byte[] getBody() { return body; }
+        public EmployeeStreamWriter.Format getFormat() { return format; }
+        public boolean isHit() { return hit; }
+        public boolean isOversized() { return body == null; }
+        /** X-Payload-Cache header value: HIT, MISS, or BYPASS for oversized bodies */
+        public String getCacheStatus() { return hit ? "HIT" : body != null ? "MISS" : "BYPASS"; }
+        /** The employees of an oversized body, generated again as they are consumed */
+        public Stream<Employee> streamEmployees() { return employees.get(); }
+    }
+}
@@ -0,0 +1,212 @@
+package com.loadtesting.service;
+
+import com.loadtesting.config.MemorySimulationProperties;
+import com.loadtesting.model.ObjectLayout;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+
+/**
+ * Size distribution of the configurable data payloads in a batch of employees, and whether each
+ * payload is held as one string or split into chunks. Real services allocate a spread of object
+ * sizes; a few large payloads are what makes G1 allocate humongous objects (more than half a region,
+ * in contiguous regions of their own) and fragment the old generation.
+ *
+ * Fixed profiles draw no random numbers, so seeded output is the same as with a plain string size.
+ */
+public final class PayloadProfile {
+
+    private static final int DEFAULT_REGION_SIZE = 1024 * 1024;
+
+    public enum Distribution {
+        FIXED, UNIFORM, LOG_NORMAL, BIMODAL, HUMONGOUS;
+
+        public static Distribution fromParameter(String value) {
+            if (value == null || value.isBlank()) {
+                return FIXED;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown size distribution: " + value
+                        + " (use fixed, uniform, log-normal, bimodal or humongous)");
+            }
+        }
+    }
+
+    private final Distribution distribution;
+    private final int size;
+    private final int minSize;
+    private final int maxSize;
+    private final double sigma;
+    private final int largeSize;
+    private final double largeRatio;
+    private final int chunkSize;
+
+    private PayloadProfile(Distribution distribution, int size, int minSize, int maxSize, double sigma,
+                           int largeSize, double largeRatio, int chunkSize) {
+        this.distribution = distribution;
+        this.size = size;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.sigma = sigma;
+        this.largeSize = largeSize;
+        this.largeRatio = largeRatio;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Every payload is one string of exactly {@code size} characters
+     */
+    public static PayloadProfile fixed(int size) {
+        return fixed(size, 0);
+    }
+
+    /**
+     * Every payload is {@code size} characters, split into chunks of {@code chunkSize} when it is larger
+     */
+    public static PayloadProfile fixed(int size, int chunkSize) {
+        return new PayloadProfile(Distribution.FIXED, size, size, size, 0, size, 0, chunkSize);
+    }
+
+    /**
+     * Profile of a configured scenario. Humongous payloads are sized in regions of the running G1
+     * heap (1MB regions are assumed under other collectors), whatever the max string size.
+     *
+     * @throws IllegalArgumentException if the distribution is unknown or its parameters are invalid
+     */
+    public static PayloadProfile of(MemorySimulationProperties.Scenario scenario, ObjectLayout layout) {
+        MemorySimulationProperties.Sizes sizes = scenario.getSizes();
+        Distribution distribution = Distribution.fromParameter(sizes.getType());
+        int size = scenario.getStringSize();
+        if (scenario.getChunkSize() < 0) {
+            throw new IllegalArgumentException("chunk-size must not be negative");
+        }
+        int chunkSize = scenario.getChunkSize();
+        switch (distribution) {
+            case UNIFORM:
+                if (sizes.getMinSize() < 0 || sizes.getMaxSize() < sizes.getMinSize() || sizes.getMaxSize() == 0) {
+                    throw new IllegalArgumentException("Uniform sizes need 0 <= min-size <= max-size");
+                }
+                return new PayloadProfile(distribution, size, sizes.getMinSize(), sizes.getMaxSize(), 0, 0, 0, chunkSize);
+            case LOG_NORMAL:
+                if (!(sizes.getSigma() > 0) || size < 1) {
+                    throw new IllegalArgumentException("Log-normal sizes need a positive sigma and string size");
+                }
+                return new PayloadProfile(distribution, size, Math.max(1, sizes.getMinSize()),
+                        sizes.getMaxSize() > 0 ? sizes.getMaxSize() : Integer.MAX_VALUE, sizes.getSigma(), 0, 0, chunkSize);
+            case BIMODAL:
+                if (sizes.getLargeSize() < 1 || sizes.getLargeRatio() < 0 || sizes.getLargeRatio() > 1) {
+                    throw new IllegalArgumentException("Bimodal sizes need a large-size and a large-ratio between 0 and 1");
+                }
+                return new PayloadProfile(distribution, size, size, size, 0, sizes.getLargeSize(),
+                        sizes.getLargeRatio(), chunkSize);
+            case HUMONGOUS:
+                if (!(sizes.getHumongousRegions() > 0.5) || sizes.getHumongousRatio() < 0 || sizes.getHumongousRatio() > 1) {
+                    throw new IllegalArgumentException("Humongous sizes need humongous-regions above 0.5 and a humongous-ratio between 0 and 1");
+                }
+                long regionSize = layout.getG1RegionSize() > 0 ? layout.getG1RegionSize() : DEFAULT_REGION_SIZE;
+                int bytesPerChar = layout.isCompactStrings() ? 1 : 2;
+                // The string's byte array, header included, spans the requested number of regions
+                long arrayBytes = (long) (sizes.getHumongousRegions() * regionSize) - layout.getArrayHeaderSize();
+                int largeSize = (int) Math.min(Integer.MAX_VALUE - 8, arrayBytes / bytesPerChar);
+                return new PayloadProfile(distribution, size, size, size, 0, largeSize,
+                        sizes.getHumongousRatio(), chunkSize);
+            default:
+                return fixed(size, chunkSize);
+        }
+    }
+
+    /**
+     * Draw the size of one payload in characters
+     */
+    int sample(RandomGenerator random) {
+        switch (distribution) {
+            case UNIFORM:
+                return minSize == maxSize ? minSize : random.nextInt(minSize, maxSize + 1);
+            case LOG_NORMAL:
+                double drawn = size * Math.exp(sigma * random.nextGaussian());
+                return (int) Math.max(minSize, Math.min(maxSize, Math.round(drawn)));
+            case BIMODAL:
+            case HUMONGOUS:
+                return random.nextDouble() < largeRatio ? largeSize : size;
+            default:
+                return size;
+        }
+    }
+
+    /**
+     * Whether a drawn size is a humongous payload sized from the heap's regions. These are not
+     * clamped to the max string size: with regions of 2MB and more that clamp would keep them
+     * below half a region, and they would no longer be humongous.
+     */
+    boolean isRegionSized(int drawn) {
+        return distribution == Distribution.HUMONGOUS && drawn == largeSize;
+    }
+
+    public boolean isFixed() {
+        return distribution == Distribution.FIXED;
+    }
+
+    public Distribution getDistribution() {
+        return distribution;
+    }
+
+    /**
+     * The configured string size: the fixed size, the log-normal median or the common bimodal size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Size of the large payloads of bimodal and humongous profiles
+     */
+    public int getLargeSize() {
+        return largeSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PayloadProfile)) return false;
+        PayloadProfile other = (PayloadProfile) o;
+        return distribution == other.distribution && size == other.size && minSize == other.minSize
+                && maxSize == other.maxSize && Double.compare(sigma, other.sigma) == 0
+                && largeSize == other.largeSize && Double.compare(largeRatio, other.largeRatio) == 0
+                && chunkSize == other.chunkSize;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(distribution, size, minSize, maxSize, sigma, largeSize, largeRatio, chunkSize);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(distribution.name().toLowerCase(Locale.ROOT)).append('(').append(size);
+        switch (distribution) {
+            case UNIFORM:
+                text.append(", ").append(minSize).append("..").append(maxSize);
+                break;
+            case LOG_NORMAL:
+                text.append(", sigma=").append(sigma).append(", ").append(minSize).append("..").append(maxSize);
+                break;
+            case BIMODAL:
+            case HUMONGOUS:
+                text.append(", large=").append(largeSize).append(" x ").append(largeRatio);
+                break;
+            default:
+                break;
+        }
+        if (chunkSize > 0) {
+            text.append(", chunks of ").append(chunkSize);
+        }
+        return text.append(')').toString();
+    }
+}
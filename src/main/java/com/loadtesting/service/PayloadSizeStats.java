@@ -0,0 +1,146 @@
+package com.loadtesting.service;
+
+import com.loadtesting.model.ObjectLayout;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sizes of the payload arrays the generator allocated: the byte arrays behind configurable data
+ * strings and chunks, and the data buffers of columnar batches. Arrays of at least half a G1
+ * region are counted as humongous, with the regions they occupy and the unused tail of their
+ * last region, which is what fragments the old generation.
+ */
+public final class PayloadSizeStats {
+
+    private static final long KIB = 1024;
+    static final long[] SIZE_BUCKETS = {KIB, 4 * KIB, 16 * KIB, 64 * KIB, 256 * KIB, 1024 * KIB,
+            4096 * KIB, 16384 * KIB, 65536 * KIB};
+
+    private final ObjectLayout layout;
+    private final LongAdder arrays = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder humongousArrays = new LongAdder();
+    private final LongAdder humongousBytes = new LongAdder();
+    private final LongAdder humongousRegions = new LongAdder();
+    private final AtomicLong largestBytes = new AtomicLong();
+    private final LongAdder[] histogram = new LongAdder[SIZE_BUCKETS.length + 1];
+
+    public PayloadSizeStats(ObjectLayout layout) {
+        this.layout = layout;
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Count one allocated array of {@code arrayBytes}, header and padding included
+     */
+    public void record(long arrayBytes) {
+        arrays.increment();
+        bytes.add(arrayBytes);
+        updateLargest(arrayBytes);
+        int bucket = 0;
+        while (bucket < SIZE_BUCKETS.length && arrayBytes > SIZE_BUCKETS[bucket]) {
+            bucket++;
+        }
+        histogram[bucket].increment();
+        if (layout.isHumongous(arrayBytes)) {
+            humongousArrays.increment();
+            humongousBytes.add(arrayBytes);
+            humongousRegions.add(layout.humongousRegions(arrayBytes));
+        }
+    }
+
+    /**
+     * Raise the largest size only when this array is larger, so the common smaller arrays only
+     * read the shared value instead of writing it on every record
+     */
+    private void updateLargest(long arrayBytes) {
+        long largest = largestBytes.get();
+        while (arrayBytes > largest && !largestBytes.compareAndSet(largest, arrayBytes)) {
+            largest = largestBytes.get();
+        }
+    }
+
+    /**
+     * Count a string's byte array
+     */
+    public void recordString(int length) {
+        record(layout.arraySize(length, layout.isCompactStrings() ? 1 : 2));
+    }
+
+    public void reset() {
+        arrays.reset();
+        bytes.reset();
+        humongousArrays.reset();
+        humongousBytes.reset();
+        humongousRegions.reset();
+        largestBytes.set(0);
+        for (LongAdder bucket : histogram) {
+            bucket.reset();
+        }
+    }
+
+    public Snapshot snapshot() {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < SIZE_BUCKETS.length; i++) {
+            buckets.put("le" + SIZE_BUCKETS[i] / KIB + "KiB", histogram[i].sum());
+        }
+        buckets.put("gt" + SIZE_BUCKETS[SIZE_BUCKETS.length - 1] / KIB + "KiB", histogram[SIZE_BUCKETS.length].sum());
+        long regions = humongousRegions.sum();
+        long humongous = humongousBytes.sum();
+        return new Snapshot(layout.getG1RegionSize(), layout.getG1RegionSize() / 2, arrays.sum(), bytes.sum(),
+                largestBytes.get(), buckets, humongousArrays.sum(), humongous, regions,
+                Math.max(0, regions * layout.getG1RegionSize() - humongous));
+    }
+
+    /**
+     * Counts since startup or the last reset
+     */
+    public static class Snapshot {
+        private final long regionSizeBytes;
+        private final long humongousThresholdBytes;
+        private final long arrays;
+        private final long bytes;
+        private final long largestBytes;
+        private final Map<String, Long> sizeHistogram;
+        private final long humongousArrays;
+        private final long humongousBytes;
+        private final long humongousRegions;
+        private final long humongousWastedBytes;
+
+        public Snapshot(long regionSizeBytes, long humongousThresholdBytes, long arrays, long bytes, long largestBytes,
+                        Map<String, Long> sizeHistogram, long humongousArrays, long humongousBytes,
+                        long humongousRegions, long humongousWastedBytes) {
+            this.regionSizeBytes = regionSizeBytes;
+            this.humongousThresholdBytes = humongousThresholdBytes;
+            this.arrays = arrays;
+            this.bytes = bytes;
+            this.largestBytes = largestBytes;
+            this.sizeHistogram = sizeHistogram;
+            this.humongousArrays = humongousArrays;
+            this.humongousBytes = humongousBytes;
+            this.humongousRegions = humongousRegions;
+            this.humongousWastedBytes = humongousWastedBytes;
+        }
+
+        /** G1 region size, 0 when another collector runs (nothing is counted as humongous then) */
+        public long getRegionSizeBytes() { return regionSizeBytes; }
+        /** Arrays larger than this are humongous */
+        public long getHumongousThresholdBytes() { return humongousThresholdBytes; }
+        public long getArrays() { return arrays; }
+        public long getBytes() { return bytes; }
+        public double getMeanBytes() { return arrays > 0 ? (double) bytes / arrays : 0; }
+        public long getLargestBytes() { return largestBytes; }
+        public Map<String, Long> getSizeHistogram() { return sizeHistogram; }
+        public long getHumongousArrays() { return humongousArrays; }
+        public long getHumongousBytes() { return humongousBytes; }
+        /** Regions taken by the humongous arrays when they were allocated */
+        public long getHumongousRegions() { return humongousRegions; }
+        /** Unused tails of the last region of each humongous array */
+        public long getHumongousWastedBytes() { return humongousWastedBytes; }
+    }
+}
@@ -0,0 +1,177 @@
+package com.loadtesting.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-endpoint breakdown of an employee response into its pipeline phases:
+ * <ul>
+ *   <li>{@code employee.pipeline.phase{endpoint,phase}} - time spent generating employees,
+ *       serializing them to JSON and writing the bytes to the client</li>
+ *   <li>{@code employee.response.size{endpoint}} - response body bytes</li>
+ *   <li>{@code employee.generated{endpoint}} - employees generated</li>
+ * </ul>
+ * The endpoint tag is the matched URI pattern, the same value as the {@code uri} tag of
+ * {@code http.server.requests}. Histogram and SLO buckets are configured like any other meter,
+ * with {@code management.metrics.distribution.*} in application.properties.
+ */
+@Component
+public class PipelineMetrics {
+
+    /**
+     * Request attribute holding the {@link System#nanoTime()} at which the handler started
+     */
+    public static final String HANDLER_START_ATTRIBUTE = PipelineMetrics.class.getName() + ".handlerStart";
+
+    private static final String UNKNOWN_ENDPOINT = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, EndpointMeters> endpoints = new ConcurrentHashMap<>();
+
+    public PipelineMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * URI pattern of the request being handled on this thread
+     */
+    public String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object pattern = attributes != null
+                ? attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+        return pattern != null ? pattern.toString() : UNKNOWN_ENDPOINT;
+    }
+
+    /**
+     * Nanoseconds since the handler of the current request started, or 0 if unknown
+     */
+    public long handlerElapsedNanos() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object start = attributes != null
+                ? attributes.getAttribute(HANDLER_START_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+        return start instanceof Long ? System.nanoTime() - (Long) start : 0;
+    }
+
+    /**
+     * Record one response; a phase of 0 ns is skipped so endpoints without that phase do not skew it
+     */
+    public void record(String endpoint, long generateNanos, long serializeNanos, long writeNanos,
+                       long bytes, long employees) {
+        EndpointMeters meters = endpoints.computeIfAbsent(endpoint, this::createMeters);
+        record(meters.phases.get(Phase.GENERATE), generateNanos);
+        record(meters.phases.get(Phase.SERIALIZE), serializeNanos);
+        record(meters.phases.get(Phase.WRITE), writeNanos);
+        meters.responseSize.record(bytes);
+        meters.generated.increment(employees);
+    }
+
+    private static void record(Timer timer, long nanos) {
+        if (nanos > 0) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private EndpointMeters createMeters(String endpoint) {
+        Map<Phase, Timer> phases = new ConcurrentHashMap<>();
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, Timer.builder("employee.pipeline.phase")
+                    .description("Time spent in each phase of producing an employee response")
+                    .tag("endpoint", endpoint)
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        DistributionSummary responseSize = DistributionSummary.builder("employee.response.size")
+                .description("Employee response body size")
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Counter generated = Counter.builder("employee.generated")
+                .description("Employees generated for responses")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        return new EndpointMeters(phases, responseSize, generated);
+    }
+
+    /**
+     * Phases of an employee response
+     */
+    public enum Phase {
+        /** Creating the employee objects */
+        GENERATE,
+        /** Turning employees into JSON bytes */
+        SERIALIZE,
+        /** Handing bytes to the container, which blocks when the client reads slowly */
+        WRITE
+    }
+
+    private static final class EndpointMeters {
+        private final Map<Phase, Timer> phases;
+        private final DistributionSummary responseSize;
+        private final Counter generated;
+
+        EndpointMeters(Map<Phase, Timer> phases, DistributionSummary responseSize, Counter generated) {
+            this.phases = phases;
+            this.responseSize = responseSize;
+            this.generated = generated;
+        }
+    }
+
+    /**
+     * Counts the bytes passed to the wrapped stream and the time spent inside it
+     */
+    public static class MeteredOutputStream extends FilterOutputStream {
+        private long bytes;
+        private long writeNanos;
+
+        public MeteredOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            long start = System.nanoTime();
+            out.write(b);
+            writeNanos += System.nanoTime() - start;
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            out.write(b, off, len);
+            writeNanos += System.nanoTime() - start;
+            bytes += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            long start = System.nanoTime();
+            out.flush();
+            writeNanos += System.nanoTime() - start;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getWriteNanos() {
+            return writeNanos;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.loadtesting.service;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Heap bytes allocated and CPU time consumed on behalf of one HTTP request, summed over every
+ * thread that worked on it. A thread's share is taken with {@link #sampleThread()} before the work
+ * and {@link #add(ThreadSample)} after it; the request thread is sampled by the request cost filter,
+ * streaming response bodies sample their own worker thread.
+ *
+ * Fan-out to pool threads (parallel generation, CPU kernel slices) is counted through a
+ * {@link Fork} taken on the request thread; other executors (e.g. CompletableFuture delays) are not.
+ */
+public final class RequestCost {
+
+    /**
+     * Request attribute holding the {@link RequestCost} of the current request
+     */
+    public static final String ATTRIBUTE = RequestCost.class.getName();
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = threadBean();
+    private static final boolean ALLOCATION_SUPPORTED = THREAD_BEAN != null && THREAD_BEAN.isThreadAllocatedMemorySupported()
+            && THREAD_BEAN.isThreadAllocatedMemoryEnabled();
+    private static final boolean CPU_SUPPORTED = THREAD_BEAN != null && THREAD_BEAN.isCurrentThreadCpuTimeSupported()
+            && THREAD_BEAN.isThreadCpuTimeEnabled();
+
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final AtomicLong cpuNanos = new AtomicLong();
+
+    /**
+     * Cost of the request being handled on this thread, or null outside a request
+     */
+    public static RequestCost current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object cost = attributes != null ? attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) : null;
+        return cost instanceof RequestCost ? (RequestCost) cost : null;
+    }
+
+    /**
+     * Handle for counting work the current request hands to pool threads; a no-op outside a request
+     */
+    public static Fork fork() {
+        return new Fork(current(), Thread.currentThread());
+    }
+
+    public static boolean isAllocationSupported() {
+        return ALLOCATION_SUPPORTED;
+    }
+
+    public static boolean isCpuTimeSupported() {
+        return CPU_SUPPORTED;
+    }
+
+    /**
+     * Current allocation and CPU counters of the calling thread
+     */
+    public static ThreadSample sampleThread() {
+        return new ThreadSample(
+                ALLOCATION_SUPPORTED ? THREAD_BEAN.getCurrentThreadAllocatedBytes() : 0,
+                CPU_SUPPORTED ? THREAD_BEAN.getCurrentThreadCpuTime() : 0);
+    }
+
+    /**
+     * Add what the calling thread allocated and consumed since {@code start} was taken on it
+     */
+    public void add(ThreadSample start) {
+        ThreadSample now = sampleThread();
+        allocatedBytes.addAndGet(now.allocatedBytes - start.allocatedBytes);
+        cpuNanos.addAndGet(now.cpuNanos - start.cpuNanos);
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    public long getCpuNanos() {
+        return cpuNanos.get();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean) {
+            // Both counters are on by default in HotSpot, but can be switched off with JVM flags
+            if (threadBean.isThreadAllocatedMemorySupported() && !threadBean.isThreadAllocatedMemoryEnabled()) {
+                threadBean.setThreadAllocatedMemoryEnabled(true);
+            }
+            if (threadBean.isThreadCpuTimeSupported() && !threadBean.isThreadCpuTimeEnabled()) {
+                threadBean.setThreadCpuTimeEnabled(true);
+            }
+            return threadBean;
+        }
+        return null;
+    }
+
+    /**
+     * Counts work done on other threads towards the request that created it. Work that ends up
+     * running on the request thread itself (a pool may let the caller run a task) is not counted
+     * again, since the request cost filter already samples that thread.
+     */
+    public static final class Fork {
+        private final RequestCost cost;
+        private final Thread requestThread;
+
+        Fork(RequestCost cost, Thread requestThread) {
+            this.cost = cost;
+            this.requestThread = requestThread;
+        }
+
+        public void run(Runnable work) {
+            if (cost == null || Thread.currentThread() == requestThread) {
+                work.run();
+                return;
+            }
+            ThreadSample start = sampleThread();
+            try {
+                work.run();
+            } finally {
+                cost.add(start);
+            }
+        }
+
+        public <T> T call(Callable<T> work) throws Exception {
+            if (cost == null || Thread.currentThread() == requestThread) {
+                return work.call();
+            }
+            ThreadSample start = sampleThread();
+            try {
+                return work.call();
+            } finally {
+                cost.add(start);
+            }
+        }
+    }
+
+    /**
+     * Per-thread counters at one point in time
+     */
+    public static final class ThreadSample {
+        private final long allocatedBytes;
+        private final long cpuNanos;
+
+        ThreadSample(long allocatedBytes, long cpuNanos) {
+            this.allocatedBytes = allocatedBytes;
+            this.cpuNanos = cpuNanos;
+        }
+
+        public long getAllocatedBytes() { return allocatedBytes; }
+        public long getCpuNanos() { return cpuNanos; }
+    }
+}
@@ -0,0 +1,538 @@
+package com.loadtesting.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns the service's own telemetry into pod resource requests and limits for a target traffic
+ * mix, so sizing no longer happens in a spreadsheet.
+ *
+ * CPU comes from the mean {@code request.cpu} of each endpoint times its target rate; replicas are
+ * chosen so no pod runs above the target utilization (or above a measured per-pod capacity, e.g.
+ * the sustainable rate from a capacity search). Heap is the old generation live set with headroom,
+ * plus the data of requests in flight (Little's law on {@code http.server.requests}) and a young
+ * generation large enough for the per-pod {@code request.allocated} rate between young collections.
+ * Native memory (metaspace, code cache, thread stacks, direct buffers, GC structures) is taken from
+ * Native Memory Tracking when it is on, otherwise estimated from the MXBeans.
+ *
+ * Telemetry reflects the load the service has seen so far, so run the target mix (e.g. with the
+ * load driver) before asking for a recommendation. The result includes a VerticalPodAutoscaler-style
+ * {@code status.recommendation} to compare against {@code kubectl get vpa -o json}.
+ */
+@Service
+public class ResourceSizingService {
+
+    private static final long MIB = 1024 * 1024;
+
+    private final MeterRegistry meterRegistry;
+    private final JvmMemoryMonitor jvmMemoryMonitor;
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    public ResourceSizingService(MeterRegistry meterRegistry, JvmMemoryMonitor jvmMemoryMonitor) {
+        this.meterRegistry = meterRegistry;
+        this.jvmMemoryMonitor = jvmMemoryMonitor;
+    }
+
+    /**
+     * Recommend per-pod resources and a replica count for the request's traffic mix
+     *
+     * @throws IllegalArgumentException if the request is invalid
+     * @throws IllegalStateException if an endpoint in the mix has no recorded request cost
+     */
+    public SizingRecommendation recommend(SizingRequest request) {
+        request.validate();
+        List<String> explanations = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
+
+        // Per-endpoint cost times target rate
+        List<EndpointCost> endpoints = new ArrayList<>();
+        double totalRps = 0;
+        double cpuCores = 0;
+        double allocationRate = 0;
+        double inFlightRequests = 0;
+        double inFlightBytes = 0;
+        for (SizingRequest.EndpointTraffic traffic : request.getTraffic()) {
+            EndpointCost cost = endpointCost(traffic);
+            if (cost.getSamples() < request.getMinSamples()) {
+                warnings.add(String.format(Locale.ROOT, "%s: only %d requests measured, cost may not be representative",
+                        cost.getEndpoint(), cost.getSamples()));
+            }
+            endpoints.add(cost);
+            totalRps += traffic.getRps();
+            cpuCores += cost.getCpuCores();
+            allocationRate += cost.getAllocationBytesPerSecond();
+            double concurrency = traffic.getRps() * cost.getMeanLatencyMs() / 1000;
+            inFlightRequests += concurrency;
+            inFlightBytes += concurrency * cost.getAllocatedBytesPerRequest();
+        }
+
+        // Replicas: enough that each pod stays below the target utilization
+        int replicas;
+        if (request.getPodRpsCapacity() > 0) {
+            replicas = (int) Math.ceil(totalRps / (request.getPodRpsCapacity() * request.getTargetUtilization()));
+            explanations.add(String.format(Locale.ROOT,
+                    "replicas: %.1f rps / (%.1f rps per pod x %.0f%% target utilization)",
+                    totalRps, request.getPodRpsCapacity(), request.getTargetUtilization() * 100));
+        } else {
+            replicas = (int) Math.ceil(cpuCores / (request.getMaxCpuPerPodCores() * request.getTargetUtilization()));
+            explanations.add(String.format(Locale.ROOT,
+                    "replicas: %.3f cores of request CPU / (%.3f cores per pod x %.0f%% target utilization)",
+                    cpuCores, request.getMaxCpuPerPodCores(), request.getTargetUtilization() * 100));
+        }
+        if (replicas < request.getMinReplicas()) {
+            explanations.add("replicas raised to the minimum of " + request.getMinReplicas() + " for availability");
+            replicas = request.getMinReplicas();
+        }
+
+        // CPU per pod
+        double podCpu = cpuCores / replicas + request.getBaselineCpuCores();
+        double cpuRequest = podCpu / request.getTargetUtilization();
+        double cpuLimit = cpuRequest * request.getCpuLimitRatio();
+        explanations.add(String.format(Locale.ROOT,
+                "cpu request %s: (%.3f cores of requests per pod + %.3f baseline for GC, JIT and scrapes) / %.0f%% target utilization",
+                cpuQuantity(cpuRequest), cpuCores / replicas, request.getBaselineCpuCores(), request.getTargetUtilization() * 100));
+        explanations.add(String.format(Locale.ROOT, "cpu limit %s: request x %.1f for bursts and startup",
+                cpuQuantity(cpuLimit), request.getCpuLimitRatio()));
+
+        // Heap per pod
+        JvmMemoryMonitor.JvmMemoryStats stats = jvmMemoryMonitor.getStats();
+        long liveSet;
+        String liveSetSource;
+        if (stats.getLiveSetAfterFullGcBytes() >= 0) {
+            liveSet = stats.getLiveSetAfterFullGcBytes();
+            liveSetSource = "old generation after the last full GC";
+        } else if (stats.getOldGenAfterLastGcBytes() >= 0) {
+            liveSet = stats.getOldGenAfterLastGcBytes();
+            liveSetSource = "old generation after the last GC";
+        } else {
+            liveSet = stats.getHeapUsedBytes();
+            liveSetSource = "current heap use";
+            warnings.add("No garbage collection observed yet; the live set is taken from current heap use and is overstated");
+        }
+        long oldGen = (long) (liveSet * request.getLiveSetHeadroom());
+        long podInFlightBytes = (long) (inFlightBytes / replicas);
+        long youngGen = (long) (allocationRate / replicas * request.getYoungGcIntervalSeconds());
+        long heap = roundUpToMib(Math.max(request.getMinHeapMib() * MIB, oldGen + podInFlightBytes + youngGen));
+        explanations.add(String.format(Locale.ROOT,
+                "heap %s: live set %s (%s) x %.1f + in-flight %s (%.1f requests per pod) + young generation %s (%s/s allocated per pod x %.1fs between young GCs)",
+                memoryQuantity(heap), memoryQuantity(liveSet), liveSetSource, request.getLiveSetHeadroom(),
+                memoryQuantity(podInFlightBytes), inFlightRequests / replicas, memoryQuantity(youngGen),
+                memoryQuantity((long) (allocationRate / replicas)), request.getYoungGcIntervalSeconds()));
+
+        // Native memory per pod
+        int threads = Math.max(threadBean.getPeakThreadCount(),
+                threadBean.getThreadCount() + (int) Math.ceil(inFlightRequests / replicas));
+        long threadStacks = threads * request.getThreadStackKib() * 1024;
+        long directBuffers = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            directBuffers += Math.max(0, pool.getMemoryUsed());
+        }
+        long nativeMemory;
+        JvmMemoryMonitor.NativeMemorySummary nmt = stats.getNativeMemory();
+        if (nmt != null && nmt.isEnabled()) {
+            // NMT already counts thread stacks, metaspace, code cache, GC structures and direct buffers
+            nativeMemory = Math.max(0, nmt.getCommittedBytes() - stats.getHeapCommittedBytes());
+            long extraThreads = Math.max(0, threads - threadBean.getThreadCount()) * request.getThreadStackKib() * 1024;
+            nativeMemory += extraThreads;
+            explanations.add(String.format(Locale.ROOT,
+                    "native %s: committed outside the heap per Native Memory Tracking, plus stacks for %d more threads",
+                    memoryQuantity(nativeMemory), Math.max(0, threads - threadBean.getThreadCount())));
+        } else {
+            long overhead = request.getJvmOverheadMib() * MIB;
+            nativeMemory = stats.getNonHeapCommittedBytes() + threadStacks + directBuffers + overhead;
+            explanations.add(String.format(Locale.ROOT,
+                    "native %s: metaspace and code cache %s + %d thread stacks %s + direct/mapped buffers %s + GC and VM overhead %s (estimate; start with -XX:NativeMemoryTracking=summary for a measurement)",
+                    memoryQuantity(nativeMemory), memoryQuantity(stats.getNonHeapCommittedBytes()), threads,
+                    memoryQuantity(threadStacks), memoryQuantity(directBuffers), memoryQuantity(overhead)));
+        }
+
+        // Container memory
+        long memoryRequest = roundUpToMib((long) ((heap + nativeMemory) * request.getMemoryHeadroom()));
+        long memoryLimit = roundUpToMib((long) (memoryRequest * request.getMemoryLimitRatio()));
+        double maxRamPercentage = Math.floor(1000.0 * heap / memoryLimit) / 10;
+        explanations.add(String.format(Locale.ROOT, "memory request %s: (heap + native) x %.2f",
+                memoryQuantity(memoryRequest), request.getMemoryHeadroom()));
+        explanations.add(String.format(Locale.ROOT,
+                "memory limit %s: request x %.2f; the JVM rarely returns memory, so a limit close to the request avoids surprise OOM kills",
+                memoryQuantity(memoryLimit), request.getMemoryLimitRatio()));
+        if (stats.getHeapMaxBytes() > 0 && heap > stats.getHeapMaxBytes()) {
+            warnings.add("Recommended heap " + memoryQuantity(heap) + " is above this JVM's max heap "
+                    + memoryQuantity(stats.getHeapMaxBytes()) + "; measurements may already be GC-bound");
+        }
+
+        PodResources pod = new PodResources(cpuRequest, cpuLimit, memoryRequest, memoryLimit);
+        MemoryBreakdown memory = new MemoryBreakdown(liveSet, oldGen, podInFlightBytes, youngGen, heap,
+                nativeMemory, threads, directBuffers, maxRamPercentage);
+        PodResources lowerBound = new PodResources(podCpu, podCpu, liveSet + nativeMemory, liveSet + nativeMemory);
+        return new SizingRecommendation(totalRps, replicas, pod, memory, endpoints, explanations, warnings,
+                vpaStatus(request, pod, lowerBound));
+    }
+
+    private EndpointCost endpointCost(SizingRequest.EndpointTraffic traffic) {
+        String endpoint = traffic.getEndpoint();
+        Timer cpu = meterRegistry.find("request.cpu").tag("endpoint", endpoint).timer();
+        DistributionSummary allocated = meterRegistry.find("request.allocated").tag("endpoint", endpoint).summary();
+        if (cpu == null || cpu.count() == 0) {
+            throw new IllegalStateException("No request cost recorded for " + endpoint
+                    + "; send traffic to it first (request cost is measured on the servlet stack)");
+        }
+        double latencyNanos = 0;
+        long latencyCount = 0;
+        for (Timer timer : meterRegistry.find("http.server.requests").tag("uri", endpoint).timers()) {
+            latencyNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+            latencyCount += timer.count();
+        }
+        return new EndpointCost(endpoint, traffic.getRps(), cpu.count(),
+                cpu.mean(TimeUnit.NANOSECONDS) / 1e6,
+                allocated != null && allocated.count() > 0 ? allocated.mean() : 0,
+                latencyCount > 0 ? latencyNanos / latencyCount / 1e6 : 0);
+    }
+
+    /**
+     * The recommendation in the shape of a VerticalPodAutoscaler's status, with VPA's meaning of the
+     * bounds: target is the request clamped to the container policy, lowerBound the bare demand and
+     * upperBound the limit
+     */
+    private static Map<String, Object> vpaStatus(SizingRequest request, PodResources pod, PodResources lowerBound) {
+        double minCpu = request.getMinAllowedCpuMillis() / 1000.0;
+        double maxCpu = request.getMaxAllowedCpuMillis() / 1000.0;
+        long minMemory = request.getMinAllowedMemoryMib() * MIB;
+        long maxMemory = request.getMaxAllowedMemoryMib() * MIB;
+
+        Map<String, Object> container = new LinkedHashMap<>();
+        container.put("containerName", request.getContainerName());
+        container.put("lowerBound", resources(clamp(lowerBound.getCpuRequestCores(), minCpu, maxCpu),
+                clamp(lowerBound.getMemoryRequestBytes(), minMemory, maxMemory)));
+        container.put("target", resources(clamp(pod.getCpuRequestCores(), minCpu, maxCpu),
+                clamp(pod.getMemoryRequestBytes(), minMemory, maxMemory)));
+        container.put("uncappedTarget", resources(pod.getCpuRequestCores(), pod.getMemoryRequestBytes()));
+        container.put("upperBound", resources(clamp(pod.getCpuLimitCores(), minCpu, maxCpu),
+                clamp(pod.getMemoryLimitBytes(), minMemory, maxMemory)));
+
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("name", request.getVpaName());
+        metadata.put("namespace", request.getNamespace());
+        Map<String, Object> vpa = new LinkedHashMap<>();
+        vpa.put("apiVersion", "autoscaling.k8s.io/v1");
+        vpa.put("kind", "VerticalPodAutoscaler");
+        vpa.put("metadata", metadata);
+        vpa.put("status", Map.of("recommendation", Map.of("containerRecommendations", List.of(container))));
+        return vpa;
+    }
+
+    private static Map<String, String> resources(double cpuCores, long memoryBytes) {
+        Map<String, String> resources = new LinkedHashMap<>();
+        resources.put("cpu", cpuQuantity(cpuCores));
+        resources.put("memory", memoryQuantity(memoryBytes));
+        return resources;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static long roundUpToMib(long bytes) {
+        return (bytes + MIB - 1) / MIB * MIB;
+    }
+
+    /**
+     * Kubernetes CPU quantity in whole millicores, rounded up
+     */
+    static String cpuQuantity(double cores) {
+        return (long) Math.ceil(cores * 1000 - 1e-9) + "m";
+    }
+
+    /**
+     * Kubernetes memory quantity in whole mebibytes, rounded up
+     */
+    static String memoryQuantity(long bytes) {
+        return roundUpToMib(Math.max(0, bytes)) / MIB + "Mi";
+    }
+
+    /**
+     * Target traffic and the sizing policy; defaults follow kubernetes/app and kubernetes/vpa
+     */
+    public static class SizingRequest {
+        private List<EndpointTraffic> traffic = new ArrayList<>();
+        private double podRpsCapacity;
+        private double maxCpuPerPodCores = 1.0;
+        private double targetUtilization = 0.7;
+        private int minReplicas = 2;
+        private double baselineCpuCores = 0.05;
+        private double cpuLimitRatio = 2.0;
+        private double liveSetHeadroom = 2.0;
+        private double youngGcIntervalSeconds = 2.0;
+        private long minHeapMib = 64;
+        private long threadStackKib = 1024;
+        private long jvmOverheadMib = 32;
+        private double memoryHeadroom = 1.1;
+        private double memoryLimitRatio = 1.0;
+        private long minSamples = 100;
+        private String containerName = "resource-sizing-service";
+        private String vpaName = "resource-sizing-service-vpa";
+        private String namespace = "load-testing";
+        private long minAllowedCpuMillis = 25;
+        private long maxAllowedCpuMillis = 1000;
+        private long minAllowedMemoryMib = 100;
+        private long maxAllowedMemoryMib = 1024;
+
+        void validate() {
+            if (traffic == null || traffic.isEmpty()) {
+                throw new IllegalArgumentException("At least one endpoint with a target rate is required");
+            }
+            for (EndpointTraffic endpoint : traffic) {
+                if (endpoint.getEndpoint() == null || !endpoint.getEndpoint().startsWith("/")) {
+                    throw new IllegalArgumentException("Endpoints are route patterns such as /api/employees");
+                }
+                if (!(endpoint.getRps() > 0)) {
+                    throw new IllegalArgumentException("Target rate must be positive for " + endpoint.getEndpoint());
+                }
+            }
+            if (!(targetUtilization > 0) || targetUtilization > 1) {
+                throw new IllegalArgumentException("targetUtilization must be between 0 and 1");
+            }
+            if (podRpsCapacity < 0 || !(maxCpuPerPodCores > 0) || minReplicas < 1 || baselineCpuCores < 0) {
+                throw new IllegalArgumentException("Invalid per-pod capacity, replica minimum or baseline CPU");
+            }
+            if (cpuLimitRatio < 1 || memoryLimitRatio < 1 || liveSetHeadroom < 1 || memoryHeadroom < 1) {
+                throw new IllegalArgumentException("Headroom and limit ratios must be at least 1");
+            }
+            if (!(youngGcIntervalSeconds > 0) || minHeapMib < 1 || threadStackKib < 0 || jvmOverheadMib < 0) {
+                throw new IllegalArgumentException("Invalid young GC interval, minimum heap, stack size or overhead");
+            }
+            if (minAllowedCpuMillis > maxAllowedCpuMillis || minAllowedMemoryMib > maxAllowedMemoryMib) {
+                throw new IllegalArgumentException("VPA minAllowed must not exceed maxAllowed");
+            }
+        }
+
+        public List<EndpointTraffic> getTraffic() { return traffic; }
+        public void setTraffic(List<EndpointTraffic> traffic) { this.traffic = traffic; }
+        /** Sustainable requests per second of one pod (e.g. from a capacity search); 0 to size replicas by CPU */
+        public double getPodRpsCapacity() { return podRpsCapacity; }
+        public void setPodRpsCapacity(double podRpsCapacity) { this.podRpsCapacity = podRpsCapacity; }
+        /** Largest CPU request per pod when replicas are sized by CPU */
+        public double getMaxCpuPerPodCores() { return maxCpuPerPodCores; }
+        public void setMaxCpuPerPodCores(double maxCpuPerPodCores) { this.maxCpuPerPodCores = maxCpuPerPodCores; }
+        /** Share of the CPU request a pod should use at the target rate */
+        public double getTargetUtilization() { return targetUtilization; }
+        public void setTargetUtilization(double targetUtilization) { this.targetUtilization = targetUtilization; }
+        public int getMinReplicas() { return minReplicas; }
+        public void setMinReplicas(int minReplicas) { this.minReplicas = minReplicas; }
+        /** CPU per pod not attributed to requests: GC threads, JIT, metrics scrapes, probes */
+        public double getBaselineCpuCores() { return baselineCpuCores; }
+        public void setBaselineCpuCores(double baselineCpuCores) { this.baselineCpuCores = baselineCpuCores; }
+        public double getCpuLimitRatio() { return cpuLimitRatio; }
+        public void setCpuLimitRatio(double cpuLimitRatio) { this.cpuLimitRatio = cpuLimitRatio; }
+        /** Old generation size as a multiple of the live set */
+        public double getLiveSetHeadroom() { return liveSetHeadroom; }
+        public void setLiveSetHeadroom(double liveSetHeadroom) { this.liveSetHeadroom = liveSetHeadroom; }
+        /** Desired time between young collections; the young generation holds this much allocation */
+        public double getYoungGcIntervalSeconds() { return youngGcIntervalSeconds; }
+        public void setYoungGcIntervalSeconds(double youngGcIntervalSeconds) { this.youngGcIntervalSeconds = youngGcIntervalSeconds; }
+        public long getMinHeapMib() { return minHeapMib; }
+        public void setMinHeapMib(long minHeapMib) { this.minHeapMib = minHeapMib; }
+        /** Stack size per thread (-Xss) */
+        public long getThreadStackKib() { return threadStackKib; }
+        public void setThreadStackKib(long threadStackKib) { this.threadStackKib = threadStackKib; }
+        /** GC and VM structures outside the heap, used when Native Memory Tracking is off */
+        public long getJvmOverheadMib() { return jvmOverheadMib; }
+        public void setJvmOverheadMib(long jvmOverheadMib) { this.jvmOverheadMib = jvmOverheadMib; }
+        public double getMemoryHeadroom() { return memoryHeadroom; }
+        public void setMemoryHeadroom(double memoryHeadroom) { this.memoryHeadroom = memoryHeadroom; }
+        public double getMemoryLimitRatio() { return memoryLimitRatio; }
+        public void setMemoryLimitRatio(double memoryLimitRatio) { this.memoryLimitRatio = memoryLimitRatio; }
+        /** Endpoints with fewer measured requests get a warning */
+        public long getMinSamples() { return minSamples; }
+        public void setMinSamples(long minSamples) { this.minSamples = minSamples; }
+        public String getContainerName() { return containerName; }
+        public void setContainerName(String containerName) { this.containerName = containerName; }
+        public String getVpaName() { return vpaName; }
+        public void setVpaName(String vpaName) { this.vpaName = vpaName; }
+        public String getNamespace() { return namespace; }
+        public void setNamespace(String namespace) { this.namespace = namespace; }
+        /** VPA container policy bounds that cap the exported target */
+        public long getMinAllowedCpuMillis() { return minAllowedCpuMillis; }
+        public void setMinAllowedCpuMillis(long minAllowedCpuMillis) { this.minAllowedCpuMillis = minAllowedCpuMillis; }
+        public long getMaxAllowedCpuMillis() { return maxAllowedCpuMillis; }
+        public void setMaxAllowedCpuMillis(long maxAllowedCpuMillis) { this.maxAllowedCpuMillis = maxAllowedCpuMillis; }
+        public long getMinAllowedMemoryMib() { return minAllowedMemoryMib; }
+        public void setMinAllowedMemoryMib(long minAllowedMemoryMib) { this.minAllowedMemoryMib = minAllowedMemoryMib; }
+        public long getMaxAllowedMemoryMib() { return maxAllowedMemoryMib; }
+        public void setMaxAllowedMemoryMib(long maxAllowedMemoryMib) { this.maxAllowedMemoryMib = maxAllowedMemoryMib; }
+
+        /**
+         * Target rate for one endpoint, keyed by its route pattern as in the request metrics
+         */
+        public static class EndpointTraffic {
+            private String endpoint;
+            private double rps;
+
+            public EndpointTraffic() {
+            }
+
+            public EndpointTraffic(String endpoint, double rps) {
+                this.endpoint = endpoint;
+                this.rps = rps;
+            }
+
+            public String getEndpoint() { return endpoint; }
+            public void setEndpoint(String endpoint) { this.endpoint = endpoint; }
+            public double getRps() { return rps; }
+            public void setRps(double rps) { this.rps = rps; }
+        }
+    }
+
+    /**
+     * Measured cost of one endpoint and what it adds up to at the target rate
+     */
+    public static class EndpointCost {
+        private final String endpoint;
+        private final double rps;
+        private final long samples;
+        private final double cpuMillisPerRequest;
+        private final double allocatedBytesPerRequest;
+        private final double meanLatencyMs;
+
+        public EndpointCost(String endpoint, double rps, long samples, double cpuMillisPerRequest,
+                            double allocatedBytesPerRequest, double meanLatencyMs) {
+            this.endpoint = endpoint;
+            this.rps = rps;
+            this.samples = samples;
+            this.cpuMillisPerRequest = cpuMillisPerRequest;
+            this.allocatedBytesPerRequest = allocatedBytesPerRequest;
+            this.meanLatencyMs = meanLatencyMs;
+        }
+
+        public String getEndpoint() { return endpoint; }
+        public double getRps() { return rps; }
+        public long getSamples() { return samples; }
+        public double getCpuMillisPerRequest() { return cpuMillisPerRequest; }
+        public double getAllocatedBytesPerRequest() { return allocatedBytesPerRequest; }
+        public double getMeanLatencyMs() { return meanLatencyMs; }
+        public double getCpuCores() { return rps * cpuMillisPerRequest / 1000; }
+        public double getAllocationBytesPerSecond() { return rps * allocatedBytesPerRequest; }
+    }
+
+    /**
+     * Requests and limits of one pod
+     */
+    public static class PodResources {
+        private final double cpuRequestCores;
+        private final double cpuLimitCores;
+        private final long memoryRequestBytes;
+        private final long memoryLimitBytes;
+
+        public PodResources(double cpuRequestCores, double cpuLimitCores, long memoryRequestBytes, long memoryLimitBytes) {
+            this.cpuRequestCores = cpuRequestCores;
+            this.cpuLimitCores = cpuLimitCores;
+            this.memoryRequestBytes = memoryRequestBytes;
+            this.memoryLimitBytes = memoryLimitBytes;
+        }
+
+        public double getCpuRequestCores() { return cpuRequestCores; }
+        public double getCpuLimitCores() { return cpuLimitCores; }
+        public long getMemoryRequestBytes() { return memoryRequestBytes; }
+        public long getMemoryLimitBytes() { return memoryLimitBytes; }
+        /** As in a container spec's resources.requests */
+        public Map<String, String> getRequests() { return resources(cpuRequestCores, memoryRequestBytes); }
+        /** As in a container spec's resources.limits */
+        public Map<String, String> getLimits() { return resources(cpuLimitCores, memoryLimitBytes); }
+    }
+
+    /**
+     * How the pod's memory adds up
+     */
+    public static class MemoryBreakdown {
+        private final long liveSetBytes;
+        private final long oldGenBytes;
+        private final long inFlightBytes;
+        private final long youngGenBytes;
+        private final long heapBytes;
+        private final long nativeBytes;
+        private final int threads;
+        private final long directBufferBytes;
+        private final double maxRamPercentage;
+
+        public MemoryBreakdown(long liveSetBytes, long oldGenBytes, long inFlightBytes, long youngGenBytes,
+                               long heapBytes, long nativeBytes, int threads, long directBufferBytes,
+                               double maxRamPercentage) {
+            this.liveSetBytes = liveSetBytes;
+            this.oldGenBytes = oldGenBytes;
+            this.inFlightBytes = inFlightBytes;
+            this.youngGenBytes = youngGenBytes;
+            this.heapBytes = heapBytes;
+            this.nativeBytes = nativeBytes;
+            this.threads = threads;
+            this.directBufferBytes = directBufferBytes;
+            this.maxRamPercentage = maxRamPercentage;
+        }
+
+        public long getLiveSetBytes() { return liveSetBytes; }
+        public long getOldGenBytes() { return oldGenBytes; }
+        public long getInFlightBytes() { return inFlightBytes; }
+        public long getYoungGenBytes() { return youngGenBytes; }
+        public long getHeapBytes() { return heapBytes; }
+        public long getNativeBytes() { return nativeBytes; }
+        public int getThreads() { return threads; }
+        public long getDirectBufferBytes() { return directBufferBytes; }
+        /** -XX:MaxRAMPercentage that gives the recommended heap under the memory limit */
+        public double getMaxRamPercentage() { return maxRamPercentage; }
+        public String getJvmOptions() {
+            long heapMib = heapBytes / MIB;
+            return "-Xms" + heapMib + "m -Xmx" + heapMib + "m (or -XX:MaxRAMPercentage=" + maxRamPercentage + ")";
+        }
+    }
+
+    /**
+     * Recommended replicas and per-pod resources, with the reasoning behind each figure
+     */
+    public static class SizingRecommendation {
+        private final double totalRps;
+        private final int replicas;
+        private final PodResources pod;
+        private final MemoryBreakdown memory;
+        private final List<EndpointCost> endpoints;
+        private final List<String> explanations;
+        private final List<String> warnings;
+        private final Map<String, Object> vpa;
+
+        public SizingRecommendation(double totalRps, int replicas, PodResources pod, MemoryBreakdown memory,
+                                    List<EndpointCost> endpoints, List<String> explanations, List<String> warnings,
+                                    Map<String, Object> vpa) {
+            this.totalRps = totalRps;
+            this.replicas = replicas;
+            this.pod = pod;
+            this.memory = memory;
+            this.endpoints = endpoints;
+            this.explanations = explanations;
+            this.warnings = warnings;
+            this.vpa = vpa;
+        }
+
+        public double getTotalRps() { return totalRps; }
+        public int getReplicas() { return replicas; }
+        public PodResources getPod() { return pod; }
+        public MemoryBreakdown getMemory() { return memory; }
+        public List<EndpointCost> getEndpoints() { return endpoints; }
+        public List<String> getExplanations() { return explanations; }
+        public List<String> getWarnings() { return warnings; }
+        /** VerticalPodAutoscaler-shaped status for comparison with kubernetes/vpa */
+        public Map<String, Object> getVpa() { return vpa; }
+    }
+}
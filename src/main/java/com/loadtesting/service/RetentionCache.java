@@ -0,0 +1,295 @@
+package com.loadtesting.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Expiring cache for long-running retention scenarios. Every entry lives for the same time to live
+ * and the cache is bounded by a total weight (bytes) and an entry count, evicting least recently
+ * written entries first when a put would exceed either budget.
+ *
+ * Expiry uses a hashed timing wheel advanced by a single periodic {@link #sweep()} instead of one
+ * scheduled task per put, so the amount of scheduling work does not grow with the number of keys.
+ * Each put gets a new version and wheel slots remember the version they were scheduled for: a slot
+ * for a value that has since been overwritten or evicted is simply dropped when its tick comes up.
+ * A time to live of zero or less disables expiry; the budgets then bound the cache on their own.
+ */
+public class RetentionCache<V> {
+
+    /**
+     * Why a value left the cache
+     */
+    public enum RemovalCause {
+        /** Its time to live elapsed */
+        EXPIRED,
+        /** Evicted to stay within the weight or entry budget */
+        SIZE,
+        /** Overwritten by a newer value for the same key */
+        REPLACED,
+        /** Removed by {@link #clear()} */
+        EXPLICIT
+    }
+
+    /**
+     * Callback for values leaving the cache; invoked outside the cache lock
+     */
+    @FunctionalInterface
+    public interface RemovalListener<V> {
+        void onRemoval(String key, V value, RemovalCause cause);
+    }
+
+    private final long ttlTicks;
+    private final long tickNanos;
+    private final long maxWeight;
+    private final int maxEntries;
+    private final ToLongFunction<V> weigher;
+    private final RemovalListener<V> listener;
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+
+    // Write-ordered; the eldest entry is the first to be evicted
+    private final LinkedHashMap<String, Versioned<V>> entries = new LinkedHashMap<>();
+    private final List<ArrayDeque<WheelSlot>> wheel;
+    private final int wheelMask;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextVersion;
+    private long currentWeight;
+    private long lastSweptTick;
+
+    /**
+     * @param ttl time to live of every entry; zero or less keeps entries until they are evicted,
+     *            replaced or cleared
+     * @throws IllegalArgumentException if the tick or either budget is not positive
+     */
+    public RetentionCache(long ttl, long tick, TimeUnit unit, int wheelSize, long maxWeight, int maxEntries,
+                          ToLongFunction<V> weigher, RemovalListener<V> listener) {
+        this(ttl, tick, unit, wheelSize, maxWeight, maxEntries, weigher, listener, System::nanoTime);
+    }
+
+    RetentionCache(long ttl, long tick, TimeUnit unit, int wheelSize, long maxWeight, int maxEntries,
+                   ToLongFunction<V> weigher, RemovalListener<V> listener, LongSupplier nanoClock) {
+        if (tick <= 0) {
+            throw new IllegalArgumentException("The expiry tick must be positive, was " + tick + " " + unit);
+        }
+        if (maxWeight <= 0 || maxEntries <= 0) {
+            // Every put would evict everything and then reject the new entry
+            throw new IllegalArgumentException(String.format(
+                    "The cache budgets must be positive, were %d bytes and %d entries", maxWeight, maxEntries));
+        }
+        this.tickNanos = unit.toNanos(tick);
+        // 0 ticks: entries never expire and are not scheduled on the wheel
+        this.ttlTicks = ttl > 0 ? Math.max(1, (unit.toNanos(ttl) + tickNanos - 1) / tickNanos) : 0;
+        this.maxWeight = maxWeight;
+        this.maxEntries = maxEntries;
+        this.weigher = weigher;
+        this.listener = listener;
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+
+        int buckets = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.wheel = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+        this.wheelMask = buckets - 1;
+    }
+
+    /**
+     * Store a value, replacing any previous value for the key and evicting the least recently
+     * written entries if the budgets would otherwise be exceeded
+     *
+     * @throws IllegalArgumentException if the value alone is heavier than the weight budget
+     */
+    public void put(String key, V value) {
+        long weight = weigher.applyAsLong(value);
+        if (weight > maxWeight) {
+            throw new IllegalArgumentException(String.format(
+                    "Entry of %d bytes exceeds the cache budget of %d bytes", weight, maxWeight));
+        }
+
+        List<Removal<V>> removals = new ArrayList<>();
+        lock.lock();
+        try {
+            Versioned<V> previous = entries.remove(key);
+            if (previous != null) {
+                currentWeight -= previous.weight;
+                removals.add(new Removal<>(key, previous.value, RemovalCause.REPLACED));
+            }
+
+            Iterator<Map.Entry<String, Versioned<V>>> eldest = entries.entrySet().iterator();
+            while (eldest.hasNext() && (currentWeight + weight > maxWeight || entries.size() >= maxEntries)) {
+                Map.Entry<String, Versioned<V>> evicted = eldest.next();
+                eldest.remove();
+                currentWeight -= evicted.getValue().weight;
+                removals.add(new Removal<>(evicted.getKey(), evicted.getValue().value, RemovalCause.SIZE));
+            }
+
+            long version = ++nextVersion;
+            entries.put(key, new Versioned<>(value, weight, version));
+            currentWeight += weight;
+            if (expires()) {
+                long expiryTick = currentTick() + ttlTicks;
+                wheel.get((int) (expiryTick & wheelMask)).add(new WheelSlot(key, version, expiryTick));
+            }
+        } finally {
+            lock.unlock();
+        }
+        notify(removals);
+    }
+
+    /**
+     * Advance the timing wheel to the current tick and expire every entry that is due.
+     * Meant to be called periodically, roughly once per tick, from a single thread.
+     */
+    public void sweep() {
+        List<Removal<V>> removals = new ArrayList<>();
+        lock.lock();
+        try {
+            long now = currentTick();
+            // After a long pause, one pass over the whole wheel visits every bucket
+            long from = Math.max(lastSweptTick + 1, now - wheelMask);
+            for (long tick = from; tick <= now; tick++) {
+                Iterator<WheelSlot> slots = wheel.get((int) (tick & wheelMask)).iterator();
+                while (slots.hasNext()) {
+                    WheelSlot slot = slots.next();
+                    if (slot.expiryTick > now) {
+                        continue; // due in a later revolution of the wheel
+                    }
+                    slots.remove();
+                    Versioned<V> current = entries.get(slot.key);
+                    if (current != null && current.version == slot.version) {
+                        entries.remove(slot.key);
+                        currentWeight -= current.weight;
+                        removals.add(new Removal<>(slot.key, current.value, RemovalCause.EXPIRED));
+                    }
+                }
+            }
+            lastSweptTick = now;
+        } finally {
+            lock.unlock();
+        }
+        notify(removals);
+    }
+
+    /**
+     * Remove every entry
+     *
+     * @return number of entries removed
+     */
+    public int clear() {
+        List<Removal<V>> removals = new ArrayList<>();
+        lock.lock();
+        try {
+            entries.forEach((key, versioned) -> removals.add(new Removal<>(key, versioned.value, RemovalCause.EXPLICIT)));
+            entries.clear();
+            for (ArrayDeque<WheelSlot> bucket : wheel) {
+                bucket.clear();
+            }
+            currentWeight = 0;
+        } finally {
+            lock.unlock();
+        }
+        notify(removals);
+        return removals.size();
+    }
+
+    /**
+     * Weight of each cached entry, by key
+     */
+    public Map<String, Long> weights() {
+        lock.lock();
+        try {
+            Map<String, Long> weights = new TreeMap<>();
+            entries.forEach((key, versioned) -> weights.put(key, versioned.weight));
+            return weights;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getCurrentWeight() {
+        lock.lock();
+        try {
+            return currentWeight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Scheduled expiry slots, including stale ones for overwritten or evicted values
+     */
+    public int getPendingExpiries() {
+        lock.lock();
+        try {
+            int pending = 0;
+            for (ArrayDeque<WheelSlot> bucket : wheel) {
+                pending += bucket.size();
+            }
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether entries expire at all; false when the cache was created with a time to live of zero or less
+     */
+    public boolean expires() {
+        return ttlTicks > 0;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    private long currentTick() {
+        return (nanoClock.getAsLong() - startNanos) / tickNanos;
+    }
+
+    private void notify(List<Removal<V>> removals) {
+        for (Removal<V> removal : removals) {
+            listener.onRemoval(removal.key, removal.value, removal.cause);
+        }
+    }
+
+    private static final class Versioned<V> {
+        private final V value;
+        private final long weight;
+        private final long version;
+
+        private Versioned(V value, long weight, long version) {
+            this.value = value;
+            this.weight = weight;
+            this.version = version;
+        }
+    }
+
+    private record WheelSlot(String key, long version, long expiryTick) {
+    }
+
+    private record Removal<V>(String key, V value, RemovalCause cause) {
+    }
+}
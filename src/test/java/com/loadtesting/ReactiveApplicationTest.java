@@ -0,0 +1,35 @@
+package com.loadtesting;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Verifies the application context starts on WebFlux with the "reactive" profile and serves
+ * the employee, load-test and memory scenario endpoints.
+ */
+@SpringBootTest
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+class ReactiveApplicationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void servesEndpointsReactively() {
+        webTestClient.get().uri("/api/employees?count=3&seed=1").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(3);
+        webTestClient.get().uri("/api/load-test/db-latency?delayMs=10&count=2").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[1].id").isEqualTo(2);
+        webTestClient.get().uri("/api/memory/scenario/light").exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/api/memory/scenario/unknown").exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -0,0 +1,111 @@
+package com.loadtesting.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * Contention benchmark for random data generation.
+ * Compares the former pattern of one shared {@link java.util.Random} used by every request thread
+ * against the per-thread and per-employee generators {@code EmployeeDataService} now draws from.
+ * Every variant runs the same string generation loop and only the generator differs, so the gap
+ * between them is the cost of contending on the shared seed.
+ * Throughput is reported in strings per second as the thread count grows from 1 to N.
+ *
+ * This is a standalone program rather than a unit test, so it is not picked up by Surefire.
+ * Run it after {@code mvn test-compile} with:
+ * <pre>
+ * java -cp target/classes:target/test-classes com.loadtesting.benchmark.RandomContentionBenchmark [maxThreads] [stringSize] [seconds]
+ * </pre>
+ */
+public class RandomContentionBenchmark {
+
+    private static final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int stringSize = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        Random sharedRandom = new Random();
+
+        System.out.printf("stringSize=%d chars, %d s per measurement%n", stringSize, seconds);
+        System.out.printf("%8s %22s %22s %22s%n", "threads", "shared Random (str/s)", "per-thread (str/s)", "seeded (str/s)");
+
+        for (int threads : threadCounts(maxThreads)) {
+            double shared = measure(threads, seconds, id -> randomString(sharedRandom, stringSize));
+            double perThread = measure(threads, seconds, id -> randomString(ThreadLocalRandom.current(), stringSize));
+            double seeded = measure(threads, seconds, id -> randomString(new SplittableRandom(42L ^ id), stringSize));
+            System.out.printf("%8d %22.0f %22.0f %22.0f%n", threads, shared, perThread, seeded);
+        }
+    }
+
+    /**
+     * The generation loop as it was when every thread shared a single Random instance, drawing from {@code random}
+     */
+    private static String randomString(RandomGenerator random, int size) {
+        StringBuilder sb = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            sb.append(ALPHANUMERIC.charAt(random.nextInt(ALPHANUMERIC.length())));
+        }
+        return sb.toString();
+    }
+
+    private static List<Integer> threadCounts(int maxThreads) {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(maxThreads);
+        return counts;
+    }
+
+    private static double measure(int threads, int seconds, Workload workload) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        // Keep results reachable from a field the JIT cannot prove unused
+        Object[] sink = new Object[threads];
+
+        for (int t = 0; t < threads; t++) {
+            int slot = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    long id = 1;
+                    while (running.get()) {
+                        sink[slot] = workload.run(id++);
+                        operations.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        TimeUnit.SECONDS.sleep(seconds);
+        running.set(false);
+        done.await();
+        double elapsedSeconds = (System.nanoTime() - begin) / 1e9;
+        return operations.sum() / elapsedSeconds;
+    }
+
+    @FunctionalInterface
+    private interface Workload {
+        Object run(long id);
+    }
+}
@@ -0,0 +1,109 @@
+package com.loadtesting.config;
+
+import com.loadtesting.service.RequestCost;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Unit tests for per-request allocation and CPU accounting.
+ */
+class RequestCostFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCostFilter filter = new RequestCostFilter(meterRegistry);
+
+    @Test
+    void testCostIsReturnedInHeadersAndRecordedPerEndpoint() throws Exception {
+        assumeTrue(RequestCost.isAllocationSupported() && RequestCost.isCpuTimeSupported());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/load-test/heavy");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/load-test/heavy");
+                // Allocate well over a megabyte before the body is written
+                byte[][] blocks = new byte[16][];
+                for (int i = 0; i < blocks.length; i++) {
+                    blocks[i] = new byte[128 * 1024];
+                }
+                resp.getOutputStream().write(blocks[blocks.length - 1], 0, 16);
+            }
+        }));
+
+        long headerBytes = Long.parseLong(response.getHeader(RequestCostFilter.ALLOCATED_BYTES_HEADER));
+        assertTrue(headerBytes >= 16 * 128 * 1024, "allocated " + headerBytes);
+        assertNotNull(response.getHeader(RequestCostFilter.CPU_MICROS_HEADER));
+
+        double recordedBytes = meterRegistry.get("request.allocated").tag("endpoint", "/api/load-test/heavy")
+                .summary().totalAmount();
+        assertTrue(recordedBytes >= headerBytes);
+        assertEquals(1, meterRegistry.get("request.cpu").tag("endpoint", "/api/load-test/heavy").timer().count());
+    }
+
+    @Test
+    void testWorkForkedToPoolThreadsIsCounted() throws Exception {
+        assumeTrue(RequestCost.isAllocationSupported());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/load-test/cpu-intensive");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        try {
+            filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+                @Override
+                protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(req));
+                    try {
+                        RequestCost.Fork fork = RequestCost.fork();
+                        // All of the allocation happens on the pool thread
+                        pool.submit(() -> fork.run(() -> {
+                            byte[][] blocks = new byte[16][];
+                            for (int i = 0; i < blocks.length; i++) {
+                                blocks[i] = new byte[128 * 1024];
+                            }
+                            assertNotNull(blocks[blocks.length - 1]);
+                        })).get();
+                    } catch (InterruptedException | ExecutionException e) {
+                        throw new IllegalStateException(e);
+                    } finally {
+                        RequestContextHolder.resetRequestAttributes();
+                    }
+                    resp.getOutputStream().write(new byte[16]);
+                }
+            }));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long headerBytes = Long.parseLong(response.getHeader(RequestCostFilter.ALLOCATED_BYTES_HEADER));
+        assertTrue(headerBytes >= 16 * 128 * 1024, "allocated " + headerBytes);
+    }
+
+    @Test
+    void testRequestWithoutBodyStillGetsHeaders() throws Exception {
+        assumeTrue(RequestCost.isAllocationSupported());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/missing"), response, new MockFilterChain());
+
+        assertNotNull(response.getHeader(RequestCostFilter.ALLOCATED_BYTES_HEADER));
+        assertEquals(1, meterRegistry.get("request.allocated").tag("endpoint", "UNKNOWN").summary().count());
+    }
+}
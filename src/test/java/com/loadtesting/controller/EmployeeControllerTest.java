@@ -1,21 +1,30 @@
 package com.loadtesting.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.loadtesting.model.Employee;
 import com.loadtesting.service.EmployeeDataService;
+import com.loadtesting.service.EmployeeStreamWriter;
+import com.loadtesting.service.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -30,6 +39,7 @@ class EmployeeControllerTest {
     private EmployeeDataService employeeDataService;
     
     private MockMvc mockMvc;
+    private SimpleMeterRegistry meterRegistry;
     private Employee sampleEmployee;
     private Employee engineeringManager;
     private List<Employee> sampleEmployees;
@@ -37,7 +47,12 @@ class EmployeeControllerTest {
     @BeforeEach
     void setUp() {
         // Set up MockMvc with the controller
-        mockMvc = MockMvcBuilders.standaloneSetup(new EmployeeController(employeeDataService)).build();
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        meterRegistry = new SimpleMeterRegistry();
+        PipelineMetrics pipelineMetrics = new PipelineMetrics(meterRegistry);
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new EmployeeController(employeeDataService, new EmployeeStreamWriter(objectMapper, pipelineMetrics))).build();
         
         sampleEmployee = new Employee(1L, "John", "Doe", "john.doe@example.com", 
                 "Software Engineer", "Engineering", 75000.0, LocalDate.now(), "test-data");
@@ -50,7 +65,9 @@ class EmployeeControllerTest {
     
     @Test
     void getAllEmployees_ShouldReturnOk() throws Exception {
-        when(employeeDataService.generateEmployees()).thenReturn(sampleEmployees);
+        when(employeeDataService.getDefaultCount()).thenReturn(100);
+        when(employeeDataService.getDefaultStringSize()).thenReturn(1024);
+        when(employeeDataService.generateEmployees(eq(100), eq(1024), isNull())).thenReturn(sampleEmployees);
         
         mockMvc.perform(get("/api/employees"))
                 .andExpect(status().isOk())
@@ -59,7 +76,8 @@ class EmployeeControllerTest {
     
     @Test
     void getEmployeesByCount_ShouldReturnOk() throws Exception {
-        when(employeeDataService.generateEmployees(eq(50))).thenReturn(sampleEmployees);
+        when(employeeDataService.getDefaultStringSize()).thenReturn(1024);
+        when(employeeDataService.generateEmployees(eq(50), eq(1024), isNull())).thenReturn(sampleEmployees);
         
         mockMvc.perform(get("/api/employees?count=50"))
                 .andExpect(status().isOk())
@@ -68,16 +86,25 @@ class EmployeeControllerTest {
     
     @Test
     void getEmployeesWithMemorySize_ShouldReturnOk() throws Exception {
-        when(employeeDataService.generateEmployees(eq(25), eq(2048))).thenReturn(sampleEmployees);
+        when(employeeDataService.generateEmployees(eq(25), eq(2048), isNull(), isNull())).thenReturn(sampleEmployees);
         
         mockMvc.perform(get("/api/employees?count=25&memorySize=2048"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType("application/json"));
     }
     
+    @Test
+    void getEmployeesWithSeed_ShouldPassSeedToService() throws Exception {
+        when(employeeDataService.generateEmployees(eq(25), eq(2048), eq(42L), isNull())).thenReturn(sampleEmployees);
+        
+        mockMvc.perform(get("/api/employees?count=25&memorySize=2048&seed=42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+    
     @Test
     void getEmployeeById_ShouldReturnOk() throws Exception {
-        when(employeeDataService.generateSingleEmployee(eq(1L), eq(1024))).thenReturn(sampleEmployee);
+        when(employeeDataService.generateSingleEmployee(eq(1L), eq(1024), isNull())).thenReturn(sampleEmployee);
         
         mockMvc.perform(get("/api/employees/1"))
                 .andExpect(status().isOk())
@@ -86,22 +113,83 @@ class EmployeeControllerTest {
     
     @Test
     void getEmployeesByDepartment_ShouldReturnOk() throws Exception {
-        when(employeeDataService.generateEmployees(eq(100), eq(1024))).thenReturn(sampleEmployees);
+        when(employeeDataService.generateFilteredEmployees(eq(100), eq(1024), isNull(),
+                any(EmployeeDataService.AttributeFilter.class))).thenReturn(sampleEmployees);
         
         mockMvc.perform(get("/api/employees/department/Engineering"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType("application/json"));
     }
     
+    @Test
+    void getEmployeesByDepartment_ExactShouldFixAttribute() throws Exception {
+        when(employeeDataService.generateEmployeesWithAttributes(eq(2), eq(1024), isNull(),
+                argThat(filter -> "engineering".equals(filter.getDepartment())))).thenReturn(sampleEmployees);
+        
+        mockMvc.perform(get("/api/employees/department/engineering?count=2&exact=true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+    
     @Test
     void getEmployeesByPosition_ShouldReturnOk() throws Exception {
-        when(employeeDataService.generateEmployees(eq(100), eq(1024))).thenReturn(sampleEmployees);
+        when(employeeDataService.generateFilteredEmployees(eq(100), eq(1024), isNull(),
+                any(EmployeeDataService.AttributeFilter.class))).thenReturn(sampleEmployees);
         
         mockMvc.perform(get("/api/employees/position/Manager"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType("application/json"));
     }
     
+    @Test
+    void streamEmployees_ShouldWriteJsonArray() throws Exception {
+        when(employeeDataService.streamEmployees(eq(2), eq(512), isNull())).thenReturn(sampleEmployees.stream());
+        
+        MvcResult result = mockMvc.perform(get("/api/employees/stream?count=2&memorySize=512"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].department").value("Engineering"));
+    }
+    
+    @Test
+    void streamEmployees_ShouldWriteOneLinePerEmployeeForNdjson() throws Exception {
+        when(employeeDataService.getDefaultCount()).thenReturn(2);
+        when(employeeDataService.getDefaultStringSize()).thenReturn(1024);
+        when(employeeDataService.streamEmployees(eq(2), eq(1024), isNull())).thenReturn(sampleEmployees.stream());
+        
+        MvcResult result = mockMvc.perform(get("/api/employees/stream?format=ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1"));
+        assertTrue(lines[1].startsWith("{\"id\":2"));
+        
+        // Phases are recorded against the matched URI pattern
+        assertEquals(2.0, meterRegistry.get("employee.generated").tag("endpoint", "/api/employees/stream")
+                .counter().count());
+        assertEquals(1, meterRegistry.get("employee.pipeline.phase").tag("endpoint", "/api/employees/stream")
+                .tag("phase", "serialize").timer().count());
+        assertTrue(meterRegistry.get("employee.response.size").tag("endpoint", "/api/employees/stream")
+                .summary().totalAmount() > 0);
+    }
+    
+    @Test
+    void streamEmployees_ShouldRejectUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/employees/stream?format=xml"))
+                .andExpect(status().isBadRequest());
+    }
+    
     @Test
     void healthCheck_ShouldReturnOk() throws Exception {
         // Health check doesn't use the service, so no mocking needed
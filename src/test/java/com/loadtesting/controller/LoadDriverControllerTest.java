@@ -0,0 +1,60 @@
+package com.loadtesting.controller;
+
+import com.loadtesting.service.CapacitySearchService;
+import com.loadtesting.service.JvmMemoryMonitor;
+import com.loadtesting.service.LoadDriverService;
+import com.loadtesting.service.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for LoadDriverController
+ */
+@WebMvcTest(LoadDriverController.class)
+@Import(SimpleMeterRegistry.class) // for the request cost filter
+class LoadDriverControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private LoadDriverService loadDriverService;
+
+    @MockitoBean
+    private CapacitySearchService capacitySearchService;
+
+    @MockitoBean
+    private PipelineMetrics pipelineMetrics;
+
+    @MockitoBean
+    private JvmMemoryMonitor jvmMemoryMonitor;
+
+    @Test
+    void testBusyDriverIsAConflictAndAnInvalidPlanABadRequest() throws Exception {
+        when(loadDriverService.start(any())).thenThrow(new IllegalStateException("A load run is already in progress"));
+        when(capacitySearchService.start(any())).thenThrow(new IllegalArgumentException("p95Ms and p99Ms must be positive"));
+
+        mockMvc.perform(post("/api/load/runs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rate\": 1, \"durationSeconds\": 1}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("A load run is already in progress"));
+
+        mockMvc.perform(post("/api/load/capacity")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("p95Ms and p99Ms must be positive"));
+    }
+}
@@ -1,15 +1,23 @@
 package com.loadtesting.controller;
 
+import com.loadtesting.model.ObjectLayout;
+import com.loadtesting.service.EmployeeStreamWriter;
+import com.loadtesting.service.JvmMemoryMonitor;
 import com.loadtesting.service.MemorySimulationService;
+import com.loadtesting.service.PayloadCacheService;
+import com.loadtesting.service.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
@@ -22,6 +30,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Tests for MemorySimulationController
  */
 @WebMvcTest(MemorySimulationController.class)
+@Import(SimpleMeterRegistry.class) // for the request cost filter
 class MemorySimulationControllerTest {
 
     @Autowired
@@ -30,10 +39,22 @@ class MemorySimulationControllerTest {
     @MockitoBean
     private MemorySimulationService memorySimulationService;
 
+    @MockitoBean
+    private EmployeeStreamWriter employeeStreamWriter;
+
+    @MockitoBean
+    private PayloadCacheService payloadCacheService;
+
+    @MockitoBean
+    private PipelineMetrics pipelineMetrics;
+
+    @MockitoBean
+    private JvmMemoryMonitor jvmMemoryMonitor;
+
     @Test
     void testGenerateAndCache() throws Exception {
         // Given
-        when(memorySimulationService.generateAndCache(anyString(), anyInt(), anyInt()))
+        when(memorySimulationService.generateAndCache(anyString(), anyInt(), anyInt(), any(), any()))
                 .thenReturn("Generated and cached 100 employees with string size 512 bytes. Cache key: test-key. Will be cleaned up in 30 seconds.");
 
         // When & Then
@@ -46,6 +67,31 @@ class MemorySimulationControllerTest {
                 .andExpect(jsonPath("$.message").value("Generated and cached 100 employees with string size 512 bytes. Cache key: test-key. Will be cleaned up in 30 seconds."));
     }
 
+    @Test
+    void testGenerateAndCacheRejectsUnknownRepresentation() throws Exception {
+        mockMvc.perform(post("/api/memory/cache")
+                        .param("cacheKey", "test-key")
+                        .param("representation", "graph")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testCalibrateReportsEstimatorError() throws Exception {
+        MemorySimulationService.CalibrationResult result = new MemorySimulationService.CalibrationResult(
+                "light", "objects", 100, 1024, Arrays.asList(110_000L, 100_000L, 105_000L), 105_000L, 115_500L,
+                ObjectLayout.current());
+        when(memorySimulationService.calibrate("light", 3, MemorySimulationService.Representation.OBJECTS))
+                .thenReturn(result);
+
+        mockMvc.perform(post("/api/memory/calibrate/light"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.medianMeasuredBytes").value(105000))
+                .andExpect(jsonPath("$.estimatedBytes").value(115500))
+                .andExpect(jsonPath("$.errorPercentage").value(10.0))
+                .andExpect(jsonPath("$.layout.referenceSize").exists());
+    }
+
     @Test
     void testForceGarbageCollection() throws Exception {
         // Given
@@ -0,0 +1,69 @@
+package com.loadtesting.controller.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.loadtesting.config.EmployeeDataProperties;
+import com.loadtesting.service.EmployeeDataService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the reactive employee endpoints return the same JSON as the servlet endpoints.
+ */
+class ReactiveEmployeeControllerTest {
+
+    private ObjectMapper objectMapper;
+    private EmployeeDataService employeeDataService;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        employeeDataService = new EmployeeDataService(new EmployeeDataProperties());
+        webTestClient = WebTestClient.bindToController(new ReactiveEmployeeController(employeeDataService))
+                .httpMessageCodecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(
+                        new Jackson2JsonEncoder(objectMapper, MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON)))
+                .build();
+    }
+
+    @Test
+    void testSeededEmployeesMatchServletJson() throws Exception {
+        String expected = objectMapper.writeValueAsString(employeeDataService.generateEmployees(5, 200, 42L));
+
+        String body = webTestClient.get().uri("/api/employees?count=5&memorySize=200&seed=42")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertEquals(objectMapper.readTree(expected), objectMapper.readTree(body));
+    }
+
+    @Test
+    void testStreamWritesNdjson() {
+        String body = webTestClient.get().uri("/api/employees/stream?count=3&memorySize=50&format=ndjson&seed=7")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1"));
+    }
+
+    @Test
+    void testStreamRejectsUnknownFormat() {
+        webTestClient.get().uri("/api/employees/stream?format=xml")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
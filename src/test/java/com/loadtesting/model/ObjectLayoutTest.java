@@ -0,0 +1,34 @@
+package com.loadtesting.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the G1 humongous object thresholds of the object layout.
+ */
+class ObjectLayoutTest {
+
+    private static final long REGION = 4 * 1024 * 1024;
+
+    private final ObjectLayout g1 = new ObjectLayout(true, true, true, 8, REGION);
+
+    @Test
+    void testObjectsOfExactlyHalfARegionAreNotHumongous() {
+        assertFalse(g1.isHumongous(REGION / 2));
+        assertEquals(0, g1.humongousRegions(REGION / 2));
+
+        assertTrue(g1.isHumongous(REGION / 2 + 1));
+        assertEquals(1, g1.humongousRegions(REGION / 2 + 1));
+        assertEquals(1, g1.humongousRegions(REGION));
+        assertEquals(2, g1.humongousRegions(REGION + 1));
+    }
+
+    @Test
+    void testNothingIsHumongousWithoutG1() {
+        ObjectLayout other = new ObjectLayout(true, true, true, 8, 0);
+
+        assertFalse(other.isHumongous(Long.MAX_VALUE / 2));
+        assertEquals(0, other.humongousRegions(REGION * 8));
+    }
+}
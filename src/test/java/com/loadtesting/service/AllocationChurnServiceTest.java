@@ -0,0 +1,111 @@
+package com.loadtesting.service;
+
+import com.loadtesting.config.MemorySimulationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the allocation churn workers.
+ */
+class AllocationChurnServiceTest {
+
+    private final JvmMemoryMonitor jvmMemoryMonitor = new JvmMemoryMonitor();
+    private final AllocationChurnService allocationChurnService = new AllocationChurnService(
+            new MemorySimulationProperties(), jvmMemoryMonitor, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        allocationChurnService.shutdown();
+        jvmMemoryMonitor.shutdown();
+    }
+
+    @Test
+    void testAchievedRateFollowsTarget() throws InterruptedException {
+        AllocationChurnService.ChurnProfile profile = profile(50);
+        allocationChurnService.start(profile);
+        Thread.sleep(2000);
+
+        AllocationChurnService.ChurnStatus status = allocationChurnService.getStatus();
+
+        assertTrue(status.isRunning());
+        // Paced on measured allocation: close to 50 MB/s, never far above it
+        assertTrue(status.getAchievedMbPerSecond() > 25, "achieved " + status.getAchievedMbPerSecond());
+        assertTrue(status.getAchievedMbPerSecond() < 60, "achieved " + status.getAchievedMbPerSecond());
+        assertTrue(status.getRetainedBytes() > 0);
+        assertTrue(status.getGcTimeRatio() >= 0);
+    }
+
+    @Test
+    void testRateChangesInPlaceAndStopReleasesRetainedObjects() throws InterruptedException {
+        allocationChurnService.start(profile(20));
+        Thread.sleep(500);
+        AllocationChurnService.ChurnStatus changed = allocationChurnService.start(profile(40));
+        assertEquals(40, changed.getProfile().getRateMbPerSecond());
+
+        Thread.sleep(500);
+        AllocationChurnService.ChurnStatus stopped = allocationChurnService.stop();
+
+        assertTrue(stopped.getAllocatedBytes() > 0);
+        assertFalse(allocationChurnService.getStatus().isRunning());
+        assertEquals(0, allocationChurnService.getStatus().getRetainedBytes());
+    }
+
+    @Test
+    void testInvalidProfilesAreRejected() {
+        AllocationChurnService.ChurnProfile profile = profile(0);
+        assertThrows(IllegalArgumentException.class, () -> allocationChurnService.start(profile));
+
+        AllocationChurnService.ChurnProfile lifetimes = profile(10);
+        lifetimes.setSurvivorRatio(0.6);
+        lifetimes.setTenuredRatio(0.6);
+        assertThrows(IllegalArgumentException.class, () -> allocationChurnService.start(lifetimes));
+        assertFalse(allocationChurnService.getStatus().isRunning());
+    }
+
+    @Test
+    void testNewLifetimesApplyToRetainedObjects() {
+        AllocationChurnService.Retention retention = new AllocationChurnService.Retention();
+        AllocationChurnService.ChurnProfile longLived = profile(10);
+        longLived.setTenuredSeconds(60);
+        longLived.setSurvivorGcs(10);
+        long retained = retention.tenure(new byte[100], 0, 0, longLived);
+        retained += retention.survive(new byte[100], 0, 0, longLived);
+
+        AllocationChurnService.ChurnProfile shortLived = profile(10);
+        shortLived.setTenuredSeconds(1);
+        shortLived.setSurvivorGcs(1);
+        retention.rebuild(shortLived);
+        // Born after the rebuild, with the new lifetimes: behind the older objects in both deques
+        retained += retention.tenure(new byte[100], TimeUnit.SECONDS.toNanos(1), 0, shortLived);
+
+        assertEquals(0, retention.release(0, TimeUnit.SECONDS.toNanos(1) - 1, Long.MAX_VALUE));
+        assertEquals(retained, retention.release(1, TimeUnit.SECONDS.toNanos(2), Long.MAX_VALUE));
+        assertEquals(0, retention.getBytes());
+    }
+
+    @Test
+    void testRetainedBytesCapEvictsTheOldestOfEitherKind() {
+        AllocationChurnService.Retention retention = new AllocationChurnService.Retention();
+        AllocationChurnService.ChurnProfile profile = profile(10);
+        long survivor = retention.survive(new byte[100], 0, 0, profile);
+        long tenured = retention.tenure(new byte[100], 1, 0, profile);
+
+        // Over the cap by one object: the survivor was born first, so it goes
+        assertEquals(survivor, retention.release(0, 2, tenured));
+        assertEquals(tenured, retention.getBytes());
+    }
+
+    private static AllocationChurnService.ChurnProfile profile(double rateMbPerSecond) {
+        AllocationChurnService.ChurnProfile profile = new AllocationChurnService.ChurnProfile();
+        profile.setRateMbPerSecond(rateMbPerSecond);
+        profile.setThreads(2);
+        profile.setTenuredRatio(0.05);
+        profile.setMaxRetainedBytes(16 * 1024 * 1024);
+        return profile;
+    }
+}
@@ -0,0 +1,137 @@
+package com.loadtesting.service;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the capacity search against a stub server with a known capacity.
+ */
+class CapacitySearchServiceTest {
+
+    private StubServer server;
+    private JvmMemoryMonitor jvmMemoryMonitor;
+    private LoadDriverService loadDriverService;
+    private CapacitySearchService capacitySearchService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // /serial handles one request at a time in 50 ms: about 20 requests/second
+        server = new StubServer(8).serial("/serial", 50).start();
+        jvmMemoryMonitor = new JvmMemoryMonitor();
+        loadDriverService = new LoadDriverService(server.environment(), jvmMemoryMonitor);
+        capacitySearchService = new CapacitySearchService(loadDriverService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        capacitySearchService.shutdown();
+        loadDriverService.shutdown();
+        jvmMemoryMonitor.shutdown();
+        server.stop();
+    }
+
+    @Test
+    void testSearchFindsCapacityOfSerialEndpoint() {
+        CapacitySearchService.CapacitySearchRequest request = request("/serial");
+        request.setMaxRate(128);
+        request.setP95Ms(150);
+        request.setP99Ms(300);
+        CapacitySearchService.CapacitySearch progress = new CapacitySearchService.CapacitySearch("test", request);
+
+        CapacitySearchService.CapacityResult result = capacitySearchService.search(request, progress, () -> false);
+
+        // Only the upper bound is physical: above ~30 rps the queue grows by over half a second per
+        // 1 s step, far past the p95 limit, however fast or slow the machine is
+        assertTrue(result.getSustainableRate() >= request.getMinRate() && result.getSustainableRate() <= 32,
+                "sustainable rate was " + result.getSustainableRate());
+        assertFalse(result.isMaxRateReached());
+        assertTrue(progress.getSteps().stream().anyMatch(step -> step.isPassed()
+                && step.getRate() == result.getSustainableRate()));
+        assertTrue(progress.getSteps().stream().anyMatch(step -> !step.isPassed()
+                && step.getRate() > result.getSustainableRate()));
+        assertFalse(result.getLimitedBy().isEmpty());
+        assertNotNull(result.getReportAtSustainableRate());
+        // Doubling phase plus at least one bisection step
+        assertTrue(progress.getSteps().size() > 3);
+        assertTrue(progress.getSteps().stream().anyMatch(step -> !step.isPassed()));
+    }
+
+    @Test
+    void testSearchStopsAtMaxRate() {
+        CapacitySearchService.CapacitySearchRequest request = request("/ok");
+        request.setMaxRate(4);
+        CapacitySearchService.CapacitySearch progress = new CapacitySearchService.CapacitySearch("test", request);
+
+        CapacitySearchService.CapacityResult result = capacitySearchService.search(request, progress, () -> false);
+
+        assertEquals(4, result.getSustainableRate());
+        assertTrue(result.isMaxRateReached());
+        assertEquals(List.of(2.0, 4.0), progress.getSteps().stream().map(CapacitySearchService.Step::getRate).toList());
+    }
+
+    @Test
+    void testDoublingStopsAtTheStepLimit() {
+        CapacitySearchService.CapacitySearchRequest request = request("/ok");
+        request.setMinRate(1);
+        request.setMaxRate(100_000);
+        request.setMaxSteps(3);
+        request.setWarmupSeconds(0);
+        CapacitySearchService.CapacitySearch progress = new CapacitySearchService.CapacitySearch("test", request);
+
+        CapacitySearchService.CapacityResult result = capacitySearchService.search(request, progress, () -> false);
+
+        assertEquals(List.of(1.0, 2.0, 4.0), progress.getSteps().stream().map(CapacitySearchService.Step::getRate).toList());
+        assertEquals(4, result.getSustainableRate());
+        // The steps ran out long before maxRate, so the ceiling is unknown rather than above maxRate
+        assertFalse(result.isMaxRateReached());
+    }
+
+    @Test
+    void testSearchAndLoadRunsShareTheDriver() {
+        CapacitySearchService.CapacitySearchRequest request = request("/ok");
+        request.setMaxRate(2);
+        request.setStepDurationSeconds(3);
+        capacitySearchService.start(request);
+
+        assertThrows(IllegalStateException.class,
+                () -> loadDriverService.start(LoadDriverService.LoadPlan.constant("/ok", 1, 1)));
+        assertThrows(IllegalStateException.class, () -> capacitySearchService.start(request));
+    }
+
+    @Test
+    void testOldGenLimitOnlyAppliesWhenTheStepCollected() {
+        CapacitySearchService.CapacitySearchRequest request = request("/ok");
+        request.setMaxHeapAfterGcRatio(0.5);
+
+        assertTrue(CapacitySearchService.violations(request, report(0)).isEmpty());
+        assertEquals(1, CapacitySearchService.violations(request, report(1)).size());
+    }
+
+    private static LoadDriverService.LoadReport report(long gcCount) {
+        LoadDriverService.LatencySummary latency = LoadDriverService.LatencySummary.of(new ConcurrentHistogram(3));
+        // Old gen after the last GC at 90% of the heap
+        LoadDriverService.ResourceUsage resources =
+                new LoadDriverService.ResourceUsage(0, 0, 0, 900, 1000, 0, 0, gcCount, 0, 0);
+        return new LoadDriverService.LoadReport("constant", 1000, 1000, false, 10, 10, 10, 0, 0, 10, 0,
+                Map.of("200", 10L), latency, latency, resources);
+    }
+
+    private static CapacitySearchService.CapacitySearchRequest request(String path) {
+        CapacitySearchService.CapacitySearchRequest request = new CapacitySearchService.CapacitySearchRequest();
+        request.setTargets(List.of(new LoadDriverService.LoadPlan.Target("GET", path, 1)));
+        request.setMinRate(2);
+        request.setStepDurationSeconds(1);
+        request.setWarmupSeconds(1);
+        request.setCooldownSeconds(0);
+        request.setPrecision(0.2);
+        return request;
+    }
+}
@@ -0,0 +1,67 @@
+package com.loadtesting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the CPU workload kernels and their timing.
+ */
+class CpuWorkloadServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CpuWorkloadService cpuWorkloadService = new CpuWorkloadService(new ObjectMapper(), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        cpuWorkloadService.shutdown();
+    }
+
+    @Test
+    void testEveryKernelProducesSeededResult() {
+        for (CpuWorkloadService.Kernel kernel : CpuWorkloadService.Kernel.values()) {
+            CpuWorkloadService.CpuWorkloadResult first = cpuWorkloadService.run(kernel, 20, 1, 42L);
+            CpuWorkloadService.CpuWorkloadResult second = cpuWorkloadService.run(kernel, 20, 1, 42L);
+
+            assertEquals(first.getResult(), second.getResult(), kernel.name());
+            assertNotEquals(0.0, first.getResult(), kernel.name());
+            assertEquals(1, first.getParallelism());
+        }
+    }
+
+    @Test
+    void testTrigKernelMatchesOriginalLoop() {
+        double expected = 0;
+        for (int i = 0; i < 1000; i++) {
+            expected += Math.sqrt(i) * Math.sin(i) * Math.cos(i);
+        }
+
+        assertEquals(expected, cpuWorkloadService.run(CpuWorkloadService.Kernel.TRIG, 1000, 1, null).getResult());
+        assertEquals(expected, cpuWorkloadService.run(CpuWorkloadService.Kernel.TRIG, 1000, 2, null).getResult(), 1e-6);
+    }
+
+    @Test
+    void testParallelismIsCappedAndTimed() {
+        int requested = cpuWorkloadService.getMaxParallelism() + 4;
+        CpuWorkloadService.CpuWorkloadResult result =
+                cpuWorkloadService.run(CpuWorkloadService.Kernel.MATRIX, 200, requested, 7L);
+
+        assertEquals(cpuWorkloadService.getMaxParallelism(), result.getParallelism());
+        assertTrue(result.getWallNanos() > 0);
+        assertTrue(result.getCpuNanos() > 0);
+        assertEquals(1, meterRegistry.get("cpu.workload.wall").tag("kernel", "matrix").timer().count());
+    }
+
+    @Test
+    void testInvalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CpuWorkloadService.Kernel.fromParameter("fft"));
+        assertThrows(IllegalArgumentException.class,
+                () -> cpuWorkloadService.run(CpuWorkloadService.Kernel.SORT, -1, 1, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> cpuWorkloadService.run(CpuWorkloadService.Kernel.SORT, 10, 0, null));
+        assertEquals(CpuWorkloadService.Kernel.JSON, CpuWorkloadService.Kernel.fromParameter("Json"));
+    }
+}
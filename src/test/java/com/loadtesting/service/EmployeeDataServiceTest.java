@@ -1,10 +1,16 @@
 package com.loadtesting.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.loadtesting.config.EmployeeDataProperties;
 import com.loadtesting.model.Employee;
+import com.loadtesting.model.EmployeeBatch;
+import com.loadtesting.model.ObjectLayout;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -114,6 +120,156 @@ class EmployeeDataServiceTest {
         }
     }
     
+    @Test
+    void testStreamEmployeesRespectsLimits() {
+        List<Employee> employees = employeeDataService
+                .streamEmployees(properties.getMaxCount() + 50, properties.getMaxStringSize() + 1000)
+                .toList();
+        
+        assertEquals(properties.getMaxCount(), employees.size());
+        assertEquals(1L, employees.get(0).getId());
+        assertEquals((long) properties.getMaxCount(), employees.get(employees.size() - 1).getId());
+        for (Employee employee : employees) {
+            assertEquals(properties.getMaxStringSize(), employee.getConfigurableData().length());
+        }
+    }
+    
+    @Test
+    void testSeededGenerationIsReproducible() {
+        List<Employee> first = employeeDataService.generateEmployees(20, 300, 42L);
+        List<Employee> second = employeeDataService.generateEmployees(20, 300, 42L);
+        List<Employee> otherSeed = employeeDataService.generateEmployees(20, 300, 43L);
+        
+        assertEquals(first, second);
+        assertNotEquals(first, otherSeed);
+        
+        // Streaming and single-employee generation must produce the same data for the same seed
+        assertEquals(first, employeeDataService.streamEmployees(20, 300, 42L).toList());
+        assertEquals(first.get(7), employeeDataService.generateSingleEmployee(8L, 300, 42L));
+    }
+    
+    @Test
+    void testFixedProfileMatchesPlainStringSize() {
+        List<Employee> plain = employeeDataService.generateEmployees(20, 300, 42L);
+    
+        assertEquals(plain, employeeDataService.generateEmployees(20, PayloadProfile.fixed(300), 42L, null));
+        assertEquals(plain, employeeDataService.streamEmployees(20, PayloadProfile.fixed(300), 42L).toList());
+    }
+    
+    @Test
+    void testChunkedPayloadsSplitIntoStringsOfAtMostChunkSize() {
+        employeeDataService.getPayloadSizes().reset();
+        List<Employee> employees = employeeDataService.generateEmployees(5, PayloadProfile.fixed(950, 400), 42L, null);
+    
+        for (Employee employee : employees) {
+            assertNull(employee.getConfigurableData());
+            List<String> chunks = employee.getConfigurableChunks();
+            assertEquals(List.of(400, 400, 150), chunks.stream().map(String::length).toList());
+        }
+        assertEquals(15, employeeDataService.getPayloadSizes().snapshot().getArrays());
+        assertEquals(950, employeeDataService.getDataStats(employees).getAvgStringSize());
+    }
+
+    @Test
+    void testTwoChunksAreSizedWithoutAnElementArray() {
+        ObjectLayout layout = ObjectLayout.current();
+        Employee employee = employeeDataService.generateEmployees(1, PayloadProfile.fixed(600, 400), 42L, null).get(0);
+        List<String> chunks = employee.getConfigurableChunks();
+
+        // List.of keeps one or two elements in fields (List12), three or more in an array (ListN)
+        assertEquals(2, chunks.size());
+        long strings = layout.stringSize(400, layout.isCompactStrings()) + layout.stringSize(200, layout.isCompactStrings());
+        assertEquals(layout.objectSize(2, 0) + strings, employee.payloadSize(layout));
+        assertEquals(layout.objectSize(2, 0) + strings, Employee.chunksSize(layout, chunks));
+    }
+
+    @Test
+    void testConfigurableDataIsAlphanumericWithExactLength() {
+        for (int size : new int[] {10, 63, 64, 65, 1000}) {
+            Employee employee = employeeDataService.generateSingleEmployee(1L, size);
+            
+            assertEquals(size, employee.getConfigurableData().length());
+            assertTrue(employee.getConfigurableData().matches("[A-Za-z0-9]+"));
+        }
+    }
+    
+    @Test
+    void testParallelGenerationKeepsIdsOrderedAndMatchesSequential() {
+        properties.setMaxCount(1000);
+        properties.setParallelThreshold(100);
+        properties.setParallelPoolSize(4);
+        EmployeeDataService parallelService = new EmployeeDataService(properties);
+        try {
+            List<Employee> parallel = parallelService.generateEmployees(500, 50, 7L, 4);
+            List<Employee> sequential = parallelService.generateEmployees(500, 50, 7L, 1);
+            
+            assertEquals(500, parallel.size());
+            for (int i = 0; i < parallel.size(); i++) {
+                assertEquals(i + 1L, parallel.get(i).getId());
+            }
+            assertEquals(sequential, parallel);
+            assertEquals(sequential.getClass(), parallel.getClass());
+            
+            // Parallelism is capped by the pool size
+            assertEquals(4, parallelService.normalizeParallelism(64));
+            assertEquals(1, parallelService.normalizeParallelism(0));
+        } finally {
+            parallelService.shutdown();
+        }
+    }
+    
+    @Test
+    void testFilteredGenerationMatchesGenerateThenFilter() {
+        List<Employee> all = employeeDataService.generateEmployees(100, 50, 11L);
+        List<Employee> expected = all.stream()
+                .filter(emp -> emp.getDepartment().equalsIgnoreCase("engineering"))
+                .toList();
+        
+        List<Employee> filtered = employeeDataService.generateFilteredEmployees(
+                100, 50, 11L, EmployeeDataService.AttributeFilter.department("engineering"));
+        
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, filtered);
+    }
+    
+    @Test
+    void testExactModeReturnsCountMatches() {
+        List<Employee> managers = employeeDataService.generateEmployeesWithAttributes(
+                30, 50, null, EmployeeDataService.AttributeFilter.position("MANAGER"));
+        
+        assertEquals(30, managers.size());
+        for (int i = 0; i < managers.size(); i++) {
+            assertEquals(i + 1L, managers.get(i).getId());
+            assertEquals("Manager", managers.get(i).getPosition());
+        }
+        
+        // Values that do not exist in the sample data can never match
+        assertTrue(employeeDataService.generateEmployeesWithAttributes(
+                30, 50, null, EmployeeDataService.AttributeFilter.department("Astronautics")).isEmpty());
+    }
+    
+    @Test
+    void testSeededBatchMatchesEmployeeListAndJson() throws Exception {
+        List<Employee> employees = employeeDataService.generateEmployees(25, 300, 99L);
+        EmployeeBatch batch = employeeDataService.generateBatch(25, 300, 99L);
+        
+        assertEquals(employees, batch.toEmployees());
+        
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        // Byte output exercises the raw UTF-8 path, String output the character path
+        assertArrayEquals(objectMapper.writeValueAsBytes(employees), objectMapper.writeValueAsBytes(batch));
+        assertEquals(objectMapper.writeValueAsString(employees), objectMapper.writeValueAsString(batch));
+    }
+    
+    @Test
+    void testBatchFootprintIsSmallerThanObjectGraph() {
+        EmployeeBatch batch = employeeDataService.generateBatch(100, 10, 1L);
+        
+        // Per-employee overhead of the columnar layout is a few dozen bytes, plus the data itself
+        assertTrue(batch.getFootprintBytes() < 100 * (10 + 64));
+    }
+    
     @Test
     void testGenerateSingleEmployee() {
         Long testId = 42L;
@@ -179,9 +335,16 @@ class EmployeeDataServiceTest {
     
     @Test
     void testMemoryConsumptionScaling() {
-        // Test that larger string sizes result in proportionally larger memory consumption
+        // Test that larger string sizes result in proportionally larger memory consumption.
+        // The large list holds the same employees with longer data, so only the data differs
         List<Employee> smallDataEmployees = employeeDataService.generateEmployees(10, 100);
-        List<Employee> largeDataEmployees = employeeDataService.generateEmployees(10, 1000);
+        List<Employee> largeDataEmployees = new ArrayList<>();
+        for (Employee employee : smallDataEmployees) {
+            Employee large = new Employee(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                    employee.getEmail(), employee.getPosition(), employee.getDepartment(), employee.getSalary(),
+                    employee.getHireDate(), employee.getConfigurableData().repeat(10));
+            largeDataEmployees.add(large);
+        }
         
         long smallMemory = employeeDataService.calculateTotalMemoryConsumption(smallDataEmployees);
         long largeMemory = employeeDataService.calculateTotalMemoryConsumption(largeDataEmployees);
@@ -189,8 +352,35 @@ class EmployeeDataServiceTest {
         // Large data should consume significantly more memory
         assertTrue(largeMemory > smallMemory);
         
-        // The ratio should be roughly proportional to string size ratio (with some base overhead)
-        double memoryRatio = (double) largeMemory / smallMemory;
-        assertTrue(memoryRatio > 5); // Should be much larger, though not exactly 10x due to base overhead
+        // The difference is the extra configurable data: one byte per character with compact strings
+        // (two without), give or take alignment padding
+        int bytesPerChar = ObjectLayout.current().isCompactStrings() ? 1 : 2;
+        long expectedDifference = 10L * 900 * bytesPerChar;
+        assertTrue(Math.abs((largeMemory - smallMemory) - expectedDifference) <= 10L * 8);
+    }
+    
+    @Test
+    void testApproximateMemorySizeFollowsObjectLayout() {
+        ObjectLayout layout = ObjectLayout.current();
+        Employee employee = new Employee(1000L, "John", "Smith", "john.smith@company.com",
+                "Manager", "Sales", 50000.0, LocalDate.of(2020, 1, 1), "a".repeat(100));
+        
+        long expected = Employee.shallowSize(layout) + 2 * layout.boxedLongSize() + layout.localDateSize()
+                + layout.stringSize(4, true) + layout.stringSize(5, true) + layout.stringSize(22, true)
+                + layout.stringSize(7, true) + layout.stringSize(5, true) + layout.stringSize(100, true);
+        
+        if (layout.isCompactStrings()) {
+            assertEquals(expected, employee.getApproximateMemorySize());
+        }
+        // Generated payloads are known to be Latin-1 and give the same size without being scanned
+        Employee generated = employeeDataService.generateSingleEmployee(7L, 500, 42L);
+        Employee copy = new Employee(generated.getId(), generated.getFirstName(), generated.getLastName(),
+                generated.getEmail(), generated.getPosition(), generated.getDepartment(), generated.getSalary(),
+                generated.getHireDate(), generated.getConfigurableData());
+        assertEquals(copy.getApproximateMemorySize(), generated.getApproximateMemorySize());
+        
+        // A non-Latin-1 character forces the UTF-16 coder for that string
+        employee.setConfigurableData("\u20ac".repeat(100));
+        assertEquals(layout.stringSize(100, false), layout.stringSize(employee.getConfigurableData()));
     }
 }
@@ -0,0 +1,61 @@
+package com.loadtesting.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for execution mode selection and thread diagnostics.
+ */
+class ExecutionModeServiceTest {
+
+    @Test
+    void testPlatformModeByDefault() throws Exception {
+        ExecutionModeService service = new ExecutionModeService(new MockEnvironment(), new SimpleMeterRegistry());
+
+        assertFalse(service.isVirtualRequested());
+        assertFalse(service.isVirtualActive());
+        assertEquals("platform", service.getInfo().getMode());
+        assertEquals("worker-1", runOn(service, "worker"));
+    }
+
+    @Test
+    void testVirtualModeFailsFastWhereUnsupported() throws Exception {
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true");
+        if (Runtime.version().feature() < 21) {
+            assertThrows(IllegalStateException.class,
+                    () -> new ExecutionModeService(environment, new SimpleMeterRegistry()));
+            return;
+        }
+
+        ExecutionModeService service = new ExecutionModeService(environment, new SimpleMeterRegistry());
+        try {
+            assertTrue(service.isVirtualRequested());
+            assertTrue(service.isVirtualActive());
+            assertEquals("worker-1", runOn(service, "worker"));
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void testReportsThreadResources() {
+        ExecutionModeService.ExecutionModeInfo info =
+                new ExecutionModeService(new MockEnvironment(), new SimpleMeterRegistry()).getInfo();
+
+        assertTrue(info.getPlatformThreads() > 0);
+        assertTrue(info.getThreadStackSizeBytes() > 0);
+        assertEquals(0, info.getPinnedEvents());
+    }
+
+    private static String runOn(ExecutionModeService service, String name) throws Exception {
+        CompletableFuture<String> threadName = new CompletableFuture<>();
+        service.threadFactory(name).newThread(() -> threadName.complete(Thread.currentThread().getName())).start();
+        return threadName.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,89 @@
+package com.loadtesting.service;
+
+import com.loadtesting.config.EmployeeDataProperties;
+import com.loadtesting.config.MemorySimulationProperties;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Flight Recorder control service and the custom events.
+ */
+class FlightRecorderServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private FlightRecorderService flightRecorderService;
+    private EmployeeDataService employeeDataService;
+
+    @BeforeEach
+    void setUp() {
+        MemorySimulationProperties properties = new MemorySimulationProperties();
+        properties.getFlightRecorder().setDirectory(directory.toString());
+        flightRecorderService = new FlightRecorderService(properties);
+        employeeDataService = new EmployeeDataService(new EmployeeDataProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        flightRecorderService.shutdown();
+        employeeDataService.shutdown();
+    }
+
+    @Test
+    void testRecordingCapturesGenerationEvents() throws Exception {
+        flightRecorderService.start("unit-test", "default", null);
+        assertEquals(1, flightRecorderService.list().size());
+        assertEquals("running", flightRecorderService.list().get(0).getState());
+
+        employeeDataService.generateEmployees(25, 64, 42L);
+        FlightRecorderService.RecordingInfo info = flightRecorderService.stop("unit-test");
+
+        Path file = Path.of(info.getFile());
+        assertTrue(Files.size(file) > 0);
+        assertTrue(flightRecorderService.list().isEmpty());
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("com.loadtesting.EmployeeGeneration"))
+                .toList();
+        assertFalse(events.isEmpty());
+        RecordedEvent event = events.get(0);
+        assertEquals(25, event.getInt("count"));
+        assertEquals(64, event.getInt("stringSize"));
+        assertTrue(event.getBoolean("seeded"));
+
+        // The final dump stays downloadable after the recording is released
+        assertEquals(file, flightRecorderService.dump("unit-test"));
+    }
+
+    @Test
+    void testDumpWhileRunning() throws Exception {
+        flightRecorderService.start("snapshot", "default", null);
+
+        Path dump = flightRecorderService.dump("snapshot");
+
+        assertTrue(Files.size(dump) > 0);
+        assertEquals("running", flightRecorderService.list().get(0).getState());
+    }
+
+    @Test
+    void testInvalidRequestsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> flightRecorderService.start("../escape", "default", null));
+        assertThrows(IllegalArgumentException.class, () -> flightRecorderService.start("run", "no-such-settings", null));
+        assertThrows(IllegalArgumentException.class, () -> flightRecorderService.stop("missing"));
+        assertThrows(IllegalArgumentException.class, () -> flightRecorderService.dump("missing"));
+
+        flightRecorderService.start("run", "default", null);
+        assertThrows(IllegalStateException.class, () -> flightRecorderService.start("run", "profile", null));
+    }
+}
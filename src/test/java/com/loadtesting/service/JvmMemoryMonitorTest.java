@@ -0,0 +1,110 @@
+package com.loadtesting.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the JVM memory and GC statistics.
+ */
+class JvmMemoryMonitorTest {
+
+    private final JvmMemoryMonitor jvmMemoryMonitor = new JvmMemoryMonitor();
+
+    @AfterEach
+    void tearDown() {
+        jvmMemoryMonitor.shutdown();
+    }
+
+    @Test
+    void testPoolsAndCollectorsAreReported() {
+        JvmMemoryMonitor.JvmMemoryStats stats = jvmMemoryMonitor.getStats();
+
+        assertTrue(stats.getHeapUsedBytes() > 0);
+        assertFalse(stats.getPools().isEmpty());
+        assertFalse(stats.getCollectors().isEmpty());
+        assertTrue(stats.getPools().stream().anyMatch(pool -> pool.getCategory().equals("eden")));
+        assertTrue(stats.getPools().stream().anyMatch(pool -> pool.getCategory().equals("metaspace")));
+        assertNotNull(stats.getNativeMemory());
+    }
+
+    @Test
+    void testCollectionIsObservedAndAllocationCounted() throws InterruptedException {
+        allocate();
+        JvmMemoryMonitor.CollectionResult result = JvmMemoryMonitor.collect();
+        // Notifications are delivered asynchronously
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        JvmMemoryMonitor.JvmMemoryStats stats = jvmMemoryMonitor.getStats();
+        while (totalPauses(stats) == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            stats = jvmMemoryMonitor.getStats();
+        }
+        // Every poll is a rate sample; allocate again so the rate window is not empty
+        allocate();
+        stats = jvmMemoryMonitor.getStats();
+
+        assertTrue(result.isCollected());
+        assertTrue(result.getAfterBytes() > 0);
+        assertEquals(Math.max(0, result.getBeforeBytes() - result.getAfterBytes()), result.getFreedBytes());
+        assertTrue(totalPauses(stats) > 0);
+        assertTrue(stats.getAllocatedBytes() > 0);
+        assertTrue(stats.getAllocationRateBytesPerSecond() > 0);
+        assertTrue(stats.getLiveSetAfterFullGcBytes() >= 0);
+    }
+
+    @Test
+    void testNativeMemorySummaryIsParsed() {
+        String output = """
+                Native Memory Tracking:
+
+                Total: reserved=1461232KB, committed=160904KB
+                -                 Java Heap (reserved=262144KB, committed=49152KB)
+                                            (mmap: reserved=262144KB, committed=49152KB)
+
+                -                     Class (reserved=1056906KB, committed=6154KB)
+                                            (classes #8234)
+                -                    Thread (reserved=24678KB, committed=1130KB)
+                """;
+
+        JvmMemoryMonitor.NativeMemorySummary summary = JvmMemoryMonitor.parseNativeMemory(output);
+
+        assertTrue(summary.isEnabled());
+        assertEquals(1461232L * 1024, summary.getReservedBytes());
+        assertEquals(160904L * 1024, summary.getCommittedBytes());
+        assertEquals(49152L * 1024, summary.getCommittedByCategory().get("Java Heap"));
+        assertEquals(3, summary.getCommittedByCategory().size());
+    }
+
+    @Test
+    void testNativeMemoryTrackingDisabled() {
+        JvmMemoryMonitor.NativeMemorySummary summary =
+                JvmMemoryMonitor.parseNativeMemory("Native memory tracking is not enabled");
+
+        assertFalse(summary.isEnabled());
+        assertTrue(summary.getCommittedByCategory().isEmpty());
+    }
+
+    @Test
+    void testConcurrentCyclesAreNotCountedAsPauses() {
+        assertTrue(JvmMemoryMonitor.isConcurrent("Shenandoah Cycles", "end of GC cycle"));
+        assertTrue(JvmMemoryMonitor.isConcurrent("ZGC Major Cycles", "end of GC cycle"));
+        assertTrue(JvmMemoryMonitor.isConcurrent("G1 Concurrent GC", "end of concurrent cycle"));
+        assertFalse(JvmMemoryMonitor.isConcurrent("Shenandoah Pauses", "end of GC pause"));
+        assertFalse(JvmMemoryMonitor.isConcurrent("G1 Young Generation", "end of minor GC"));
+    }
+
+    private static long totalPauses(JvmMemoryMonitor.JvmMemoryStats stats) {
+        return stats.getCollectors().stream().mapToLong(JvmMemoryMonitor.CollectorStats::getPauses).sum();
+    }
+
+    private static void allocate() {
+        byte[][] chunks = new byte[64][];
+        for (int i = 0; i < 512; i++) {
+            chunks[i % chunks.length] = new byte[64 * 1024];
+        }
+        assertNotNull(chunks[0]);
+    }
+}
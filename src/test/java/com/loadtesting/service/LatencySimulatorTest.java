@@ -0,0 +1,71 @@
+package com.loadtesting.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the shared-timer latency simulation.
+ */
+class LatencySimulatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LatencySimulator latencySimulator = new LatencySimulator(meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        latencySimulator.shutdown();
+    }
+
+    @Test
+    void testDelayCompletesWithoutBlockingCaller() throws Exception {
+        long start = System.nanoTime();
+        CompletableFuture<String> result = latencySimulator.delay(100, () -> Thread.currentThread().getName());
+        long callerBlockedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(callerBlockedMs < 100);
+        assertFalse(result.isDone());
+        assertEquals(1, latencySimulator.getStats().getInFlight());
+
+        String workerThread = result.get(5, TimeUnit.SECONDS);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+        assertNotEquals("latency-timer", workerThread);
+    }
+
+    @Test
+    void testManyConcurrentDelaysShareOneTimer() throws Exception {
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int value = i;
+            results.add(latencySimulator.delay(50, () -> value));
+        }
+        assertEquals(500, latencySimulator.getStats().getPeakInFlight());
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        LatencySimulator.LatencyStats stats = latencySimulator.getStats();
+        assertEquals(0, stats.getInFlight());
+        assertEquals(500, stats.getCompleted());
+        assertEquals(500, meterRegistry.get("latency.simulation.timer.lag").timer().count());
+    }
+
+    @Test
+    void testRejectedDelayFailsAndLeavesNothingInFlight() {
+        latencySimulator.shutdown();
+
+        CompletableFuture<String> result = latencySimulator.delay(100, () -> "late");
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertEquals(0, latencySimulator.getStats().getInFlight());
+    }
+}
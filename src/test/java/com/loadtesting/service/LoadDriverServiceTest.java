@@ -0,0 +1,129 @@
+package com.loadtesting.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the open-loop load driver against a local stub server.
+ */
+class LoadDriverServiceTest {
+
+    private StubServer server;
+    private JvmMemoryMonitor jvmMemoryMonitor;
+    private LoadDriverService loadDriverService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new StubServer(4).delayed("/slow", 200).serial("/serial", 100).start();
+        jvmMemoryMonitor = new JvmMemoryMonitor();
+        loadDriverService = new LoadDriverService(server.environment(), jvmMemoryMonitor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loadDriverService.shutdown();
+        jvmMemoryMonitor.shutdown();
+        server.stop();
+    }
+
+    @Test
+    void testConstantRateSendsScheduledRequests() {
+        LoadDriverService.LoadReport report = loadDriverService.execute(
+                LoadDriverService.LoadPlan.constant("/ok", 50, 1), () -> false);
+
+        assertEquals(50, report.getScheduled());
+        assertEquals(50, report.getCompleted());
+        assertEquals(0, report.getErrors());
+        assertEquals(50L, report.getOutcomes().get("200"));
+        assertEquals(50, report.getResponseTime().getCount());
+        assertTrue(report.getResponseTime().getP50Ms() > 0);
+        assertTrue(report.getResponseTime().getP9999Ms() >= report.getResponseTime().getP99Ms());
+        assertTrue(report.getResources().getHeapUsedPeakBytes() > 0);
+    }
+
+    @Test
+    void testLatencyIsCorrectedForCoordinatedOmission() {
+        // 10 requests/second of capacity offered 20 requests/second: requests queue behind each other
+        LoadDriverService.LoadPlan plan = LoadDriverService.LoadPlan.constant("/serial", 20, 1);
+
+        LoadDriverService.LoadReport report = loadDriverService.execute(plan, () -> false);
+
+        // The last requests were scheduled ~1s in but only finish ~2s in; a closed-loop client
+        // would have sent them late and hidden that wait
+        assertEquals(20, report.getCompleted());
+        assertTrue(report.getResponseTime().getMaxMs() > 800, "waiting time must be counted");
+    }
+
+    @Test
+    void testErrorsAndDroppedRequestsAreCounted() {
+        LoadDriverService.LoadPlan plan = new LoadDriverService.LoadPlan();
+        plan.setTargets(List.of(new LoadDriverService.LoadPlan.Target("GET", "/missing", 1),
+                new LoadDriverService.LoadPlan.Target("GET", "/slow", 1)));
+        plan.setExecutor("ramping");
+        plan.setStartRate(20);
+        plan.setStages(List.of(new LoadDriverService.LoadPlan.Stage(60, 1)));
+        plan.setMaxInFlight(2);
+
+        LoadDriverService.LoadReport report = loadDriverService.execute(plan, () -> false);
+
+        assertTrue(report.getScheduled() >= 35 && report.getScheduled() <= 45, "ramp from 20 to 60 rps over 1s");
+        assertTrue(report.getDropped() > 0);
+        assertTrue(report.getOutcomes().get("404") > 0);
+        assertEquals(report.getOutcomes().get("404"), report.getErrors());
+        assertEquals(report.getSent(), report.getCompleted());
+    }
+
+    @Test
+    void testRampFromZeroSchedulesTheIntegratedArrivals() {
+        LoadDriverService.LoadPlan plan = new LoadDriverService.LoadPlan();
+        plan.setTargets(List.of(new LoadDriverService.LoadPlan.Target("GET", "/ok", 1)));
+        plan.setExecutor("ramping");
+        plan.setStartRate(0);
+        plan.setStages(List.of(new LoadDriverService.LoadPlan.Stage(0, 1),
+                new LoadDriverService.LoadPlan.Stage(20, 1), new LoadDriverService.LoadPlan.Stage(20, 1)));
+
+        // None while held at 0, 10 while ramping up to 20 rps, 20 while held there
+        assertEquals(1.0, plan.offsetOf(0));
+        assertEquals(1 + Math.sqrt(0.5), plan.offsetOf(5), 1e-9);
+        assertEquals(2.0, plan.offsetOf(10), 1e-9);
+        assertEquals(2.5, plan.offsetOf(20), 1e-9);
+        assertEquals(Double.POSITIVE_INFINITY, plan.offsetOf(31));
+
+        LoadDriverService.LoadReport report = loadDriverService.execute(plan, () -> false);
+
+        assertTrue(report.getScheduled() >= 29 && report.getScheduled() <= 31, "scheduled " + report.getScheduled());
+        assertEquals(report.getScheduled(), report.getCompleted());
+    }
+
+    @Test
+    void testInvalidPlansAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> loadDriverService.start(new LoadDriverService.LoadPlan()));
+        assertThrows(IllegalArgumentException.class,
+                () -> loadDriverService.start(LoadDriverService.LoadPlan.constant("http://example.com/", 10, 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> loadDriverService.start(LoadDriverService.LoadPlan.constant("/api/load/runs", 10, 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> loadDriverService.start(LoadDriverService.LoadPlan.constant("/ok", 0, 1)));
+    }
+
+    @Test
+    void testOnlyOneRunAtATime() throws InterruptedException {
+        LoadDriverService.LoadRun run = loadDriverService.start(LoadDriverService.LoadPlan.constant("/ok", 10, 5));
+
+        assertThrows(IllegalStateException.class,
+                () -> loadDriverService.start(LoadDriverService.LoadPlan.constant("/ok", 10, 1)));
+
+        assertTrue(loadDriverService.cancel(run.getId()));
+        for (int i = 0; i < 100 && run.getReport() == null; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(LoadDriverService.LoadRun.State.CANCELLED, run.getState());
+        assertTrue(run.getReport().isCancelled());
+    }
+}
@@ -0,0 +1,174 @@
+package com.loadtesting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.loadtesting.config.EmployeeDataProperties;
+import com.loadtesting.config.MemorySimulationProperties;
+import com.loadtesting.model.ObjectLayout;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the memory retention cache statistics.
+ */
+class MemorySimulationServiceTest {
+
+    private MemorySimulationService memorySimulationService;
+    private MemorySimulationProperties memoryProperties;
+    private EmployeeDataService employeeDataService;
+    private EmployeeStreamWriter employeeStreamWriter;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        meterRegistry = new SimpleMeterRegistry();
+        memoryProperties = new MemorySimulationProperties();
+        employeeDataService = new EmployeeDataService(new EmployeeDataProperties());
+        employeeStreamWriter = new EmployeeStreamWriter(objectMapper, new PipelineMetrics(meterRegistry));
+        memorySimulationService = new MemorySimulationService(
+                employeeDataService,
+                employeeStreamWriter,
+                memoryProperties,
+                new ExecutionModeService(new MockEnvironment(), meterRegistry),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        memorySimulationService.shutdown();
+    }
+
+    @Test
+    void testStatisticsTrackPutsOverwritesAndClear() {
+        memorySimulationService.generateAndCache("a", 10, 100);
+        memorySimulationService.generateAndCache("b", 5, 100, MemorySimulationService.Representation.COLUMNAR,
+                MemorySimulationService.StorageMode.HEAP);
+
+        MemorySimulationService.MemoryCacheInfo info = memorySimulationService.getCacheInfo();
+        assertEquals(2, info.getCacheEntries());
+        assertEquals(15, info.getTotalEmployees());
+        assertTrue(info.getObjectGraphBytes() > 0);
+        assertTrue(info.getColumnarBytes() > 0);
+        assertEquals(info.getObjectGraphBytes() + info.getColumnarBytes(), info.getEstimatedMemoryBytes());
+        assertEquals(info.getEstimatedMemoryBytes(),
+                memorySimulationService.getEntrySizes().values().stream().mapToLong(Long::longValue).sum());
+
+        // Overwriting a key replaces its contribution instead of adding to it
+        memorySimulationService.generateAndCache("a", 3, 100);
+        info = memorySimulationService.getCacheInfo();
+        assertEquals(2, info.getCacheEntries());
+        assertEquals(8, info.getTotalEmployees());
+
+        memorySimulationService.clearCache();
+        info = memorySimulationService.getCacheInfo();
+        assertEquals(0, info.getCacheEntries());
+        assertEquals(0, info.getTotalEmployees());
+        assertEquals(0, info.getEstimatedMemoryBytes());
+    }
+
+    @Test
+    void testObjectAndColumnarFootprintsAreMeasuredAlike() {
+        ObjectLayout layout = ObjectLayout.current();
+        memorySimulationService.generateAndCache("objects", 50, 1000, MemorySimulationService.Representation.OBJECTS,
+                MemorySimulationService.StorageMode.HEAP);
+        memorySimulationService.generateAndCache("columnar", 50, 1000, MemorySimulationService.Representation.COLUMNAR,
+                MemorySimulationService.StorageMode.HEAP);
+
+        MemorySimulationService.MemoryCacheInfo info = memorySimulationService.getCacheInfo();
+        // Both hold the same 50 KB of configurable data under the same object layout, so they differ
+        // by per-employee object overhead only, not by header or string encoding assumptions
+        long bytesPerChar = layout.isCompactStrings() ? 1 : 2;
+        assertTrue(info.getColumnarBytes() >= 50 * 1000);
+        assertTrue(info.getObjectGraphBytes() >= 50 * 1000 * bytesPerChar);
+        assertTrue(info.getColumnarBytes() < info.getObjectGraphBytes());
+        assertTrue(info.getObjectGraphBytes() - 50 * 1000 * bytesPerChar
+                < 50 * 400 + info.getColumnarBytes() - 50 * 1000);
+    }
+
+    @Test
+    void testColumnarRepresentationNeedsHeapStorage() {
+        assertThrows(IllegalArgumentException.class, () -> memorySimulationService.generateAndCache("columnar", 4, 100,
+                MemorySimulationService.Representation.COLUMNAR, MemorySimulationService.StorageMode.DIRECT));
+        assertEquals(0, memorySimulationService.getCacheInfo().getCacheEntries());
+    }
+
+    @Test
+    void testDataThatCannotFitIsRejectedBeforeItIsGenerated() {
+        memoryProperties.getCache().setMaxBytes(50_000);
+        MemorySimulationService small = new MemorySimulationService(employeeDataService, employeeStreamWriter,
+                memoryProperties, new ExecutionModeService(new MockEnvironment(), meterRegistry), new SimpleMeterRegistry());
+        try {
+            employeeDataService.getPayloadSizes().reset();
+
+            for (MemorySimulationService.StorageMode storage : MemorySimulationService.StorageMode.values()) {
+                assertThrows(IllegalArgumentException.class, () -> small.generateAndCache("big", 100, 1000,
+                        MemorySimulationService.Representation.OBJECTS, storage));
+            }
+
+            assertEquals(0, employeeDataService.getPayloadSizes().snapshot().getArrays());
+            assertEquals(0, small.getCacheInfo().getCacheEntries());
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    @Test
+    void testStatisticsArePublishedAsGauges() {
+        memorySimulationService.generateAndCache("direct", 4, 100, MemorySimulationService.Representation.OBJECTS,
+                MemorySimulationService.StorageMode.DIRECT);
+
+        assertEquals(1.0, meterRegistry.get("memory.cache.entries").gauge().value());
+        assertEquals(4.0, meterRegistry.get("memory.cache.employees").gauge().value());
+        assertEquals(memorySimulationService.getCacheInfo().getDirectBytes(),
+                (long) meterRegistry.get("memory.cache.size").tag("footprint", "direct").gauge().value());
+        assertEquals(0.0, meterRegistry.get("memory.cache.size").tag("footprint", "objects").gauge().value());
+    }
+
+    @Test
+    void testCachedScenarioBodiesMatchStreamedOnes() throws IOException {
+        MemorySimulationProperties.Scenario scenario = new MemorySimulationProperties.Scenario();
+        scenario.setCount(40);
+        scenario.setStringSize(256);
+        scenario.getSizes().setType("log-normal");
+        scenario.getSizes().setSigma(1.5);
+        memoryProperties.getSimulation().getScenarios().put("tail", scenario);
+        PayloadCacheService cache = new PayloadCacheService(employeeDataService, employeeStreamWriter,
+                new EmployeeDataProperties(), meterRegistry);
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        employeeStreamWriter.write(memorySimulationService.streamByScenario("tail", 42L),
+                EmployeeStreamWriter.Format.NDJSON, streamed);
+        byte[] cached = cache.getEmployees("scenario/tail", scenario.getCount(),
+                memorySimulationService.payloadProfile(scenario), 42L, EmployeeStreamWriter.Format.NDJSON).getBody();
+
+        assertArrayEquals(streamed.toByteArray(), cached);
+        // A fixed profile of the same string size is a different entry with different bodies
+        assertFalse(Arrays.equals(cached, cache.getEmployees("scenario/tail", scenario.getCount(),
+                scenario.getStringSize(), 42L, EmployeeStreamWriter.Format.NDJSON).getBody()));
+        assertEquals(2, cache.getEntryCount());
+    }
+
+    @Test
+    void testColumnarCalibrationNeedsAFixedSizeScenario() {
+        MemorySimulationProperties.Scenario scenario = new MemorySimulationProperties.Scenario();
+        scenario.setCount(10);
+        scenario.setStringSize(256);
+        scenario.getSizes().setType("log-normal");
+        scenario.getSizes().setSigma(1.5);
+        memoryProperties.getSimulation().getScenarios().put("tail", scenario);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> memorySimulationService.calibrate("tail", 1, MemorySimulationService.Representation.COLUMNAR));
+    }
+}
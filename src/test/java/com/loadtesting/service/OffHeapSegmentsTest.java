@@ -0,0 +1,61 @@
+package com.loadtesting.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for off-heap segment storage (direct and memory-mapped).
+ */
+class OffHeapSegmentsTest {
+
+    @Test
+    void testDirectSegmentsSpanWritesAcrossBoundaries() throws IOException {
+        byte[] payload = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+
+        OffHeapSegments.SegmentOutputStream out = OffHeapSegments.direct(8);
+        out.write(payload);
+        OffHeapSegments segments = out.toSegments();
+
+        assertFalse(segments.isMapped());
+        assertEquals(3, segments.getSegmentCount());
+        assertEquals(20, segments.getUsedBytes());
+        assertEquals(24, segments.getCapacityBytes());
+        assertTrue(segments.getSegments().get(0).isDirect());
+        assertArrayEquals(payload, readAll(segments));
+    }
+
+    @Test
+    void testMappedSegmentsDeleteBackingFile(@TempDir Path directory) throws IOException {
+        byte[] payload = "{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.US_ASCII);
+
+        OffHeapSegments.SegmentOutputStream out = OffHeapSegments.mapped(4096, directory);
+        out.write(payload);
+        OffHeapSegments segments = out.toSegments();
+
+        assertTrue(segments.isMapped());
+        assertEquals(1, segments.getSegmentCount());
+        assertArrayEquals(payload, readAll(segments));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static byte[] readAll(OffHeapSegments segments) {
+        byte[] bytes = new byte[(int) segments.getUsedBytes()];
+        int offset = 0;
+        for (ByteBuffer segment : segments.getSegments()) {
+            int length = segment.remaining();
+            segment.get(bytes, offset, length);
+            offset += length;
+        }
+        return bytes;
+    }
+}
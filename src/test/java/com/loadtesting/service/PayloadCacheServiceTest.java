@@ -0,0 +1,128 @@
+package com.loadtesting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.loadtesting.config.EmployeeDataProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the serialized-payload cache: hits, byte-bounded LRU eviction and metrics.
+ */
+class PayloadCacheServiceTest {
+
+    private static final EmployeeStreamWriter.Format JSON = EmployeeStreamWriter.Format.JSON;
+
+    private EmployeeDataProperties properties;
+    private EmployeeDataService employeeDataService;
+    private EmployeeStreamWriter employeeStreamWriter;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EmployeeDataProperties();
+        employeeDataService = new EmployeeDataService(properties);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        meterRegistry = new SimpleMeterRegistry();
+        employeeStreamWriter = new EmployeeStreamWriter(objectMapper, new PipelineMetrics(meterRegistry));
+    }
+
+    @Test
+    void testSecondRequestIsServedFromCache() {
+        PayloadCacheService cache = newCache(1024 * 1024);
+
+        PayloadCacheService.CachedPayload first = cache.getEmployees("heavy", 5, 100, 42L, JSON);
+        PayloadCacheService.CachedPayload second = cache.getEmployees("heavy", 5, 100, 42L, JSON);
+
+        assertFalse(first.isHit());
+        assertTrue(second.isHit());
+        assertSame(first.getBody(), second.getBody());
+        assertEquals(first.getBody().length, cache.getCurrentBytes());
+        assertEquals(1.0, meterRegistry.get("payload.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("payload.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void testSeededPayloadMatchesSerializedGeneration() {
+        PayloadCacheService cache = newCache(1024 * 1024);
+
+        byte[] body = cache.getEmployees("light", 3, 50, 7L, EmployeeStreamWriter.Format.NDJSON).getBody();
+
+        String[] lines = new String(body).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[2].startsWith("{\"id\":3"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvictedWhenOverBudget() {
+        PayloadCacheService probe = newCache(Long.MAX_VALUE);
+        long entrySize = probe.getEmployees("heavy", 5, 1000, 1L, JSON).getBody().length;
+        meterRegistry = new SimpleMeterRegistry();
+
+        // Room for two entries but not three
+        PayloadCacheService cache = newCache(entrySize * 2 + entrySize / 2);
+        cache.getEmployees("heavy", 5, 1000, 1L, JSON);
+        cache.getEmployees("heavy", 5, 1000, 2L, JSON);
+        cache.getEmployees("heavy", 5, 1000, 1L, JSON); // touch seed 1 so seed 2 is eldest
+        cache.getEmployees("heavy", 5, 1000, 3L, JSON);
+
+        assertEquals(2, cache.getEntryCount());
+        assertTrue(cache.getCurrentBytes() <= cache.getMaxBytes());
+        assertTrue(cache.getEmployees("heavy", 5, 1000, 1L, JSON).isHit());
+        assertFalse(cache.getEmployees("heavy", 5, 1000, 2L, JSON).isHit());
+        assertTrue(meterRegistry.get("payload.cache.evictions").counter().count() >= 1.0);
+    }
+
+    @Test
+    void testBodiesLargerThanBudgetAreNotCached() {
+        PayloadCacheService cache = newCache(16);
+
+        PayloadCacheService.CachedPayload payload = cache.getEmployees("heavy", 5, 100, 42L, JSON);
+
+        assertEquals(0, cache.getEntryCount());
+        assertEquals(0, cache.getCurrentBytes());
+        assertTrue(payload.isOversized());
+        assertEquals("BYPASS", payload.getCacheStatus());
+        // The response is streamed from the same seeded employees instead
+        assertEquals(employeeDataService.streamEmployees(5, 100, 42L).toList(), payload.streamEmployees().toList());
+    }
+
+    @Test
+    void testSerializationStopsAtTheBudget() {
+        PayloadCacheService.BoundedOutputStream buffer = new PayloadCacheService.BoundedOutputStream(10);
+        buffer.write(new byte[10], 0, 10);
+
+        assertThrows(UncheckedIOException.class, () -> buffer.write('x'));
+        assertTrue(buffer.isOverflowed());
+        assertEquals(10, buffer.size());
+    }
+
+    @Test
+    void testCachedBodiesAreMetered() throws Exception {
+        PayloadCacheService cache = newCache(1024 * 1024);
+
+        PayloadCacheService.CachedPayload miss = cache.getEmployees("heavy", 5, 100, 42L, JSON);
+        PayloadCacheService.CachedPayload hit = cache.getEmployees("heavy", 5, 100, 42L, JSON);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        employeeStreamWriter.cached(miss, 5).writeTo(out);
+        employeeStreamWriter.cached(hit, 5).writeTo(out);
+
+        assertArrayEquals(miss.getBody(), Arrays.copyOf(out.toByteArray(), miss.getBody().length));
+        assertEquals(2, meterRegistry.get("employee.response.size").summary().count());
+        assertEquals(out.size(), meterRegistry.get("employee.response.size").summary().totalAmount());
+        assertEquals(5.0, meterRegistry.get("employee.generated").counter().count());
+    }
+
+    private PayloadCacheService newCache(long maxBytes) {
+        properties.getPayloadCache().setMaxBytes(maxBytes);
+        return new PayloadCacheService(employeeDataService, employeeStreamWriter, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,162 @@
+package com.loadtesting.service;
+
+import com.loadtesting.config.EmployeeDataProperties;
+import com.loadtesting.config.MemorySimulationProperties;
+import com.loadtesting.model.Employee;
+import com.loadtesting.model.ObjectLayout;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for payload size distributions and the payload size counts.
+ */
+class PayloadProfileTest {
+
+    private final ObjectLayout layout = ObjectLayout.current();
+
+    @Test
+    void testUniformSizesStayWithinBounds() {
+        MemorySimulationProperties.Scenario scenario = scenario("uniform", 1000);
+        scenario.getSizes().setMinSize(100);
+        scenario.getSizes().setMaxSize(200);
+        PayloadProfile profile = PayloadProfile.of(scenario, layout);
+
+        SplittableRandom random = new SplittableRandom(42);
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (int i = 0; i < 10_000; i++) {
+            int size = profile.sample(random);
+            min = Math.min(min, size);
+            max = Math.max(max, size);
+        }
+
+        assertEquals(100, min);
+        assertEquals(200, max);
+    }
+
+    @Test
+    void testLogNormalSizesHaveTheStringSizeAsMedian() {
+        MemorySimulationProperties.Scenario scenario = scenario("log-normal", 4096);
+        scenario.getSizes().setSigma(1.5);
+        scenario.getSizes().setMaxSize(65536);
+        PayloadProfile profile = PayloadProfile.of(scenario, layout);
+
+        SplittableRandom random = new SplittableRandom(42);
+        int below = 0;
+        for (int i = 0; i < 10_000; i++) {
+            int size = profile.sample(random);
+            assertTrue(size >= 1 && size <= 65536, "size " + size);
+            below += size < 4096 ? 1 : 0;
+        }
+
+        assertTrue(below > 4700 && below < 5300, "below median " + below);
+    }
+
+    @Test
+    void testBimodalDrawsLargeSizesAtTheConfiguredRatio() {
+        MemorySimulationProperties.Scenario scenario = scenario("bimodal", 512);
+        scenario.getSizes().setLargeSize(100_000);
+        scenario.getSizes().setLargeRatio(0.1);
+        PayloadProfile profile = PayloadProfile.of(scenario, layout);
+
+        SplittableRandom random = new SplittableRandom(42);
+        int large = 0;
+        for (int i = 0; i < 10_000; i++) {
+            int size = profile.sample(random);
+            assertTrue(size == 512 || size == 100_000);
+            large += size == 100_000 ? 1 : 0;
+        }
+
+        assertTrue(large > 900 && large < 1100, "large " + large);
+    }
+
+    @Test
+    void testHumongousPayloadsSpanTheRequestedRegions() {
+        MemorySimulationProperties.Scenario scenario = scenario("humongous", 512);
+        scenario.getSizes().setHumongousRegions(1.25);
+        PayloadProfile profile = PayloadProfile.of(scenario, layout);
+
+        long regionSize = layout.getG1RegionSize() > 0 ? layout.getG1RegionSize() : 1024 * 1024;
+        long arrayBytes = layout.arraySize(profile.getLargeSize(), layout.isCompactStrings() ? 1 : 2);
+        assertTrue(arrayBytes > regionSize && arrayBytes <= regionSize * 5 / 4 + layout.getObjectAlignment());
+        if (layout.getG1RegionSize() > 0) {
+            assertTrue(layout.isHumongous(arrayBytes));
+            assertEquals(2, layout.humongousRegions(arrayBytes));
+        }
+    }
+
+    @Test
+    void testHumongousPayloadsAreNotClampedToTheMaxStringSize() {
+        EmployeeDataProperties properties = new EmployeeDataProperties();
+        properties.setMaxStringSize(1000);
+        EmployeeDataService service = new EmployeeDataService(properties);
+        MemorySimulationProperties.Scenario scenario = scenario("humongous", 2000);
+        scenario.getSizes().setHumongousRatio(0.5);
+        PayloadProfile profile = PayloadProfile.of(scenario, layout);
+
+        Set<Integer> sizes = new HashSet<>();
+        for (Employee employee : service.generateEmployees(20, profile, 42L, null)) {
+            sizes.add(employee.getConfigurableData().length());
+        }
+
+        // Region-sized payloads keep their size, the common ones are still clamped
+        assertEquals(Set.of(1000, profile.getLargeSize()), sizes);
+        assertTrue(profile.getLargeSize() > 1000);
+    }
+
+    @Test
+    void testInvalidProfilesAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PayloadProfile.of(scenario("pareto", 512), layout));
+
+        MemorySimulationProperties.Scenario uniform = scenario("uniform", 512);
+        uniform.getSizes().setMinSize(200);
+        uniform.getSizes().setMaxSize(100);
+        assertThrows(IllegalArgumentException.class, () -> PayloadProfile.of(uniform, layout));
+
+        MemorySimulationProperties.Scenario bimodal = scenario("bimodal", 512);
+        bimodal.getSizes().setLargeRatio(1.5);
+        assertThrows(IllegalArgumentException.class, () -> PayloadProfile.of(bimodal, layout));
+    }
+
+    @Test
+    void testStatsCountHumongousArraysAndRegions() {
+        PayloadSizeStats stats = new PayloadSizeStats(layout);
+        stats.record(1000);
+        stats.record(100_000);
+
+        PayloadSizeStats.Snapshot snapshot = stats.snapshot();
+        assertEquals(2, snapshot.getArrays());
+        assertEquals(101_000, snapshot.getBytes());
+        assertEquals(100_000, snapshot.getLargestBytes());
+        assertEquals(1, snapshot.getSizeHistogram().get("le1KiB"));
+        assertEquals(1, snapshot.getSizeHistogram().get("le256KiB"));
+
+        long regionSize = layout.getG1RegionSize();
+        if (regionSize > 0) {
+            stats.record(regionSize + 1);
+            snapshot = stats.snapshot();
+            assertEquals(1, snapshot.getHumongousArrays());
+            assertEquals(2, snapshot.getHumongousRegions());
+            assertEquals(regionSize - 1, snapshot.getHumongousWastedBytes());
+        } else {
+            assertEquals(0, snapshot.getHumongousArrays());
+        }
+
+        stats.reset();
+        assertEquals(0, stats.snapshot().getArrays());
+    }
+
+    private static MemorySimulationProperties.Scenario scenario(String type, int stringSize) {
+        MemorySimulationProperties.Scenario scenario = new MemorySimulationProperties.Scenario();
+        scenario.setCount(100);
+        scenario.setStringSize(stringSize);
+        scenario.getSizes().setType(type);
+        return scenario;
+    }
+}
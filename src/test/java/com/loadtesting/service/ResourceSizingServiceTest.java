@@ -0,0 +1,134 @@
+package com.loadtesting.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the resource sizing recommender.
+ */
+class ResourceSizingServiceTest {
+
+    private static final long MIB = 1024 * 1024;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JvmMemoryMonitor jvmMemoryMonitor = new JvmMemoryMonitor();
+    private ResourceSizingService resourceSizingService;
+
+    @BeforeEach
+    void setUp() {
+        resourceSizingService = new ResourceSizingService(meterRegistry, jvmMemoryMonitor);
+        // 10ms CPU, 1 MiB allocated and 50ms latency per request
+        for (int i = 0; i < 200; i++) {
+            Timer.builder("request.cpu").tag("endpoint", "/api/employees").register(meterRegistry)
+                    .record(Duration.ofMillis(10));
+            DistributionSummary.builder("request.allocated").tag("endpoint", "/api/employees").register(meterRegistry)
+                    .record(MIB);
+            Timer.builder("http.server.requests").tag("uri", "/api/employees").tag("status", "200")
+                    .register(meterRegistry).record(Duration.ofMillis(50));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jvmMemoryMonitor.shutdown();
+    }
+
+    @Test
+    void testCpuAndReplicasFollowRequestCost() {
+        ResourceSizingService.SizingRequest request = request(400);
+        request.setBaselineCpuCores(0);
+        request.setTargetUtilization(0.5);
+
+        ResourceSizingService.SizingRecommendation recommendation = resourceSizingService.recommend(request);
+
+        // 400 rps x 10ms = 4 cores; at most 0.5 of 1 core per pod gives 8 pods of 1 core each
+        assertEquals(8, recommendation.getReplicas());
+        assertEquals(1.0, recommendation.getPod().getCpuRequestCores(), 1e-6);
+        assertEquals(2.0, recommendation.getPod().getCpuLimitCores(), 1e-6);
+        assertEquals("1000m", recommendation.getPod().getRequests().get("cpu"));
+
+        ResourceSizingService.EndpointCost cost = recommendation.getEndpoints().get(0);
+        assertEquals(4.0, cost.getCpuCores(), 1e-6);
+        assertEquals(400.0 * MIB, cost.getAllocationBytesPerSecond(), 1);
+        assertEquals(50, cost.getMeanLatencyMs(), 1e-6);
+        assertFalse(recommendation.getExplanations().isEmpty());
+    }
+
+    @Test
+    void testPodCapacityDeterminesReplicas() {
+        ResourceSizingService.SizingRequest request = request(400);
+        request.setPodRpsCapacity(100);
+        request.setTargetUtilization(0.8);
+
+        assertEquals(5, resourceSizingService.recommend(request).getReplicas());
+
+        request.setTraffic(List.of(new ResourceSizingService.SizingRequest.EndpointTraffic("/api/employees", 10)));
+        assertEquals(2, resourceSizingService.recommend(request).getReplicas(), "minimum replicas apply");
+    }
+
+    @Test
+    void testMemoryAddsUpAndVpaExportIsCapped() {
+        ResourceSizingService.SizingRequest request = request(400);
+        request.setBaselineCpuCores(0);
+        request.setTargetUtilization(0.5);
+        request.setMaxAllowedCpuMillis(500);
+
+        ResourceSizingService.SizingRecommendation recommendation = resourceSizingService.recommend(request);
+        ResourceSizingService.MemoryBreakdown memory = recommendation.getMemory();
+
+        // Young generation holds 2s of the 50 MiB/s each of the 8 pods allocates
+        assertEquals(100 * MIB, memory.getYoungGenBytes(), MIB);
+        assertTrue(memory.getHeapBytes() >= memory.getOldGenBytes() + memory.getYoungGenBytes());
+        assertTrue(recommendation.getPod().getMemoryRequestBytes() >= memory.getHeapBytes() + memory.getNativeBytes());
+        assertEquals(recommendation.getPod().getMemoryRequestBytes(), recommendation.getPod().getMemoryLimitBytes());
+        assertTrue(memory.getMaxRamPercentage() > 0 && memory.getMaxRamPercentage() < 100);
+
+        Map<?, ?> container = containerRecommendation(recommendation.getVpa());
+        assertEquals("resource-sizing-service", container.get("containerName"));
+        assertEquals("500m", ((Map<?, ?>) container.get("target")).get("cpu"));
+        assertEquals("1000m", ((Map<?, ?>) container.get("uncappedTarget")).get("cpu"));
+    }
+
+    @Test
+    void testUnknownEndpointAndInvalidRequestsAreRejected() {
+        ResourceSizingService.SizingRequest unknown = new ResourceSizingService.SizingRequest();
+        unknown.setTraffic(List.of(new ResourceSizingService.SizingRequest.EndpointTraffic("/api/unknown", 10)));
+        assertThrows(IllegalStateException.class, () -> resourceSizingService.recommend(unknown));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> resourceSizingService.recommend(new ResourceSizingService.SizingRequest()));
+        ResourceSizingService.SizingRequest invalid = request(10);
+        invalid.setTargetUtilization(1.5);
+        assertThrows(IllegalArgumentException.class, () -> resourceSizingService.recommend(invalid));
+    }
+
+    @Test
+    void testKubernetesQuantities() {
+        assertEquals("250m", ResourceSizingService.cpuQuantity(0.25));
+        assertEquals("101m", ResourceSizingService.cpuQuantity(0.1001));
+        assertEquals("512Mi", ResourceSizingService.memoryQuantity(512 * MIB));
+        assertEquals("513Mi", ResourceSizingService.memoryQuantity(512 * MIB + 1));
+    }
+
+    private static ResourceSizingService.SizingRequest request(double rps) {
+        ResourceSizingService.SizingRequest request = new ResourceSizingService.SizingRequest();
+        request.setTraffic(List.of(new ResourceSizingService.SizingRequest.EndpointTraffic("/api/employees", rps)));
+        return request;
+    }
+
+    private static Map<?, ?> containerRecommendation(Map<String, Object> vpa) {
+        Map<?, ?> status = (Map<?, ?>) vpa.get("status");
+        Map<?, ?> recommendation = (Map<?, ?>) status.get("recommendation");
+        return (Map<?, ?>) ((List<?>) recommendation.get("containerRecommendations")).get(0);
+    }
+}
@@ -0,0 +1,135 @@
+package com.loadtesting.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the timing-wheel retention cache, driven by a manual clock.
+ */
+class RetentionCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> removals = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        clock.set(0);
+        removals.clear();
+    }
+
+    @Test
+    void testEntriesExpireAfterTimeToLive() {
+        RetentionCache<String> cache = newCache(10, 8, Long.MAX_VALUE, Integer.MAX_VALUE);
+        cache.put("a", "1234");
+
+        advance(cache, 9);
+        assertEquals(1, cache.size());
+
+        advance(cache, 1);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getCurrentWeight());
+        assertEquals(List.of("a:EXPIRED"), removals);
+    }
+
+    @Test
+    void testOverwrittenEntryIsNotRemovedByEarlierExpiry() {
+        RetentionCache<String> cache = newCache(10, 64, Long.MAX_VALUE, Integer.MAX_VALUE);
+        cache.put("a", "old");
+        advance(cache, 5);
+        cache.put("a", "newer");
+
+        advance(cache, 5); // expiry slot of the first put comes due
+        assertEquals(1, cache.size());
+        assertEquals(List.of("a:REPLACED"), removals);
+
+        advance(cache, 5);
+        assertEquals(0, cache.size());
+        assertEquals(List.of("a:REPLACED", "a:EXPIRED"), removals);
+        assertEquals(0, cache.getPendingExpiries());
+    }
+
+    @Test
+    void testTimeToLiveLongerThanOneWheelRevolution() {
+        RetentionCache<String> cache = newCache(100, 16, Long.MAX_VALUE, Integer.MAX_VALUE);
+        cache.put("a", "x");
+
+        advance(cache, 99);
+        assertEquals(1, cache.size());
+        advance(cache, 1);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testEldestEntriesAreEvictedToStayWithinBudgets() {
+        RetentionCache<String> cache = newCache(100, 64, 10, 3);
+        cache.put("a", "1234");
+        cache.put("b", "1234");
+        cache.put("c", "1234"); // 12 bytes > 10, evicts a
+
+        assertEquals(List.of("a:SIZE"), removals);
+        assertEquals(8, cache.getCurrentWeight());
+
+        cache.put("d", "1");
+        cache.put("e", "1"); // entry limit of 3, evicts b
+        assertEquals(List.of("a:SIZE", "b:SIZE"), removals);
+        assertEquals(3, cache.size());
+
+        assertThrows(IllegalArgumentException.class, () -> cache.put("f", "12345678901"));
+    }
+
+    @Test
+    void testClearRemovesEverything() {
+        RetentionCache<String> cache = newCache(10, 8, Long.MAX_VALUE, Integer.MAX_VALUE);
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        assertEquals(2, cache.clear());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getPendingExpiries());
+    }
+
+    @Test
+    void testNonPositiveTimeToLiveNeverExpires() {
+        RetentionCache<String> cache = newCache(0, 8, Long.MAX_VALUE, Integer.MAX_VALUE);
+        cache.put("a", "1");
+
+        advance(cache, 100);
+
+        assertFalse(cache.expires());
+        assertEquals(1, cache.size());
+        assertEquals(0, cache.getPendingExpiries());
+        assertTrue(removals.isEmpty());
+    }
+
+    @Test
+    void testNonPositiveTickIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RetentionCache<String>(10, 0, TimeUnit.SECONDS,
+                8, Long.MAX_VALUE, Integer.MAX_VALUE, String::length, (key, value, cause) -> { }, clock::get));
+    }
+
+    @Test
+    void testNonPositiveBudgetsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> newCache(10, 8, 0, Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> newCache(10, 8, Long.MAX_VALUE, 0));
+        assertThrows(IllegalArgumentException.class, () -> newCache(10, 8, -1, -1));
+    }
+
+    private RetentionCache<String> newCache(long ttlTicks, int wheelSize, long maxWeight, int maxEntries) {
+        return new RetentionCache<>(ttlTicks, 1, TimeUnit.SECONDS, wheelSize, maxWeight, maxEntries,
+                String::length, (key, value, cause) -> removals.add(key + ":" + cause), clock::get);
+    }
+
+    private void advance(RetentionCache<?> cache, long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            cache.sweep();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.loadtesting.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP server for the load driver tests. {@code /ok} answers 200 "ok" and {@code /missing}
+ * 404; slower endpoints are added per test class.
+ */
+final class StubServer {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    StubServer(int threads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/ok", exchange -> {
+            exchange.sendResponseHeaders(200, 2);
+            exchange.getResponseBody().write("ok".getBytes());
+            exchange.close();
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+    }
+
+    /**
+     * Answer 200 after {@code delayMillis}, any number of requests at once
+     */
+    StubServer delayed(String path, long delayMillis) {
+        server.createContext(path, exchange -> {
+            sleep(delayMillis);
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        return this;
+    }
+
+    /**
+     * Answer 200 after {@code delayMillis}, one request at a time: a capacity of 1000 / delayMillis
+     * requests/second
+     */
+    StubServer serial(String path, long delayMillis) {
+        Object lock = new Object();
+        server.createContext(path, exchange -> {
+            synchronized (lock) {
+                sleep(delayMillis);
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        return this;
+    }
+
+    StubServer start() {
+        server.start();
+        return this;
+    }
+
+    /**
+     * Environment pointing the load driver at this server
+     */
+    MockEnvironment environment() {
+        return new MockEnvironment().withProperty("local.server.port", Integer.toString(server.getAddress().getPort()));
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}